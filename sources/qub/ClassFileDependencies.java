@@ -0,0 +1,308 @@
+package qub;
+
+/**
+ * A collection of functions that find the classes that a compiled Java class file depends on by
+ * reading the class file's constant pool.
+ */
+public interface ClassFileDependencies
+{
+    int classFileMagic = 0xCAFEBABE;
+
+    int constantUtf8 = 1;
+    int constantInteger = 3;
+    int constantFloat = 4;
+    int constantLong = 5;
+    int constantDouble = 6;
+    int constantClass = 7;
+    int constantString = 8;
+    int constantFieldRef = 9;
+    int constantMethodRef = 10;
+    int constantInterfaceMethodRef = 11;
+    int constantNameAndType = 12;
+    int constantMethodHandle = 15;
+    int constantMethodType = 16;
+    int constantDynamic = 17;
+    int constantInvokeDynamic = 18;
+    int constantModule = 19;
+    int constantPackage = 20;
+
+    /**
+     * Get the full names of the classes that are referenced by the provided class file bytes. This
+     * includes classes that are only referenced from field and method descriptors and signatures.
+     * If the bytes are not a valid class file, then an empty Iterable will be returned.
+     * @param classFileBytes The bytes of a compiled Java class file.
+     * @return The full names (such as "qub.TestJSON") of the referenced classes.
+     */
+    static Iterable<String> getReferencedClassNames(byte[] classFileBytes)
+    {
+        PreCondition.assertNotNull(classFileBytes, "classFileBytes");
+
+        final List<String> result = List.create();
+        final Set<String> resultSet = Set.create();
+        try
+        {
+            final java.io.DataInputStream input = new java.io.DataInputStream(new java.io.ByteArrayInputStream(classFileBytes));
+            if (input.readInt() == ClassFileDependencies.classFileMagic)
+            {
+                input.readUnsignedShort(); // minor_version
+                input.readUnsignedShort(); // major_version
+
+                final List<Integer> classNameIndexes = List.create();
+                final String[] utf8Constants = ClassFileDependencies.readConstantPool(input, classNameIndexes);
+
+                for (final Integer classNameIndex : classNameIndexes)
+                {
+                    final String className = utf8Constants[classNameIndex];
+                    if (!Strings.isNullOrEmpty(className))
+                    {
+                        if (className.startsWith("["))
+                        {
+                            ClassFileDependencies.addDescriptorClassNames(className, result, resultSet);
+                        }
+                        else
+                        {
+                            ClassFileDependencies.addClassName(className, result, resultSet);
+                        }
+                    }
+                }
+
+                for (final String utf8Constant : utf8Constants)
+                {
+                    if (!Strings.isNullOrEmpty(utf8Constant) && ClassFileDependencies.isDescriptorOrSignature(utf8Constant))
+                    {
+                        ClassFileDependencies.addDescriptorClassNames(utf8Constant, result, resultSet);
+                    }
+                }
+            }
+        }
+        catch (java.io.IOException | IndexOutOfBoundsException e)
+        {
+            result.clear();
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the name of the java file that the provided class file bytes were compiled from, as it is
+     * recorded in the class file's SourceFile attribute.
+     * @param classFileBytes The bytes of a compiled Java class file.
+     * @return The name of the java file (such as "TestJSON.java"), or null if the bytes are not a
+     * valid class file or the class file doesn't have a SourceFile attribute.
+     */
+    static String getSourceFileName(byte[] classFileBytes)
+    {
+        PreCondition.assertNotNull(classFileBytes, "classFileBytes");
+
+        String result = null;
+        try
+        {
+            final java.io.DataInputStream input = new java.io.DataInputStream(new java.io.ByteArrayInputStream(classFileBytes));
+            if (input.readInt() == ClassFileDependencies.classFileMagic)
+            {
+                input.readUnsignedShort(); // minor_version
+                input.readUnsignedShort(); // major_version
+
+                final String[] utf8Constants = ClassFileDependencies.readConstantPool(input, List.create());
+
+                input.skipBytes(6); // access_flags, this_class, super_class
+                input.skipBytes(2 * input.readUnsignedShort()); // interfaces
+                for (int memberCollection = 0; memberCollection < 2; ++memberCollection) // fields, then methods
+                {
+                    final int memberCount = input.readUnsignedShort();
+                    for (int memberIndex = 0; memberIndex < memberCount; ++memberIndex)
+                    {
+                        input.skipBytes(6); // access_flags, name_index, descriptor_index
+                        ClassFileDependencies.skipAttributes(input);
+                    }
+                }
+
+                final int attributeCount = input.readUnsignedShort();
+                for (int attributeIndex = 0; attributeIndex < attributeCount && result == null; ++attributeIndex)
+                {
+                    final String attributeName = utf8Constants[input.readUnsignedShort()];
+                    final int attributeLength = input.readInt();
+                    if ("SourceFile".equals(attributeName))
+                    {
+                        result = utf8Constants[input.readUnsignedShort()];
+                    }
+                    else
+                    {
+                        input.skipBytes(attributeLength);
+                    }
+                }
+            }
+        }
+        catch (java.io.IOException | IndexOutOfBoundsException e)
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Skip over the attributes of a class file's field or method. The provided stream must be
+     * positioned at the attributes_count of the field or method.
+     * @param input The stream to skip the attributes of.
+     * @throws java.io.IOException If the attributes can't be read.
+     */
+    static void skipAttributes(java.io.DataInputStream input) throws java.io.IOException
+    {
+        PreCondition.assertNotNull(input, "input");
+
+        final int attributeCount = input.readUnsignedShort();
+        for (int attributeIndex = 0; attributeIndex < attributeCount; ++attributeIndex)
+        {
+            input.skipBytes(2); // attribute_name_index
+            input.skipBytes(input.readInt());
+        }
+    }
+
+    /**
+     * Read the constant pool of a class file. The provided stream must be positioned at the
+     * constant_pool_count of the class file, and it will be positioned after the constant pool when
+     * this function returns.
+     * @param input The stream to read the constant pool from.
+     * @param classNameIndexes The list that the constant pool indexes of class names will be added
+     *                         to.
+     * @return The UTF-8 constants of the constant pool, indexed by their constant pool index.
+     * @throws java.io.IOException If the constant pool can't be read.
+     */
+    static String[] readConstantPool(java.io.DataInputStream input, List<Integer> classNameIndexes) throws java.io.IOException
+    {
+        PreCondition.assertNotNull(input, "input");
+        PreCondition.assertNotNull(classNameIndexes, "classNameIndexes");
+
+        final int constantPoolCount = input.readUnsignedShort();
+        final String[] utf8Constants = new String[constantPoolCount];
+        for (int constantIndex = 1; constantIndex < constantPoolCount; ++constantIndex)
+        {
+            final int tag = input.readUnsignedByte();
+            switch (tag)
+            {
+                case ClassFileDependencies.constantUtf8:
+                    utf8Constants[constantIndex] = input.readUTF();
+                    break;
+
+                case ClassFileDependencies.constantClass:
+                    classNameIndexes.add(input.readUnsignedShort());
+                    break;
+
+                case ClassFileDependencies.constantString:
+                case ClassFileDependencies.constantMethodType:
+                case ClassFileDependencies.constantModule:
+                case ClassFileDependencies.constantPackage:
+                    input.skipBytes(2);
+                    break;
+
+                case ClassFileDependencies.constantMethodHandle:
+                    input.skipBytes(3);
+                    break;
+
+                case ClassFileDependencies.constantInteger:
+                case ClassFileDependencies.constantFloat:
+                case ClassFileDependencies.constantFieldRef:
+                case ClassFileDependencies.constantMethodRef:
+                case ClassFileDependencies.constantInterfaceMethodRef:
+                case ClassFileDependencies.constantNameAndType:
+                case ClassFileDependencies.constantDynamic:
+                case ClassFileDependencies.constantInvokeDynamic:
+                    input.skipBytes(4);
+                    break;
+
+                case ClassFileDependencies.constantLong:
+                case ClassFileDependencies.constantDouble:
+                    input.skipBytes(8);
+                    ++constantIndex; // 8-byte constants take up two constant pool entries.
+                    break;
+
+                default:
+                    throw new java.io.IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+        return utf8Constants;
+    }
+
+    /**
+     * Get whether or not the provided constant pool string could be a field descriptor, a method
+     * descriptor, or a generic signature.
+     * @param text The constant pool string.
+     * @return Whether or not the provided constant pool string could be a descriptor or signature.
+     */
+    static boolean isDescriptorOrSignature(String text)
+    {
+        PreCondition.assertNotNullAndNotEmpty(text, "text");
+
+        final char firstCharacter = text.charAt(0);
+        return (firstCharacter == '(' || firstCharacter == 'L' || firstCharacter == '[' || firstCharacter == '<') &&
+            text.indexOf(';') > 0;
+    }
+
+    /**
+     * Add the class names that are referenced by "L<internal-name>;" sections of the provided
+     * descriptor or signature.
+     * @param descriptor The descriptor or signature.
+     * @param classNames The list to add the class names to.
+     * @param classNameSet The set of the class names that are already in the list.
+     */
+    static void addDescriptorClassNames(String descriptor, List<String> classNames, Set<String> classNameSet)
+    {
+        PreCondition.assertNotNull(descriptor, "descriptor");
+        PreCondition.assertNotNull(classNames, "classNames");
+        PreCondition.assertNotNull(classNameSet, "classNameSet");
+
+        int index = 0;
+        final int length = descriptor.length();
+        while (index < length)
+        {
+            final char character = descriptor.charAt(index);
+            if (character == 'L')
+            {
+                final int nameStartIndex = index + 1;
+                int nameEndIndex = nameStartIndex;
+                while (nameEndIndex < length && descriptor.charAt(nameEndIndex) != ';' && descriptor.charAt(nameEndIndex) != '<')
+                {
+                    ++nameEndIndex;
+                }
+                if (nameEndIndex < length && nameEndIndex > nameStartIndex)
+                {
+                    ClassFileDependencies.addClassName(descriptor.substring(nameStartIndex, nameEndIndex), classNames, classNameSet);
+                }
+                index = nameEndIndex + 1;
+            }
+            else if (character == 'T')
+            {
+                // Type variable references ("TT;") don't refer to a class.
+                final int semicolonIndex = descriptor.indexOf(';', index);
+                index = semicolonIndex < 0 ? length : semicolonIndex + 1;
+            }
+            else
+            {
+                ++index;
+            }
+        }
+    }
+
+    /**
+     * Add the full class name of the provided internal class name (such as "qub/TestJSON") to the
+     * provided list if it isn't already there.
+     * @param internalClassName The internal class name.
+     * @param classNames The list to add the full class name to.
+     * @param classNameSet The set of the class names that are already in the list.
+     */
+    static void addClassName(String internalClassName, List<String> classNames, Set<String> classNameSet)
+    {
+        PreCondition.assertNotNullAndNotEmpty(internalClassName, "internalClassName");
+        PreCondition.assertNotNull(classNames, "classNames");
+        PreCondition.assertNotNull(classNameSet, "classNameSet");
+
+        final String fullClassName = internalClassName.replace('/', '.');
+        if (!classNameSet.contains(fullClassName))
+        {
+            classNameSet.add(fullClassName);
+            classNames.add(fullClassName);
+        }
+    }
+}
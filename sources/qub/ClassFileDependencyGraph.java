@@ -0,0 +1,214 @@
+package qub;
+
+/**
+ * The dependencies between the class files in an output folder. Each class file is read at most
+ * once, whether a class has a class file in the output folder is checked at most once, and the
+ * transitive dependencies of a class are found at most once, so one ClassFileDependencyGraph should
+ * be shared by every test class in a test run. This class is safe to use from multiple threads.
+ */
+public class ClassFileDependencyGraph
+{
+    private final Folder outputFolder;
+    private final MutableMap<String,Iterable<String>> referencedClassNames;
+    private final MutableMap<String,Boolean> hasClassFiles;
+    private final MutableMap<String,Iterable<String>> dependencyClassNames;
+
+    private ClassFileDependencyGraph(Folder outputFolder)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        this.outputFolder = outputFolder;
+        this.referencedClassNames = Map.create();
+        this.hasClassFiles = Map.create();
+        this.dependencyClassNames = Map.create();
+    }
+
+    /**
+     * Create a new ClassFileDependencyGraph for the class files in the provided output folder.
+     * @param outputFolder The folder that contains the compiled class files.
+     * @return The new ClassFileDependencyGraph.
+     */
+    public static ClassFileDependencyGraph create(Folder outputFolder)
+    {
+        return new ClassFileDependencyGraph(outputFolder);
+    }
+
+    /**
+     * Get the folder that contains the compiled class files.
+     * @return The folder that contains the compiled class files.
+     */
+    public Folder getOutputFolder()
+    {
+        return this.outputFolder;
+    }
+
+    /**
+     * Get whether the class with the provided full name has a class file in the output folder.
+     * @param fullClassName The full name of the class.
+     * @return Whether the class has a class file in the output folder.
+     */
+    public boolean hasClassFile(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        Boolean result;
+        synchronized (this.hasClassFiles)
+        {
+            result = this.hasClassFiles.get(fullClassName)
+                .catchError(NotFoundException.class)
+                .await();
+        }
+
+        if (result == null)
+        {
+            result = QubTestRun.getClassFile(this.outputFolder, fullClassName).exists().await();
+            synchronized (this.hasClassFiles)
+            {
+                this.hasClassFiles.set(fullClassName, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the names of the classes that the provided class references directly.
+     * @param fullClassName The full name of the class.
+     * @return The names of the classes that the provided class references directly, or an empty
+     * Iterable if the class doesn't have a class file in the output folder.
+     */
+    public Iterable<String> getReferencedClassNames(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        Iterable<String> result;
+        synchronized (this.referencedClassNames)
+        {
+            result = this.referencedClassNames.get(fullClassName)
+                .catchError(NotFoundException.class)
+                .await();
+        }
+
+        if (result == null)
+        {
+            final byte[] classFileBytes = !this.hasClassFile(fullClassName)
+                ? null
+                : QubTestRun.getClassFile(this.outputFolder, fullClassName).getContents()
+                    .catchError(FileNotFoundException.class)
+                    .await();
+            result = classFileBytes == null
+                ? Iterable.create()
+                : ClassFileDependencies.getReferencedClassNames(classFileBytes);
+
+            synchronized (this.referencedClassNames)
+            {
+                this.referencedClassNames.set(fullClassName, result);
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the names of the classes in the output folder that the provided class depends on, either
+     * directly or transitively. The provided class is not included.
+     * @param fullClassName The full name of the class to get the dependencies of.
+     * @return The names of the classes in the output folder that the provided class depends on.
+     */
+    public Iterable<String> getDependencyClassNames(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        Iterable<String> result;
+        synchronized (this.dependencyClassNames)
+        {
+            result = this.dependencyClassNames.get(fullClassName)
+                .catchError(NotFoundException.class)
+                .await();
+        }
+
+        if (result == null)
+        {
+            final List<String> dependencyClassNames = List.create();
+            final Set<String> visitedClassNames = Set.create();
+            visitedClassNames.add(fullClassName);
+            final List<String> classNamesToVisit = List.create(fullClassName);
+            while (classNamesToVisit.any())
+            {
+                final String classNameToVisit = classNamesToVisit.removeLast();
+                for (final String referencedClassName : this.getReferencedClassNames(classNameToVisit))
+                {
+                    if (!visitedClassNames.contains(referencedClassName))
+                    {
+                        visitedClassNames.add(referencedClassName);
+                        if (this.hasClassFile(referencedClassName))
+                        {
+                            dependencyClassNames.add(referencedClassName);
+                            classNamesToVisit.add(referencedClassName);
+                        }
+                    }
+                }
+            }
+            result = dependencyClassNames;
+
+            synchronized (this.dependencyClassNames)
+            {
+                this.dependencyClassNames.set(fullClassName, result);
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the class files in the output folder that the provided class depends on, either directly
+     * or transitively. The class file of the provided class is not included.
+     * @param fullClassName The full name of the class to get the dependencies of.
+     * @return The class files in the output folder that the provided class depends on.
+     */
+    public Iterable<File> getDependencyClassFiles(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        return this.getDependencyClassNames(fullClassName)
+            .map((String dependencyClassName) -> QubTestRun.getClassFile(this.outputFolder, dependencyClassName))
+            .toList();
+    }
+
+    /**
+     * Get the names of the classes that are referenced by the provided class or by the classes in
+     * the output folder that it depends on, but that aren't in the output folder themselves. These
+     * are the classes that come from the JDK or from dependency jars.
+     * @param fullClassName The full name of the class to get the external references of.
+     * @return The full names of the referenced classes that aren't in the output folder.
+     */
+    public Iterable<String> getExternalReferencedClassNames(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        final List<String> internalClassNames = List.create(fullClassName);
+        internalClassNames.addAll(this.getDependencyClassNames(fullClassName));
+
+        final List<String> result = List.create();
+        final Set<String> resultSet = Set.create();
+        for (final String internalClassName : internalClassNames)
+        {
+            for (final String referencedClassName : this.getReferencedClassNames(internalClassName))
+            {
+                if (!resultSet.contains(referencedClassName) && !this.hasClassFile(referencedClassName))
+                {
+                    resultSet.add(referencedClassName);
+                    result.add(referencedClassName);
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+}
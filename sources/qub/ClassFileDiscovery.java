@@ -0,0 +1,332 @@
+package qub;
+
+/**
+ * The class files that were found in an output folder, along with the last modified time of each
+ * class file. The output folder is walked once, one folder level at a time, with the folders of
+ * each level listed in parallel. If an index from a previous discovery is provided, then folders
+ * whose last modified time hasn't changed since then aren't listed again.
+ */
+public class ClassFileDiscovery
+{
+    /**
+     * How old a folder's last modified time must be before the folder's listing is reused.
+     */
+    private static final long minimumIndexedFolderAgeMilliseconds = 2000;
+
+    private final Folder outputFolder;
+    private final List<File> classFiles;
+    private final MutableMap<String,DateTime> lastModifiedTimes;
+    private final MutableMap<String,ClassFileDiscoveryIndexEntry> previousIndexEntries;
+    private final List<ClassFileDiscoveryIndexEntry> indexEntries;
+    private volatile boolean indexChanged;
+
+    private ClassFileDiscovery(Folder outputFolder)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        this.outputFolder = outputFolder;
+        this.classFiles = List.create();
+        this.lastModifiedTimes = Map.create();
+        this.previousIndexEntries = Map.create();
+        this.indexEntries = List.create();
+    }
+
+    /**
+     * Find the class files in the provided output folder.
+     * @param outputFolder The folder to find class files in.
+     * @param parallelAsyncRunner The AsyncRunner that folders will be listed on in parallel.
+     * @param parallelism The maximum number of folders that will be listed at the same time.
+     * @return The class files that were found.
+     */
+    public static ClassFileDiscovery create(Folder outputFolder, AsyncRunner parallelAsyncRunner, int parallelism)
+    {
+        return ClassFileDiscovery.create(outputFolder, parallelAsyncRunner, parallelism, null);
+    }
+
+    /**
+     * Find the class files in the provided output folder. The folder listings are read from and
+     * written to the provided index file.
+     * @param outputFolder The folder to find class files in.
+     * @param parallelAsyncRunner The AsyncRunner that folders will be listed on in parallel.
+     * @param parallelism The maximum number of folders that will be listed at the same time.
+     * @param indexFile The file that stores the folder listings between runs, or null if the
+     *                  folder listings shouldn't be stored.
+     * @return The class files that were found.
+     */
+    public static ClassFileDiscovery create(Folder outputFolder, AsyncRunner parallelAsyncRunner, int parallelism, File indexFile)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(parallelAsyncRunner, "parallelAsyncRunner");
+        PreCondition.assertGreaterThanOrEqualTo(parallelism, 1, "parallelism");
+
+        final ClassFileDiscovery result = new ClassFileDiscovery(outputFolder);
+        if (indexFile != null)
+        {
+            final JSONObject previousIndex = JSON.parseObject(indexFile)
+                .catchError()
+                .await();
+            if (previousIndex != null)
+            {
+                for (final JSONProperty property : previousIndex.getProperties())
+                {
+                    final ClassFileDiscoveryIndexEntry previousIndexEntry = ClassFileDiscoveryIndexEntry.parse(property).await();
+                    result.previousIndexEntries.set(previousIndexEntry.getFolderPath(), previousIndexEntry);
+                }
+            }
+        }
+
+        List<Folder> foldersToList = List.create(outputFolder);
+        while (foldersToList.any())
+        {
+            // Each folder's entries go into their own lists so that the class files and the
+            // subfolders are in the same order no matter which folder listing finishes first.
+            final int folderCount = foldersToList.getCount();
+            final List<List<File>> levelClassFiles = List.create();
+            final List<List<Folder>> levelSubfolders = List.create();
+            final List<Integer> folderIndexesToList = List.create();
+            for (int i = 0; i < folderCount; ++i)
+            {
+                levelClassFiles.add(List.create());
+                levelSubfolders.add(List.create());
+                folderIndexesToList.add(i);
+            }
+
+            final List<Folder> levelFolders = foldersToList;
+            final Action0 listFolders = () ->
+            {
+                while (true)
+                {
+                    final int folderIndex;
+                    synchronized (folderIndexesToList)
+                    {
+                        if (!folderIndexesToList.any())
+                        {
+                            break;
+                        }
+                        folderIndex = folderIndexesToList.removeFirst();
+                    }
+                    result.listFolder(levelFolders.get(folderIndex), levelClassFiles.get(folderIndex), levelSubfolders.get(folderIndex));
+                }
+            };
+
+            final int listerCount = Math.min(parallelism, folderCount);
+            if (listerCount == 1)
+            {
+                listFolders.run();
+            }
+            else
+            {
+                final List<Result<Void>> listers = List.create();
+                for (int i = 0; i < listerCount; ++i)
+                {
+                    listers.add(parallelAsyncRunner.schedule(listFolders));
+                }
+                for (final Result<Void> lister : listers)
+                {
+                    lister.await();
+                }
+            }
+
+            final List<Folder> nextFoldersToList = List.create();
+            for (int i = 0; i < folderCount; ++i)
+            {
+                for (final File classFile : levelClassFiles.get(i))
+                {
+                    result.classFiles.add(classFile);
+                }
+                for (final Folder subfolder : levelSubfolders.get(i))
+                {
+                    nextFoldersToList.add(subfolder);
+                }
+            }
+            foldersToList = nextFoldersToList;
+        }
+
+        if (indexFile != null && (result.indexChanged || result.indexEntries.getCount() != result.previousIndexEntries.getCount()))
+        {
+            indexFile.setContentsAsString(JSONObject.create()
+                .setAll(result.indexEntries.map(ClassFileDiscoveryIndexEntry::toJsonProperty))
+                .toString())
+                .catchError()
+                .await();
+        }
+
+        return result;
+    }
+
+    /**
+     * List the entries of the provided folder with one directory read, or take them from the
+     * previous index if the folder hasn't changed since it was indexed. The last modified time of
+     * each class file is always read, because a class file that is rewritten in place doesn't
+     * change its folder's last modified time.
+     * @param folder The folder to list.
+     * @param classFiles The list that the folder's class files will be added to.
+     * @param subfolders The list that the folder's subfolders will be added to.
+     */
+    private void listFolder(Folder folder, List<File> classFiles, List<Folder> subfolders)
+    {
+        PreCondition.assertNotNull(folder, "folder");
+        PreCondition.assertNotNull(classFiles, "classFiles");
+        PreCondition.assertNotNull(subfolders, "subfolders");
+
+        final String folderPath = folder.toString();
+        final Long folderLastModified = ClassFileDiscovery.getFolderLastModifiedMilliseconds(folder);
+        final ClassFileDiscoveryIndexEntry previousIndexEntry = this.previousIndexEntries.get(folderPath)
+            .catchError(NotFoundException.class)
+            .await();
+
+        final ClassFileDiscoveryIndexEntry indexEntry;
+        if (folderLastModified != null && previousIndexEntry != null && folderLastModified.equals(previousIndexEntry.getLastModifiedMilliseconds()))
+        {
+            for (final String classFileName : previousIndexEntry.getClassFileNames())
+            {
+                this.addClassFile(folder.getFile(classFileName).await(), classFiles);
+            }
+            for (final String folderName : previousIndexEntry.getFolderNames())
+            {
+                subfolders.add(folder.getFolder(folderName).await());
+            }
+            indexEntry = previousIndexEntry;
+        }
+        else
+        {
+            final List<String> classFileNames = List.create();
+            final List<String> folderNames = List.create();
+            final Iterable<FileSystemEntry> entries = folder.iterateEntries()
+                .catchError(FolderNotFoundException.class)
+                .toList();
+            for (final FileSystemEntry entry : entries)
+            {
+                if (entry instanceof Folder)
+                {
+                    subfolders.add((Folder)entry);
+                    folderNames.add(entry.getName());
+                }
+                else if (entry instanceof File)
+                {
+                    final File file = (File)entry;
+                    if (Comparer.equal(file.getFileExtension(), ".class"))
+                    {
+                        this.addClassFile(file, classFiles);
+                        classFileNames.add(file.getName());
+                    }
+                }
+            }
+
+            indexEntry = ClassFileDiscoveryIndexEntry.create(folderPath)
+                .setClassFileNames(classFileNames)
+                .setFolderNames(folderNames);
+            // A folder that changed very recently could change again within the same timestamp,
+            // so its listing is only trusted once its timestamp is old enough.
+            if (folderLastModified != null && System.currentTimeMillis() - folderLastModified > ClassFileDiscovery.minimumIndexedFolderAgeMilliseconds)
+            {
+                indexEntry.setLastModifiedMilliseconds(folderLastModified);
+            }
+            this.indexChanged = true;
+        }
+
+        synchronized (this.indexEntries)
+        {
+            this.indexEntries.add(indexEntry);
+        }
+    }
+
+    /**
+     * Read the last modified time of the provided class file and add the class file to the
+     * provided list. If the class file doesn't exist, then it isn't added.
+     * @param file The class file.
+     * @param classFiles The list to add the class file to.
+     */
+    private void addClassFile(File file, List<File> classFiles)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(classFiles, "classFiles");
+
+        final DateTime lastModified = file.getLastModified()
+            .catchError(FileNotFoundException.class)
+            .await();
+        if (lastModified != null)
+        {
+            classFiles.add(file);
+            synchronized (this.lastModifiedTimes)
+            {
+                this.lastModifiedTimes.set(file.toString(), lastModified);
+            }
+        }
+    }
+
+    /**
+     * Get the last modified time of the provided folder in milliseconds since the epoch, or null if
+     * it can't be read. Folder timestamps can only be read from folders on the disk.
+     * @param folder The folder.
+     * @return The last modified time of the provided folder.
+     */
+    static Long getFolderLastModifiedMilliseconds(Folder folder)
+    {
+        PreCondition.assertNotNull(folder, "folder");
+
+        Long result = null;
+        if (folder.getFileSystem() instanceof JavaFileSystem)
+        {
+            try
+            {
+                result = java.nio.file.Files.getLastModifiedTime(java.nio.file.Paths.get(folder.toString())).toMillis();
+            }
+            catch (java.io.IOException | java.nio.file.InvalidPathException e)
+            {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the folder that class files were found in.
+     * @return The folder that class files were found in.
+     */
+    public Folder getOutputFolder()
+    {
+        return this.outputFolder;
+    }
+
+    /**
+     * Get all of the class files that were found, including the class files of nested classes.
+     * @return All of the class files that were found.
+     */
+    public Iterable<File> getClassFiles()
+    {
+        return this.classFiles;
+    }
+
+    /**
+     * Get the full names of the top-level classes that were found.
+     * @return The full names of the top-level classes that were found.
+     */
+    public Iterable<String> getFullClassNames()
+    {
+        final List<String> result = List.create();
+        for (final File classFile : this.classFiles)
+        {
+            if (!classFile.getName().contains("$"))
+            {
+                result.add(QubTestRun.getFullClassName(this.outputFolder, classFile));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the last modified time that was read for the provided class file when it was found, or
+     * null if the class file wasn't found.
+     * @param classFile The class file.
+     * @return The last modified time of the provided class file.
+     */
+    public DateTime getLastModified(File classFile)
+    {
+        PreCondition.assertNotNull(classFile, "classFile");
+
+        return this.lastModifiedTimes.get(classFile.toString())
+            .catchError(NotFoundException.class)
+            .await();
+    }
+}
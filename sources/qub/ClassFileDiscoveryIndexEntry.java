@@ -0,0 +1,148 @@
+package qub;
+
+/**
+ * The listing of one folder in a class file discovery index, along with the folder's last modified
+ * time when it was listed.
+ */
+public class ClassFileDiscoveryIndexEntry
+{
+    private static final String lastModifiedPropertyName = "lastModifiedMilliseconds";
+    private static final String classFilesPropertyName = "classFiles";
+    private static final String foldersPropertyName = "folders";
+
+    private final JSONProperty jsonProperty;
+
+    private ClassFileDiscoveryIndexEntry(JSONProperty jsonProperty)
+    {
+        PreCondition.assertNotNull(jsonProperty, "jsonProperty");
+
+        this.jsonProperty = jsonProperty;
+    }
+
+    public static ClassFileDiscoveryIndexEntry create(String folderPath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(folderPath, "folderPath");
+
+        return new ClassFileDiscoveryIndexEntry(JSONProperty.create(folderPath, JSONObject.create()));
+    }
+
+    public static Result<ClassFileDiscoveryIndexEntry> parse(JSONProperty property)
+    {
+        PreCondition.assertNotNull(property, "property");
+
+        return Result.create(() ->
+        {
+            return new ClassFileDiscoveryIndexEntry(property);
+        });
+    }
+
+    private JSONObject getPropertyValue()
+    {
+        return this.jsonProperty.getObjectValue().await();
+    }
+
+    /**
+     * Get the path of the listed folder.
+     * @return The path of the listed folder.
+     */
+    public String getFolderPath()
+    {
+        return this.jsonProperty.getName();
+    }
+
+    /**
+     * Set the last modified time of the listed folder in milliseconds since the epoch.
+     * @param lastModifiedMilliseconds The last modified time of the listed folder.
+     * @return This object for method chaining.
+     */
+    public ClassFileDiscoveryIndexEntry setLastModifiedMilliseconds(long lastModifiedMilliseconds)
+    {
+        this.getPropertyValue().setNumber(ClassFileDiscoveryIndexEntry.lastModifiedPropertyName, lastModifiedMilliseconds);
+
+        return this;
+    }
+
+    /**
+     * Get the last modified time of the listed folder in milliseconds since the epoch, or null if
+     * it wasn't recorded.
+     * @return The last modified time of the listed folder.
+     */
+    public Long getLastModifiedMilliseconds()
+    {
+        return this.getPropertyValue().getNumber(ClassFileDiscoveryIndexEntry.lastModifiedPropertyName)
+            .then((Double lastModifiedMilliseconds) -> lastModifiedMilliseconds.longValue())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the names of the class files in the listed folder.
+     * @param classFileNames The names of the class files in the listed folder.
+     * @return This object for method chaining.
+     */
+    public ClassFileDiscoveryIndexEntry setClassFileNames(Iterable<String> classFileNames)
+    {
+        PreCondition.assertNotNull(classFileNames, "classFileNames");
+
+        this.getPropertyValue().set(ClassFileDiscoveryIndexEntry.classFilesPropertyName, JSONArray.create(classFileNames.map(JSONString::get)));
+
+        return this;
+    }
+
+    /**
+     * Get the names of the class files in the listed folder.
+     * @return The names of the class files in the listed folder.
+     */
+    public Iterable<String> getClassFileNames()
+    {
+        return this.getStrings(ClassFileDiscoveryIndexEntry.classFilesPropertyName);
+    }
+
+    /**
+     * Set the names of the subfolders of the listed folder.
+     * @param folderNames The names of the subfolders of the listed folder.
+     * @return This object for method chaining.
+     */
+    public ClassFileDiscoveryIndexEntry setFolderNames(Iterable<String> folderNames)
+    {
+        PreCondition.assertNotNull(folderNames, "folderNames");
+
+        this.getPropertyValue().set(ClassFileDiscoveryIndexEntry.foldersPropertyName, JSONArray.create(folderNames.map(JSONString::get)));
+
+        return this;
+    }
+
+    /**
+     * Get the names of the subfolders of the listed folder.
+     * @return The names of the subfolders of the listed folder.
+     */
+    public Iterable<String> getFolderNames()
+    {
+        return this.getStrings(ClassFileDiscoveryIndexEntry.foldersPropertyName);
+    }
+
+    private Iterable<String> getStrings(String propertyName)
+    {
+        return this.getPropertyValue().getArray(propertyName)
+            .then((JSONArray jsonArray) ->
+            {
+                return jsonArray
+                    .instanceOf(JSONString.class)
+                    .map(JSONString::getValue)
+                    .toList();
+            })
+            .catchError(() -> Iterable.create())
+            .await();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.toJsonProperty().toString();
+    }
+
+    public JSONProperty toJsonProperty()
+    {
+        return this.jsonProperty;
+    }
+}
@@ -0,0 +1,116 @@
+package qub;
+
+/**
+ * A collection of functions that compute content hashes of compiled class files so that a class
+ * file whose timestamp changed but whose bytes didn't can be recognized as unchanged.
+ */
+public interface ClassFileHashes
+{
+    String hashAlgorithm = "SHA-256";
+
+    /**
+     * Get the content hash of the provided bytes as a lowercase hexadecimal string.
+     * @param bytes The bytes to hash.
+     * @return The content hash of the provided bytes.
+     */
+    static String getContentHash(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        final java.security.MessageDigest digest;
+        try
+        {
+            digest = java.security.MessageDigest.getInstance(ClassFileHashes.hashAlgorithm);
+        }
+        catch (java.security.NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException(e);
+        }
+
+        final byte[] hashBytes = digest.digest(bytes);
+        final StringBuilder builder = new StringBuilder(hashBytes.length * 2);
+        for (final byte hashByte : hashBytes)
+        {
+            builder.append(Character.forDigit((hashByte >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(hashByte & 0xF, 16));
+        }
+        final String result = builder.toString();
+
+        PostCondition.assertNotNullAndNotEmpty(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the content hash of the provided file. Each file is only read and hashed once per cache.
+     * @param file The file to hash.
+     * @param contentHashCache A cache from file paths to content hashes. This can be shared between
+     *                         calls and threads.
+     * @return The content hash of the provided file.
+     */
+    static Result<String> getContentHash(File file, MutableMap<String,String> contentHashCache)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+
+        return Result.create(() ->
+        {
+            final String filePath = file.toString();
+            String result;
+            synchronized (contentHashCache)
+            {
+                result = contentHashCache.get(filePath)
+                    .catchError(NotFoundException.class)
+                    .await();
+            }
+
+            if (result == null)
+            {
+                result = ClassFileHashes.getContentHash(file.getContents().await());
+                synchronized (contentHashCache)
+                {
+                    contentHashCache.set(filePath, result);
+                }
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Get whether or not the provided file is unchanged since it was recorded with the provided
+     * timestamp and content hash. The timestamp is checked first so that files that haven't been
+     * touched are never read. If the timestamp is different, then the file is unchanged if its
+     * content hash matches the recorded content hash.
+     * @param file The file to check.
+     * @param currentLastModified The current timestamp of the file.
+     * @param previousLastModified The recorded timestamp of the file.
+     * @param previousContentHash The recorded content hash of the file.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @return Whether or not the provided file is unchanged.
+     */
+    static boolean isUnchanged(File file, DateTime currentLastModified, DateTime previousLastModified, String previousContentHash, MutableMap<String,String> contentHashCache)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(currentLastModified, "currentLastModified");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+
+        boolean result;
+        if (currentLastModified.equals(previousLastModified))
+        {
+            result = true;
+        }
+        else if (Strings.isNullOrEmpty(previousContentHash))
+        {
+            result = false;
+        }
+        else
+        {
+            final String currentContentHash = ClassFileHashes.getContentHash(file, contentHashCache)
+                .catchError()
+                .await();
+            result = previousContentHash.equals(currentContentHash);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,287 @@
+package qub;
+
+/**
+ * A collection of functions that fingerprint the jar files on the test runner classpath and find
+ * which of them a test class depends on, so that upgrading a dependency only reruns the test
+ * classes that use it.
+ */
+public interface ClassPathDependencies
+{
+    /**
+     * Split the provided classpath string into its entries.
+     * @param classPath The classpath string.
+     * @return The entries of the provided classpath string.
+     */
+    static Iterable<String> split(String classPath)
+    {
+        final List<String> result = List.create();
+        if (!Strings.isNullOrEmpty(classPath))
+        {
+            for (final String classPathEntry : classPath.split(";"))
+            {
+                if (!Strings.isNullOrEmpty(classPathEntry))
+                {
+                    result.add(classPathEntry);
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the jar files from the provided classpath entries. Folder entries (such as the folder
+     * that contains the classes under test) are not fingerprinted.
+     * @param fileSystem The file system that the classpath entries are on.
+     * @param classPaths The classpath entries.
+     * @return The jar files from the provided classpath entries.
+     */
+    static Iterable<File> getJarFiles(FileSystem fileSystem, Iterable<String> classPaths)
+    {
+        PreCondition.assertNotNull(fileSystem, "fileSystem");
+        PreCondition.assertNotNull(classPaths, "classPaths");
+
+        final List<File> result = List.create();
+        for (final String classPath : classPaths)
+        {
+            final Path classPathPath = Path.parse(classPath);
+            if (classPathPath.isRooted() && Comparer.equal(".jar", classPathPath.getFileExtension()) && fileSystem.fileExists(classPathPath).await())
+            {
+                result.add(fileSystem.getFile(classPathPath).await());
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Create the fingerprints of the provided jar files. A jar file is only rehashed if its
+     * timestamp is different from its previous fingerprint.
+     * @param jarFiles The jar files to fingerprint.
+     * @param previousClassPathEntries The fingerprints from the previous test run.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @return The fingerprints of the provided jar files.
+     */
+    static Iterable<TestJSONClassPathEntry> getClassPathEntries(Iterable<File> jarFiles, MutableMap<String,TestJSONClassPathEntry> previousClassPathEntries, MutableMap<String,String> contentHashCache)
+    {
+        PreCondition.assertNotNull(jarFiles, "jarFiles");
+        PreCondition.assertNotNull(previousClassPathEntries, "previousClassPathEntries");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+
+        final List<TestJSONClassPathEntry> result = List.create();
+        for (final File jarFile : jarFiles)
+        {
+            final DateTime lastModified = jarFile.getLastModified().await();
+            final TestJSONClassPathEntry previousClassPathEntry = previousClassPathEntries.get(jarFile.toString())
+                .catchError(NotFoundException.class)
+                .await();
+            final String contentHash = previousClassPathEntry != null && lastModified.equals(previousClassPathEntry.getLastModified())
+                ? previousClassPathEntry.getContentHash()
+                : ClassFileHashes.getContentHash(jarFile, contentHashCache).await();
+            final TestJSONClassPathEntry classPathEntry = TestJSONClassPathEntry.create(jarFile.getPath())
+                .setLastModified(lastModified);
+            if (!Strings.isNullOrEmpty(contentHash))
+            {
+                classPathEntry.setContentHash(contentHash);
+            }
+            result.add(classPathEntry);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the paths of the classpath files that have changed since the previous test run. This
+     * includes classpath files that were added or removed.
+     * @param jarFiles The jar files that are on the current classpath.
+     * @param previousClassPathEntries The fingerprints from the previous test run.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @return The paths of the classpath files that have changed.
+     */
+    static Iterable<String> getChangedClassPathEntries(Iterable<File> jarFiles, MutableMap<String,TestJSONClassPathEntry> previousClassPathEntries, MutableMap<String,String> contentHashCache)
+    {
+        PreCondition.assertNotNull(jarFiles, "jarFiles");
+        PreCondition.assertNotNull(previousClassPathEntries, "previousClassPathEntries");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+
+        final List<String> result = List.create();
+        final List<String> currentJarFilePaths = List.create();
+        for (final File jarFile : jarFiles)
+        {
+            final String jarFilePath = jarFile.toString();
+            currentJarFilePaths.add(jarFilePath);
+
+            final TestJSONClassPathEntry previousClassPathEntry = previousClassPathEntries.get(jarFilePath)
+                .catchError(NotFoundException.class)
+                .await();
+            if (previousClassPathEntry == null ||
+                !ClassFileHashes.isUnchanged(jarFile, jarFile.getLastModified().await(), previousClassPathEntry.getLastModified(), previousClassPathEntry.getContentHash(), contentHashCache))
+            {
+                result.add(jarFilePath);
+            }
+        }
+        for (final String previousJarFilePath : previousClassPathEntries.getKeys())
+        {
+            if (!currentJarFilePaths.contains(previousJarFilePath))
+            {
+                result.add(previousJarFilePath);
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the paths of the jar files that contain the provided classes.
+     * @param fullClassNames The full names of the classes.
+     * @param jarFiles The jar files on the classpath, in classpath order.
+     * @param jarClassNamesCache A cache from jar file paths to the full names of the classes in the
+     *                           jar file. This can be shared between calls and threads.
+     * @return The paths of the jar files that contain the provided classes.
+     */
+    static Iterable<String> getClassPathDependencies(Iterable<String> fullClassNames, Iterable<File> jarFiles, MutableMap<String,Set<String>> jarClassNamesCache)
+    {
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+        PreCondition.assertNotNull(jarFiles, "jarFiles");
+        PreCondition.assertNotNull(jarClassNamesCache, "jarClassNamesCache");
+
+        final List<String> result = List.create();
+        for (final String fullClassName : fullClassNames)
+        {
+            for (final File jarFile : jarFiles)
+            {
+                if (ClassPathDependencies.getJarClassNames(jarFile, jarClassNamesCache).contains(fullClassName))
+                {
+                    final String jarFilePath = jarFile.toString();
+                    if (!result.contains(jarFilePath))
+                    {
+                        result.add(jarFilePath);
+                    }
+                    break;
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the full names of the classes in the provided jar file. If the jar file can't be read,
+     * then an empty Set will be returned.
+     * @param jarFile The jar file.
+     * @param jarClassNamesCache A cache from jar file paths to the full names of the classes in the
+     *                           jar file.
+     * @return The full names of the classes in the provided jar file.
+     */
+    static Set<String> getJarClassNames(File jarFile, MutableMap<String,Set<String>> jarClassNamesCache)
+    {
+        PreCondition.assertNotNull(jarFile, "jarFile");
+        PreCondition.assertNotNull(jarClassNamesCache, "jarClassNamesCache");
+
+        final String jarFilePath = jarFile.toString();
+        Set<String> result;
+        synchronized (jarClassNamesCache)
+        {
+            result = jarClassNamesCache.get(jarFilePath)
+                .catchError(NotFoundException.class)
+                .await();
+        }
+
+        if (result == null)
+        {
+            result = Set.create();
+            try (final java.util.zip.ZipInputStream zipStream = new java.util.zip.ZipInputStream(new java.io.ByteArrayInputStream(jarFile.getContents().await())))
+            {
+                java.util.zip.ZipEntry zipEntry = zipStream.getNextEntry();
+                while (zipEntry != null)
+                {
+                    final String entryName = zipEntry.getName();
+                    if (!zipEntry.isDirectory() && entryName.endsWith(".class"))
+                    {
+                        result.add(entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.'));
+                    }
+                    zipEntry = zipStream.getNextEntry();
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                result = Set.create();
+            }
+
+            synchronized (jarClassNamesCache)
+            {
+                jarClassNamesCache.set(jarFilePath, result);
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get whether or not the provided previous test run entry is unaffected by the provided
+     * changed classpath files.
+     * @param testJSONClassFile The previous test run's entry for a test class file.
+     * @param changedClassPathEntries The paths of the classpath files that have changed.
+     * @param referencedClassPathEntries The paths of the classpath files that any test class in the
+     *                                   previous test run depended on directly.
+     * @return Whether or not the provided previous test run entry is unaffected.
+     */
+    static boolean isUnaffected(TestJSONClassFile testJSONClassFile, Iterable<String> changedClassPathEntries, Iterable<String> referencedClassPathEntries)
+    {
+        PreCondition.assertNotNull(testJSONClassFile, "testJSONClassFile");
+
+        return ClassPathDependencies.isUnaffected(testJSONClassFile.getClassPathDependencies(), changedClassPathEntries, referencedClassPathEntries);
+    }
+
+    /**
+     * Get whether or not a previous test run entry with the provided classpath dependencies is
+     * unaffected by the provided changed classpath files.
+     * @param classPathDependencies The classpath files that the entry depended on, or null if they
+     *                              weren't recorded.
+     * @param changedClassPathEntries The paths of the classpath files that have changed.
+     * @param referencedClassPathEntries The paths of the classpath files that any test class in the
+     *                                   previous test run depended on directly.
+     * @return Whether or not the entry is unaffected.
+     */
+    static boolean isUnaffected(Iterable<String> classPathDependencies, Iterable<String> changedClassPathEntries, Iterable<String> referencedClassPathEntries)
+    {
+        PreCondition.assertNotNull(changedClassPathEntries, "changedClassPathEntries");
+        PreCondition.assertNotNull(referencedClassPathEntries, "referencedClassPathEntries");
+
+        boolean result = true;
+        if (changedClassPathEntries.any())
+        {
+            if (classPathDependencies == null)
+            {
+                result = false;
+            }
+            else
+            {
+                for (final String changedClassPathEntry : changedClassPathEntries)
+                {
+                    // A jar that no test class uses directly can still be used by the jars that
+                    // they do use, so it affects every test class that uses any jar.
+                    if (classPathDependencies.contains(changedClassPathEntry) ||
+                        (classPathDependencies.any() && !referencedClassPathEntries.contains(changedClassPathEntry)))
+                    {
+                        result = false;
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -27,6 +27,17 @@ public class ConsoleTestRunner implements TestRunner
         final CommandLineParameterProfiler profilerParameter = parameters.addProfiler(process, ConsoleTestRunner.class);
         final CommandLineParameterBoolean testJsonParameter = parameters.addBoolean("testjson", true);
         final CommandLineParameter<File> logFileParameter = parameters.addFile("logfile", process);
+        final CommandLineParameter<File> testJsonFileParameter = parameters.addFile("testjson-file", process);
+        final CommandLineParameter<Integer> parallelismParameter = parameters.add("parallelism", ConsoleTestRunner::parseParallelism);
+        final CommandLineParameter<Integer> unmodifiedPassedTestsParameter = parameters.add("unmodified-passed-tests", ConsoleTestRunner::parseTestCount);
+        final CommandLineParameter<Integer> unmodifiedSkippedTestsParameter = parameters.add("unmodified-skipped-tests", ConsoleTestRunner::parseTestCount);
+        final CommandLineParameter<File> testManifestFileParameter = parameters.addFile("test-manifest", process);
+        final CommandLineParameter<TestResultsFormat> resultsFormatParameter = parameters.add("results-format", TestResultsFormat::parse);
+        final CommandLineParameterBoolean rerunFailedParameter = parameters.addBoolean("rerun-failed", false);
+        final CommandLineParameter<Integer> failFastParameter = parameters.add("fail-fast", ConsoleTestRunner::parseFailFast);
+        final CommandLineParameter<File> stopFileParameter = parameters.addFile("stop-file", process);
+        final CommandLineParameter<Duration> testTimeoutParameter = parameters.add("test-timeout", ConsoleTestRunner::parseTimeout);
+        final CommandLineParameter<Duration> testClassTimeoutParameter = parameters.add("test-class-timeout", ConsoleTestRunner::parseTimeout);
         final CommandLineParameterList<String> testClassNamesParameter = parameters.addPositionStringList("test-class");
 
         profilerParameter.await();
@@ -34,11 +45,171 @@ public class ConsoleTestRunner implements TestRunner
         final VerboseCharacterToByteWriteStream verbose = verboseParameter.getVerboseCharacterToByteWriteStream().await();
         final Folder outputFolder = outputFolderParameter.getValue().await();
         final Iterable<String> testClassNames = testClassNamesParameter.getValues().await();
+        final Integer parallelism = parallelismParameter.getValue().await();
+        final Integer unmodifiedPassedTests = unmodifiedPassedTestsParameter.getValue().await();
+        final Integer unmodifiedSkippedTests = unmodifiedSkippedTestsParameter.getValue().await();
+        final File testManifestFile = testManifestFileParameter.getValue().await();
+        final TestResultsFormat resultsFormat = resultsFormatParameter.getValue().await();
+        final TestManifest testManifest = testManifestFile == null
+            ? null
+            : TestManifest.parse(testManifestFile).await();
         return new ConsoleTestRunnerParameters(process, verbose, outputFolder, testClassNames)
             .setPattern(patternParameter.getValue().await())
             .setCoverage(coverageParameter.getValue().await())
             .setTestJson(testJsonParameter.getValue().await())
-            .setLogFile(logFileParameter.getValue().await());
+            .setLogFile(logFileParameter.getValue().await())
+            .setTestJsonFile(testJsonFileParameter.getValue().await())
+            .setParallelism(parallelism == null ? 1 : parallelism)
+            .setUnmodifiedPassedTestCount(unmodifiedPassedTests == null ? 0 : unmodifiedPassedTests)
+            .setUnmodifiedSkippedTestCount(unmodifiedSkippedTests == null ? 0 : unmodifiedSkippedTests)
+            .setTestManifest(testManifest)
+            .setResultsFormat(resultsFormat == null ? TestResultsFormat.JSON : resultsFormat)
+            .setRerunFailed(rerunFailedParameter.getValue().await())
+            .setFailFast(failFastParameter.getValue().await())
+            .setStopFile(stopFileParameter.getValue().await())
+            .setTestTimeout(testTimeoutParameter.getValue().await())
+            .setTestClassTimeout(testClassTimeoutParameter.getValue().await());
+    }
+
+    /**
+     * Parse the value of a test count argument, such as --unmodified-passed-tests.
+     * @param text The text of the argument. This can be empty (zero) or a non-negative integer.
+     * @return The test count.
+     */
+    static Result<Integer> parseTestCount(String text)
+    {
+        return Result.create(() ->
+        {
+            int result;
+            if (Strings.isNullOrEmpty(text))
+            {
+                result = 0;
+            }
+            else
+            {
+                try
+                {
+                    result = Integer.parseInt(text);
+                }
+                catch (NumberFormatException e)
+                {
+                    result = -1;
+                }
+
+                if (result < 0)
+                {
+                    throw new IllegalArgumentException("The test count must be a non-negative integer, but was " + Strings.escapeAndQuote(text) + ".");
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Parse the value of a --fail-fast argument.
+     * @param text The text of the argument. This can be empty (stop after the first failed test) or
+     *             a positive integer.
+     * @return The number of failed tests after which no more test classes will be started.
+     */
+    static Result<Integer> parseFailFast(String text)
+    {
+        return Result.create(() ->
+        {
+            int result;
+            if (Strings.isNullOrEmpty(text))
+            {
+                result = 1;
+            }
+            else
+            {
+                try
+                {
+                    result = Integer.parseInt(text);
+                }
+                catch (NumberFormatException e)
+                {
+                    result = 0;
+                }
+
+                if (result < 1)
+                {
+                    throw new IllegalArgumentException("The fail-fast value must be a positive integer, but was " + Strings.escapeAndQuote(text) + ".");
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Parse the value of a --test-timeout or --test-class-timeout argument.
+     * @param text The text of the argument. This can be empty (no time limit) or a positive number
+     *             of seconds.
+     * @return The time limit, or null if there is no time limit.
+     */
+    static Result<Duration> parseTimeout(String text)
+    {
+        return Result.create(() ->
+        {
+            Duration result = null;
+            if (!Strings.isNullOrEmpty(text))
+            {
+                double seconds;
+                try
+                {
+                    seconds = Double.parseDouble(text);
+                }
+                catch (NumberFormatException e)
+                {
+                    seconds = 0;
+                }
+
+                if (!(seconds > 0) || Double.isInfinite(seconds))
+                {
+                    throw new IllegalArgumentException("The timeout must be a positive number of seconds, but was " + Strings.escapeAndQuote(text) + ".");
+                }
+                result = Duration.seconds(seconds);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Parse the value of a --parallelism argument.
+     * @param text The text of the argument. This can be empty (a single worker), "auto" (one worker
+     *             per available processor), or a positive integer.
+     * @return The number of test classes that should be run at the same time.
+     */
+    static Result<Integer> parseParallelism(String text)
+    {
+        return Result.create(() ->
+        {
+            int result;
+            if (Strings.isNullOrEmpty(text))
+            {
+                result = 1;
+            }
+            else if (text.equalsIgnoreCase("auto"))
+            {
+                result = Runtime.getRuntime().availableProcessors();
+            }
+            else
+            {
+                try
+                {
+                    result = Integer.parseInt(text);
+                }
+                catch (NumberFormatException e)
+                {
+                    result = 0;
+                }
+
+                if (result < 1)
+                {
+                    throw new IllegalArgumentException("The parallelism value must be \"auto\" or a positive integer, but was " + Strings.escapeAndQuote(text) + ".");
+                }
+            }
+            return result;
+        });
     }
 
     public static int run(ConsoleTestRunnerParameters parameters)
@@ -52,10 +223,19 @@ public class ConsoleTestRunner implements TestRunner
 
         final PathPattern pattern = parameters.getPattern();
         final Folder outputFolder = parameters.getOutputFolder();
-        final Iterable<String> testClassNames = parameters.getTestClassNames();
+        final Iterable<String> testClassNames = parameters.getAllTestClassNames();
+        final TestManifest testManifest = parameters.getTestManifest();
         final Boolean useTestJson = parameters.getTestJson();
         final File logFile = parameters.getLogFile();
         final Coverage coverage = parameters.getCoverage();
+        final int parallelism = parameters.getParallelism();
+        final ClassLoader testClassLoader = parameters.getTestClassLoader();
+        final TestResultsFormat resultsFormat = parameters.getResultsFormat();
+        final boolean rerunFailed = parameters.getRerunFailed() && pattern == null && coverage == Coverage.None;
+        final Integer failFast = parameters.getFailFast();
+        final File stopFile = parameters.getStopFile();
+        final Duration testTimeout = parameters.getTestTimeout();
+        final Duration testClassTimeout = parameters.getTestClassTimeout();
 
         final LogStreams logStreams;
         final CharacterToByteWriteStream output;
@@ -63,112 +243,383 @@ public class ConsoleTestRunner implements TestRunner
         if (logFile == null)
         {
             logStreams = null;
-            output = process.getOutputWriteStream();
+            output = parameters.getOutputWriteStream();
             verbose = parameters.getVerbose();
         }
         else
         {
-            logStreams = CommandLineLogsAction.getLogStreamsFromLogFile(logFile, process.getOutputWriteStream(), parameters.getVerbose());
+            logStreams = CommandLineLogsAction.getLogStreamsFromLogFile(logFile, parameters.getOutputWriteStream(), parameters.getVerbose());
             output = logStreams.getOutput();
             verbose = logStreams.getVerbose();
         }
 
+        TestResultsJournal journal = null;
+        TestWatchdog watchdog = null;
         int result;
         try
         {
             final ConsoleTestRunner runner = new ConsoleTestRunner(process, output, pattern);
+            final Function0<Boolean> shouldStop = () -> runner.shouldStop(failFast, stopFile);
+            if (stopFile != null && failFast != null)
+            {
+                // Report each failure as it happens so that the test runners that are running at the same time can stop as soon as
+                // enough tests have failed between them, instead of when this test runner finishes.
+                final File failedTestCountFile = parameters.hasTestJsonFile()
+                    ? ConsoleTestRunner.getFailedTestCountFile(parameters.getTestJsonFile())
+                    : null;
+                final java.util.concurrent.atomic.AtomicInteger failedTestCount = new java.util.concurrent.atomic.AtomicInteger();
+                runner.afterTestFailed = () ->
+                {
+                    synchronized (failedTestCount)
+                    {
+                        final int currentFailedTestCount = failedTestCount.incrementAndGet();
+                        if (failedTestCountFile != null)
+                        {
+                            failedTestCountFile.setContentsAsString(Integers.toString(currentFailedTestCount)).await();
+                        }
+                        if (currentFailedTestCount >= failFast && !stopFile.exists().await())
+                        {
+                            stopFile.setContentsAsString(Integers.toString(currentFailedTestCount)).await();
+                        }
+                    }
+                };
+            }
 
             final List<TestJSONClassFile> testJSONClassFiles = List.create();
+            final MutableMap<String,Stopwatch> testClassStopwatches = Map.create();
+            final ClassFileDependencyGraph classFileDependencyGraph = ClassFileDependencyGraph.create(outputFolder);
+            final MutableMap<String,String> contentHashCache = Map.create();
+            final MutableMap<String,Set<String>> jarClassNamesCache = Map.create();
+            final Iterable<File> jarFiles = useTestJson
+                ? ClassPathDependencies.getJarFiles(process.getFileSystem(), parameters.getClassPaths())
+                : Iterable.create();
+            final Action1<ConsoleTestRunner> addTestJsonActions;
+            final List<String> testClassNamesToRun = List.create();
+            final List<TestJSONClassRecord> classRecordsToRerun = List.create();
 
-            MutableMap<String, TestJSONClassFile> fullClassNameToTestJSONClassFileMap = Map.create();
             final VersionNumber currentJavaVersion = process.getJavaVersion();
-            VersionNumber previousJavaVersion = null;
+            TestResults previousTestResults = null;
+            TestClassUpToDateCheck upToDateCheck = null;
             if (useTestJson)
             {
-                final TestJSON testJson = TestJSON.parse(outputFolder.getFile("test.json").await())
+                if (!parameters.hasTestJsonFile())
+                {
+                    TestResultsJournal.compact(outputFolder, resultsFormat, verbose);
+                }
+                previousTestResults = TestResults.parse(outputFolder, resultsFormat)
                     .catchError(FileNotFoundException.class)
                     .await();
-                if (testJson != null)
+                if (previousTestResults != null)
                 {
-                    verbose.writeLine("Found and parsed test.json file.").await();
-                    previousJavaVersion = testJson.getJavaVersion().catchError().await();
-                    for (final TestJSONClassFile testJSONClassFile : testJson.getClassFiles())
+                    verbose.writeLine("Found and parsed " + TestResults.getFile(outputFolder, resultsFormat).getName() + " file.").await();
+                }
+                upToDateCheck = TestClassUpToDateCheck.create(outputFolder, previousTestResults, currentJavaVersion, jarFiles, contentHashCache, verbose);
+                final File testResultsFile = parameters.hasTestJsonFile()
+                    ? parameters.getTestJsonFile()
+                    : TestResults.getFile(outputFolder, resultsFormat);
+                journal = TestResultsJournal.create(TestResultsJournal.getJournalFile(testResultsFile), upToDateCheck.createTestJSON(Iterable.create()));
+                final TestResultsJournal testClassJournal = journal;
+                final TestClassUpToDateCheck testClassUpToDateCheck = upToDateCheck;
+
+                addTestJsonActions = (ConsoleTestRunner testClassRunner) ->
+                {
+                    final List<TestJSONTest> testClassTests = List.create();
+                    final Stopwatch testStopwatch = process.getClock().createStopwatch();
+                    // Tests that timed out are recorded as failed even if the test runner saw them pass after they were interrupted.
+                    final java.util.concurrent.atomic.AtomicInteger testClassTimedOutPassedTestCount = new java.util.concurrent.atomic.AtomicInteger();
+                    testClassRunner.beforeTestClass((TestClass testClass) ->
                     {
-                        fullClassNameToTestJSONClassFileMap.set(testJSONClassFile.getFullClassName(), testJSONClassFile);
+                        testClassTests.clear();
+                        testClassTimedOutPassedTestCount.set(0);
+                        final Stopwatch testClassStopwatch = process.getClock().createStopwatch();
+                        synchronized (testClassStopwatches)
+                        {
+                            testClassStopwatches.set(testClass.getFullName(), testClassStopwatch);
+                        }
+                        testClassStopwatch.start();
+                        testClassJournal.start(testClass.getFullName());
+                    });
+                    testClassRunner.beforeTest((Test test) ->
+                    {
+                        testStopwatch.start();
+                    });
+                    testClassRunner.afterTestSuccess((Test test) ->
+                    {
+                        testClassTests.add(TestJSONTest.create(test.getFullName())
+                            .setOutcome(testClassRunner.lastTestTimedOut ? TestOutcome.Failed : TestOutcome.Passed)
+                            .setDuration(testStopwatch.stop()));
+                        if (testClassRunner.lastTestTimedOut)
+                        {
+                            testClassTimedOutPassedTestCount.incrementAndGet();
+                        }
+                    });
+                    testClassRunner.afterTestSkipped((Test test) ->
+                    {
+                        testClassTests.add(TestJSONTest.create(test.getFullName())
+                            .setOutcome(TestOutcome.Skipped)
+                            .setDuration(testStopwatch.stop()));
+                    });
+                    testClassRunner.afterTestFailure((Test test, TestError failure) ->
+                    {
+                        testClassTests.add(TestJSONTest.create(test.getFullName())
+                            .setOutcome(TestOutcome.Failed)
+                            .setDuration(testStopwatch.stop()));
+                    });
+                    testClassRunner.afterTestClass((TestClass testClass) ->
+                    {
+                        final Stopwatch testClassStopwatch;
+                        synchronized (testClassStopwatches)
+                        {
+                            testClassStopwatch = testClassStopwatches.remove(testClass.getFullName()).await();
+                        }
+                        final Duration testClassDuration = testClassStopwatch.stop();
+                        // When a pattern is used, a test class that had none of its tests match the pattern has nothing to record.
+                        if (testClassRunner.pattern == null || testClassTests.any())
+                        {
+                            final File testClassFile = QubTestRun.getClassFile(outputFolder, testClass.getFullName());
+                            final Iterable<TestJSONClassFileDependency> dependencies = classFileDependencyGraph.getDependencyClassFiles(testClass.getFullName())
+                                .map((File dependencyClassFile) -> TestJSONClassFileDependency.create(dependencyClassFile.relativeTo(outputFolder))
+                                    .setLastModified(dependencyClassFile.getLastModified().await())
+                                    .setContentHash(ClassFileHashes.getContentHash(dependencyClassFile, contentHashCache).await()))
+                                .toList();
+                            final TestJSONClassFile runClassFile = TestJSONClassFile.create(testClassFile.relativeTo(outputFolder))
+                                .setLastModified(testClassFile.getLastModified().await())
+                                .setContentHash(ClassFileHashes.getContentHash(testClassFile, contentHashCache).await())
+                                .setPassedTestCount(testClass.getPassedTestCount() - testClassTimedOutPassedTestCount.get())
+                                .setSkippedTestCount(testClass.getSkippedTestCount())
+                                .setFailedTestCount(testClass.getFailedTestCount() + testClassTimedOutPassedTestCount.get())
+                                .setDuration(testClassDuration)
+                                .setDependencies(dependencies)
+                                .setClassPathDependencies(ClassPathDependencies.getClassPathDependencies(
+                                    classFileDependencyGraph.getExternalReferencedClassNames(testClass.getFullName()),
+                                    jarFiles,
+                                    jarClassNamesCache))
+                                .setTests(List.create(testClassTests));
+                            final TestJSONClassFile testJSONClassFile = testClassRunner.pattern == null
+                                ? runClassFile
+                                : testClassUpToDateCheck.mergePartialClassFile(runClassFile);
+                            synchronized (testJSONClassFiles)
+                            {
+                                verbose.writeLine("Updating test.json class file for " + testClass.getFullName() + "...").await();
+                                testJSONClassFiles.addAll(testJSONClassFile);
+                            }
+                            testClassJournal.append(testJSONClassFile);
+                        }
+                    });
+                };
+            }
+            else
+            {
+                addTestJsonActions = (ConsoleTestRunner testClassRunner) -> {};
+            }
+
+            addTestJsonActions.run(runner);
+
+            if (testTimeout != null || testClassTimeout != null)
+            {
+                final TestResultsJournal abandonedJournal = journal;
+                watchdog = TestWatchdog.create(testTimeout, testClassTimeout, TestWatchdog.defaultAbandonDelay, (Iterable<String> timeoutLines) ->
+                {
+                    // The stuck thread can't be stopped, so report it and end the test process. The journal keeps the results of the test classes that finished.
+                    final int exitCode;
+                    synchronized (runner)
+                    {
+                        runner.writeStream.writeLine().await();
+                        runner.writeStream.writeLine("A test didn't stop after it was interrupted, so the test run was abandoned:").await();
+                        runner.increaseIndent();
+                        for (final String timeoutLine : timeoutLines)
+                        {
+                            runner.writeStream.writeLine(timeoutLine).await();
+                        }
+                        runner.decreaseIndent();
+                        exitCode = runner.getFailedTestCount() + 1;
                     }
-                }
+                    if (abandonedJournal != null)
+                    {
+                        abandonedJournal.close();
+                    }
+                    if (logStreams != null)
+                    {
+                        logStreams.getLogStream().dispose().await();
+                    }
+                    Runtime.getRuntime().halt(exitCode);
+                });
+                runner.watchdog = watchdog;
+                verbose.writeLine("Enforcing test timeouts with a watchdog thread...").await();
+            }
 
+            // The coverage of a test class is only stored when all of its tests are run.
+            final TestCoverageData coverageData = coverage == Coverage.None || pattern != null
+                ? null
+                : TestCoverageData.create(outputFolder);
+            if (coverageData != null)
+            {
+                verbose.writeLine("Storing the coverage data of each test class...").await();
+                if (parallelism > 1)
+                {
+                    verbose.writeLine("Running the test classes one at a time so that their coverage data can be told apart...").await();
+                }
+                // Drop the coverage data that was collected while the test runner was starting.
+                coverageData.collect();
                 runner.afterTestClass((TestClass testClass) ->
                 {
-                    verbose.writeLine("Updating test.json class file for " + testClass.getFullName() + "...").await();
-                    final File testClassFile = QubTestRun.getClassFile(outputFolder, testClass.getFullName());
-                    testJSONClassFiles.addAll(TestJSONClassFile.create(testClassFile.relativeTo(outputFolder))
-                        .setLastModified(testClassFile.getLastModified().await())
-                        .setPassedTestCount(testClass.getPassedTestCount())
-                        .setSkippedTestCount(testClass.getSkippedTestCount())
-                        .setFailedTestCount(testClass.getFailedTestCount()));
+                    coverageData.write(testClass.getFullName());
                 });
             }
 
+            runner.addUnmodifiedPassedTests(parameters.getUnmodifiedPassedTestCount());
+            runner.addUnmodifiedSkippedTests(parameters.getUnmodifiedSkippedTestCount());
+
             for (final String testClassName : testClassNames)
             {
-                boolean runTestClass;
+                final TestJSONClassFile upToDateClassFile = upToDateCheck == null || (coverage != Coverage.None && (coverageData == null || !TestCoverageData.exists(outputFolder, testClassName)))
+                    ? null
+                    : upToDateCheck.getUpToDateClassFile(testClassName);
+                final TestJSONClassRecord classRecordToRerun = upToDateClassFile != null || !rerunFailed
+                    ? null
+                    : upToDateCheck.getRerunnableClassRecord(testClassName);
+                if (classRecordToRerun != null)
+                {
+                    classRecordsToRerun.add(classRecordToRerun);
+                }
+                else if (upToDateClassFile == null)
+                {
+                    testClassNamesToRun.add(testClassName);
+                }
+                else
+                {
+                    runner.addUnmodifiedPassedTests(upToDateClassFile.getPassedTestCount());
+                    runner.addUnmodifiedSkippedTests(upToDateClassFile.getSkippedTestCount());
+                    testJSONClassFiles.addAll(upToDateClassFile);
+                    if (journal != null)
+                    {
+                        journal.append(upToDateClassFile);
+                    }
+                }
+            }
 
-                if (!useTestJson || !currentJavaVersion.equals(previousJavaVersion) || coverage != Coverage.None)
+            for (final TestJSONClassRecord classRecordToRerun : classRecordsToRerun)
+            {
+                if (shouldStop.run())
                 {
-                    runTestClass = true;
+                    ++runner.notRunTestClassCount;
                 }
                 else
                 {
-                    final TestJSONClassFile testJSONClassFile = fullClassNameToTestJSONClassFileMap.get(testClassName)
-                        .catchError(NotFoundException.class)
-                        .await();
-                    if (testJSONClassFile == null)
+                    // Only the previously failing tests are run, so the previous results of the test class's other tests are reused.
+                    runner.addUnmodifiedPassedTests(classRecordToRerun.getPassedTestCount());
+                    runner.addUnmodifiedSkippedTests(classRecordToRerun.getSkippedTestCount());
+                    for (final String failedTestName : classRecordToRerun.getFailedTestNames())
                     {
-                        verbose.writeLine("Found class that didn't exist in previous test run: " + testClassName);
-                        runTestClass = true;
+                        final ConsoleTestRunner failedTestRunner = new ConsoleTestRunner(process, output, ConsoleTestRunner.getExactTestPattern(failedTestName));
+                        failedTestRunner.watchdog = runner.watchdog;
+                        failedTestRunner.afterTestFailed = runner.afterTestFailed;
+                        addTestJsonActions.run(failedTestRunner);
+                        failedTestRunner.testClass(classRecordToRerun.getFullClassName(), testClassLoader)
+                            .catchError((Throwable e) -> verbose.writeLine(e.getMessage()).await())
+                            .await();
+                        runner.addResults(failedTestRunner);
                     }
-                    else
+                }
+            }
+
+            final boolean runInParallel = parallelism > 1 && testClassNamesToRun.getCount() > 1 && coverageData == null;
+            final MutableMap<String,Duration> testClassDurations = Map.create();
+            if (upToDateCheck != null)
+            {
+                for (final TestJSONClassFile testJSONClassFile : upToDateCheck.getPreviousClassFiles())
+                {
+                    final Duration testClassDuration = testJSONClassFile.getDuration();
+                    if (testClassDuration != null)
                     {
-                        verbose.writeLine("Found class entry for " + testClassName + ". Checking timestamps...").await();
-                        final File testClassFile = outputFolder.getFile(testJSONClassFile.getRelativePath()).await();
-                        final DateTime testClassFileLastModified = testClassFile.getLastModified().await();
-                        if (!testClassFileLastModified.equals(testJSONClassFile.getLastModified()))
-                        {
-                            verbose.writeLine("Timestamp of " + testClassName + " from the previous run (" + testJSONClassFile.getLastModified() + ") was not the same as the current class file timestamp (" + testClassFileLastModified + "). Running test class tests.").await();
-                            runTestClass = true;
-                        }
-                        else if (testJSONClassFile.getFailedTestCount() > 0)
-                        {
-                            verbose.writeLine("Previous run of " + testClassName + " contained errors. Running test class tests...").await();
-                            runTestClass = true;
-                        }
-                        else
-                        {
-                            verbose.writeLine("Previous run of " + testClassName + " didn't contain errors and the test class hasn't changed since then. Skipping test class tests.").await();
-                            runner.addUnmodifiedPassedTests(testJSONClassFile.getPassedTestCount());
-                            runner.addUnmodifiedSkippedTests(testJSONClassFile.getSkippedTestCount());
-                            testJSONClassFiles.addAll(testJSONClassFile);
-                            runTestClass = false;
-                        }
+                        testClassDurations.set(testJSONClassFile.getFullClassName(), testClassDuration);
                     }
                 }
+            }
+            if (testManifest != null)
+            {
+                final MutableMap<String,Duration> expectedDurations = testManifest.getExpectedDurations();
+                for (final String testClassName : expectedDurations.getKeys())
+                {
+                    testClassDurations.set(testClassName, expectedDurations.get(testClassName).await());
+                }
+            }
 
-                if (runTestClass)
+            final Iterable<String> orderedTestClassNamesToRun;
+            if (upToDateCheck != null)
+            {
+                // Run the test classes that are most likely to fail first so that failures are reported as soon as possible.
+                orderedTestClassNamesToRun = TestClassScheduler.orderByPriority(testClassNamesToRun, upToDateCheck::getPriority, testClassDurations, runInParallel);
+            }
+            else if (runInParallel)
+            {
+                orderedTestClassNamesToRun = TestClassScheduler.orderLongestFirst(testClassNamesToRun, testClassDurations);
+            }
+            else
+            {
+                orderedTestClassNamesToRun = testClassNamesToRun;
+            }
+
+            if (!runInParallel)
+            {
+                for (final String testClassName : orderedTestClassNamesToRun)
                 {
-                    runner.testClass(testClassName)
-                        .catchError((Throwable e) -> verbose.writeLine(e.getMessage()).await())
-                        .await();
+                    if (shouldStop.run())
+                    {
+                        ++runner.notRunTestClassCount;
+                    }
+                    else
+                    {
+                        runner.testClass(testClassName, testClassLoader)
+                            .catchError((Throwable e) -> verbose.writeLine(e.getMessage()).await())
+                            .await();
+                    }
                 }
             }
+            else
+            {
+                verbose.writeLine("Running " + testClassNamesToRun.getCount() + " test classes with a parallelism of " + parallelism + "...").await();
+                runner.testClassesInParallel(orderedTestClassNamesToRun, testClassLoader, parallelism, addTestJsonActions, shouldStop, verbose);
+            }
 
-            if (useTestJson && pattern == null)
+            if (runner.notRunTestClassCount > 0)
+            {
+                verbose.writeLine("Stopped the test run with " + runner.notRunTestClassCount + " test classes left to run.").await();
+            }
+            if (stopFile != null && failFast != null && runner.getFailedTestCount() >= failFast && !stopFile.exists().await())
             {
-                final File testJsonFile = outputFolder.getFile("test.json").await();
-                final TestJSON testJson = TestJSON.create()
-                    .setJavaVersion(currentJavaVersion)
-                    .setClassFiles(testJSONClassFiles);
-                testJsonFile.setContentsAsString(testJson.toString(JSONFormat.pretty)).await();
+                // Tell the other test runners that are running at the same time to stop too.
+                stopFile.setContentsAsString(Integers.toString(runner.getFailedTestCount())).await();
+            }
+
+            if (useTestJson)
+            {
+                // A test class whose failing tests were rerun one at a time has an entry for each of those tests, and the last entry has all of them merged.
+                final MutableMap<String,TestJSONClassFile> distinctTestJSONClassFiles = Map.create();
+                for (final TestJSONClassFile testJSONClassFile : testJSONClassFiles)
+                {
+                    distinctTestJSONClassFiles.set(testJSONClassFile.getRelativePath().toString(), testJSONClassFile);
+                }
+                final List<TestJSONClassFile> testJSONClassFilesToWrite = List.create();
+                for (final String relativePath : distinctTestJSONClassFiles.getKeys())
+                {
+                    testJSONClassFilesToWrite.add(distinctTestJSONClassFiles.get(relativePath).await());
+                }
+                TestJSON testJson = upToDateCheck.createTestJSON(testJSONClassFilesToWrite);
+                if ((pattern != null || runner.notRunTestClassCount > 0) && !parameters.hasTestJsonFile())
+                {
+                    // Only some tests were run, so keep the previous results of the test classes that weren't run.
+                    testJson = TestResults.merge(previousTestResults == null ? null : previousTestResults.toTestJSON(), testJson);
+                }
+                if (parameters.hasTestJsonFile())
+                {
+                    TestResults.setContentsAtomically(parameters.getTestJsonFile(), testJson.toString(JSONFormat.pretty).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                }
+                else
+                {
+                    TestResults.write(outputFolder, testJson, resultsFormat);
+                }
+                journal.delete();
             }
 
             runner.writeLine().await();
@@ -178,6 +629,16 @@ public class ConsoleTestRunner implements TestRunner
         }
         finally
         {
+            if (watchdog != null)
+            {
+                watchdog.close();
+            }
+
+            if (journal != null)
+            {
+                journal.close();
+            }
+
             if (logStreams != null)
             {
                 logStreams.getLogStream().dispose().await();
@@ -187,23 +648,50 @@ public class ConsoleTestRunner implements TestRunner
         return result;
     }
 
+    private final DesktopProcess process;
+    private final PathPattern pattern;
     private final BasicTestRunner testRunner;
+    private final List<BasicTestRunner> testRunners;
     private final IndentedCharacterToByteWriteStream writeStream;
     private int unmodifiedPassedTests;
     private int unmodifiedSkippedTests;
+    private int notRunTestClassCount;
+    private TestWatchdog watchdog;
+    private boolean lastTestTimedOut;
+    private final List<TestError> timeouts;
+    private int timedOutPassedTestCount;
+    private Action0 afterTestFailed;
 
     public ConsoleTestRunner(DesktopProcess process, CharacterToByteWriteStream output, PathPattern pattern)
     {
         PreCondition.assertNotNull(process, "process");
         PreCondition.assertNotNull(output, "output");
 
+        this.process = process;
+        this.pattern = pattern;
         this.testRunner = BasicTestRunner.create(process, pattern);
+        this.testRunners = List.create(this.testRunner);
+        this.timeouts = List.create();
 
         this.writeStream = IndentedCharacterToByteWriteStream.create(output);
 
         final List<TestParent> testParentsWrittenToConsole = List.create();
+        this.testRunner.beforeTestClass((TestClass testClass) ->
+        {
+            if (this.watchdog != null)
+            {
+                this.watchdog.startTestClass(testClass.getFullName());
+            }
+        });
         this.testRunner.afterTestClass((TestClass testClass) ->
         {
+            final Iterable<String> testClassTimeout = this.watchdog == null ? null : this.watchdog.stopTestClass();
+            if (testClassTimeout != null)
+            {
+                this.timeouts.add(new TestError(testClass.getFullName(), testClassTimeout));
+                this.writeTimeout(testClassTimeout);
+            }
+
             if (testParentsWrittenToConsole.remove(testClass))
             {
                 this.decreaseIndent();
@@ -239,18 +727,47 @@ public class ConsoleTestRunner implements TestRunner
 
             this.writeStream.write(test.getName()).await();
             this.increaseIndent();
+
+            if (this.watchdog != null)
+            {
+                this.watchdog.startTest(test.getFullName());
+            }
         });
         this.testRunner.afterTestSuccess((Test test) ->
         {
-            this.writeStream.writeLine(" - Passed").await();
+            final Iterable<String> testTimeout = this.stopTestTimeout(test);
+            if (testTimeout == null)
+            {
+                this.writeStream.writeLine(" - Passed").await();
+            }
+            else
+            {
+                ++this.timedOutPassedTestCount;
+                this.writeStream.writeLine(" - Timed Out").await();
+                this.writeTimeout(testTimeout);
+                if (this.afterTestFailed != null)
+                {
+                    this.afterTestFailed.run();
+                }
+            }
         });
         this.testRunner.afterTestFailure((Test test, TestError failure) ->
         {
-            this.writeStream.writeLine(" - Failed").await();
+            final Iterable<String> testTimeout = this.stopTestTimeout(test);
+            this.writeStream.writeLine(testTimeout == null ? " - Failed" : " - Timed Out").await();
             this.writeFailure(failure);
+            if (testTimeout != null)
+            {
+                this.writeTimeout(testTimeout);
+            }
+            if (this.afterTestFailed != null)
+            {
+                this.afterTestFailed.run();
+            }
         });
         this.testRunner.afterTestSkipped((Test test) ->
         {
+            this.stopTestTimeout(test);
             final String skipMessage = test.getSkipMessage();
             this.writeStream.writeLine(" - Skipped" + (Strings.isNullOrEmpty(skipMessage) ? "" : ": " + skipMessage)).await();
         });
@@ -260,6 +777,115 @@ public class ConsoleTestRunner implements TestRunner
         });
     }
 
+    /**
+     * Get the file that a test runner that writes its results to the provided test.json file
+     * reports its number of failed tests in while it runs. This is only written when the test
+     * runner has a fail-fast limit and a stop file.
+     * @param testJsonFile The test.json file that the test runner writes its results to.
+     * @return The file that the test runner reports its number of failed tests in.
+     */
+    static File getFailedTestCountFile(File testJsonFile)
+    {
+        PreCondition.assertNotNull(testJsonFile, "testJsonFile");
+
+        final String testJsonFileName = testJsonFile.getName();
+        final int extensionIndex = testJsonFileName.lastIndexOf('.');
+        final String failedTestCountFileName = (extensionIndex <= 0 ? testJsonFileName : testJsonFileName.substring(0, extensionIndex)) + ".failures";
+        return testJsonFile.getParentFolder().await().getFile(failedTestCountFileName).await();
+    }
+
+    /**
+     * Get the PathPattern that selects only the test with the provided full name. Test names that
+     * have characters that a PathPattern treats as wildcards can't be selected exactly, because the
+     * pattern would also select the other tests whose names match those wildcards.
+     * @param fullTestName The full name of the test to select.
+     * @return The PathPattern that selects only the test with the provided full name, or null if
+     * the test can't be selected exactly.
+     */
+    static PathPattern getExactTestPattern(String fullTestName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullTestName, "fullTestName");
+
+        return fullTestName.contains("*") || fullTestName.contains("?")
+            ? null
+            : PathPattern.parse(fullTestName);
+    }
+
+    /**
+     * Get whether or not this runner should stop starting new test classes.
+     * @param failFast The number of failed tests after which no more test classes will be started,
+     *                 or null if every test class should be run no matter how many tests fail.
+     * @param stopFile The file that stops the test run when it exists, or null.
+     * @return Whether or not this runner should stop starting new test classes.
+     */
+    private boolean shouldStop(Integer failFast, File stopFile)
+    {
+        boolean result = false;
+        if (failFast != null)
+        {
+            synchronized (this)
+            {
+                result = this.getFailedTestCount() >= failFast;
+            }
+        }
+        if (!result && stopFile != null)
+        {
+            result = stopFile.exists().await();
+        }
+        return result;
+    }
+
+    /**
+     * Stop the watchdog's time limit of the provided test.
+     * @param test The test that finished.
+     * @return The message lines of the test's timeout, or null if the test finished in time.
+     */
+    private Iterable<String> stopTestTimeout(Test test)
+    {
+        PreCondition.assertNotNull(test, "test");
+
+        Iterable<String> result = null;
+        if (this.watchdog != null)
+        {
+            result = this.watchdog.stopTest();
+            if (result != null)
+            {
+                this.timeouts.add(new TestError(test.getFullName(), result));
+            }
+        }
+        this.lastTestTimedOut = (result != null);
+        return result;
+    }
+
+    /**
+     * Write the provided timeout message lines to the Console output.
+     * @param timeoutLines The message lines of the timeout.
+     */
+    private void writeTimeout(Iterable<String> timeoutLines)
+    {
+        PreCondition.assertNotNull(timeoutLines, "timeoutLines");
+
+        this.increaseIndent();
+        for (final String timeoutLine : timeoutLines)
+        {
+            this.writeStream.writeLine(timeoutLine).await();
+        }
+        this.decreaseIndent();
+    }
+
+    /**
+     * Add the results of the provided ConsoleTestRunner to this ConsoleTestRunner's results.
+     * @param testClassRunner The ConsoleTestRunner that ran a test class.
+     */
+    private void addResults(ConsoleTestRunner testClassRunner)
+    {
+        PreCondition.assertNotNull(testClassRunner, "testClassRunner");
+
+        this.testRunners.addAll(testClassRunner.testRunners);
+        this.timeouts.addAll(testClassRunner.timeouts);
+        this.timedOutPassedTestCount += testClassRunner.timedOutPassedTestCount;
+    }
+
     private void addUnmodifiedPassedTests(int unmodifiedPassedTests)
     {
         PreCondition.assertGreaterThanOrEqualTo(unmodifiedPassedTests, 0, "unmodifiedPassedTests");
@@ -290,9 +916,150 @@ public class ConsoleTestRunner implements TestRunner
         this.writeStream.decreaseIndent();
     }
 
+    /**
+     * Run the tests in the provided test classes on the process's parallel AsyncRunner, with at most
+     * the provided number of workers taking test classes from a shared queue. Each test class is
+     * run by its own ConsoleTestRunner that writes to an in-memory buffer. When a test class
+     * finishes, its buffered output is written to this runner's output as a single block and its
+     * results are merged into this runner's results.
+     * @param testClassNames The full names of the test classes to run.
+     * @param testClassLoader The ClassLoader that the test classes will be loaded with, or null if
+     *                        the test classes should be loaded by the test runner.
+     * @param parallelism The maximum number of test classes to run at the same time.
+     * @param initializeTestClassRunner The action that will be run on each test class's
+     *                                  ConsoleTestRunner before the test class is run.
+     * @param shouldStop The function that returns whether or not test classes that haven't started
+     *                   yet should be skipped.
+     * @param verbose The stream that verbose text will be written to.
+     */
+    private void testClassesInParallel(Iterable<String> testClassNames, ClassLoader testClassLoader, int parallelism, Action1<ConsoleTestRunner> initializeTestClassRunner, Function0<Boolean> shouldStop, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(testClassNames, "testClassNames");
+        PreCondition.assertGreaterThanOrEqualTo(parallelism, 1, "parallelism");
+        PreCondition.assertNotNull(initializeTestClassRunner, "initializeTestClassRunner");
+        PreCondition.assertNotNull(shouldStop, "shouldStop");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final List<String> testClassNamesToRun = List.create();
+        testClassNamesToRun.addAll(testClassNames);
+
+        final List<Result<Void>> workers = List.create();
+        final int workerCount = Math.min(parallelism, testClassNamesToRun.getCount());
+        for (int i = 0; i < workerCount; ++i)
+        {
+            workers.add(this.process.getParallelAsyncRunner().schedule(() ->
+            {
+                while (true)
+                {
+                    final String testClassName;
+                    synchronized (testClassNamesToRun)
+                    {
+                        if (!testClassNamesToRun.any())
+                        {
+                            break;
+                        }
+                        testClassName = testClassNamesToRun.removeFirst();
+                    }
+
+                    if (shouldStop.run())
+                    {
+                        synchronized (this)
+                        {
+                            ++this.notRunTestClassCount;
+                        }
+                    }
+                    else
+                    {
+                        final InMemoryCharacterToByteStream testClassOutput = InMemoryCharacterToByteStream.create();
+                        final ConsoleTestRunner testClassRunner = new ConsoleTestRunner(this.process, testClassOutput, this.pattern);
+                        testClassRunner.watchdog = this.watchdog;
+                        testClassRunner.afterTestFailed = this.afterTestFailed;
+                        initializeTestClassRunner.run(testClassRunner);
+
+                        testClassRunner.testClass(testClassName, testClassLoader)
+                            .catchError((Throwable e) ->
+                            {
+                                synchronized (this)
+                                {
+                                    verbose.writeLine(e.getMessage()).await();
+                                }
+                            })
+                            .await();
+
+                        synchronized (this)
+                        {
+                            this.writeStream.write(testClassOutput.getText().await()).await();
+                            this.addResults(testClassRunner);
+                        }
+                    }
+                }
+            }));
+        }
+
+        for (final Result<Void> worker : workers)
+        {
+            worker.await();
+        }
+    }
+
     public int getFailedTestCount()
     {
-        return this.testRunner.getFailedTestCount();
+        int result = this.timedOutPassedTestCount;
+        for (final BasicTestRunner testRunner : this.testRunners)
+        {
+            result += testRunner.getFailedTestCount();
+        }
+        return result;
+    }
+
+    private int getPassedTestCount()
+    {
+        int result = -this.timedOutPassedTestCount;
+        for (final BasicTestRunner testRunner : this.testRunners)
+        {
+            result += testRunner.getPassedTestCount();
+        }
+        return result;
+    }
+
+    private int getSkippedTestCount()
+    {
+        int result = 0;
+        for (final BasicTestRunner testRunner : this.testRunners)
+        {
+            result += testRunner.getSkippedTestCount();
+        }
+        return result;
+    }
+
+    private int getFinishedTestCount()
+    {
+        int result = 0;
+        for (final BasicTestRunner testRunner : this.testRunners)
+        {
+            result += testRunner.getFinishedTestCount();
+        }
+        return result;
+    }
+
+    private Iterable<Test> getSkippedTests()
+    {
+        final List<Test> result = List.create();
+        for (final BasicTestRunner testRunner : this.testRunners)
+        {
+            result.addAll(testRunner.getSkippedTests());
+        }
+        return result;
+    }
+
+    private Iterable<TestError> getTestFailures()
+    {
+        final List<TestError> result = List.create();
+        for (final BasicTestRunner testRunner : this.testRunners)
+        {
+            result.addAll(testRunner.getTestFailures());
+        }
+        return result;
     }
 
     public void writeFailure(TestError failure)
@@ -412,6 +1179,41 @@ public class ConsoleTestRunner implements TestRunner
         return this.testRunner.testClass(fullClassName);
     }
 
+    /**
+     * Run the tests in the class with the provided full name.
+     * @param fullClassName The full name of the test class to run.
+     * @param testClassLoader The ClassLoader that the test class will be loaded with, or null if
+     *                        the test class should be loaded by the test runner.
+     * @return The result of running the test class.
+     */
+    private Result<Void> testClass(String fullClassName, ClassLoader testClassLoader)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        Result<Void> result;
+        if (testClassLoader == null)
+        {
+            result = this.testClass(fullClassName);
+        }
+        else
+        {
+            result = Result.create(() ->
+            {
+                final Class<?> testClass;
+                try
+                {
+                    testClass = Class.forName(fullClassName, true, testClassLoader);
+                }
+                catch (ClassNotFoundException e)
+                {
+                    throw new NotFoundException("Couldn't find a test class named " + Strings.escapeAndQuote(fullClassName) + ".");
+                }
+                this.testClass(testClass).await();
+            });
+        }
+        return result;
+    }
+
     @Override
     public Result<Void> testClass(Class<?> testClass)
     {
@@ -593,7 +1395,7 @@ public class ConsoleTestRunner implements TestRunner
     {
         PreCondition.assertNotNull(stopwatch, "stopwatch");
 
-        final Iterable<Test> skippedTests = this.testRunner.getSkippedTests();
+        final Iterable<Test> skippedTests = this.getSkippedTests();
         if (skippedTests.any())
         {
             this.writeStream.writeLine("Skipped Tests:").await();
@@ -610,7 +1412,7 @@ public class ConsoleTestRunner implements TestRunner
             this.writeStream.writeLine().await();
         }
 
-        final Iterable<TestError> testFailures = this.testRunner.getTestFailures();
+        final Iterable<TestError> testFailures = this.getTestFailures();
         if (testFailures.any())
         {
             this.writeStream.writeLine("Test failures:").await();
@@ -631,34 +1433,46 @@ public class ConsoleTestRunner implements TestRunner
             this.decreaseIndent();
         }
 
-        final CharacterTable table = CharacterTable.create();
-        if (this.unmodifiedPassedTests > 0 || this.unmodifiedSkippedTests > 0)
+        if (this.timeouts.any())
         {
-            table.addRow("Unmodified Tests:", Integers.toString(this.unmodifiedPassedTests + this.unmodifiedSkippedTests));
-            if (this.unmodifiedPassedTests > 0)
-            {
-                table.addRow("Unmodified Passed Tests:", Integers.toString(this.unmodifiedPassedTests));
-            }
-            if (this.unmodifiedSkippedTests > 0)
+            this.writeStream.writeLine("Timeouts:").await();
+            this.increaseIndent();
+            int timeoutNumber = 1;
+            for (final TestError timeout : this.timeouts)
             {
-                table.addRow("Unmodified Skipped Tests:", Integers.toString(this.unmodifiedSkippedTests));
+                this.writeStream.writeLine(timeoutNumber + ") " + timeout.getMessageLines().first()).await();
+                ++timeoutNumber;
             }
+            this.decreaseIndent();
+
+            this.writeStream.writeLine().await();
+        }
+
+        final CharacterTable table = CharacterTable.create();
+        ConsoleTestRunner.addUnmodifiedTestRows(table, this.unmodifiedPassedTests, this.unmodifiedSkippedTests);
+        if (this.notRunTestClassCount > 0)
+        {
+            table.addRow("Test Classes Not Run:", Integers.toString(this.notRunTestClassCount));
         }
 
-        if (this.testRunner.getFinishedTestCount() > 0)
+        if (this.getFinishedTestCount() > 0)
         {
-            table.addRow("Tests Run:", Integers.toString(this.testRunner.getFinishedTestCount()));
-            if (this.testRunner.getPassedTestCount() > 0)
+            table.addRow("Tests Run:", Integers.toString(this.getFinishedTestCount()));
+            if (this.getPassedTestCount() > 0)
             {
-                table.addRow("Tests Passed:", Integers.toString(this.testRunner.getPassedTestCount()));
+                table.addRow("Tests Passed:", Integers.toString(this.getPassedTestCount()));
             }
-            if (this.testRunner.getFailedTestCount() > 0)
+            if (this.getFailedTestCount() > 0)
             {
-                table.addRow("Tests Failed:", Integers.toString(this.testRunner.getFailedTestCount()));
+                table.addRow("Tests Failed:", Integers.toString(this.getFailedTestCount()));
             }
-            if (this.testRunner.getSkippedTestCount() > 0)
+            if (this.timeouts.any())
             {
-                table.addRow("Tests Skipped:", Integers.toString(this.testRunner.getSkippedTestCount()));
+                table.addRow("Timeouts:", Integers.toString(this.timeouts.getCount()));
+            }
+            if (this.getSkippedTestCount() > 0)
+            {
+                table.addRow("Tests Skipped:", Integers.toString(this.getSkippedTestCount()));
             }
         }
 
@@ -668,4 +1482,31 @@ public class ConsoleTestRunner implements TestRunner
         table.toString(this.writeStream, CharacterTableFormat.consise).await();
         this.writeStream.writeLine().await();
     }
+
+    /**
+     * Add the summary rows for tests that weren't run because their results were already up to
+     * date.
+     * @param table The table to add the rows to.
+     * @param unmodifiedPassedTests The number of unmodified passed tests.
+     * @param unmodifiedSkippedTests The number of unmodified skipped tests.
+     */
+    static void addUnmodifiedTestRows(CharacterTable table, int unmodifiedPassedTests, int unmodifiedSkippedTests)
+    {
+        PreCondition.assertNotNull(table, "table");
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedPassedTests, 0, "unmodifiedPassedTests");
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedSkippedTests, 0, "unmodifiedSkippedTests");
+
+        if (unmodifiedPassedTests > 0 || unmodifiedSkippedTests > 0)
+        {
+            table.addRow("Unmodified Tests:", Integers.toString(unmodifiedPassedTests + unmodifiedSkippedTests));
+            if (unmodifiedPassedTests > 0)
+            {
+                table.addRow("Unmodified Passed Tests:", Integers.toString(unmodifiedPassedTests));
+            }
+            if (unmodifiedSkippedTests > 0)
+            {
+                table.addRow("Unmodified Skipped Tests:", Integers.toString(unmodifiedSkippedTests));
+            }
+        }
+    }
 }
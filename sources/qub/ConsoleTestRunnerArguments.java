@@ -127,6 +127,137 @@ public interface ConsoleTestRunnerArguments<T>
         return this.addArguments("--coverage=" + coverage);
     }
 
+    /**
+     * Add a testjson-file argument to this process builder.
+     * @param testJsonFile The file that the test runner will write its test.json results to.
+     * @return This object for method chaining.
+     */
+    default T addTestJsonFile(File testJsonFile)
+    {
+        PreCondition.assertNotNull(testJsonFile, "testJsonFile");
+
+        return this.addArguments("--testjson-file=" + testJsonFile);
+    }
+
+    /**
+     * Add a results-format argument to this process builder.
+     * @param resultsFormat The format that the test runner will store its test results in.
+     * @return This object for method chaining.
+     */
+    default T addResultsFormat(TestResultsFormat resultsFormat)
+    {
+        PreCondition.assertNotNull(resultsFormat, "resultsFormat");
+
+        return this.addArguments("--results-format=" + resultsFormat);
+    }
+
+    /**
+     * Add a rerun-failed argument to this process builder.
+     * @return This object for method chaining.
+     */
+    default T addRerunFailed()
+    {
+        return this.addArguments("--rerun-failed");
+    }
+
+    /**
+     * Add a fail-fast argument to this process builder.
+     * @param failFast The number of failed tests after which no more test classes will be started.
+     * @return This object for method chaining.
+     */
+    default T addFailFast(int failFast)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(failFast, 1, "failFast");
+
+        return this.addArguments("--fail-fast=" + failFast);
+    }
+
+    /**
+     * Add a stop-file argument to this process builder.
+     * @param stopFile The file that stops the test run when it exists.
+     * @return This object for method chaining.
+     */
+    default T addStopFile(File stopFile)
+    {
+        PreCondition.assertNotNull(stopFile, "stopFile");
+
+        return this.addArguments("--stop-file=" + stopFile);
+    }
+
+    /**
+     * Add a test-timeout argument to this process builder.
+     * @param testTimeout The amount of time that each test has to finish.
+     * @return This object for method chaining.
+     */
+    default T addTestTimeout(Duration testTimeout)
+    {
+        PreCondition.assertNotNull(testTimeout, "testTimeout");
+
+        return this.addArguments("--test-timeout=" + TestWatchdog.formatSeconds(testTimeout));
+    }
+
+    /**
+     * Add a test-class-timeout argument to this process builder.
+     * @param testClassTimeout The amount of time that each test class has to finish.
+     * @return This object for method chaining.
+     */
+    default T addTestClassTimeout(Duration testClassTimeout)
+    {
+        PreCondition.assertNotNull(testClassTimeout, "testClassTimeout");
+
+        return this.addArguments("--test-class-timeout=" + TestWatchdog.formatSeconds(testClassTimeout));
+    }
+
+    /**
+     * Add a parallelism argument to this process builder.
+     * @param parallelism The value of the parallelism argument to add.
+     * @return This object for method chaining.
+     */
+    default T addParallelism(String parallelism)
+    {
+        PreCondition.assertNotNullAndNotEmpty(parallelism, "parallelism");
+
+        return this.addArguments("--parallelism=" + parallelism);
+    }
+
+    /**
+     * Add an unmodified-passed-tests argument to this process builder.
+     * @param unmodifiedPassedTestCount The number of passed tests that weren't run because their
+     *                                  results were already up to date.
+     * @return This object for method chaining.
+     */
+    default T addUnmodifiedPassedTests(int unmodifiedPassedTestCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedPassedTestCount, 0, "unmodifiedPassedTestCount");
+
+        return this.addArguments("--unmodified-passed-tests=" + unmodifiedPassedTestCount);
+    }
+
+    /**
+     * Add an unmodified-skipped-tests argument to this process builder.
+     * @param unmodifiedSkippedTestCount The number of skipped tests that weren't run because their
+     *                                   results were already up to date.
+     * @return This object for method chaining.
+     */
+    default T addUnmodifiedSkippedTests(int unmodifiedSkippedTestCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedSkippedTestCount, 0, "unmodifiedSkippedTestCount");
+
+        return this.addArguments("--unmodified-skipped-tests=" + unmodifiedSkippedTestCount);
+    }
+
+    /**
+     * Add a test-manifest argument to this process builder.
+     * @param testManifestFile The file that lists the test classes that the test runner will run.
+     * @return This object for method chaining.
+     */
+    default T addTestManifest(File testManifestFile)
+    {
+        PreCondition.assertNotNull(testManifestFile, "testManifestFile");
+
+        return this.addArguments("--test-manifest=" + testManifestFile);
+    }
+
     /**
      * Add the full class name arguments to this process builder.
      * @param fullClassNamesToTest The full names of the classes to test.
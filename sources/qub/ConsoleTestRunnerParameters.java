@@ -14,6 +14,20 @@ public class ConsoleTestRunnerParameters
     private Coverage coverage;
     private Boolean testJson;
     private File logFile;
+    private File testJsonFile;
+    private int parallelism;
+    private CharacterToByteWriteStream outputWriteStream;
+    private ClassLoader testClassLoader;
+    private Iterable<String> classPaths;
+    private int unmodifiedPassedTestCount;
+    private int unmodifiedSkippedTestCount;
+    private TestManifest testManifest;
+    private TestResultsFormat resultsFormat;
+    private boolean rerunFailed;
+    private Integer failFast;
+    private File stopFile;
+    private Duration testTimeout;
+    private Duration testClassTimeout;
 
     /**
      * Create a new ConsoleTestRunnerParameters object.
@@ -33,6 +47,8 @@ public class ConsoleTestRunnerParameters
         this.verbose = verbose;
         this.outputFolder = outputFolder;
         this.testClassNames = testClassNames;
+        this.parallelism = 1;
+        this.resultsFormat = TestResultsFormat.JSON;
     }
 
     /**
@@ -127,4 +143,367 @@ public class ConsoleTestRunnerParameters
     {
         return this.logFile;
     }
+
+    /**
+     * Set the file that the test results will be written to. If this is not set, then the test
+     * results will be written to the test.json file in the output folder.
+     * @param testJsonFile The file that the test results will be written to.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setTestJsonFile(File testJsonFile)
+    {
+        this.testJsonFile = testJsonFile;
+        return this;
+    }
+
+    /**
+     * Get the file that the test results will be written to.
+     * @return The file that the test results will be written to.
+     */
+    public File getTestJsonFile()
+    {
+        File result = this.testJsonFile;
+        if (result == null)
+        {
+            result = this.outputFolder.getFile("test.json").await();
+        }
+        return result;
+    }
+
+    /**
+     * Set the format that the test results will be stored in. This is only used when the test
+     * results are written to the output folder instead of to a test.json file that was set with
+     * setTestJsonFile().
+     * @param resultsFormat The format that the test results will be stored in.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setResultsFormat(TestResultsFormat resultsFormat)
+    {
+        PreCondition.assertNotNull(resultsFormat, "resultsFormat");
+
+        this.resultsFormat = resultsFormat;
+        return this;
+    }
+
+    /**
+     * Get the format that the test results will be stored in.
+     * @return The format that the test results will be stored in.
+     */
+    public TestResultsFormat getResultsFormat()
+    {
+        return this.resultsFormat;
+    }
+
+    /**
+     * Set whether or not a test class that had failing tests in the previous test run and that
+     * hasn't changed since then should only run its previously failing tests. The previous results
+     * of the test class's other tests are reused.
+     * @param rerunFailed Whether or not to only rerun the previously failing tests.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setRerunFailed(boolean rerunFailed)
+    {
+        this.rerunFailed = rerunFailed;
+        return this;
+    }
+
+    /**
+     * Get whether or not a test class that had failing tests in the previous test run and that
+     * hasn't changed since then should only run its previously failing tests.
+     * @return Whether or not to only rerun the previously failing tests.
+     */
+    public boolean getRerunFailed()
+    {
+        return this.rerunFailed;
+    }
+
+    /**
+     * Set the number of failed tests after which no more test classes will be started, or null if
+     * every test class should be run no matter how many tests fail.
+     * @param failFast The number of failed tests after which no more test classes will be started.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setFailFast(Integer failFast)
+    {
+        PreCondition.assertTrue(failFast == null || failFast >= 1, "failFast == null || failFast >= 1");
+
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * Get the number of failed tests after which no more test classes will be started, or null if
+     * every test class should be run no matter how many tests fail.
+     * @return The number of failed tests after which no more test classes will be started.
+     */
+    public Integer getFailFast()
+    {
+        return this.failFast;
+    }
+
+    /**
+     * Set the file that stops the test run when it exists. Test runners that run in separate
+     * processes at the same time use this file to tell each other to stop when fail-fast is used.
+     * @param stopFile The file that stops the test run when it exists, or null.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setStopFile(File stopFile)
+    {
+        this.stopFile = stopFile;
+        return this;
+    }
+
+    /**
+     * Get the file that stops the test run when it exists, or null if there isn't one.
+     * @return The file that stops the test run when it exists.
+     */
+    public File getStopFile()
+    {
+        return this.stopFile;
+    }
+
+    /**
+     * Set the amount of time that each test has to finish before it is interrupted and reported as
+     * timed out.
+     * @param testTimeout The amount of time that each test has to finish, or null if tests don't
+     *                    have a time limit.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setTestTimeout(Duration testTimeout)
+    {
+        PreCondition.assertTrue(testTimeout == null || testTimeout.toMilliseconds().getValue() > 0, "testTimeout == null || testTimeout > 0");
+
+        this.testTimeout = testTimeout;
+        return this;
+    }
+
+    /**
+     * Get the amount of time that each test has to finish, or null if tests don't have a time
+     * limit.
+     * @return The amount of time that each test has to finish.
+     */
+    public Duration getTestTimeout()
+    {
+        return this.testTimeout;
+    }
+
+    /**
+     * Set the amount of time that each test class has to finish before its running test is
+     * interrupted and its remaining tests are reported as timed out.
+     * @param testClassTimeout The amount of time that each test class has to finish, or null if
+     *                         test classes don't have a time limit.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setTestClassTimeout(Duration testClassTimeout)
+    {
+        PreCondition.assertTrue(testClassTimeout == null || testClassTimeout.toMilliseconds().getValue() > 0, "testClassTimeout == null || testClassTimeout > 0");
+
+        this.testClassTimeout = testClassTimeout;
+        return this;
+    }
+
+    /**
+     * Get the amount of time that each test class has to finish, or null if test classes don't
+     * have a time limit.
+     * @return The amount of time that each test class has to finish.
+     */
+    public Duration getTestClassTimeout()
+    {
+        return this.testClassTimeout;
+    }
+
+    /**
+     * Get whether or not the test results will be written to a test.json file that was set with
+     * setTestJsonFile() instead of to the output folder.
+     * @return Whether or not the test results will be written to an explicit test.json file.
+     */
+    public boolean hasTestJsonFile()
+    {
+        return this.testJsonFile != null;
+    }
+
+    /**
+     * Set the maximum number of test classes that will be run at the same time.
+     * @param parallelism The maximum number of test classes that will be run at the same time.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setParallelism(int parallelism)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(parallelism, 1, "parallelism");
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of test classes that will be run at the same time.
+     * @return The maximum number of test classes that will be run at the same time.
+     */
+    public int getParallelism()
+    {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the stream that test output will be written to. If this is not set, then test output
+     * will be written to the process's output stream.
+     * @param outputWriteStream The stream that test output will be written to.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setOutputWriteStream(CharacterToByteWriteStream outputWriteStream)
+    {
+        this.outputWriteStream = outputWriteStream;
+        return this;
+    }
+
+    /**
+     * Get the stream that test output will be written to.
+     * @return The stream that test output will be written to.
+     */
+    public CharacterToByteWriteStream getOutputWriteStream()
+    {
+        return this.outputWriteStream != null
+            ? this.outputWriteStream
+            : this.process.getOutputWriteStream();
+    }
+
+    /**
+     * Set the ClassLoader that test classes will be loaded with. If this is not set, then test
+     * classes will be loaded by the test runner.
+     * @param testClassLoader The ClassLoader that test classes will be loaded with.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setTestClassLoader(ClassLoader testClassLoader)
+    {
+        this.testClassLoader = testClassLoader;
+        return this;
+    }
+
+    /**
+     * Get the ClassLoader that test classes will be loaded with, or null if the test runner will
+     * load the test classes.
+     * @return The ClassLoader that test classes will be loaded with.
+     */
+    public ClassLoader getTestClassLoader()
+    {
+        return this.testClassLoader;
+    }
+
+    /**
+     * Set the classpath entries that the tests are run with. If this is not set, then the
+     * classpath of the test runner's JVM will be used.
+     * @param classPaths The classpath entries that the tests are run with.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setClassPaths(Iterable<String> classPaths)
+    {
+        this.classPaths = classPaths;
+        return this;
+    }
+
+    /**
+     * Get the classpath entries that the tests are run with.
+     * @return The classpath entries that the tests are run with.
+     */
+    public Iterable<String> getClassPaths()
+    {
+        return this.classPaths != null
+            ? this.classPaths
+            : ClassPathDependencies.split(this.process.getJVMClasspath().catchError().await());
+    }
+
+    /**
+     * Set the number of passed tests that weren't given to this test runner because their results
+     * were already up to date. These are included in the test run's summary.
+     * @param unmodifiedPassedTestCount The number of unmodified passed tests.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setUnmodifiedPassedTestCount(int unmodifiedPassedTestCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedPassedTestCount, 0, "unmodifiedPassedTestCount");
+
+        this.unmodifiedPassedTestCount = unmodifiedPassedTestCount;
+        return this;
+    }
+
+    /**
+     * Get the number of passed tests that weren't given to this test runner because their results
+     * were already up to date.
+     * @return The number of unmodified passed tests.
+     */
+    public int getUnmodifiedPassedTestCount()
+    {
+        return this.unmodifiedPassedTestCount;
+    }
+
+    /**
+     * Set the number of skipped tests that weren't given to this test runner because their results
+     * were already up to date. These are included in the test run's summary.
+     * @param unmodifiedSkippedTestCount The number of unmodified skipped tests.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setUnmodifiedSkippedTestCount(int unmodifiedSkippedTestCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedSkippedTestCount, 0, "unmodifiedSkippedTestCount");
+
+        this.unmodifiedSkippedTestCount = unmodifiedSkippedTestCount;
+        return this;
+    }
+
+    /**
+     * Get the number of skipped tests that weren't given to this test runner because their results
+     * were already up to date.
+     * @return The number of unmodified skipped tests.
+     */
+    public int getUnmodifiedSkippedTestCount()
+    {
+        return this.unmodifiedSkippedTestCount;
+    }
+
+    /**
+     * Set the test manifest that was read from the test manifest file that was passed to this test
+     * runner. The test manifest's test classes are run after the test classes that were passed as
+     * command line arguments, and its expected durations are used to schedule parallel test runs.
+     * @param testManifest The test manifest that was passed to this test runner.
+     * @return This object for method chaining.
+     */
+    public ConsoleTestRunnerParameters setTestManifest(TestManifest testManifest)
+    {
+        this.testManifest = testManifest;
+        return this;
+    }
+
+    /**
+     * Get the test manifest that was passed to this test runner, or null if no test manifest was
+     * passed.
+     * @return The test manifest that was passed to this test runner.
+     */
+    public TestManifest getTestManifest()
+    {
+        return this.testManifest;
+    }
+
+    /**
+     * Get the names of the classes that should have their tests run, including the classes in the
+     * test manifest.
+     * @return The names of the classes that should have their tests run.
+     */
+    public Iterable<String> getAllTestClassNames()
+    {
+        Iterable<String> result = this.testClassNames;
+        if (this.testManifest != null)
+        {
+            final List<String> allTestClassNames = List.create();
+            for (final String testClassName : this.testClassNames)
+            {
+                allTestClassNames.add(testClassName);
+            }
+            for (final String testClassName : this.testManifest.getFullClassNames())
+            {
+                allTestClassNames.add(testClassName);
+            }
+            result = allTestClassNames;
+        }
+        return result;
+    }
 }
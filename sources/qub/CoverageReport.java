@@ -0,0 +1,250 @@
+package qub;
+
+/**
+ * A collection of functions that generate the coverage report of a coverage run. The report is
+ * written as HTML, XML, and CSV with JaCoCo's public analysis and report API, which is loaded from
+ * jacococli.jar into the current process when possible so that another JVM doesn't need to be
+ * started. A report is only generated again when the execution data, the class files, or the report
+ * settings have changed since the last report.
+ */
+public interface CoverageReport
+{
+    /**
+     * The name of the file in the coverage folder that has the key of the last report.
+     */
+    String keyFileName = "report.key";
+
+    /**
+     * The name of the file in the coverage folder that the XML report is written to.
+     */
+    String xmlFileName = "coverage.xml";
+
+    /**
+     * The name of the file in the coverage folder that the CSV report is written to.
+     */
+    String csvFileName = "coverage.csv";
+
+    /**
+     * The name of the report's top level group. This is the same name that JaCoCo's command line
+     * interface uses.
+     */
+    String reportName = "JaCoCo Coverage Report";
+
+    /**
+     * The number of columns that a tab character takes up in the report's source file pages.
+     */
+    int sourceTabWidth = 4;
+
+    /**
+     * Get the folders whose java files are shown in the report for the provided coverage.
+     * @param coverage The classes whose coverage is reported.
+     * @param sourceFolder The folder that contains the source java files.
+     * @param testFolder The folder that contains the test java files.
+     * @return The folders whose java files are shown in the report.
+     */
+    static Iterable<Folder> getSourceFolders(Coverage coverage, Folder sourceFolder, Folder testFolder)
+    {
+        PreCondition.assertNotNull(coverage, "coverage");
+        PreCondition.assertNotNull(sourceFolder, "sourceFolder");
+        PreCondition.assertNotNull(testFolder, "testFolder");
+
+        final List<Folder> result = List.create();
+        if (coverage == Coverage.Sources || coverage == Coverage.All)
+        {
+            result.add(sourceFolder);
+        }
+        if (coverage == Coverage.Tests || coverage == Coverage.All)
+        {
+            result.add(testFolder);
+        }
+        return result;
+    }
+
+    /**
+     * Get the key of a report. Two reports with the same key have the same contents.
+     * @param jacocoVersion The version of JaCoCo that generates the report.
+     * @param coverage The classes whose coverage is reported.
+     * @param coverageExecFile The execution data that the report is generated from.
+     * @param classFiles The class files whose coverage is reported.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @return The key of the report.
+     */
+    static String getKey(String jacocoVersion, Coverage coverage, File coverageExecFile, Iterable<File> classFiles, MutableMap<String,String> contentHashCache)
+    {
+        PreCondition.assertNotNullAndNotEmpty(jacocoVersion, "jacocoVersion");
+        PreCondition.assertNotNull(coverage, "coverage");
+        PreCondition.assertNotNull(coverageExecFile, "coverageExecFile");
+        PreCondition.assertNotNull(classFiles, "classFiles");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+
+        final byte[] executionData = coverageExecFile.getContents()
+            .catchError(FileNotFoundException.class)
+            .await();
+
+        final StringBuilder key = new StringBuilder()
+            .append("jacoco=").append(jacocoVersion).append('\n')
+            .append("coverage=").append(coverage).append('\n')
+            .append("exec=").append(ClassFileHashes.getContentHash(executionData == null ? new byte[0] : executionData)).append('\n');
+        for (final File classFile : classFiles)
+        {
+            key.append(classFile).append('=').append(ClassFileHashes.getContentHash(classFile, contentHashCache).await()).append('\n');
+        }
+        final String result = ClassFileHashes.getContentHash(key.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+        PostCondition.assertNotNullAndNotEmpty(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get whether the report in the provided coverage folder was generated with the provided key.
+     * @param coverageFolder The folder that the report is written to.
+     * @param key The key of the report that would be generated.
+     * @return Whether the report is up to date.
+     */
+    static boolean isUpToDate(Folder coverageFolder, String key)
+    {
+        PreCondition.assertNotNull(coverageFolder, "coverageFolder");
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+
+        final String previousKey = coverageFolder.getFile(CoverageReport.keyFileName).await().getContentsAsString()
+            .catchError(FileNotFoundException.class)
+            .await();
+        return key.equals(previousKey) &&
+            coverageFolder.getFile("index.html").await().exists().await() &&
+            coverageFolder.getFile(CoverageReport.xmlFileName).await().exists().await() &&
+            coverageFolder.getFile(CoverageReport.csvFileName).await().exists().await();
+    }
+
+    /**
+     * Record that the report in the provided coverage folder was generated with the provided key.
+     * @param coverageFolder The folder that the report was written to.
+     * @param key The key of the report.
+     */
+    static void setKey(Folder coverageFolder, String key)
+    {
+        PreCondition.assertNotNull(coverageFolder, "coverageFolder");
+        PreCondition.assertNotNullAndNotEmpty(key, "key");
+
+        coverageFolder.getFile(CoverageReport.keyFileName).await().setContentsAsString(key).await();
+    }
+
+    /**
+     * Get the arguments that make JaCoCo's command line interface write the XML and CSV reports.
+     * @param coverageFolder The folder that the report is written to.
+     * @return The arguments of JaCoCo's command line interface.
+     */
+    static Iterable<String> getMachineReadableArguments(Folder coverageFolder)
+    {
+        PreCondition.assertNotNull(coverageFolder, "coverageFolder");
+
+        return Iterable.create(
+            "--xml", coverageFolder.getFile(CoverageReport.xmlFileName).await().toString(),
+            "--csv", coverageFolder.getFile(CoverageReport.csvFileName).await().toString());
+    }
+
+    /**
+     * Generate the HTML, XML, and CSV reports in the current process with JaCoCo's public analysis
+     * and report API. The API is loaded from jacococli.jar, which bundles JaCoCo's core and report
+     * libraries.
+     * @param jacocoCliJarFile The jacococli.jar file to load JaCoCo's API from.
+     * @param coverageExecFile The execution data that the report is generated from.
+     * @param classFiles The class files whose coverage is reported.
+     * @param sourceFolders The folders whose java files are shown in the report.
+     * @param coverageFolder The folder that the report is written to.
+     * @param verbose The stream that the reason the report couldn't be generated will be written
+     *                to.
+     * @return Whether the report was generated. If it wasn't, then the report should be generated
+     * by running JaCoCo's command line interface in another process.
+     */
+    static boolean generateInProcess(File jacocoCliJarFile, File coverageExecFile, Iterable<File> classFiles, Iterable<Folder> sourceFolders, Folder coverageFolder, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(jacocoCliJarFile, "jacocoCliJarFile");
+        PreCondition.assertNotNull(coverageExecFile, "coverageExecFile");
+        PreCondition.assertNotNull(classFiles, "classFiles");
+        PreCondition.assertNotNull(sourceFolders, "sourceFolders");
+        PreCondition.assertNotNull(coverageFolder, "coverageFolder");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        boolean result = false;
+        if (jacocoCliJarFile.getFileSystem() instanceof JavaFileSystem)
+        {
+            try (final java.net.URLClassLoader classLoader = new java.net.URLClassLoader(
+                new java.net.URL[] { java.nio.file.Paths.get(jacocoCliJarFile.toString()).toUri().toURL() },
+                ClassLoader.getPlatformClassLoader()))
+            {
+                // JaCoCo's classes are only visible through the class loader, so its API is called reflectively.
+                final Class<?> execFileLoaderClass = classLoader.loadClass("org.jacoco.core.tools.ExecFileLoader");
+                final Object execFileLoader = execFileLoaderClass.getConstructor().newInstance();
+                execFileLoaderClass.getMethod("load", java.io.File.class).invoke(execFileLoader, new java.io.File(coverageExecFile.toString()));
+                final Object executionDataStore = execFileLoaderClass.getMethod("getExecutionDataStore").invoke(execFileLoader);
+                final Object sessionInfoStore = execFileLoaderClass.getMethod("getSessionInfoStore").invoke(execFileLoader);
+
+                final Class<?> coverageBuilderClass = classLoader.loadClass("org.jacoco.core.analysis.CoverageBuilder");
+                final Object coverageBuilder = coverageBuilderClass.getConstructor().newInstance();
+                final Class<?> analyzerClass = classLoader.loadClass("org.jacoco.core.analysis.Analyzer");
+                final Object analyzer = analyzerClass
+                    .getConstructor(classLoader.loadClass("org.jacoco.core.data.ExecutionDataStore"), classLoader.loadClass("org.jacoco.core.analysis.ICoverageVisitor"))
+                    .newInstance(executionDataStore, coverageBuilder);
+                final java.lang.reflect.Method analyzeAll = analyzerClass.getMethod("analyzeAll", java.io.File.class);
+                for (final File classFile : classFiles)
+                {
+                    analyzeAll.invoke(analyzer, new java.io.File(classFile.toString()));
+                }
+                final Object bundle = coverageBuilderClass.getMethod("getBundle", String.class).invoke(coverageBuilder, CoverageReport.reportName);
+
+                final Class<?> sourceFileLocatorClass = classLoader.loadClass("org.jacoco.report.ISourceFileLocator");
+                final Class<?> multiSourceFileLocatorClass = classLoader.loadClass("org.jacoco.report.MultiSourceFileLocator");
+                final Object sourceFileLocator = multiSourceFileLocatorClass.getConstructor(int.class).newInstance(CoverageReport.sourceTabWidth);
+                final java.lang.reflect.Constructor<?> directorySourceFileLocatorConstructor = classLoader.loadClass("org.jacoco.report.DirectorySourceFileLocator")
+                    .getConstructor(java.io.File.class, String.class, int.class);
+                final java.lang.reflect.Method addSourceFileLocator = multiSourceFileLocatorClass.getMethod("add", sourceFileLocatorClass);
+                for (final Folder sourceFolder : sourceFolders)
+                {
+                    addSourceFileLocator.invoke(sourceFileLocator, directorySourceFileLocatorConstructor.newInstance(new java.io.File(sourceFolder.toString()), null, CoverageReport.sourceTabWidth));
+                }
+
+                final java.io.File coverageDirectory = new java.io.File(coverageFolder.toString());
+                coverageDirectory.mkdirs();
+                try (final java.io.OutputStream xmlStream = new java.io.FileOutputStream(new java.io.File(coverageDirectory, CoverageReport.xmlFileName));
+                     final java.io.OutputStream csvStream = new java.io.FileOutputStream(new java.io.File(coverageDirectory, CoverageReport.csvFileName)))
+                {
+                    final Class<?> htmlFormatterClass = classLoader.loadClass("org.jacoco.report.html.HTMLFormatter");
+                    final Object htmlOutput = classLoader.loadClass("org.jacoco.report.FileMultiReportOutput")
+                        .getConstructor(java.io.File.class)
+                        .newInstance(coverageDirectory);
+                    final Object htmlVisitor = htmlFormatterClass.getMethod("createVisitor", classLoader.loadClass("org.jacoco.report.IMultiReportOutput"))
+                        .invoke(htmlFormatterClass.getConstructor().newInstance(), htmlOutput);
+                    final Class<?> xmlFormatterClass = classLoader.loadClass("org.jacoco.report.xml.XMLFormatter");
+                    final Object xmlVisitor = xmlFormatterClass.getMethod("createVisitor", java.io.OutputStream.class)
+                        .invoke(xmlFormatterClass.getConstructor().newInstance(), xmlStream);
+                    final Class<?> csvFormatterClass = classLoader.loadClass("org.jacoco.report.csv.CSVFormatter");
+                    final Object csvVisitor = csvFormatterClass.getMethod("createVisitor", java.io.OutputStream.class)
+                        .invoke(csvFormatterClass.getConstructor().newInstance(), csvStream);
+
+                    final Class<?> reportVisitorClass = classLoader.loadClass("org.jacoco.report.IReportVisitor");
+                    final Object reportVisitor = classLoader.loadClass("org.jacoco.report.MultiReportVisitor")
+                        .getConstructor(java.util.List.class)
+                        .newInstance(java.util.Arrays.asList(htmlVisitor, xmlVisitor, csvVisitor));
+                    reportVisitorClass.getMethod("visitInfo", java.util.List.class, java.util.Collection.class)
+                        .invoke(reportVisitor,
+                            sessionInfoStore.getClass().getMethod("getInfos").invoke(sessionInfoStore),
+                            executionDataStore.getClass().getMethod("getContents").invoke(executionDataStore));
+                    reportVisitorClass.getMethod("visitBundle", classLoader.loadClass("org.jacoco.core.analysis.IBundleCoverage"), sourceFileLocatorClass)
+                        .invoke(reportVisitor, bundle, sourceFileLocator);
+                    reportVisitorClass.getMethod("visitEnd").invoke(reportVisitor);
+                }
+
+                result = true;
+            }
+            catch (ReflectiveOperationException | java.io.IOException | LinkageError | RuntimeException e)
+            {
+                final Throwable cause = e instanceof java.lang.reflect.InvocationTargetException && e.getCause() != null
+                    ? e.getCause()
+                    : e;
+                verbose.writeLine("Couldn't generate the coverage report in the qub-test process: " + cause).await();
+            }
+        }
+        return result;
+    }
+}
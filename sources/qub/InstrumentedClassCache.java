@@ -0,0 +1,312 @@
+package qub;
+
+/**
+ * A cache of class files that have been instrumented offline by JaCoCo. Each instrumented class
+ * file is stored under the content hash of the class file that it was created from, so a class file
+ * only needs to be instrumented again when its bytes change. The instrumented class files of a
+ * coverage run are packaged into a jar that is put in front of the output folder on the test
+ * runner's classpath.
+ * <p>
+ * The cached class files are stored with an .instrumented extension and packaged into a jar so
+ * that no extra .class files are added to the output folder, where they would be mistaken for
+ * compiled classes.
+ */
+public class InstrumentedClassCache
+{
+    /**
+     * The name of the folder in the output folder that the cache is stored in.
+     */
+    static final String folderName = "coverage-instrumented";
+
+    /**
+     * The name of the jar file that the instrumented class files of a coverage run are packaged
+     * into.
+     */
+    static final String jarFileName = "classes.jar";
+
+    /**
+     * The name of the file that has the version of JaCoCo that the cached class files were
+     * instrumented with.
+     */
+    static final String jacocoVersionFileName = "jacoco.version";
+
+    /**
+     * Get the folder that the cache of the provided output folder is stored in.
+     * @param outputFolder The output folder.
+     * @return The folder that the cache is stored in.
+     */
+    static Folder getFolder(Folder outputFolder)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        return outputFolder.getFolder(InstrumentedClassCache.folderName).await();
+    }
+
+    /**
+     * Get the jar file that the instrumented class files of a coverage run are packaged into.
+     * @param outputFolder The output folder.
+     * @return The jar file that the instrumented class files are packaged into.
+     */
+    static File getJarFile(Folder outputFolder)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        return InstrumentedClassCache.getFolder(outputFolder).getFile(InstrumentedClassCache.jarFileName).await();
+    }
+
+    /**
+     * Get the cached instrumented class file of the class file with the provided content hash.
+     * @param outputFolder The output folder.
+     * @param contentHash The content hash of the class file that was instrumented.
+     * @return The cached instrumented class file.
+     */
+    static File getInstrumentedFile(Folder outputFolder, String contentHash)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNullAndNotEmpty(contentHash, "contentHash");
+
+        return InstrumentedClassCache.getFolder(outputFolder).getFile(contentHash + ".instrumented").await();
+    }
+
+    /**
+     * Instrument the provided class files that aren't in the cache yet, and then package the
+     * instrumented versions of all of the provided class files into the cache's jar file. The jar
+     * file also configures the JaCoCo runtime to write its execution data to the provided file.
+     * @param outputFolder The output folder that contains the class files.
+     * @param classFiles The class files whose coverage will be collected.
+     * @param jacocoFolder The folder of the JaCoCo installation to instrument the class files with.
+     * @param coverageExecFile The file that the JaCoCo runtime will write its execution data to.
+     * @param processFactory The factory that will run JaCoCo's command line interface.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @param output The stream that JaCoCo's output will be written to, or null if JaCoCo's output
+     *               should be ignored.
+     * @param error The stream that JaCoCo's errors will be written to, or null if JaCoCo's errors
+     *              should be ignored.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The jar file with the instrumented class files, or null if the class files couldn't be
+     * instrumented.
+     */
+    static File update(Folder outputFolder, Iterable<File> classFiles, Folder jacocoFolder, File coverageExecFile, ProcessFactory processFactory, MutableMap<String,String> contentHashCache, CharacterToByteWriteStream output, CharacterToByteWriteStream error, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(classFiles, "classFiles");
+        PreCondition.assertNotNull(jacocoFolder, "jacocoFolder");
+        PreCondition.assertNotNull(coverageExecFile, "coverageExecFile");
+        PreCondition.assertNotNull(processFactory, "processFactory");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final Folder folder = InstrumentedClassCache.getFolder(outputFolder);
+        InstrumentedClassCache.setJacocoVersion(outputFolder, jacocoFolder.getName(), verbose);
+
+        // Class file paths relative to the output folder, mapped to the content hashes of the class files.
+        final MutableMap<String,String> contentHashes = Map.create();
+        final MutableMap<String,byte[]> classFilesToInstrument = Map.create();
+        for (final File classFile : classFiles)
+        {
+            final String relativePath = classFile.relativeTo(outputFolder).toString().replace('\\', '/');
+            final String contentHash = ClassFileHashes.getContentHash(classFile, contentHashCache).await();
+            contentHashes.set(relativePath, contentHash);
+            if (!InstrumentedClassCache.getInstrumentedFile(outputFolder, contentHash).exists().await())
+            {
+                classFilesToInstrument.set(relativePath, classFile.getContents().await());
+            }
+        }
+
+        boolean instrumented = true;
+        if (classFilesToInstrument.any())
+        {
+            verbose.writeLine("Instrumenting " + classFilesToInstrument.getCount() + " of " + contentHashes.getCount() + " class files for coverage...").await();
+
+            final File uninstrumentedJarFile = folder.getFile("uninstrumented.jar").await();
+            final Folder instrumentedFolder = folder.getFolder("instrumented").await();
+            final File instrumentedJarFile = instrumentedFolder.getFile(uninstrumentedJarFile.getName()).await();
+            uninstrumentedJarFile.setContents(InstrumentedClassCache.createJar(classFilesToInstrument).await()).await();
+
+            final JacocoCliProcessBuilder jacococli = JacocoCliProcessBuilder.create(processFactory).await()
+                .addJacocoCliJar(jacocoFolder.getFile("jacococli.jar").await());
+            jacococli.addArgument("instrument");
+            jacococli.addArgument(uninstrumentedJarFile.toString());
+            jacococli.addArgument("--dest");
+            jacococli.addArgument(instrumentedFolder.toString());
+            if (output != null)
+            {
+                jacococli.redirectOutput(output);
+                jacococli.redirectError(error);
+
+                verbose.writeLine("Running " + jacococli.getCommand()).await();
+            }
+
+            final int instrumentExitCode = jacococli.run().await();
+            final byte[] instrumentedJarBytes = instrumentExitCode != 0
+                ? null
+                : instrumentedJarFile.getContents()
+                    .catchError(FileNotFoundException.class)
+                    .await();
+            if (instrumentedJarBytes == null)
+            {
+                instrumented = false;
+            }
+            else
+            {
+                final MutableMap<String,byte[]> instrumentedClassFiles = InstrumentedClassCache.readJar(instrumentedJarBytes).await();
+                for (final String relativePath : classFilesToInstrument.getKeys())
+                {
+                    final byte[] instrumentedClassFile = instrumentedClassFiles.get(relativePath)
+                        .catchError(NotFoundException.class)
+                        .await();
+                    if (instrumentedClassFile == null)
+                    {
+                        instrumented = false;
+                    }
+                    else
+                    {
+                        InstrumentedClassCache.getInstrumentedFile(outputFolder, contentHashes.get(relativePath).await()).setContents(instrumentedClassFile).await();
+                    }
+                }
+            }
+
+            uninstrumentedJarFile.delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+            instrumentedFolder.delete()
+                .catchError(FolderNotFoundException.class)
+                .await();
+        }
+
+        File result = null;
+        if (!instrumented)
+        {
+            verbose.writeLine("Failed to instrument the class files for coverage.").await();
+        }
+        else
+        {
+            InstrumentedClassCache.deleteUnusedInstrumentedFiles(outputFolder, contentHashes.getValues(), verbose);
+
+            final MutableMap<String,byte[]> jarEntries = Map.create();
+            for (final String relativePath : contentHashes.getKeys())
+            {
+                jarEntries.set(relativePath, InstrumentedClassCache.getInstrumentedFile(outputFolder, contentHashes.get(relativePath).await()).getContents().await());
+            }
+            // The JaCoCo runtime of offline instrumented classes reads its options from this file on the classpath.
+            jarEntries.set("jacoco-agent.properties", ("destfile=" + coverageExecFile.toString().replace("\\", "\\\\") + "\n").getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+            result = InstrumentedClassCache.getJarFile(outputFolder);
+            result.setContents(InstrumentedClassCache.createJar(jarEntries).await()).await();
+        }
+
+        return result;
+    }
+
+    /**
+     * Set the version of JaCoCo that the cached class files were instrumented with. If the version
+     * changed, then the cached class files are deleted.
+     * @param outputFolder The output folder.
+     * @param jacocoVersion The version of JaCoCo that class files will be instrumented with.
+     * @param verbose The stream that verbose logs will be written to.
+     */
+    static void setJacocoVersion(Folder outputFolder, String jacocoVersion, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNullAndNotEmpty(jacocoVersion, "jacocoVersion");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final File jacocoVersionFile = InstrumentedClassCache.getFolder(outputFolder).getFile(InstrumentedClassCache.jacocoVersionFileName).await();
+        final String previousJacocoVersion = jacocoVersionFile.getContentsAsString()
+            .catchError(FileNotFoundException.class)
+            .await();
+        if (!jacocoVersion.equals(previousJacocoVersion))
+        {
+            InstrumentedClassCache.deleteUnusedInstrumentedFiles(outputFolder, Iterable.create(), verbose);
+            jacocoVersionFile.setContentsAsString(jacocoVersion).await();
+        }
+    }
+
+    /**
+     * Delete the cached instrumented class files whose content hashes aren't in the provided
+     * content hashes.
+     * @param outputFolder The output folder.
+     * @param contentHashesToKeep The content hashes of the cached instrumented class files to keep.
+     * @param verbose The stream that verbose logs will be written to.
+     */
+    static void deleteUnusedInstrumentedFiles(Folder outputFolder, Iterable<String> contentHashesToKeep, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(contentHashesToKeep, "contentHashesToKeep");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final Set<String> fileNamesToKeep = Set.create();
+        for (final String contentHash : contentHashesToKeep)
+        {
+            fileNamesToKeep.add(contentHash + ".instrumented");
+        }
+
+        final Iterable<File> unusedInstrumentedFiles = InstrumentedClassCache.getFolder(outputFolder).iterateFiles()
+            .catchError(FolderNotFoundException.class)
+            .where((File file) -> Comparer.equal(file.getFileExtension(), ".instrumented") && !fileNamesToKeep.contains(file.getName()))
+            .toList();
+        if (unusedInstrumentedFiles.any())
+        {
+            verbose.writeLine("Deleting " + unusedInstrumentedFiles.getCount() + " instrumented class files that are no longer used...").await();
+            for (final File unusedInstrumentedFile : unusedInstrumentedFiles)
+            {
+                unusedInstrumentedFile.delete()
+                    .catchError(FileNotFoundException.class)
+                    .await();
+            }
+        }
+    }
+
+    /**
+     * Create the bytes of a jar file that has the provided entries.
+     * @param entries The jar file's entry names mapped to their contents.
+     * @return The bytes of the jar file.
+     */
+    static Result<byte[]> createJar(Map<String,byte[]> entries)
+    {
+        PreCondition.assertNotNull(entries, "entries");
+
+        return Result.create(() ->
+        {
+            final java.io.ByteArrayOutputStream result = new java.io.ByteArrayOutputStream();
+            try (final java.util.zip.ZipOutputStream zipStream = new java.util.zip.ZipOutputStream(result))
+            {
+                for (final String entryName : entries.getKeys())
+                {
+                    zipStream.putNextEntry(new java.util.zip.ZipEntry(entryName));
+                    zipStream.write(entries.get(entryName).await());
+                    zipStream.closeEntry();
+                }
+            }
+            return result.toByteArray();
+        });
+    }
+
+    /**
+     * Read the entries of the provided jar file bytes.
+     * @param jarBytes The bytes of the jar file.
+     * @return The jar file's entry names mapped to their contents.
+     */
+    static Result<MutableMap<String,byte[]>> readJar(byte[] jarBytes)
+    {
+        PreCondition.assertNotNull(jarBytes, "jarBytes");
+
+        return Result.create(() ->
+        {
+            final MutableMap<String,byte[]> result = Map.create();
+            try (final java.util.zip.ZipInputStream zipStream = new java.util.zip.ZipInputStream(new java.io.ByteArrayInputStream(jarBytes)))
+            {
+                java.util.zip.ZipEntry zipEntry = zipStream.getNextEntry();
+                while (zipEntry != null)
+                {
+                    if (!zipEntry.isDirectory())
+                    {
+                        result.set(zipEntry.getName(), zipStream.readAllBytes());
+                    }
+                    zipEntry = zipStream.getNextEntry();
+                }
+            }
+            return result;
+        });
+    }
+}
@@ -15,6 +15,7 @@ public interface QubTest
             .setApplicationName("qub-test")
             .setApplicationDescription("Used to run tests in a source code projects.")
             .addAction(QubTestRun::addAction)
+            .addAction(QubTestDaemon::addAction)
             .addAction(CommandLineLogsAction::addAction)
             .run();
     }
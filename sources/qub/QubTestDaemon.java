@@ -0,0 +1,458 @@
+package qub;
+
+/**
+ * A long-lived test runner process that qub-test run can send test runs to so that each test run
+ * doesn't have to pay for starting a new JVM and loading the test framework. Each test run's
+ * compiled classes are loaded in a new child-first ClassLoader that is thrown away when the run
+ * finishes. Only clients that can read the daemon's token from daemon.json can send it requests.
+ */
+public interface QubTestDaemon
+{
+    /**
+     * The number of milliseconds that a client will wait to connect to a running daemon.
+     */
+    int connectTimeoutMilliseconds = 1000;
+
+    /**
+     * The number of milliseconds that the daemon will wait for a client to finish sending its
+     * request.
+     */
+    int requestTimeoutMilliseconds = 10000;
+
+    /**
+     * The prefix of the first line of a response, which is followed by the response's boundary.
+     */
+    String boundaryPrefix = "boundary=";
+
+    /**
+     * The text that follows the boundary in the last line of a response, which is followed by the
+     * exit code of the request.
+     */
+    String exitCodePrefix = "exitCode=";
+
+    static void addAction(CommandLineActions actions)
+    {
+        PreCondition.assertNotNull(actions, "actions");
+
+        actions.addAction("daemon", QubTestDaemon::getParameters, QubTestDaemon::run)
+            .setDescription("Start a test runner daemon that qub-test run --daemon will run tests in.");
+    }
+
+    /**
+     * Get the parameters for QubTestDaemon.run().
+     * @param process The Process that is running.
+     * @param action The action that is being run.
+     * @return The parameters for QubTestDaemon.run(), or null if QubTestDaemon.run() should not be
+     * run.
+     */
+    static QubTestDaemonParameters getParameters(DesktopProcess process, CommandLineAction action)
+    {
+        PreCondition.assertNotNull(process, "process");
+        PreCondition.assertNotNull(action, "action");
+
+        final CommandLineParameters parameters = action.createCommandLineParameters(process);
+        final CommandLineParameterBoolean stopParameter = parameters.addBoolean("stop", false)
+            .setDescription("Stop the running test runner daemon.");
+        final CommandLineParameterVerbose verboseParameter = parameters.addVerbose(process);
+        final CommandLineParameterHelp helpParameter = parameters.addHelp();
+
+        QubTestDaemonParameters result = null;
+        if (!helpParameter.showApplicationHelpLines(process).await())
+        {
+            final VerboseCharacterToByteWriteStream verbose = verboseParameter.getVerboseCharacterToByteWriteStream().await();
+            final Folder qubTestDataFolder = process.getQubProjectDataFolder().await();
+            result = new QubTestDaemonParameters(process, verbose, qubTestDataFolder)
+                .setStop(stopParameter.getValue().await());
+        }
+
+        return result;
+    }
+
+    static int run(QubTestDaemonParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        final DesktopProcess process = parameters.getProcess();
+        final CharacterToByteWriteStream output = process.getOutputWriteStream();
+        final VerboseCharacterToByteWriteStream verbose = parameters.getVerbose();
+        final File daemonJsonFile = QubTestDaemon.getDaemonJsonFile(parameters.getQubTestDataFolder());
+
+        int result = 0;
+        if (parameters.getStop())
+        {
+            final Integer stopExitCode = QubTestDaemon.sendRequest(daemonJsonFile, QubTestDaemonRequest.create().setStop(true), output);
+            if (stopExitCode == null)
+            {
+                output.writeLine("No test runner daemon is running.").await();
+            }
+            else if (stopExitCode != 0)
+            {
+                process.getErrorWriteStream().writeLine("Failed to stop the test runner daemon.").await();
+                result = stopExitCode;
+            }
+            else
+            {
+                output.writeLine("Stopped the test runner daemon.").await();
+            }
+        }
+        else
+        {
+            final String token = QubTestDaemon.createToken();
+            final Set<String> sharedClassNames = QubTestDaemonClassLoader.getSharedClassNames(Iterable.create(TestRunner.class, Test.class));
+            QubTestDaemonClassLoader dependencyClassLoader = null;
+            Iterable<String> dependencyClassPaths = null;
+            try (final java.net.ServerSocket serverSocket = new java.net.ServerSocket(0, 0, java.net.InetAddress.getLoopbackAddress()))
+            {
+                final JSONObject daemonJson = JSONObject.create();
+                daemonJson.setNumber("port", serverSocket.getLocalPort());
+                daemonJson.setString("token", token);
+                QubTestDaemon.writeOwnerOnlyFile(daemonJsonFile, daemonJson.toString());
+                output.writeLine("Test runner daemon is listening on port " + serverSocket.getLocalPort() + ".").await();
+
+                boolean stop = false;
+                while (!stop)
+                {
+                    try (final java.net.Socket socket = serverSocket.accept())
+                    {
+                        socket.setSoTimeout(QubTestDaemon.requestTimeoutMilliseconds);
+                        final java.io.BufferedReader requestReader = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream(), java.nio.charset.StandardCharsets.UTF_8));
+                        final List<String> requestLines = List.create();
+                        String requestLine = requestReader.readLine();
+                        while (!Strings.isNullOrEmpty(requestLine))
+                        {
+                            requestLines.add(requestLine);
+                            requestLine = requestReader.readLine();
+                        }
+                        socket.setSoTimeout(0);
+
+                        // The test output is streamed back as the tests run. The response ends with a line that starts with a
+                        // random boundary so that the exit code can't be confused with the test output.
+                        final CharacterToByteWriteStream responseOutput = CharacterToByteWriteStream.create(OutputStreamToByteWriteStream.create(socket.getOutputStream()));
+                        final String boundary = QubTestDaemon.createToken();
+                        responseOutput.writeLine(QubTestDaemon.boundaryPrefix + boundary).await();
+
+                        int exitCode = 0;
+                        try
+                        {
+                            final QubTestDaemonRequest request = QubTestDaemonRequest.parse(requestLines).await();
+                            if (!QubTestDaemon.isAuthorized(request, token))
+                            {
+                                verbose.writeLine("Rejected a test runner daemon request that didn't have the daemon's token.").await();
+                                responseOutput.writeLine("ERROR: The test runner daemon request didn't have the daemon's token.").await();
+                                exitCode = -1;
+                            }
+                            else if (request.getStop())
+                            {
+                                verbose.writeLine("Received a stop request.").await();
+                                stop = true;
+                            }
+                            else
+                            {
+                                if (dependencyClassLoader == null || !dependencyClassPaths.equals(request.getClassPaths()))
+                                {
+                                    if (dependencyClassLoader != null)
+                                    {
+                                        verbose.writeLine("The dependency classpath changed. Reloading dependencies...").await();
+                                        dependencyClassLoader.close();
+                                    }
+                                    dependencyClassPaths = List.create(request.getClassPaths().toArray());
+                                    dependencyClassLoader = QubTestDaemonClassLoader.create(dependencyClassPaths, QubTestDaemon.class.getClassLoader(), sharedClassNames);
+                                }
+
+                                verbose.writeLine("Running tests in " + request.getOutputFolderPath() + "...").await();
+                                try (final QubTestDaemonClassLoader testClassLoader = QubTestDaemonClassLoader.create(Iterable.create(request.getOutputFolderPath()), dependencyClassLoader, sharedClassNames))
+                                {
+                                    exitCode = QubTestDaemon.runTests(process, request, testClassLoader, responseOutput);
+                                }
+                            }
+                        }
+                        catch (RuntimeException | LinkageError error)
+                        {
+                            verbose.writeLine("Failed to handle a test runner daemon request: " + error.getMessage()).await();
+                            responseOutput.writeLine("ERROR: " + error.getMessage()).await();
+                            exitCode = -1;
+                        }
+
+                        responseOutput.writeLine(boundary + QubTestDaemon.exitCodePrefix + exitCode).await();
+                    }
+                    catch (java.io.IOException | RuntimeException error)
+                    {
+                        verbose.writeLine("Failed to respond to a test runner daemon request: " + error.getMessage()).await();
+                    }
+                }
+            }
+            catch (java.io.IOException error)
+            {
+                process.getErrorWriteStream().writeLine("Failed to start the test runner daemon: " + error.getMessage()).await();
+                result = 1;
+            }
+            finally
+            {
+                if (dependencyClassLoader != null)
+                {
+                    try
+                    {
+                        dependencyClassLoader.close();
+                    }
+                    catch (java.io.IOException ignored)
+                    {
+                    }
+                }
+                daemonJsonFile.delete()
+                    .catchError()
+                    .await();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Run the tests that are described by the provided request.
+     * @param process The process that is running the daemon.
+     * @param request The request that describes the tests to run.
+     * @param testClassLoader The ClassLoader that the test classes will be loaded with.
+     * @param output The stream that the test output will be written to.
+     * @return The exit code of the test run.
+     */
+    static int runTests(DesktopProcess process, QubTestDaemonRequest request, ClassLoader testClassLoader, CharacterToByteWriteStream output)
+    {
+        PreCondition.assertNotNull(process, "process");
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertNotNull(testClassLoader, "testClassLoader");
+        PreCondition.assertNotNull(output, "output");
+
+        final FileSystem fileSystem = process.getFileSystem();
+        final Folder outputFolder = fileSystem.getFolder(request.getOutputFolderPath()).await();
+        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(request.getVerbose()
+            ? output
+            : InMemoryCharacterToByteStream.create());
+        final String pattern = request.getPattern();
+        final String testJsonFilePath = request.getTestJsonFilePath();
+
+        int result;
+        try
+        {
+            final ConsoleTestRunnerParameters parameters = new ConsoleTestRunnerParameters(process, verbose, outputFolder, request.getTestClassNames())
+                .setPattern(Strings.isNullOrEmpty(pattern) ? null : PathPattern.parse(pattern))
+                .setCoverage(Coverage.None)
+                .setTestJson(request.getTestJson())
+                .setTestJsonFile(Strings.isNullOrEmpty(testJsonFilePath) ? null : fileSystem.getFile(testJsonFilePath).await())
+                .setParallelism(ConsoleTestRunner.parseParallelism(request.getParallelism()).await())
+                .setResultsFormat(request.getResultsFormat())
+                .setRerunFailed(request.getRerunFailed())
+                .setFailFast(request.getFailFast())
+                .setOutputWriteStream(output)
+                .setTestClassLoader(testClassLoader)
+                .setClassPaths(request.getClassPaths())
+                .setUnmodifiedPassedTestCount(request.getUnmodifiedPassedTestCount())
+                .setUnmodifiedSkippedTestCount(request.getUnmodifiedSkippedTestCount());
+            result = ConsoleTestRunner.run(parameters);
+        }
+        catch (RuntimeException | LinkageError error)
+        {
+            output.writeLine("ERROR: " + error.getMessage()).await();
+            result = -1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the file that a running daemon writes its connection information to.
+     * @param qubTestDataFolder The qub-test data folder.
+     * @return The file that a running daemon writes its connection information to.
+     */
+    static File getDaemonJsonFile(Folder qubTestDataFolder)
+    {
+        PreCondition.assertNotNull(qubTestDataFolder, "qubTestDataFolder");
+
+        return qubTestDataFolder.getFile("daemon.json").await();
+    }
+
+    /**
+     * Send the provided request to the running daemon and write the daemon's test output to the
+     * provided output stream as it is received.
+     * @param daemonJsonFile The file that the running daemon wrote its connection information to.
+     * @param request The request to send. The request will be given the daemon's token.
+     * @param output The stream that the daemon's test output will be written to.
+     * @return The exit code of the request, or null if no daemon could be reached.
+     */
+    static Integer sendRequest(File daemonJsonFile, QubTestDaemonRequest request, CharacterWriteStream output)
+    {
+        PreCondition.assertNotNull(daemonJsonFile, "daemonJsonFile");
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertNotNull(output, "output");
+
+        Integer result = null;
+        final JSONObject daemonJson = JSON.parseObject(daemonJsonFile)
+            .catchError()
+            .await();
+        final Integer port = daemonJson == null
+            ? null
+            : daemonJson.getInteger("port").catchError().await();
+        if (port != null)
+        {
+            request.setToken(daemonJson.getString("token").catchError().await());
+            try (final java.net.Socket socket = new java.net.Socket())
+            {
+                socket.connect(new java.net.InetSocketAddress(java.net.InetAddress.getLoopbackAddress(), port), QubTestDaemon.connectTimeoutMilliseconds);
+
+                final java.io.Writer requestWriter = new java.io.OutputStreamWriter(socket.getOutputStream(), java.nio.charset.StandardCharsets.UTF_8);
+                for (final String requestLine : request.toLines())
+                {
+                    requestWriter.write(requestLine + "\n");
+                }
+                requestWriter.flush();
+
+                final java.io.BufferedReader responseReader = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream(), java.nio.charset.StandardCharsets.UTF_8));
+                final String boundaryLine = responseReader.readLine();
+                if (boundaryLine != null && boundaryLine.startsWith(QubTestDaemon.boundaryPrefix))
+                {
+                    final String exitCodeMarker = boundaryLine.substring(QubTestDaemon.boundaryPrefix.length()) + QubTestDaemon.exitCodePrefix;
+                    String responseLine = responseReader.readLine();
+                    while (result == null && responseLine != null)
+                    {
+                        final int exitCodeMarkerIndex = responseLine.indexOf(exitCodeMarker);
+                        if (exitCodeMarkerIndex == -1)
+                        {
+                            output.writeLine(responseLine).await();
+                            responseLine = responseReader.readLine();
+                        }
+                        else
+                        {
+                            if (exitCodeMarkerIndex > 0)
+                            {
+                                output.writeLine(responseLine.substring(0, exitCodeMarkerIndex)).await();
+                            }
+                            result = Integer.parseInt(responseLine.substring(exitCodeMarkerIndex + exitCodeMarker.length()));
+                        }
+                    }
+
+                    if (result == null)
+                    {
+                        output.writeLine("ERROR: The test runner daemon stopped responding before the test run finished.").await();
+                        result = -1;
+                    }
+                }
+            }
+            catch (java.io.IOException | NumberFormatException ignored)
+            {
+                result = null;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Create a new random token.
+     * @return The new random token as a hexadecimal string.
+     */
+    static String createToken()
+    {
+        final byte[] tokenBytes = new byte[32];
+        new java.security.SecureRandom().nextBytes(tokenBytes);
+
+        final char[] tokenCharacters = new char[tokenBytes.length * 2];
+        for (int i = 0; i < tokenBytes.length; ++i)
+        {
+            tokenCharacters[i * 2] = Character.forDigit((tokenBytes[i] >> 4) & 0xF, 16);
+            tokenCharacters[i * 2 + 1] = Character.forDigit(tokenBytes[i] & 0xF, 16);
+        }
+        final String result = new String(tokenCharacters);
+
+        PostCondition.assertNotNullAndNotEmpty(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get whether the provided request has the provided daemon token.
+     * @param request The request to check.
+     * @param token The daemon's token.
+     * @return Whether the provided request has the provided daemon token.
+     */
+    static boolean isAuthorized(QubTestDaemonRequest request, String token)
+    {
+        PreCondition.assertNotNull(request, "request");
+        PreCondition.assertNotNullAndNotEmpty(token, "token");
+
+        final String requestToken = request.getToken();
+        return !Strings.isNullOrEmpty(requestToken) &&
+            java.security.MessageDigest.isEqual(
+                requestToken.getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                token.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write the provided contents to the provided file after making the file readable and writable
+     * by only its owner.
+     * @param file The file to write.
+     * @param contents The contents to write to the file.
+     */
+    static void writeOwnerOnlyFile(File file, String contents)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(contents, "contents");
+
+        file.delete()
+            .catchError(FileNotFoundException.class)
+            .await();
+        file.setContentsAsString("").await();
+        if (file.getFileSystem() instanceof JavaFileSystem)
+        {
+            final java.nio.file.Path path = java.nio.file.Paths.get(file.toString());
+            try
+            {
+                final java.nio.file.attribute.PosixFileAttributeView posixView = java.nio.file.Files.getFileAttributeView(path, java.nio.file.attribute.PosixFileAttributeView.class);
+                if (posixView != null)
+                {
+                    posixView.setPermissions(java.nio.file.attribute.PosixFilePermissions.fromString("rw-------"));
+                }
+                else
+                {
+                    final java.io.File javaFile = path.toFile();
+                    if (!javaFile.setReadable(false, false) || !javaFile.setReadable(true, true) ||
+                        !javaFile.setWritable(false, false) || !javaFile.setWritable(true, true))
+                    {
+                        throw new java.io.IOException("Couldn't restrict " + file + " to its owner.");
+                    }
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                file.delete().catchError().await();
+                throw new RuntimeException(e);
+            }
+        }
+        file.setContentsAsString(contents).await();
+    }
+
+    /**
+     * Get the URLs of the provided classpath entries.
+     * @param classPaths The classpath entries.
+     * @return The URLs of the provided classpath entries.
+     */
+    static java.net.URL[] getClassPathUrls(Iterable<String> classPaths)
+    {
+        PreCondition.assertNotNull(classPaths, "classPaths");
+
+        final java.net.URL[] result = new java.net.URL[classPaths.getCount()];
+        int index = 0;
+        for (final String classPath : classPaths)
+        {
+            try
+            {
+                result[index] = java.nio.file.Paths.get(classPath).toUri().toURL();
+            }
+            catch (java.net.MalformedURLException e)
+            {
+                throw new IllegalArgumentException("The classpath entry " + Strings.escapeAndQuote(classPath) + " is not a valid path.", e);
+            }
+            ++index;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package qub;
+
+/**
+ * A ClassLoader that the test runner daemon loads a test run's classes with. Unlike a normal
+ * URLClassLoader, this ClassLoader looks for a class in its own classpath before it asks its parent.
+ * This matters because the project that is being tested and its dependencies are often also on the
+ * daemon's own classpath (lib-java, build-java, and test-java are all in the qub package), and a
+ * parent-first ClassLoader would load the daemon's stale copies of those classes. The only classes
+ * that are always loaded by the parent are the test framework API types that the daemon's test
+ * runner and the loaded test classes pass to each other.
+ */
+public class QubTestDaemonClassLoader extends java.net.URLClassLoader
+{
+    static
+    {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    private final Set<String> sharedClassNames;
+
+    private QubTestDaemonClassLoader(java.net.URL[] classPathUrls, ClassLoader parent, Set<String> sharedClassNames)
+    {
+        super(classPathUrls, parent);
+
+        this.sharedClassNames = sharedClassNames;
+    }
+
+    /**
+     * Create a new QubTestDaemonClassLoader.
+     * @param classPaths The classpath entries that this ClassLoader will load classes from.
+     * @param parent The ClassLoader that shared classes and classes that aren't in the provided
+     *               classpath entries will be loaded from.
+     * @param sharedClassNames The full names of the classes that will always be loaded from the
+     *                         parent ClassLoader.
+     * @return The new QubTestDaemonClassLoader.
+     */
+    public static QubTestDaemonClassLoader create(Iterable<String> classPaths, ClassLoader parent, Set<String> sharedClassNames)
+    {
+        PreCondition.assertNotNull(classPaths, "classPaths");
+        PreCondition.assertNotNull(parent, "parent");
+        PreCondition.assertNotNull(sharedClassNames, "sharedClassNames");
+
+        return new QubTestDaemonClassLoader(QubTestDaemon.getClassPathUrls(classPaths), parent, sharedClassNames);
+    }
+
+    /**
+     * Get the full names of the classes that must be loaded by the same ClassLoader on both sides
+     * of a call between the daemon's test runner and a loaded test class. These are the provided
+     * API types and every non-JDK type that appears in their supertypes and public signatures.
+     * @param apiTypes The types that the daemon's test runner and the loaded test classes use to
+     *                 talk to each other.
+     * @return The full names of the classes that must be shared.
+     */
+    public static Set<String> getSharedClassNames(Iterable<Class<?>> apiTypes)
+    {
+        PreCondition.assertNotNull(apiTypes, "apiTypes");
+
+        final Set<String> result = Set.create();
+        final List<Class<?>> typesToVisit = List.create();
+        typesToVisit.addAll(apiTypes);
+        while (typesToVisit.any())
+        {
+            Class<?> type = typesToVisit.removeLast();
+            while (type.isArray())
+            {
+                type = type.getComponentType();
+            }
+
+            if (!type.isPrimitive() && !QubTestDaemonClassLoader.isJdkType(type) && !result.contains(type.getName()))
+            {
+                result.add(type.getName());
+
+                if (type.getSuperclass() != null)
+                {
+                    typesToVisit.add(type.getSuperclass());
+                }
+                typesToVisit.addAll(type.getInterfaces());
+                for (final java.lang.reflect.Method method : type.getMethods())
+                {
+                    typesToVisit.add(method.getReturnType());
+                    typesToVisit.addAll(method.getParameterTypes());
+                    typesToVisit.addAll(method.getExceptionTypes());
+                }
+                for (final java.lang.reflect.Constructor<?> constructor : type.getConstructors())
+                {
+                    typesToVisit.addAll(constructor.getParameterTypes());
+                    typesToVisit.addAll(constructor.getExceptionTypes());
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get whether the provided type is loaded by the JDK's bootstrap or platform ClassLoaders.
+     * @param type The type to check.
+     * @return Whether the provided type is loaded by the JDK.
+     */
+    static boolean isJdkType(Class<?> type)
+    {
+        PreCondition.assertNotNull(type, "type");
+
+        final ClassLoader classLoader = type.getClassLoader();
+        return classLoader == null || classLoader == ClassLoader.getPlatformClassLoader();
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+    {
+        synchronized (this.getClassLoadingLock(name))
+        {
+            Class<?> result = this.findLoadedClass(name);
+            if (result == null)
+            {
+                if (this.sharedClassNames.contains(name))
+                {
+                    result = super.loadClass(name, false);
+                }
+                else
+                {
+                    try
+                    {
+                        result = ClassLoader.getPlatformClassLoader().loadClass(name);
+                    }
+                    catch (ClassNotFoundException notAJdkClass)
+                    {
+                        try
+                        {
+                            result = this.findClass(name);
+                        }
+                        catch (ClassNotFoundException notInClassPaths)
+                        {
+                            result = super.loadClass(name, false);
+                        }
+                    }
+                }
+            }
+
+            if (resolve)
+            {
+                this.resolveClass(result);
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package qub;
+
+/**
+ * Parameters that are passed to QubTestDaemon.run().
+ */
+public class QubTestDaemonParameters
+{
+    private final DesktopProcess process;
+    private final VerboseCharacterToByteWriteStream verbose;
+    private final Folder qubTestDataFolder;
+    private boolean stop;
+
+    /**
+     * Create a new QubTestDaemonParameters object.
+     * @param process The process that is running the daemon.
+     * @param verbose The stream that verbose text will be written to.
+     * @param qubTestDataFolder The data folder that the daemon will write its connection
+     *                          information to.
+     */
+    public QubTestDaemonParameters(DesktopProcess process, VerboseCharacterToByteWriteStream verbose, Folder qubTestDataFolder)
+    {
+        PreCondition.assertNotNull(process, "process");
+        PreCondition.assertNotNull(verbose, "verbose");
+        PreCondition.assertNotNull(qubTestDataFolder, "qubTestDataFolder");
+
+        this.process = process;
+        this.verbose = verbose;
+        this.qubTestDataFolder = qubTestDataFolder;
+    }
+
+    /**
+     * Get the process that is running the daemon.
+     * @return The process that is running the daemon.
+     */
+    public DesktopProcess getProcess()
+    {
+        return this.process;
+    }
+
+    /**
+     * Get the stream that verbose text will be written to.
+     * @return The stream that verbose text will be written to.
+     */
+    public VerboseCharacterToByteWriteStream getVerbose()
+    {
+        return this.verbose;
+    }
+
+    /**
+     * Get the data folder that the daemon will write its connection information to.
+     * @return The data folder that the daemon will write its connection information to.
+     */
+    public Folder getQubTestDataFolder()
+    {
+        return this.qubTestDataFolder;
+    }
+
+    /**
+     * Get whether or not a running daemon should be stopped instead of starting a new daemon.
+     * @return Whether or not a running daemon should be stopped instead of starting a new daemon.
+     */
+    public boolean getStop()
+    {
+        return this.stop;
+    }
+
+    /**
+     * Set whether or not a running daemon should be stopped instead of starting a new daemon.
+     * @param stop Whether or not a running daemon should be stopped instead of starting a new
+     *             daemon.
+     * @return This object for method chaining.
+     */
+    public QubTestDaemonParameters setStop(boolean stop)
+    {
+        this.stop = stop;
+        return this;
+    }
+}
@@ -0,0 +1,426 @@
+package qub;
+
+/**
+ * A request that qub-test run sends to a running test runner daemon. A request is written as
+ * "name=value" lines that are followed by an empty line.
+ */
+public class QubTestDaemonRequest
+{
+    private static final String tokenPropertyName = "token";
+    private static final String stopPropertyName = "stop";
+    private static final String classPathPropertyName = "classpath";
+    private static final String outputFolderPropertyName = "output-folder";
+    private static final String patternPropertyName = "pattern";
+    private static final String testJsonPropertyName = "testjson";
+    private static final String testJsonFilePropertyName = "testjson-file";
+    private static final String parallelismPropertyName = "parallelism";
+    private static final String resultsFormatPropertyName = "results-format";
+    private static final String rerunFailedPropertyName = "rerun-failed";
+    private static final String failFastPropertyName = "fail-fast";
+    private static final String verbosePropertyName = "verbose";
+    private static final String unmodifiedPassedTestsPropertyName = "unmodified-passed-tests";
+    private static final String unmodifiedSkippedTestsPropertyName = "unmodified-skipped-tests";
+    private static final String testClassPropertyName = "test-class";
+
+    private String token;
+    private boolean stop;
+    private final List<String> classPaths;
+    private String outputFolderPath;
+    private String pattern;
+    private boolean testJson;
+    private String testJsonFilePath;
+    private String parallelism;
+    private TestResultsFormat resultsFormat;
+    private boolean rerunFailed;
+    private Integer failFast;
+    private boolean verbose;
+    private int unmodifiedPassedTestCount;
+    private int unmodifiedSkippedTestCount;
+    private final List<String> testClassNames;
+
+    private QubTestDaemonRequest()
+    {
+        this.classPaths = List.create();
+        this.testClassNames = List.create();
+        this.testJson = true;
+        this.resultsFormat = TestResultsFormat.JSON;
+    }
+
+    public static QubTestDaemonRequest create()
+    {
+        return new QubTestDaemonRequest();
+    }
+
+    /**
+     * Get the token that proves that this request was sent by the daemon's user.
+     * @return The token that proves that this request was sent by the daemon's user.
+     */
+    public String getToken()
+    {
+        return this.token;
+    }
+
+    /**
+     * Set the token that proves that this request was sent by the daemon's user. The daemon writes
+     * its token to daemon.json, which only the daemon's user can read.
+     * @param token The token that proves that this request was sent by the daemon's user.
+     * @return This object for method chaining.
+     */
+    public QubTestDaemonRequest setToken(String token)
+    {
+        this.token = token;
+        return this;
+    }
+
+    /**
+     * Get whether or not this request asks the daemon to stop.
+     * @return Whether or not this request asks the daemon to stop.
+     */
+    public boolean getStop()
+    {
+        return this.stop;
+    }
+
+    /**
+     * Set whether or not this request asks the daemon to stop.
+     * @param stop Whether or not this request asks the daemon to stop.
+     * @return This object for method chaining.
+     */
+    public QubTestDaemonRequest setStop(boolean stop)
+    {
+        this.stop = stop;
+        return this;
+    }
+
+    /**
+     * Get the dependency classpath entries that the test classes will be loaded with. This does not
+     * include the output folder.
+     * @return The dependency classpath entries that the test classes will be loaded with.
+     */
+    public Iterable<String> getClassPaths()
+    {
+        return this.classPaths;
+    }
+
+    /**
+     * Add the provided dependency classpath entries.
+     * @param classPaths The dependency classpath entries to add.
+     * @return This object for method chaining.
+     */
+    public QubTestDaemonRequest addClassPaths(Iterable<String> classPaths)
+    {
+        PreCondition.assertNotNull(classPaths, "classPaths");
+
+        this.classPaths.addAll(classPaths);
+        return this;
+    }
+
+    public String getOutputFolderPath()
+    {
+        return this.outputFolderPath;
+    }
+
+    public QubTestDaemonRequest setOutputFolderPath(String outputFolderPath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(outputFolderPath, "outputFolderPath");
+
+        this.outputFolderPath = outputFolderPath;
+        return this;
+    }
+
+    public String getPattern()
+    {
+        return this.pattern;
+    }
+
+    public QubTestDaemonRequest setPattern(String pattern)
+    {
+        this.pattern = pattern;
+        return this;
+    }
+
+    public boolean getTestJson()
+    {
+        return this.testJson;
+    }
+
+    public QubTestDaemonRequest setTestJson(boolean testJson)
+    {
+        this.testJson = testJson;
+        return this;
+    }
+
+    public String getTestJsonFilePath()
+    {
+        return this.testJsonFilePath;
+    }
+
+    public QubTestDaemonRequest setTestJsonFilePath(String testJsonFilePath)
+    {
+        this.testJsonFilePath = testJsonFilePath;
+        return this;
+    }
+
+    public String getParallelism()
+    {
+        return this.parallelism;
+    }
+
+    public QubTestDaemonRequest setParallelism(String parallelism)
+    {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public TestResultsFormat getResultsFormat()
+    {
+        return this.resultsFormat;
+    }
+
+    public QubTestDaemonRequest setResultsFormat(TestResultsFormat resultsFormat)
+    {
+        PreCondition.assertNotNull(resultsFormat, "resultsFormat");
+
+        this.resultsFormat = resultsFormat;
+        return this;
+    }
+
+    public boolean getRerunFailed()
+    {
+        return this.rerunFailed;
+    }
+
+    public QubTestDaemonRequest setRerunFailed(boolean rerunFailed)
+    {
+        this.rerunFailed = rerunFailed;
+        return this;
+    }
+
+    public Integer getFailFast()
+    {
+        return this.failFast;
+    }
+
+    public QubTestDaemonRequest setFailFast(Integer failFast)
+    {
+        PreCondition.assertTrue(failFast == null || failFast >= 1, "failFast == null || failFast >= 1");
+
+        this.failFast = failFast;
+        return this;
+    }
+
+    public boolean getVerbose()
+    {
+        return this.verbose;
+    }
+
+    public QubTestDaemonRequest setVerbose(boolean verbose)
+    {
+        this.verbose = verbose;
+        return this;
+    }
+
+    public int getUnmodifiedPassedTestCount()
+    {
+        return this.unmodifiedPassedTestCount;
+    }
+
+    public QubTestDaemonRequest setUnmodifiedPassedTestCount(int unmodifiedPassedTestCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedPassedTestCount, 0, "unmodifiedPassedTestCount");
+
+        this.unmodifiedPassedTestCount = unmodifiedPassedTestCount;
+        return this;
+    }
+
+    public int getUnmodifiedSkippedTestCount()
+    {
+        return this.unmodifiedSkippedTestCount;
+    }
+
+    public QubTestDaemonRequest setUnmodifiedSkippedTestCount(int unmodifiedSkippedTestCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(unmodifiedSkippedTestCount, 0, "unmodifiedSkippedTestCount");
+
+        this.unmodifiedSkippedTestCount = unmodifiedSkippedTestCount;
+        return this;
+    }
+
+    public Iterable<String> getTestClassNames()
+    {
+        return this.testClassNames;
+    }
+
+    public QubTestDaemonRequest addTestClassNames(Iterable<String> testClassNames)
+    {
+        PreCondition.assertNotNull(testClassNames, "testClassNames");
+
+        this.testClassNames.addAll(testClassNames);
+        return this;
+    }
+
+    /**
+     * Get the lines that this request is written as.
+     * @return The lines that this request is written as.
+     */
+    public Iterable<String> toLines()
+    {
+        final List<String> result = List.create();
+        if (!Strings.isNullOrEmpty(this.token))
+        {
+            result.add(QubTestDaemonRequest.tokenPropertyName + "=" + this.token);
+        }
+        if (this.stop)
+        {
+            result.add(QubTestDaemonRequest.stopPropertyName + "=true");
+        }
+        else
+        {
+            for (final String classPath : this.classPaths)
+            {
+                result.add(QubTestDaemonRequest.classPathPropertyName + "=" + classPath);
+            }
+            result.add(QubTestDaemonRequest.outputFolderPropertyName + "=" + this.outputFolderPath);
+            if (!Strings.isNullOrEmpty(this.pattern))
+            {
+                result.add(QubTestDaemonRequest.patternPropertyName + "=" + this.pattern);
+            }
+            result.add(QubTestDaemonRequest.testJsonPropertyName + "=" + this.testJson);
+            if (!Strings.isNullOrEmpty(this.testJsonFilePath))
+            {
+                result.add(QubTestDaemonRequest.testJsonFilePropertyName + "=" + this.testJsonFilePath);
+            }
+            if (!Strings.isNullOrEmpty(this.parallelism))
+            {
+                result.add(QubTestDaemonRequest.parallelismPropertyName + "=" + this.parallelism);
+            }
+            if (this.resultsFormat != TestResultsFormat.JSON)
+            {
+                result.add(QubTestDaemonRequest.resultsFormatPropertyName + "=" + this.resultsFormat);
+            }
+            if (this.rerunFailed)
+            {
+                result.add(QubTestDaemonRequest.rerunFailedPropertyName + "=true");
+            }
+            if (this.failFast != null)
+            {
+                result.add(QubTestDaemonRequest.failFastPropertyName + "=" + this.failFast);
+            }
+            result.add(QubTestDaemonRequest.verbosePropertyName + "=" + this.verbose);
+            if (this.unmodifiedPassedTestCount > 0)
+            {
+                result.add(QubTestDaemonRequest.unmodifiedPassedTestsPropertyName + "=" + this.unmodifiedPassedTestCount);
+            }
+            if (this.unmodifiedSkippedTestCount > 0)
+            {
+                result.add(QubTestDaemonRequest.unmodifiedSkippedTestsPropertyName + "=" + this.unmodifiedSkippedTestCount);
+            }
+            for (final String testClassName : this.testClassNames)
+            {
+                result.add(QubTestDaemonRequest.testClassPropertyName + "=" + testClassName);
+            }
+        }
+        result.add("");
+
+        PostCondition.assertNotNullAndNotEmpty(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Parse a QubTestDaemonRequest from the provided lines. Parsing stops at the first empty line.
+     * @param lines The lines to parse.
+     * @return The parsed QubTestDaemonRequest.
+     */
+    public static Result<QubTestDaemonRequest> parse(Iterable<String> lines)
+    {
+        PreCondition.assertNotNull(lines, "lines");
+
+        return Result.create(() ->
+        {
+            final QubTestDaemonRequest result = QubTestDaemonRequest.create();
+            for (final String line : lines)
+            {
+                if (Strings.isNullOrEmpty(line))
+                {
+                    break;
+                }
+
+                final int equalsIndex = line.indexOf('=');
+                if (equalsIndex <= 0)
+                {
+                    throw new IllegalArgumentException("Expected a test runner daemon request line in the form \"name=value\", but found " + Strings.escapeAndQuote(line) + ".");
+                }
+
+                final String name = line.substring(0, equalsIndex);
+                final String value = line.substring(equalsIndex + 1);
+                switch (name)
+                {
+                    case QubTestDaemonRequest.tokenPropertyName:
+                        result.setToken(value);
+                        break;
+
+                    case QubTestDaemonRequest.stopPropertyName:
+                        result.setStop(Boolean.parseBoolean(value));
+                        break;
+
+                    case QubTestDaemonRequest.classPathPropertyName:
+                        result.classPaths.add(value);
+                        break;
+
+                    case QubTestDaemonRequest.outputFolderPropertyName:
+                        result.setOutputFolderPath(value);
+                        break;
+
+                    case QubTestDaemonRequest.patternPropertyName:
+                        result.setPattern(value);
+                        break;
+
+                    case QubTestDaemonRequest.testJsonPropertyName:
+                        result.setTestJson(Boolean.parseBoolean(value));
+                        break;
+
+                    case QubTestDaemonRequest.testJsonFilePropertyName:
+                        result.setTestJsonFilePath(value);
+                        break;
+
+                    case QubTestDaemonRequest.parallelismPropertyName:
+                        result.setParallelism(value);
+                        break;
+
+                    case QubTestDaemonRequest.resultsFormatPropertyName:
+                        result.setResultsFormat(TestResultsFormat.parse(value).await());
+                        break;
+
+                    case QubTestDaemonRequest.rerunFailedPropertyName:
+                        result.setRerunFailed(Boolean.parseBoolean(value));
+                        break;
+
+                    case QubTestDaemonRequest.failFastPropertyName:
+                        result.setFailFast(ConsoleTestRunner.parseFailFast(value).await());
+                        break;
+
+                    case QubTestDaemonRequest.verbosePropertyName:
+                        result.setVerbose(Boolean.parseBoolean(value));
+                        break;
+
+                    case QubTestDaemonRequest.unmodifiedPassedTestsPropertyName:
+                        result.setUnmodifiedPassedTestCount(ConsoleTestRunner.parseTestCount(value).await());
+                        break;
+
+                    case QubTestDaemonRequest.unmodifiedSkippedTestsPropertyName:
+                        result.setUnmodifiedSkippedTestCount(ConsoleTestRunner.parseTestCount(value).await());
+                        break;
+
+                    case QubTestDaemonRequest.testClassPropertyName:
+                        result.testClassNames.add(value);
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException("Unrecognized test runner daemon request property: " + Strings.escapeAndQuote(name));
+                }
+            }
+            return result;
+        });
+    }
+}
@@ -2,6 +2,18 @@ package qub;
 
 public interface QubTestRun
 {
+    /**
+     * The number of test classes above which the test classes are passed to the test runner in a
+     * test manifest file instead of as separate command line arguments.
+     */
+    static final int testManifestThreshold = 100;
+
+    /**
+     * How often the number of failed tests of running forks is checked when the forks have a
+     * fail-fast limit.
+     */
+    static final long failedTestCountPollMilliseconds = 100;
+
     static void addAction(CommandLineActions actions)
     {
         PreCondition.assertNotNull(actions, "actions");
@@ -49,6 +61,120 @@ public interface QubTestRun
             .setDescription("Whether or not to write the test results to a test.json file.");
     }
 
+    static CommandLineParameter<String> addParallelismParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.addString("parallelism")
+            .setValueName("<N|auto>")
+            .setDescription("The number of test classes to run at the same time. Defaults to 1.");
+    }
+
+    static CommandLineParameterBoolean addDaemonParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.addBoolean("daemon", QubTestRunParameters.getDaemonDefault())
+            .setDescription("Whether or not to run the tests in a running qub-test daemon.");
+    }
+
+    static CommandLineParameter<TestResultsFormat> addResultsFormatParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.add("results-format", TestResultsFormat::parse)
+            .setValueName("<json|binary>")
+            .setDescription("The format to store the test results in. Defaults to json.");
+    }
+
+    static CommandLineParameterBoolean addRerunFailedParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.addBoolean("rerun-failed", QubTestRunParameters.getRerunFailedDefault())
+            .setDescription("Whether or not to only rerun the previously failing tests of unchanged test classes.");
+    }
+
+    static CommandLineParameter<Integer> addFailFastParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.add("fail-fast", ConsoleTestRunner::parseFailFast)
+            .setValueRequired(false)
+            .setValueName("<N>")
+            .setDescription("Stop starting new test classes after N tests have failed. Defaults to 1 when no value is given.");
+    }
+
+    static CommandLineParameter<Duration> addTestTimeoutParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.add("test-timeout", ConsoleTestRunner::parseTimeout)
+            .setValueName("<seconds>")
+            .setDescription("The number of seconds that each test has to finish before it is interrupted and reported as timed out.");
+    }
+
+    static CommandLineParameter<Duration> addTestClassTimeoutParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.add("test-class-timeout", ConsoleTestRunner::parseTimeout)
+            .setValueName("<seconds>")
+            .setDescription("The number of seconds that each test class has to finish before its remaining tests are interrupted.");
+    }
+
+    static CommandLineParameter<Duration> addProcessTimeoutParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.add("process-timeout", ConsoleTestRunner::parseTimeout)
+            .setValueName("<seconds>")
+            .setDescription("The number of seconds that each test runner process has to finish before it is stopped.");
+    }
+
+    static CommandLineParameter<Integer> addForksParameter(CommandLineParameters parameters)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+
+        return parameters.add("forks", QubTestRun::parseForks)
+            .setValueName("<N>")
+            .setDescription("The number of test runner processes to split the test classes between. Defaults to 1.");
+    }
+
+    /**
+     * Parse the value of a --forks argument.
+     * @param text The text of the argument.
+     * @return The number of test runner processes to split the test classes between.
+     */
+    static Result<Integer> parseForks(String text)
+    {
+        return Result.create(() ->
+        {
+            int result;
+            if (Strings.isNullOrEmpty(text))
+            {
+                result = QubTestRunParameters.getForksDefault();
+            }
+            else
+            {
+                try
+                {
+                    result = Integer.parseInt(text);
+                }
+                catch (NumberFormatException e)
+                {
+                    result = 0;
+                }
+
+                if (result < 1)
+                {
+                    throw new IllegalArgumentException("The forks value must be a positive integer, but was " + Strings.escapeAndQuote(text) + ".");
+                }
+            }
+            return result;
+        });
+    }
+
     /**
      * Get the parameters for QubTest.run().
      * @param process The Process that is running.
@@ -64,6 +190,15 @@ public interface QubTestRun
         final CommandLineParameter<String> patternParameter = QubTestRun.addPatternParameter(parameters);
         final CommandLineParameter<Coverage> coverageParameter = QubTestRun.addCoverageParameter(parameters);
         final CommandLineParameterBoolean testJsonParameter = QubTestRun.addTestJsonParameter(parameters);
+        final CommandLineParameter<String> parallelismParameter = QubTestRun.addParallelismParameter(parameters);
+        final CommandLineParameter<Integer> forksParameter = QubTestRun.addForksParameter(parameters);
+        final CommandLineParameterBoolean daemonParameter = QubTestRun.addDaemonParameter(parameters);
+        final CommandLineParameter<TestResultsFormat> resultsFormatParameter = QubTestRun.addResultsFormatParameter(parameters);
+        final CommandLineParameterBoolean rerunFailedParameter = QubTestRun.addRerunFailedParameter(parameters);
+        final CommandLineParameter<Integer> failFastParameter = QubTestRun.addFailFastParameter(parameters);
+        final CommandLineParameter<Duration> testTimeoutParameter = QubTestRun.addTestTimeoutParameter(parameters);
+        final CommandLineParameter<Duration> testClassTimeoutParameter = QubTestRun.addTestClassTimeoutParameter(parameters);
+        final CommandLineParameter<Duration> processTimeoutParameter = QubTestRun.addProcessTimeoutParameter(parameters);
         final CommandLineParameterVerbose verboseParameter = parameters.addVerbose(process);
         final CommandLineParameterProfiler profilerParameter = parameters.addProfiler(process, QubTest.class);
         final CommandLineParameterHelp helpParameter = parameters.addHelp();
@@ -86,11 +221,23 @@ public interface QubTestRun
             final QubFolder qubFolder = process.getQubFolder().await();
             final Folder projectDataFolder = process.getQubProjectDataFolder().await();
             final TypeLoader typeLoader = process.getTypeLoader();
+            final Integer forks = forksParameter.removeValue().await();
+            final TestResultsFormat resultsFormat = resultsFormatParameter.removeValue().await();
 
-            result = new QubTestRunParameters(output, error, folderToTest, environmentVariables, processFactory, defaultApplicationLauncher, jvmClassPath, qubFolder, projectDataFolder, typeLoader)
+            result = new QubTestRunParameters(output, error, folderToTest, environmentVariables, processFactory, defaultApplicationLauncher, jvmClassPath, qubFolder, projectDataFolder, typeLoader, process.getParallelAsyncRunner())
                 .setPattern(patternParameter.removeValue().await())
                 .setCoverage(coverageParameter.removeValue().await())
                 .setTestJson(testJsonParameter.removeValue().await())
+                .setParallelism(parallelismParameter.removeValue().await())
+                .setForks(forks == null ? QubTestRunParameters.getForksDefault() : forks)
+                .setDaemon(daemonParameter.removeValue().await())
+                .setResultsFormat(resultsFormat == null ? QubTestRunParameters.getResultsFormatDefault() : resultsFormat)
+                .setRerunFailed(rerunFailedParameter.removeValue().await())
+                .setFailFast(failFastParameter.removeValue().await())
+                .setTestTimeout(testTimeoutParameter.removeValue().await())
+                .setTestClassTimeout(testClassTimeoutParameter.removeValue().await())
+                .setProcessTimeout(processTimeoutParameter.removeValue().await())
+                .setJavaVersion(process.getJavaVersion())
                 .setVerbose(verbose)
                 .setProfiler(profiler);
         }
@@ -103,17 +250,15 @@ public interface QubTestRun
         PreCondition.assertNotNull(parameters, "parameters");
 
         final Folder folderToTest = parameters.getFolderToTest();
-        final String pattern = parameters.getPattern();
         final Coverage coverage = parameters.getCoverage();
         final CharacterToByteWriteStream parametersOutput = parameters.getOutputWriteStream();
         final CharacterToByteWriteStream parametersError = parameters.getErrorWriteStream();
         final VerboseCharacterToByteWriteStream parametersVerbose = parameters.getVerbose();
         final DefaultApplicationLauncher defaultApplicationLauncher = parameters.getDefaultApplicationLauncher();
         final ProcessFactory processFactory = parameters.getProcessFactory();
-        final boolean profiler = parameters.getProfiler();
-        final boolean testJson = parameters.getTestJson();
         final QubFolder qubFolder = parameters.getQubFolder();
         final Folder qubTestDataFolder = parameters.getQubTestDataFolder();
+        final int forks = parameters.getForks();
 
         LogStreams logStreams = CommandLineLogsAction.getLogStreamsFromDataFolder(qubTestDataFolder, parametersOutput, parametersVerbose);
         final File logFile = logStreams.getLogFile();
@@ -188,92 +333,972 @@ public interface QubTestRun
                     jacocoFolder = jacococliProjectFolder.getLatestProjectVersionFolder().await();
                 }
 
-                final ConsoleTestRunnerProcessBuilder consoleTestRunner = ConsoleTestRunnerProcessBuilder.create(processFactory).await()
-                    .redirectOutput(parametersOutput)
-                    .redirectError(parametersError)
-                    .setVerbose(verbose);
+                final File classFileIndexFile = QubTestRun.getClassFileIndexFile(parameters.getQubTestDataFolder(), outputFolder);
+                final ClassFileDiscovery classFileDiscovery = ClassFileDiscovery.create(outputFolder, parameters.getParallelAsyncRunner(), Runtime.getRuntime().availableProcessors(), classFileIndexFile);
+                final MutableMap<String,String> contentHashCache = Map.create();
+                final Iterable<File> coverageClassFiles = jacocoFolder == null
+                    ? null
+                    : QubTestRun.getClassFilesForCoverage(coverage, outputFolder, classFileDiscovery.getClassFiles(), sourceFolder, testFolder, contentHashCache).toList();
 
+                String javaAgent = null;
                 if (jacocoFolder != null)
                 {
                     final File jacocoAgentJarFile = jacocoFolder.getFile("jacocoagent.jar").await();
-                    final File coverageExecFile = outputFolder.getFile("coverage.exec").await();
-                    consoleTestRunner.addJavaAgent(jacocoAgentJarFile + "=destfile=" + coverageExecFile);
+                    final String jacocoAgentOptions = QubTestRun.getJacocoAgentOptions(outputFolder, classFileDiscovery.getClassFiles(), coverageClassFiles);
+                    javaAgent = jacocoAgentJarFile + "=destfile=" + outputFolder.getFile("coverage.exec").await() +
+                        (Strings.isNullOrEmpty(jacocoAgentOptions) ? "" : "," + jacocoAgentOptions);
                 }
 
-                consoleTestRunner.addClasspath(classPaths);
-                consoleTestRunner.addConsoleTestRunnerFullClassName();
-                consoleTestRunner.addProfiler(profiler);
-                consoleTestRunner.addVerbose(parametersVerbose.isVerbose());
-                consoleTestRunner.addTestJson(testJson);
-                consoleTestRunner.addLogFile(logFile);
+                final Iterable<String> testClassNamesToTest = TestClassScanner.getTestClassNames(classFileDiscovery, contentHashCache, verbose);
 
-                if (!Strings.isNullOrEmpty(pattern))
+                // Coverage data is only stored for a test class when all of its tests are run.
+                final boolean incrementalCoverage = jacocoFolder != null && Strings.isNullOrEmpty(parameters.getPattern());
+                if (incrementalCoverage)
+                {
+                    TestCoverageData.setSettings(outputFolder, TestCoverageData.getSettings(jacocoFolder.getName(), coverage, sourceFolder, testFolder), verbose);
+                }
+                final TestClassUpToDateCheck upToDateCheck = jacocoFolder != null && !incrementalCoverage
+                    ? null
+                    : QubTestRun.createUpToDateCheck(parameters, classPaths, outputFolder, contentHashCache, verbose);
+                if (upToDateCheck != null)
                 {
-                    consoleTestRunner.addPattern(pattern);
+                    upToDateCheck.setClassFileDiscovery(classFileDiscovery);
+                }
+                final List<TestJSONClassFile> upToDateClassFiles = List.create();
+                final List<String> staleClassNamesToTest = List.create();
+                for (final String fullClassNameToTest : testClassNamesToTest)
+                {
+                    final TestJSONClassFile upToDateClassFile = upToDateCheck == null || (incrementalCoverage && !TestCoverageData.exists(outputFolder, fullClassNameToTest))
+                        ? null
+                        : upToDateCheck.getUpToDateClassFile(fullClassNameToTest);
+                    if (upToDateClassFile == null)
+                    {
+                        staleClassNamesToTest.add(fullClassNameToTest);
+                    }
+                    else
+                    {
+                        upToDateClassFiles.add(upToDateClassFile);
+                    }
                 }
 
-                consoleTestRunner.addOutputFolder(outputFolder);
+                final File coverageExecFile = outputFolder.getFile("coverage.exec").await();
+                if (incrementalCoverage)
+                {
+                    // The test runner's agent appends to the execution data file, so start from an empty one. The stored coverage data
+                    // of stale test classes is deleted so that it isn't merged if they don't get run.
+                    coverageExecFile.delete()
+                        .catchError(FileNotFoundException.class)
+                        .await();
+                    TestCoverageData.delete(outputFolder, staleClassNamesToTest);
+                }
 
-                if (coverage != null)
+                int unmodifiedPassedTestCount = 0;
+                int unmodifiedSkippedTestCount = 0;
+                for (final TestJSONClassFile upToDateClassFile : upToDateClassFiles)
                 {
-                    consoleTestRunner.addArgument("--coverage=" + coverage);
+                    unmodifiedPassedTestCount += upToDateClassFile.getPassedTestCount();
+                    unmodifiedSkippedTestCount += upToDateClassFile.getSkippedTestCount();
                 }
 
-                consoleTestRunner.addArguments(outputFolder.iterateFilesRecursively()
-                    .catchError(FolderNotFoundException.class)
-                    .where((File file) -> Comparer.equal(file.getFileExtension(), ".class") &&
-                                          !file.getName().contains("$"))
-                    .map((File classFile) -> QubTestRun.getFullClassName(outputFolder, classFile)));
+                boolean forked = false;
+                Integer daemonExitCode = null;
+                if (upToDateClassFiles.any() && !staleClassNamesToTest.any())
+                {
+                    verbose.writeLine("Every test class is up to date. Skipping the test runner...").await();
+                    if (Strings.isNullOrEmpty(parameters.getPattern()))
+                    {
+                        final TestJSON testJson = upToDateCheck.createTestJSON(upToDateClassFiles);
+                        TestResults.write(outputFolder, testJson, parameters.getResultsFormat());
+                    }
 
-                verbose.writeLine("Running " + consoleTestRunner.getCommand()).await();
+                    output.writeLine().await();
+                    final CharacterTable table = CharacterTable.create();
+                    ConsoleTestRunner.addUnmodifiedTestRows(table, unmodifiedPassedTestCount, unmodifiedSkippedTestCount);
+                    table.toString(output, CharacterTableFormat.consise).await();
+                    output.writeLine().await();
 
-                output.writeLine().await();
+                    daemonExitCode = 0;
+                }
+                else if (parameters.getDaemon())
+                {
+                    if (jacocoFolder != null)
+                    {
+                        verbose.writeLine("Code coverage can't be collected by the test runner daemon. Running tests in a new process...").await();
+                    }
+                    else if (parameters.getTestTimeout() != null || parameters.getTestClassTimeout() != null || parameters.getProcessTimeout() != null)
+                    {
+                        verbose.writeLine("Test timeouts can't be enforced by the test runner daemon. Running tests in a new process...").await();
+                    }
+                    else
+                    {
+                        daemonExitCode = QubTestRun.runInDaemon(parameters, classPaths, outputFolder, staleClassNamesToTest, unmodifiedPassedTestCount, unmodifiedSkippedTestCount, output, verbose);
+                        if (daemonExitCode == null)
+                        {
+                            verbose.writeLine("No test runner daemon is running. Running tests in a new process...").await();
+                        }
+                    }
+                }
 
-                logStreams.getLogStream().dispose().await();
+                Iterable<String> testRunnerClassPaths = classPaths;
+                if (daemonExitCode == null && jacocoFolder != null)
+                {
+                    final File instrumentedClassesJarFile = InstrumentedClassCache.update(outputFolder, coverageClassFiles, jacocoFolder, coverageExecFile, processFactory, contentHashCache,
+                        parametersVerbose.isVerbose() ? parametersOutput : null,
+                        parametersVerbose.isVerbose() ? parametersError : null,
+                        verbose);
+                    if (instrumentedClassesJarFile != null)
+                    {
+                        // The classes are already instrumented, so the test runner only needs JaCoCo's runtime instead of its agent.
+                        final List<String> instrumentedClassPaths = List.create(instrumentedClassesJarFile.toString());
+                        instrumentedClassPaths.addAll(classPaths);
+                        instrumentedClassPaths.add(jacocoFolder.getFile("jacocoagent.jar").await().toString());
+                        testRunnerClassPaths = instrumentedClassPaths;
+                        javaAgent = null;
+                    }
+                }
 
-                result = consoleTestRunner.run().await();
+                if (daemonExitCode != null)
+                {
+                    result = daemonExitCode;
+                }
+                else if (forks <= 1 || staleClassNamesToTest.getCount() <= 1)
+                {
+                    final ConsoleTestRunnerProcessBuilder consoleTestRunner = QubTestRun.createConsoleTestRunner(parameters, javaAgent, testRunnerClassPaths, outputFolder, logFile, null)
+                        .redirectOutput(parametersOutput)
+                        .redirectError(parametersError)
+                        .setVerbose(verbose);
+                    if (unmodifiedPassedTestCount > 0)
+                    {
+                        consoleTestRunner.addUnmodifiedPassedTests(unmodifiedPassedTestCount);
+                    }
+                    if (unmodifiedSkippedTestCount > 0)
+                    {
+                        consoleTestRunner.addUnmodifiedSkippedTests(unmodifiedSkippedTestCount);
+                    }
+                    final Iterable<TestJSONClassFile> previousClassFiles = upToDateCheck == null
+                        ? Iterable.create()
+                        : upToDateCheck.getPreviousClassFiles();
+                    final File testManifestFile = outputFolder.getFile("test.manifest").await();
+                    QubTestRun.addFullClassNamesToTest(consoleTestRunner, staleClassNamesToTest, previousClassFiles, testManifestFile);
+
+                    verbose.writeLine("Running " + consoleTestRunner.getCommand()).await();
+
+                    output.writeLine().await();
 
-                logStreams = CommandLineLogsAction.getLogStreamsFromLogFile(logFile, parametersOutput, parametersVerbose);
-                output = logStreams.getOutput();
-                verbose = logStreams.getVerbose();
+                    logStreams.getLogStream().dispose().await();
+
+                    final File journalFile = !parameters.getTestJson()
+                        ? null
+                        : TestResultsJournal.getJournalFile(TestResults.getFile(outputFolder, parameters.getResultsFormat()));
+                    result = QubTestRun.runWithDeadline(consoleTestRunner.start().await(), parameters.getProcessTimeout(), journalFile, parametersOutput);
+                    testManifestFile.delete()
+                        .catchError(FileNotFoundException.class)
+                        .await();
+
+                    logStreams = CommandLineLogsAction.getLogStreamsFromLogFile(logFile, parametersOutput, parametersVerbose);
+                    output = logStreams.getOutput();
+                    verbose = logStreams.getVerbose();
+                }
+                else
+                {
+                    result = QubTestRun.runForks(parameters, javaAgent, testRunnerClassPaths, outputFolder, staleClassNamesToTest, upToDateClassFiles, forks, output, verbose);
+                    forked = true;
+                }
+
+                if (upToDateClassFiles.any() && staleClassNamesToTest.any() && !forked && Strings.isNullOrEmpty(parameters.getPattern()))
+                {
+                    verbose.writeLine("Adding " + upToDateClassFiles.getCount() + " up-to-date test classes to test.json...").await();
+                    QubTestRun.addUpToDateClassFiles(outputFolder, parameters.getResultsFormat(), upToDateClassFiles);
+                }
+
+                if (incrementalCoverage)
+                {
+                    final int mergedTestClassCount = TestCoverageData.merge(outputFolder, testClassNamesToTest, coverageExecFile, verbose);
+                    verbose.writeLine("Merged the coverage data of " + mergedTestClassCount + " test classes into " + coverageExecFile.getName() + ".").await();
+                }
 
                 if (jacocoFolder != null)
                 {
                     output.writeLine().await();
                     output.writeLine("Analyzing coverage...").await();
 
-                    final JacocoCliProcessBuilder jacococli = JacocoCliProcessBuilder.create(processFactory).await()
-                        .addJacocoCliJar(jacocoFolder.getFile("jacococli.jar").await())
-                        .addReport()
-                        .addCoverageExec(outputFolder.getFile("coverage.exec").await())
-                        .addClassFiles(QubTestRun.getClassFilesForCoverage(coverage, outputFolder, sourceFolder, testFolder))
-                        .addSourceFiles(coverage, sourceFolder, testFolder)
-                        .addHtml(coverageFolder);
-
-                    if (parametersVerbose.isVerbose())
+                    final String coverageReportKey = CoverageReport.getKey(jacocoFolder.getName(), coverage, coverageExecFile, coverageClassFiles, contentHashCache);
+                    if (CoverageReport.isUpToDate(coverageFolder, coverageReportKey))
+                    {
+                        verbose.writeLine("The coverage report is up to date. Skipping the report...").await();
+                    }
+                    else
                     {
-                        jacococli.redirectOutput(parametersOutput);
-                        jacococli.redirectError(parametersError);
+                        final File jacocoCliJarFile = jacocoFolder.getFile("jacococli.jar").await();
+                        final Iterable<Folder> reportSourceFolders = CoverageReport.getSourceFolders(coverage, sourceFolder, testFolder);
+                        int coverageExitCode;
+                        if (CoverageReport.generateInProcess(jacocoCliJarFile, coverageExecFile, coverageClassFiles, reportSourceFolders, coverageFolder, verbose))
+                        {
+                            verbose.writeLine("Generated the coverage report in the qub-test process.").await();
+                            coverageExitCode = 0;
+                        }
+                        else
+                        {
+                            final JacocoCliProcessBuilder jacococli = JacocoCliProcessBuilder.create(processFactory).await()
+                                .addJacocoCliJar(jacocoCliJarFile)
+                                .addReport()
+                                .addCoverageExec(coverageExecFile)
+                                .addClassFiles(coverageClassFiles.iterate())
+                                .addSourceFiles(coverage, sourceFolder, testFolder)
+                                .addHtml(coverageFolder);
+                            for (final String machineReadableArgument : CoverageReport.getMachineReadableArguments(coverageFolder))
+                            {
+                                jacococli.addArgument(machineReadableArgument);
+                            }
+
+                            if (parametersVerbose.isVerbose())
+                            {
+                                jacococli.redirectOutput(parametersOutput);
+                                jacococli.redirectError(parametersError);
+
+                                verbose.writeLine("Running " + jacococli.getCommand()).await();
+                            }
+
+                            coverageExitCode = jacococli.run().await();
+                        }
+
+                        if (coverageExitCode == 0)
+                        {
+                            CoverageReport.setKey(coverageFolder, coverageReportKey);
+                            defaultApplicationLauncher.openFileWithDefaultApplication(coverageFolder.getFile("index.html").await()).await();
+                        }
+                        else if (result == 0)
+                        {
+                            result = coverageExitCode;
+                        }
+                    }
+                }
+            }
+        }
+        finally
+        {
+            logStreams.getLogStream().dispose().await();
+        }
+
+        return result;
+    }
+
+    /**
+     * Send the tests to run to a running test runner daemon.
+     * @param parameters The parameters that were passed to qub-test run.
+     * @param classPaths The classpath entries that the tests will be run with.
+     * @param outputFolder The folder that contains the compiled classes to test.
+     * @param fullClassNamesToTest The full names of the classes to test.
+     * @param unmodifiedPassedTestCount The number of passed tests whose results were already up to
+     *                                  date.
+     * @param unmodifiedSkippedTestCount The number of skipped tests whose results were already up
+     *                                   to date.
+     * @param output The stream that the test output will be written to.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The exit code of the test run, or null if no test runner daemon is running.
+     */
+    static Integer runInDaemon(QubTestRunParameters parameters, Iterable<String> classPaths, Folder outputFolder, Iterable<String> fullClassNamesToTest, int unmodifiedPassedTestCount, int unmodifiedSkippedTestCount, CharacterToByteWriteStream output, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNull(classPaths, "classPaths");
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(fullClassNamesToTest, "fullClassNamesToTest");
+        PreCondition.assertNotNull(output, "output");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final String outputFolderPath = outputFolder.toString();
+        final QubTestDaemonRequest request = QubTestDaemonRequest.create()
+            .addClassPaths(classPaths.where((String classPath) -> !classPath.equals(outputFolderPath)))
+            .setOutputFolderPath(outputFolderPath)
+            .setPattern(parameters.getPattern())
+            .setTestJson(parameters.getTestJson())
+            .setParallelism(parameters.getParallelism())
+            .setResultsFormat(parameters.getResultsFormat())
+            .setRerunFailed(parameters.getRerunFailed())
+            .setFailFast(parameters.getFailFast())
+            .setVerbose(parameters.getVerbose().isVerbose())
+            .setUnmodifiedPassedTestCount(unmodifiedPassedTestCount)
+            .setUnmodifiedSkippedTestCount(unmodifiedSkippedTestCount)
+            .addTestClassNames(fullClassNamesToTest);
+
+        final File daemonJsonFile = QubTestDaemon.getDaemonJsonFile(parameters.getQubTestDataFolder());
+        verbose.writeLine("Sending tests to the test runner daemon described by " + daemonJsonFile + "...").await();
+
+        output.writeLine().await();
+        return QubTestDaemon.sendRequest(daemonJsonFile, request, output);
+    }
+
+    /**
+     * Create a ConsoleTestRunnerProcessBuilder that has all of the arguments except for the names of
+     * the classes to test.
+     * @param parameters The parameters that were passed to QubTestRun.run().
+     * @param javaAgent The java agent that will be attached to the test runner, or null if no java
+     *                  agent will be attached.
+     * @param classPaths The classpath entries of the test runner.
+     * @param outputFolder The folder that contains the compiled test classes.
+     * @param logFile The file that the test runner will write its logs to, or null if the test
+     *                runner shouldn't write to a log file.
+     * @param testJsonFile The file that the test runner will write its test.json results to, or null
+     *                     if the test runner should write to the default test.json file.
+     * @return The ConsoleTestRunnerProcessBuilder.
+     */
+    static ConsoleTestRunnerProcessBuilder createConsoleTestRunner(QubTestRunParameters parameters, String javaAgent, Iterable<String> classPaths, Folder outputFolder, File logFile, File testJsonFile)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNullAndNotEmpty(classPaths, "classPaths");
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        final String pattern = parameters.getPattern();
+        final Coverage coverage = parameters.getCoverage();
+        final String parallelism = parameters.getParallelism();
+
+        final ConsoleTestRunnerProcessBuilder result = ConsoleTestRunnerProcessBuilder.create(parameters.getProcessFactory()).await();
+
+        if (!Strings.isNullOrEmpty(javaAgent))
+        {
+            result.addJavaAgent(javaAgent);
+        }
+
+        result.addClasspath(classPaths);
+        result.addConsoleTestRunnerFullClassName();
+        result.addProfiler(parameters.getProfiler());
+        result.addVerbose(parameters.getVerbose().isVerbose());
+        result.addTestJson(parameters.getTestJson());
+
+        if (logFile != null)
+        {
+            result.addLogFile(logFile);
+        }
+
+        if (!Strings.isNullOrEmpty(pattern))
+        {
+            result.addPattern(pattern);
+        }
+
+        result.addOutputFolder(outputFolder);
+
+        if (coverage != null)
+        {
+            result.addArgument("--coverage=" + coverage);
+        }
+
+        if (!Strings.isNullOrEmpty(parallelism))
+        {
+            result.addParallelism(parallelism);
+        }
+
+        if (testJsonFile != null)
+        {
+            result.addTestJsonFile(testJsonFile);
+        }
+        else if (parameters.getResultsFormat() != QubTestRunParameters.getResultsFormatDefault())
+        {
+            result.addResultsFormat(parameters.getResultsFormat());
+        }
+
+        if (parameters.getRerunFailed())
+        {
+            result.addRerunFailed();
+        }
+
+        if (parameters.getFailFast() != null)
+        {
+            result.addFailFast(parameters.getFailFast());
+        }
+
+        if (parameters.getTestTimeout() != null)
+        {
+            result.addTestTimeout(parameters.getTestTimeout());
+        }
+
+        if (parameters.getTestClassTimeout() != null)
+        {
+            result.addTestClassTimeout(parameters.getTestClassTimeout());
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Wait for the provided test runner process to finish. If the process doesn't finish within the
+     * provided time limit, then it is stopped and the test classes that it was running when it was
+     * stopped are reported.
+     * @param testRunner The test runner process that was started.
+     * @param processTimeout The amount of time that the process has to finish, or null if the
+     *                       process doesn't have a time limit.
+     * @param journalFile The journal file that the test runner process writes to, or null if it
+     *                    doesn't write a journal.
+     * @param output The stream that the timeout will be reported to.
+     * @return The exit code of the test runner process.
+     */
+    static int runWithDeadline(ChildProcess testRunner, Duration processTimeout, File journalFile, CharacterToByteWriteStream output)
+    {
+        PreCondition.assertNotNull(testRunner, "testRunner");
+        PreCondition.assertNotNull(output, "output");
+
+        int result;
+        if (processTimeout == null)
+        {
+            result = testRunner.await();
+        }
+        else
+        {
+            final java.util.concurrent.CompletableFuture<Integer> exitCode = QubTestRun.waitForExitCode(testRunner);
+            Integer finishedExitCode = QubTestRun.getExitCode(exitCode, processTimeout);
+            if (finishedExitCode != null)
+            {
+                result = finishedExitCode;
+            }
+            else
+            {
+                final Iterable<String> unfinishedClassNames = journalFile == null
+                    ? null
+                    : TestResultsJournal.getUnfinishedClassNames(journalFile)
+                        .catchError()
+                        .await();
+                QubTestRun.stop(testRunner);
+                finishedExitCode = QubTestRun.getExitCode(exitCode, TestWatchdog.defaultAbandonDelay);
+
+                output.writeLine().await();
+                output.writeLine("The test runner didn't finish within " + TestWatchdog.formatSeconds(processTimeout) + " seconds" +
+                    (finishedExitCode == null ? " and couldn't be stopped" : " and was stopped") +
+                    (Iterable.isNullOrEmpty(unfinishedClassNames) ? "." : " while it was running " + String.join(", ", unfinishedClassNames) + ".")).await();
+
+                result = finishedExitCode == null || finishedExitCode < 1 ? 1 : finishedExitCode;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Start waiting for the provided child process to exit on a dedicated daemon thread. The wait
+     * blocks for as long as the process runs, so it isn't run on a shared thread pool where it
+     * could delay the waits of other processes.
+     * @param childProcess The child process to wait for.
+     * @return The exit code of the child process, which completes when the process exits.
+     */
+    static java.util.concurrent.CompletableFuture<Integer> waitForExitCode(ChildProcess childProcess)
+    {
+        PreCondition.assertNotNull(childProcess, "childProcess");
+
+        final java.util.concurrent.CompletableFuture<Integer> result = new java.util.concurrent.CompletableFuture<>();
+        final Thread waitThread = new Thread(() ->
+        {
+            try
+            {
+                result.complete(childProcess.await());
+            }
+            catch (Throwable e)
+            {
+                result.completeExceptionally(e);
+            }
+        }, "qub-test child process " + childProcess.getProcessId());
+        waitThread.setDaemon(true);
+        waitThread.start();
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Wait for the provided exit code for at most the provided amount of time.
+     * @param exitCode The exit code of a running process.
+     * @param timeout The maximum amount of time to wait.
+     * @return The exit code, or null if the process didn't finish in time.
+     */
+    static Integer getExitCode(java.util.concurrent.CompletableFuture<Integer> exitCode, Duration timeout)
+    {
+        PreCondition.assertNotNull(exitCode, "exitCode");
+        PreCondition.assertNotNull(timeout, "timeout");
+
+        Integer result;
+        try
+        {
+            result = exitCode.get((long)timeout.toMilliseconds().getValue(), java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+        catch (java.util.concurrent.TimeoutException e)
+        {
+            result = null;
+        }
+        catch (InterruptedException | java.util.concurrent.ExecutionException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Forcibly stop the provided child process and the processes that it started. The processes
+     * that it started are stopped first, because they are no longer its descendants once it has
+     * stopped.
+     * @param childProcess The child process to stop.
+     */
+    static void stop(ChildProcess childProcess)
+    {
+        PreCondition.assertNotNull(childProcess, "childProcess");
+
+        // Only a direct child of this process can have descendants to stop, so a fake child process's id never matches another process.
+        final long processId = childProcess.getProcessId();
+        ProcessHandle.current().children()
+            .filter((ProcessHandle child) -> child.pid() == processId)
+            .flatMap(ProcessHandle::descendants)
+            .forEach(ProcessHandle::destroyForcibly);
+
+        childProcess.kill()
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Get the number of tests that the provided forks have failed so far. A fork that has finished
+     * has failed as many tests as its exit code, and a fork that is still running has failed as
+     * many tests as it has reported in its failed test count file.
+     * @param shardExitCodes The exit codes of the forks that have finished, keyed by their index.
+     *                       This map is synchronized on while it is read.
+     * @param shardTestJsonFiles The test.json files that the forks write their results to.
+     * @return The number of tests that the provided forks have failed so far.
+     */
+    static int getFailedTestCount(MutableMap<Integer,Integer> shardExitCodes, List<File> shardTestJsonFiles)
+    {
+        PreCondition.assertNotNull(shardExitCodes, "shardExitCodes");
+        PreCondition.assertNotNull(shardTestJsonFiles, "shardTestJsonFiles");
+
+        int result = 0;
+        for (int i = 0; i < shardTestJsonFiles.getCount(); ++i)
+        {
+            Integer shardFailedTestCount;
+            synchronized (shardExitCodes)
+            {
+                shardFailedTestCount = shardExitCodes.get(i)
+                    .catchError(NotFoundException.class)
+                    .await();
+            }
+            if (shardFailedTestCount == null)
+            {
+                shardFailedTestCount = QubTestRun.getReportedFailedTestCount(shardTestJsonFiles.get(i));
+            }
+            if (shardFailedTestCount != null && shardFailedTestCount > 0)
+            {
+                result += shardFailedTestCount;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of failed tests that the fork that writes to the provided test.json file has
+     * reported so far.
+     * @param shardTestJsonFile The test.json file that the fork writes its results to.
+     * @return The number of failed tests that the fork has reported, or null if it hasn't reported
+     * any.
+     */
+    static Integer getReportedFailedTestCount(File shardTestJsonFile)
+    {
+        PreCondition.assertNotNull(shardTestJsonFile, "shardTestJsonFile");
 
-                        verbose.writeLine("Running " + jacococli.getCommand()).await();
+        return ConsoleTestRunner.getFailedTestCountFile(shardTestJsonFile).getContentsAsString()
+            .then((String text) -> Integer.parseInt(text.trim()))
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Run the tests in the provided classes in multiple ConsoleTestRunner processes at the same
+     * time. The classes are split between the processes using the durations that were recorded in
+     * the previous test.json file. Each process writes its own test.json fragment, and the
+     * fragments are merged into the output folder's test.json file after every process has
+     * finished.
+     * @param parameters The parameters that were passed to QubTestRun.run().
+     * @param javaAgent The java agent that will be attached to each test runner, or null if no java
+     *                  agent will be attached.
+     * @param classPaths The classpath entries of each test runner.
+     * @param outputFolder The folder that contains the compiled test classes.
+     * @param fullClassNamesToTest The full names of the classes to test.
+     * @param upToDateClassFiles The previous test.json entries of the test classes that don't need
+     *                           to be run again. These are merged into the test.json file.
+     * @param forks The maximum number of test runner processes to run at the same time.
+     * @param output The stream that each test runner's output will be written to.
+     * @param verbose The stream that verbose text will be written to.
+     * @return The combined exit code of the test runner processes.
+     */
+    static int runForks(QubTestRunParameters parameters, String javaAgent, Iterable<String> classPaths, Folder outputFolder, Iterable<String> fullClassNamesToTest, Iterable<TestJSONClassFile> upToDateClassFiles, int forks, CharacterToByteWriteStream output, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNullAndNotEmpty(classPaths, "classPaths");
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(fullClassNamesToTest, "fullClassNamesToTest");
+        PreCondition.assertNotNull(upToDateClassFiles, "upToDateClassFiles");
+        PreCondition.assertGreaterThanOrEqualTo(forks, 2, "forks");
+        PreCondition.assertNotNull(output, "output");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final TestResultsFormat resultsFormat = parameters.getResultsFormat();
+        final TestJSON previousTestJson = !parameters.getTestJson()
+            ? null
+            : TestResults.parseTestJSON(outputFolder, resultsFormat)
+                .catchError()
+                .await();
+        final Iterable<TestJSONClassFile> previousClassFiles = previousTestJson == null
+            ? Iterable.create()
+            : previousTestJson.getClassFiles();
+        final Iterable<Iterable<String>> shards = TestClassScheduler.getShards(fullClassNamesToTest, TestClassScheduler.getDurations(previousTestJson), forks);
+        final int shardCount = shards.getCount();
+        final Integer failFast = parameters.getFailFast();
+        final File stopFile = failFast == null
+            ? null
+            : outputFolder.getFile("test.stop").await();
+        if (stopFile != null)
+        {
+            stopFile.delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        }
+
+        final List<ConsoleTestRunnerProcessBuilder> shardRunners = List.create();
+        final List<File> shardTestJsonFiles = List.create();
+        final List<File> shardTestManifestFiles = List.create();
+        final List<InMemoryCharacterToByteStream> shardOutputs = List.create();
+        int shardNumber = 0;
+        for (final Iterable<String> shard : shards)
+        {
+            ++shardNumber;
+
+            final File shardTestJsonFile = outputFolder.getFile("test.fork" + shardNumber + ".json").await();
+            final InMemoryCharacterToByteStream shardOutput = InMemoryCharacterToByteStream.create();
+            final ConsoleTestRunnerProcessBuilder shardRunner = QubTestRun.createConsoleTestRunner(parameters, javaAgent, classPaths, outputFolder, null, shardTestJsonFile)
+                .redirectOutput(shardOutput)
+                .redirectError(parameters.getErrorWriteStream())
+                .setVerbose(verbose);
+            if (stopFile != null)
+            {
+                shardRunner.addStopFile(stopFile);
+            }
+            final File shardTestManifestFile = outputFolder.getFile("test.fork" + shardNumber + ".manifest").await();
+            QubTestRun.addFullClassNamesToTest(shardRunner, shard, previousClassFiles, shardTestManifestFile);
+
+            verbose.writeLine("Running fork " + shardNumber + " of " + shardCount + ": " + shardRunner.getCommand()).await();
+
+            shardRunners.add(shardRunner);
+            shardTestJsonFiles.add(shardTestJsonFile);
+            shardTestManifestFiles.add(shardTestManifestFile);
+            shardOutputs.add(shardOutput);
+        }
+
+        output.writeLine().await();
+
+        final List<ChildProcess> shardProcesses = List.create();
+        for (final ConsoleTestRunnerProcessBuilder shardRunner : shardRunners)
+        {
+            shardProcesses.add(shardRunner.start().await());
+        }
+
+        final MutableMap<Integer,Integer> shardExitCodes = Map.create();
+        final List<Integer> stoppedShardIndexes = List.create();
+        final List<Result<Void>> shardResults = List.create();
+        for (int i = 0; i < shardCount; ++i)
+        {
+            // Each fork's deadline is measured on its own thread by runWithDeadline, so a fork whose supervision is queued
+            // behind the other forks' is never stopped early.
+            final int shardIndex = i;
+            shardResults.add(parameters.getParallelAsyncRunner().schedule(() ->
+            {
+                final int shardExitCode = QubTestRun.runWithDeadline(
+                    shardProcesses.get(shardIndex),
+                    parameters.getProcessTimeout(),
+                    TestResultsJournal.getJournalFile(shardTestJsonFiles.get(shardIndex)),
+                    shardOutputs.get(shardIndex));
+                synchronized (output)
+                {
+                    output.writeLine("Fork " + (shardIndex + 1) + " of " + shardCount + ":").await();
+                    output.write(shardOutputs.get(shardIndex).getText().await()).await();
+                }
+                synchronized (shardExitCodes)
+                {
+                    shardExitCodes.set(shardIndex, shardExitCode);
+                    shardExitCodes.notifyAll();
+                }
+            }));
+        }
+
+        if (stopFile != null)
+        {
+            while (!stoppedShardIndexes.any())
+            {
+                synchronized (shardExitCodes)
+                {
+                    if (shardExitCodes.getCount() == shardCount)
+                    {
+                        break;
+                    }
+                    try
+                    {
+                        shardExitCodes.wait(QubTestRun.failedTestCountPollMilliseconds);
                     }
+                    catch (InterruptedException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                }
 
-                    final int coverageExitCode = jacococli.run().await();
-                    if (result == 0)
+                final int failedTestCount = QubTestRun.getFailedTestCount(shardExitCodes, shardTestJsonFiles);
+                if (failedTestCount >= failFast)
+                {
+                    // The forks have failed enough tests between them, so stop the forks that are still running.
+                    verbose.writeLine("Forks have failed " + failedTestCount + " tests. Stopping the remaining forks...").await();
+                    if (!stopFile.exists().await())
                     {
-                        result = coverageExitCode;
+                        stopFile.setContentsAsString(Integers.toString(failedTestCount)).await();
+                    }
+                    for (int j = 0; j < shardCount; ++j)
+                    {
+                        final boolean shardFinished;
+                        synchronized (shardExitCodes)
+                        {
+                            shardFinished = shardExitCodes.containsKey(j);
+                        }
+                        if (!shardFinished)
+                        {
+                            stoppedShardIndexes.add(j);
+                            QubTestRun.stop(shardProcesses.get(j));
+                        }
                     }
                 }
+            }
+        }
 
-                if (jacocoFolder != null)
+        for (final Result<Void> shardResult : shardResults)
+        {
+            shardResult.await();
+        }
+
+        int result = 0;
+        for (int i = 0; i < shardCount; ++i)
+        {
+            int shardExitCode = shardExitCodes.get(i).await();
+            if (stoppedShardIndexes.contains(i))
+            {
+                // A fork that was stopped exits with the exit code of a killed process instead of its number of failed tests.
+                final Integer shardFailedTestCount = QubTestRun.getReportedFailedTestCount(shardTestJsonFiles.get(i));
+                shardExitCode = shardFailedTestCount == null ? 0 : shardFailedTestCount;
+            }
+            result += shardExitCode;
+        }
+
+        if (stopFile != null)
+        {
+            stopFile.delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        }
+
+        for (final File shardTestJsonFile : shardTestJsonFiles)
+        {
+            TestResultsJournal.compact(shardTestJsonFile, verbose);
+        }
+
+        final TestJSON mergedTestJson = QubTestRun.mergeTestJsonFiles(shardTestJsonFiles);
+        if (mergedTestJson != null)
+        {
+            final List<TestJSONClassFile> mergedClassFiles = List.create(mergedTestJson.getClassFiles());
+            for (final TestJSONClassFile upToDateClassFile : upToDateClassFiles)
+            {
+                mergedClassFiles.add(upToDateClassFile);
+            }
+            mergedTestJson.setClassFiles(mergedClassFiles);
+            verbose.writeLine("Merging test.json files from " + shardCount + " forks...").await();
+            TestResults.write(outputFolder, Strings.isNullOrEmpty(parameters.getPattern()) && failFast == null
+                ? mergedTestJson
+                : TestResults.merge(previousTestJson, mergedTestJson), resultsFormat);
+        }
+        for (final File shardTestJsonFile : shardTestJsonFiles)
+        {
+            shardTestJsonFile.delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+            ConsoleTestRunner.getFailedTestCountFile(shardTestJsonFile).delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        }
+        for (final File shardTestManifestFile : shardTestManifestFiles)
+        {
+            shardTestManifestFile.delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        }
+
+        final CharacterTable table = CharacterTable.create();
+        table.addRow("Forks:", Integers.toString(shardCount));
+        if (mergedTestJson != null)
+        {
+            int passedTestCount = 0;
+            int skippedTestCount = 0;
+            int failedTestCount = 0;
+            for (final TestJSONClassFile classFile : mergedTestJson.getClassFiles())
+            {
+                passedTestCount += classFile.getPassedTestCount();
+                skippedTestCount += classFile.getSkippedTestCount();
+                failedTestCount += classFile.getFailedTestCount();
+            }
+            table.addRow("Total Passed Tests:", Integers.toString(passedTestCount));
+            if (skippedTestCount > 0)
+            {
+                table.addRow("Total Skipped Tests:", Integers.toString(skippedTestCount));
+            }
+            if (failedTestCount > 0)
+            {
+                table.addRow("Total Failed Tests:", Integers.toString(failedTestCount));
+            }
+        }
+        else if (result != 0)
+        {
+            table.addRow("Total Failed Tests:", Integers.toString(result));
+        }
+        output.writeLine("Combined results:").await();
+        table.toString(output, CharacterTableFormat.consise).await();
+        output.writeLine().await();
+
+        return result;
+    }
+
+    /**
+     * Add the provided test classes to the provided test runner. If there are more test classes than
+     * the test manifest threshold, then the test classes are written to the provided test manifest
+     * file instead of being added as separate command line arguments.
+     * @param consoleTestRunner The test runner to add the test classes to.
+     * @param fullClassNamesToTest The full names of the classes to test.
+     * @param previousClassFiles The test.json entries from the previous test run.
+     * @param testManifestFile The file that the test manifest will be written to if it is needed.
+     */
+    static void addFullClassNamesToTest(ConsoleTestRunnerProcessBuilder consoleTestRunner, Iterable<String> fullClassNamesToTest, Iterable<TestJSONClassFile> previousClassFiles, File testManifestFile)
+    {
+        PreCondition.assertNotNull(consoleTestRunner, "consoleTestRunner");
+        PreCondition.assertNotNull(fullClassNamesToTest, "fullClassNamesToTest");
+        PreCondition.assertNotNull(previousClassFiles, "previousClassFiles");
+        PreCondition.assertNotNull(testManifestFile, "testManifestFile");
+
+        if (fullClassNamesToTest.getCount() <= QubTestRun.testManifestThreshold)
+        {
+            consoleTestRunner.addArguments(fullClassNamesToTest);
+        }
+        else
+        {
+            final TestManifest testManifest = TestManifest.create(fullClassNamesToTest, previousClassFiles);
+            testManifestFile.setContentsAsString(testManifest.toString()).await();
+            consoleTestRunner.addTestManifest(testManifestFile);
+        }
+    }
+
+    /**
+     * Create the check that decides which test classes don't need to be run again, or null if the
+     * check can't be done before the test runner starts.
+     * @param parameters The parameters that were passed to QubTestRun.run().
+     * @param classPaths The classpath entries that the test runner will be run with.
+     * @param outputFolder The folder that contains the compiled test classes.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @param verbose The stream that verbose text will be written to.
+     * @return The check that decides which test classes don't need to be run again, or null.
+     */
+    static TestClassUpToDateCheck createUpToDateCheck(QubTestRunParameters parameters, Iterable<String> classPaths, Folder outputFolder, MutableMap<String,String> contentHashCache, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(parameters, "parameters");
+        PreCondition.assertNotNull(classPaths, "classPaths");
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        TestClassUpToDateCheck result = null;
+        final VersionNumber javaVersion = parameters.getJavaVersion();
+        if (parameters.getTestJson() && javaVersion != null)
+        {
+            TestResultsJournal.compact(outputFolder, parameters.getResultsFormat(), verbose);
+            final TestResults previousTestJson = TestResults.parse(outputFolder, parameters.getResultsFormat())
+                .catchError()
+                .await();
+            if (previousTestJson != null)
+            {
+                verbose.writeLine("Checking which test classes are up to date...").await();
+                final FileSystem fileSystem = outputFolder.getFileSystem();
+                result = TestClassUpToDateCheck.create(outputFolder, previousTestJson, javaVersion, ClassPathDependencies.getJarFiles(fileSystem, classPaths), contentHashCache, verbose);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add the provided up-to-date entries to the test results in the provided output folder.
+     * Entries that the test results already have are not replaced.
+     * @param outputFolder The output folder that contains the test results.
+     * @param resultsFormat The format that the test results are stored in.
+     * @param upToDateClassFiles The up-to-date entries to add.
+     */
+    static void addUpToDateClassFiles(Folder outputFolder, TestResultsFormat resultsFormat, Iterable<TestJSONClassFile> upToDateClassFiles)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(resultsFormat, "resultsFormat");
+        PreCondition.assertNotNull(upToDateClassFiles, "upToDateClassFiles");
+
+        final TestJSON testJson = TestResults.parseTestJSON(outputFolder, resultsFormat)
+            .catchError()
+            .await();
+        if (testJson != null)
+        {
+            final List<TestJSONClassFile> classFiles = List.create(testJson.getClassFiles());
+            for (final TestJSONClassFile upToDateClassFile : upToDateClassFiles)
+            {
+                final Path relativePath = upToDateClassFile.getRelativePath();
+                if (!classFiles.contains((TestJSONClassFile classFile) -> classFile.getRelativePath().equals(relativePath)))
                 {
-                    defaultApplicationLauncher.openFileWithDefaultApplication(coverageFolder.getFile("index.html").await()).await();
+                    classFiles.add(upToDateClassFile);
                 }
             }
+            testJson.setClassFiles(classFiles);
+            TestResults.write(outputFolder, testJson, resultsFormat);
         }
-        finally
+    }
+
+    /**
+     * Merge the test.json files that were written by multiple ConsoleTestRunner processes.
+     * @param testJsonFiles The test.json files to merge.
+     * @return The merged TestJSON, or null if none of the test.json files exist.
+     */
+    static TestJSON mergeTestJsonFiles(Iterable<File> testJsonFiles)
+    {
+        PreCondition.assertNotNull(testJsonFiles, "testJsonFiles");
+
+        TestJSON result = null;
+        final List<TestJSONClassFile> classFiles = List.create();
+        for (final File testJsonFile : testJsonFiles)
         {
-            logStreams.getLogStream().dispose().await();
+            final TestJSON testJson = TestJSON.parse(testJsonFile)
+                .catchError(FileNotFoundException.class)
+                .await();
+            if (testJson != null)
+            {
+                if (result == null)
+                {
+                    result = TestJSON.create();
+                    final VersionNumber javaVersion = testJson.getJavaVersion().catchError().await();
+                    if (javaVersion != null)
+                    {
+                        result.setJavaVersion(javaVersion);
+                    }
+
+                    final Iterable<TestJSONClassPathEntry> classPathEntries = testJson.getClassPathEntries();
+                    if (classPathEntries != null)
+                    {
+                        result.setClassPathEntries(classPathEntries);
+                    }
+                }
+                classFiles.addAll(testJson.getClassFiles());
+            }
+        }
+
+        if (result != null)
+        {
+            result.setClassFiles(classFiles);
         }
 
         return result;
@@ -288,45 +1313,60 @@ public interface QubTestRun
     }
 
     /**
-     * Get whether or not the provided outputClassFile was created from one of the provided java
-     * files.
+     * Get whether or not the provided outputClassFile was created from one of the java files in the
+     * provided index. A class file is matched to the java file that its top-level class is named
+     * after. A class file that doesn't match is matched to the java file in its SourceFile
+     * attribute instead, so that non-public top-level classes and their nested classes are matched
+     * too. The SourceFile attributes are cached by content hash so that unchanged class files aren't
+     * read again.
      * @param outputFolder The output folder that the outputClassFiles are entries of.
      * @param outputClassFile The outputClassFile to check.
-     * @param sourceFolder The source folder that the sourceJavaFiles are entries of.
-     * @param sourceJavaFiles The possible source files that the class file may have come from.
-     * @return Whether or not the provided outputClassFile was created from one of the provided java
+     * @param sourceJavaFilePaths The paths of the possible source files that the class file may have
+     *                            come from, relative to their source folder and separated by '/'.
+     * @param sourceFileCache The cache of the class files' SourceFile attributes.
+     * @return Whether or not the provided outputClassFile was created from one of the indexed java
      * files.
      */
-    static boolean isSourceClassFile(Folder outputFolder, File outputClassFile, Folder sourceFolder, Iterable<File> sourceJavaFiles)
+    static boolean isSourceClassFile(Folder outputFolder, File outputClassFile, Set<String> sourceJavaFilePaths, SourceFileCache sourceFileCache)
     {
         PreCondition.assertNotNull(outputFolder, "outputFolder");
         PreCondition.assertNotNull(outputClassFile, "outputClassFile");
-        PreCondition.assertNotNull(sourceFolder, "sourceFolder");
-        PreCondition.assertNotNull(sourceJavaFiles, "sourceJavaFiles");
+        PreCondition.assertNotNull(sourceJavaFilePaths, "sourceJavaFilePaths");
+        PreCondition.assertNotNull(sourceFileCache, "sourceFileCache");
 
-        Path outputClassFilePath = outputClassFile.relativeTo(outputFolder).withoutFileExtension();
-        if (outputClassFilePath.getSegments().last().contains("$"))
+        final String outputClassFileRelativePath = outputClassFile.relativeTo(outputFolder).toString().replace('\\', '/');
+        final int lastSlashIndex = outputClassFileRelativePath.lastIndexOf('/');
+        final String packagePath = outputClassFileRelativePath.substring(0, lastSlashIndex + 1);
+        final String className = outputClassFileRelativePath.substring(lastSlashIndex + 1, outputClassFileRelativePath.length() - ".class".length());
+        final String topLevelClassName = QubTestRun.getTopLevelClassName(className);
+
+        boolean result = sourceJavaFilePaths.contains(packagePath + topLevelClassName + ".java");
+        if (!result)
         {
-            final String outputClassFileRelativePathString = outputClassFilePath.toString();
-            final int dollarSignIndex = outputClassFileRelativePathString.lastIndexOf('$');
-            final String outputClassFileRelativePathStringWithoutDollarSign = outputClassFileRelativePathString.substring(0, dollarSignIndex);
-            outputClassFilePath = Path.parse(outputClassFileRelativePathStringWithoutDollarSign);
+            final String sourceFileName = sourceFileCache.getSourceFileName(outputClassFile);
+            result = sourceFileName != null && sourceJavaFilePaths.contains(packagePath + sourceFileName);
         }
-        final Path outputClassFileRelativePath = outputClassFilePath;
-        return sourceJavaFiles.contains((File sourceJavaFile) ->
-        {
-            final Path sourceJavaFileRelativePath = sourceJavaFile.relativeTo(sourceFolder).withoutFileExtension();
-            return outputClassFileRelativePath.equals(sourceJavaFileRelativePath);
-        });
+        return result;
     }
 
-    static Iterator<File> getSourceClassFiles(Folder outputFolder, Iterator<File> outputClassFiles, Folder sourceFolder, Iterable<File> sourceJavaFiles)
+    static Iterator<File> getSourceClassFiles(Folder outputFolder, Iterator<File> outputClassFiles, Folder sourceFolder, Iterable<File> sourceJavaFiles, MutableMap<String,String> contentHashCache)
     {
-        return outputClassFiles
+        final Set<String> sourceJavaFilePaths = Set.create();
+        for (final File sourceJavaFile : sourceJavaFiles)
+        {
+            sourceJavaFilePaths.add(sourceJavaFile.relativeTo(sourceFolder).toString().replace('\\', '/'));
+        }
+
+        final SourceFileCache sourceFileCache = SourceFileCache.create(outputFolder, contentHashCache);
+        final List<File> result = outputClassFiles
             .where((File outputClassFile) ->
             {
-                return QubTestRun.isSourceClassFile(outputFolder, outputClassFile, sourceFolder, sourceJavaFiles);
-            });
+                return QubTestRun.isSourceClassFile(outputFolder, outputClassFile, sourceJavaFilePaths, sourceFileCache);
+            })
+            .toList();
+        sourceFileCache.save();
+
+        return result.iterate();
     }
 
     /**
@@ -383,27 +1423,180 @@ public interface QubTestRun
         return result;
     }
 
-    static Iterator<File> iterateAllClassFiles(Folder outputFolder)
+    /**
+     * Get the file in the qub-test data folder that stores the class file discovery index for the
+     * provided output folder.
+     * @param qubTestDataFolder The qub-test data folder.
+     * @param outputFolder The output folder that is indexed.
+     * @return The file that stores the class file discovery index for the provided output folder.
+     */
+    static File getClassFileIndexFile(Folder qubTestDataFolder, Folder outputFolder)
+    {
+        PreCondition.assertNotNull(qubTestDataFolder, "qubTestDataFolder");
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        final String outputFolderHash = ClassFileHashes.getContentHash(outputFolder.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        final File result = qubTestDataFolder.getFile("classfiles/" + outputFolderHash + ".json").await();
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * The longest JaCoCo agent options that will be passed to the test runner. The options are part
+     * of a single command line argument, and Windows limits the whole command line to 32767
+     * characters.
+     */
+    int maximumJacocoAgentOptionsLength = 8192;
+
+    /**
+     * Get the options that limit the classes that the JaCoCo agent instruments to the classes whose
+     * coverage will be reported. Each package that has a covered class is included, and the classes
+     * in the output folder that are in those packages but aren't covered, such as the classes of
+     * the other folder or of dependencies that share a package name with the project, are excluded.
+     * Classes in the default package are included one at a time. If the excludes would make the
+     * options longer than maximumJacocoAgentOptionsLength, then only the includes are used, and if
+     * the includes are too long too, then every class is instrumented.
+     * @param outputFolder The folder that contains the compiled class files.
+     * @param allClassFiles The class files in the output folder.
+     * @param coverageClassFiles The class files whose coverage will be reported.
+     * @return The agent options, or an empty string if the agent should instrument every class.
+     */
+    static String getJacocoAgentOptions(Folder outputFolder, Iterable<File> allClassFiles, Iterable<File> coverageClassFiles)
     {
         PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(allClassFiles, "allClassFiles");
+        PreCondition.assertNotNull(coverageClassFiles, "coverageClassFiles");
+
+        final Set<String> coveredClassNames = Set.create();
+        final List<String> includes = List.create();
+        for (final File coverageClassFile : coverageClassFiles)
+        {
+            final String topLevelClassName = QubTestRun.getTopLevelClassName(QubTestRun.getFullClassName(outputFolder, coverageClassFile));
+            coveredClassNames.add(topLevelClassName);
+
+            final int lastDotIndex = topLevelClassName.lastIndexOf('.');
+            if (lastDotIndex == -1)
+            {
+                QubTestRun.addSorted(includes, topLevelClassName);
+                QubTestRun.addSorted(includes, topLevelClassName + "$*");
+            }
+            else
+            {
+                QubTestRun.addSorted(includes, topLevelClassName.substring(0, lastDotIndex) + ".*");
+            }
+        }
+
+        final List<String> excludes = List.create();
+        for (final File classFile : allClassFiles)
+        {
+            final String topLevelClassName = QubTestRun.getTopLevelClassName(QubTestRun.getFullClassName(outputFolder, classFile));
+            if (!coveredClassNames.contains(topLevelClassName) && QubTestRun.isInIncludedPackage(topLevelClassName, includes))
+            {
+                QubTestRun.addSorted(excludes, topLevelClassName);
+                QubTestRun.addSorted(excludes, topLevelClassName + "$*");
+            }
+        }
+
+        String result = "";
+        if (includes.any())
+        {
+            result = "includes=" + String.join(":", includes);
+            if (excludes.any())
+            {
+                final String resultWithExcludes = result + ",excludes=" + String.join(":", excludes);
+                if (resultWithExcludes.length() <= QubTestRun.maximumJacocoAgentOptionsLength)
+                {
+                    result = resultWithExcludes;
+                }
+            }
+            if (result.length() > QubTestRun.maximumJacocoAgentOptionsLength)
+            {
+                result = "";
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the name of the top-level class of the provided class. Nested and anonymous classes are
+     * named after their top-level class and a '$'.
+     * @param fullClassName The full name of the class.
+     * @return The full name of the class's top-level class.
+     */
+    static String getTopLevelClassName(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        final int dollarSignIndex = fullClassName.indexOf('$');
+        return dollarSignIndex == -1 ? fullClassName : fullClassName.substring(0, dollarSignIndex);
+    }
+
+    /**
+     * Add the provided value to the provided sorted list if the list doesn't already contain it.
+     * @param sortedValues The sorted list to add the value to.
+     * @param value The value to add.
+     */
+    static void addSorted(List<String> sortedValues, String value)
+    {
+        PreCondition.assertNotNull(sortedValues, "sortedValues");
+        PreCondition.assertNotNull(value, "value");
 
-        return outputFolder.iterateFilesRecursively()
-            .catchError(FolderNotFoundException.class)
-            .where((File file) -> Comparer.equal(file.getFileExtension(), ".class"));
+        int index = 0;
+        final int count = sortedValues.getCount();
+        while (index < count && sortedValues.get(index).compareTo(value) < 0)
+        {
+            ++index;
+        }
+        if (index == count || !sortedValues.get(index).equals(value))
+        {
+            sortedValues.insert(index, value);
+        }
+    }
+
+    /**
+     * Get whether the provided full class name is in one of the packages that are included by the
+     * provided JaCoCo agent patterns. JaCoCo's * wildcard also matches dots, so a package pattern
+     * includes the package's sub-packages too.
+     * @param fullClassName The full class name to check.
+     * @param includes The JaCoCo agent include patterns.
+     * @return Whether the provided full class name is in one of the included packages.
+     */
+    static boolean isInIncludedPackage(String fullClassName, Iterable<String> includes)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+        PreCondition.assertNotNull(includes, "includes");
+
+        boolean result = false;
+        for (final String include : includes)
+        {
+            if (include.endsWith(".*") && fullClassName.startsWith(include.substring(0, include.length() - 1)))
+            {
+                result = true;
+                break;
+            }
+        }
+        return result;
     }
 
-    static Iterator<File> getClassFilesForCoverage(Coverage coverage, Folder outputFolder, Folder sourceFolder, Folder testFolder)
+    static Iterator<File> getClassFilesForCoverage(Coverage coverage, Folder outputFolder, Iterable<File> allClassFiles, Folder sourceFolder, Folder testFolder, MutableMap<String,String> contentHashCache)
     {
         PreCondition.assertNotNull(coverage, "coverage");
         PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(allClassFiles, "allClassFiles");
         PreCondition.assertNotNull(sourceFolder, "sourceFolder");
         PreCondition.assertNotNull(testFolder, "testFolder");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
 
         Iterator<File> result;
 
         if (coverage == Coverage.All)
         {
-            result = QubTestRun.iterateAllClassFiles(outputFolder);
+            result = allClassFiles.iterate();
         }
         else
         {
@@ -433,8 +1626,7 @@ public interface QubTestRun
                 }
                 else
                 {
-                    final Iterator<File> allClassFiles = QubTestRun.iterateAllClassFiles(outputFolder);
-                    result = QubTestRun.getSourceClassFiles(outputFolder, allClassFiles, folder, javaFiles);
+                    result = QubTestRun.getSourceClassFiles(outputFolder, allClassFiles.iterate(), folder, javaFiles, contentHashCache);
                 }
             }
         }
@@ -8,11 +8,22 @@ public class QubTestRunParameters extends QubBuildCompileParameters
     private final CharacterToByteWriteStream errorWriteStream;
     private final DefaultApplicationLauncher defaultApplicationLauncher;
     private final Folder qubTestDataFolder;
+    private final AsyncRunner parallelAsyncRunner;
     private String jvmClassPath;
     private String pattern;
     private Coverage coverage;
     private boolean testJson;
     private boolean profiler;
+    private String parallelism;
+    private int forks;
+    private boolean daemon;
+    private TestResultsFormat resultsFormat;
+    private boolean rerunFailed;
+    private Integer failFast;
+    private Duration testTimeout;
+    private Duration testClassTimeout;
+    private Duration processTimeout;
+    private VersionNumber javaVersion;
 
     /**
      * Create a new QubTestParameters object.
@@ -22,11 +33,12 @@ public class QubTestRunParameters extends QubBuildCompileParameters
      * @param environmentVariables The environment variables of the running process.
      * @param processFactory The factory that will be used to create new processes.
      * @param typeLoader The TypeLoader that will be used to locate where the qub-build data folder is.
+     * @param parallelAsyncRunner The AsyncRunner that will run work that should run in parallel.
      */
     public QubTestRunParameters(CharacterToByteWriteStream outputByteWriteStream, CharacterToByteWriteStream errorWriteStream,
                                 Folder folderToTest, EnvironmentVariables environmentVariables, ProcessFactory processFactory,
                                 DefaultApplicationLauncher defaultApplicationLauncher, String jvmClassPath,
-                                QubFolder qubFolder, Folder qubTestDataFolder, TypeLoader typeLoader)
+                                QubFolder qubFolder, Folder qubTestDataFolder, TypeLoader typeLoader, AsyncRunner parallelAsyncRunner)
     {
         super(outputByteWriteStream, folderToTest, environmentVariables, processFactory, qubFolder, QubTestRunParameters.getQubBuildDataFolder(folderToTest, typeLoader));
 
@@ -38,13 +50,17 @@ public class QubTestRunParameters extends QubBuildCompileParameters
         PreCondition.assertNotNull(defaultApplicationLauncher, "defaultApplicationLauncher");
         PreCondition.assertNotNullAndNotEmpty(jvmClassPath, "jvmClassPath");
         PreCondition.assertNotNull(qubTestDataFolder, "qubTestDataFolder");
+        PreCondition.assertNotNull(parallelAsyncRunner, "parallelAsyncRunner");
 
         this.errorWriteStream = errorWriteStream;
         this.defaultApplicationLauncher = defaultApplicationLauncher;
         this.jvmClassPath = jvmClassPath;
         this.coverage = QubTestRunParameters.getCoverageDefault();
         this.testJson = QubTestRunParameters.getTestJsonDefault();
+        this.forks = QubTestRunParameters.getForksDefault();
+        this.resultsFormat = QubTestRunParameters.getResultsFormatDefault();
         this.qubTestDataFolder = qubTestDataFolder;
+        this.parallelAsyncRunner = parallelAsyncRunner;
     }
 
     private static Folder getQubBuildDataFolder(Folder folderToTest, TypeLoader typeLoader)
@@ -99,6 +115,15 @@ public class QubTestRunParameters extends QubBuildCompileParameters
         return this.qubTestDataFolder;
     }
 
+    /**
+     * Get the AsyncRunner that will run work that should run in parallel.
+     * @return The AsyncRunner that will run work that should run in parallel.
+     */
+    public AsyncRunner getParallelAsyncRunner()
+    {
+        return this.parallelAsyncRunner;
+    }
+
     /**
      * Get the pattern that will be used to determine whether or not a test should run.
      * @return The pattern that will be used to determine whether or not a test should run.
@@ -182,6 +207,236 @@ public class QubTestRunParameters extends QubBuildCompileParameters
         return this;
     }
 
+    /**
+     * Get the number of test classes that will be run at the same time. This can be null or empty
+     * (one at a time), "auto" (one per available processor), or a positive integer.
+     * @return The number of test classes that will be run at the same time.
+     */
+    public String getParallelism()
+    {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the number of test classes that will be run at the same time.
+     * @param parallelism The number of test classes that will be run at the same time. This can be
+     *                    null or empty (one at a time), "auto" (one per available processor), or a
+     *                    positive integer.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setParallelism(String parallelism)
+    {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Get the number of test runner processes that the test classes will be split between.
+     * @return The number of test runner processes that the test classes will be split between.
+     */
+    public int getForks()
+    {
+        return this.forks;
+    }
+
+    /**
+     * Set the number of test runner processes that the test classes will be split between.
+     * @param forks The number of test runner processes that the test classes will be split
+     *              between.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setForks(int forks)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(forks, 1, "forks");
+
+        this.forks = forks;
+        return this;
+    }
+
+    /**
+     * Get whether or not the tests will be sent to a running qub-test daemon.
+     * @return Whether or not the tests will be sent to a running qub-test daemon.
+     */
+    public boolean getDaemon()
+    {
+        return this.daemon;
+    }
+
+    /**
+     * Set whether or not the tests will be sent to a running qub-test daemon.
+     * @param daemon Whether or not the tests will be sent to a running qub-test daemon.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setDaemon(boolean daemon)
+    {
+        this.daemon = daemon;
+        return this;
+    }
+
+    /**
+     * Get the format that the test results will be stored in.
+     * @return The format that the test results will be stored in.
+     */
+    public TestResultsFormat getResultsFormat()
+    {
+        return this.resultsFormat;
+    }
+
+    /**
+     * Set the format that the test results will be stored in.
+     * @param resultsFormat The format that the test results will be stored in.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setResultsFormat(TestResultsFormat resultsFormat)
+    {
+        PreCondition.assertNotNull(resultsFormat, "resultsFormat");
+
+        this.resultsFormat = resultsFormat;
+        return this;
+    }
+
+    /**
+     * Get whether or not a test class that had failing tests in the previous test run and that
+     * hasn't changed since then will only run its previously failing tests.
+     * @return Whether or not only the previously failing tests will be rerun.
+     */
+    public boolean getRerunFailed()
+    {
+        return this.rerunFailed;
+    }
+
+    /**
+     * Set whether or not a test class that had failing tests in the previous test run and that
+     * hasn't changed since then will only run its previously failing tests.
+     * @param rerunFailed Whether or not only the previously failing tests will be rerun.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setRerunFailed(boolean rerunFailed)
+    {
+        this.rerunFailed = rerunFailed;
+        return this;
+    }
+
+    /**
+     * Get the number of failed tests after which no more test classes will be started, or null if
+     * every test class will be run no matter how many tests fail.
+     * @return The number of failed tests after which no more test classes will be started.
+     */
+    public Integer getFailFast()
+    {
+        return this.failFast;
+    }
+
+    /**
+     * Set the number of failed tests after which no more test classes will be started, or null if
+     * every test class should be run no matter how many tests fail.
+     * @param failFast The number of failed tests after which no more test classes will be started.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setFailFast(Integer failFast)
+    {
+        PreCondition.assertTrue(failFast == null || failFast >= 1, "failFast == null || failFast >= 1");
+
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * Get the amount of time that each test has to finish, or null if tests don't have a time
+     * limit.
+     * @return The amount of time that each test has to finish.
+     */
+    public Duration getTestTimeout()
+    {
+        return this.testTimeout;
+    }
+
+    /**
+     * Set the amount of time that each test has to finish before it is interrupted and reported as
+     * timed out.
+     * @param testTimeout The amount of time that each test has to finish, or null if tests don't
+     *                    have a time limit.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setTestTimeout(Duration testTimeout)
+    {
+        PreCondition.assertTrue(testTimeout == null || testTimeout.toMilliseconds().getValue() > 0, "testTimeout == null || testTimeout > 0");
+
+        this.testTimeout = testTimeout;
+        return this;
+    }
+
+    /**
+     * Get the amount of time that each test class has to finish, or null if test classes don't
+     * have a time limit.
+     * @return The amount of time that each test class has to finish.
+     */
+    public Duration getTestClassTimeout()
+    {
+        return this.testClassTimeout;
+    }
+
+    /**
+     * Set the amount of time that each test class has to finish before its remaining tests are
+     * interrupted and reported as timed out.
+     * @param testClassTimeout The amount of time that each test class has to finish, or null if
+     *                         test classes don't have a time limit.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setTestClassTimeout(Duration testClassTimeout)
+    {
+        PreCondition.assertTrue(testClassTimeout == null || testClassTimeout.toMilliseconds().getValue() > 0, "testClassTimeout == null || testClassTimeout > 0");
+
+        this.testClassTimeout = testClassTimeout;
+        return this;
+    }
+
+    /**
+     * Get the amount of time that each test runner process has to finish, or null if test runner
+     * processes don't have a time limit.
+     * @return The amount of time that each test runner process has to finish.
+     */
+    public Duration getProcessTimeout()
+    {
+        return this.processTimeout;
+    }
+
+    /**
+     * Set the amount of time that each test runner process has to finish before it is stopped.
+     * @param processTimeout The amount of time that each test runner process has to finish, or null
+     *                       if test runner processes don't have a time limit.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setProcessTimeout(Duration processTimeout)
+    {
+        PreCondition.assertTrue(processTimeout == null || processTimeout.toMilliseconds().getValue() > 0, "processTimeout == null || processTimeout > 0");
+
+        this.processTimeout = processTimeout;
+        return this;
+    }
+
+    /**
+     * Get the version of Java that the tests will be run with, or null if it isn't known. If this
+     * isn't known, then qub-test run can't check which test classes are up to date before it
+     * starts the test runner.
+     * @return The version of Java that the tests will be run with.
+     */
+    public VersionNumber getJavaVersion()
+    {
+        return this.javaVersion;
+    }
+
+    /**
+     * Set the version of Java that the tests will be run with.
+     * @param javaVersion The version of Java that the tests will be run with.
+     * @return This object for method chaining.
+     */
+    public QubTestRunParameters setJavaVersion(VersionNumber javaVersion)
+    {
+        this.javaVersion = javaVersion;
+        return this;
+    }
+
     public boolean getProfiler()
     {
         return this.profiler;
@@ -220,6 +475,42 @@ public class QubTestRunParameters extends QubBuildCompileParameters
         return true;
     }
 
+    /**
+     * Get the default value for the --forks parameter.
+     * @return The default value for the --forks parameter.
+     */
+    static int getForksDefault()
+    {
+        return 1;
+    }
+
+    /**
+     * Get the default value for the --daemon parameter.
+     * @return The default value for the --daemon parameter.
+     */
+    static boolean getDaemonDefault()
+    {
+        return false;
+    }
+
+    /**
+     * Get the default value for the --results-format parameter.
+     * @return The default value for the --results-format parameter.
+     */
+    static TestResultsFormat getResultsFormatDefault()
+    {
+        return TestResultsFormat.JSON;
+    }
+
+    /**
+     * Get the default value for the --rerun-failed parameter.
+     * @return The default value for the --rerun-failed parameter.
+     */
+    static boolean getRerunFailedDefault()
+    {
+        return false;
+    }
+
     /**
      * Get the default value for the --coverage parameter.
      * @return The default value for the --coverage parameter.
@@ -0,0 +1,145 @@
+package qub;
+
+/**
+ * A cache of the SourceFile attributes of the class files in an output folder. Each class file's
+ * entry records its last modified time and content hash, so a class file is only read again when
+ * its last modified time changes, and its SourceFile attribute is only read again when its content
+ * hash changes. This class is not safe to use from multiple threads.
+ */
+public class SourceFileCache
+{
+    /**
+     * The name of the file in the output folder that the cache is stored in.
+     */
+    static final String fileName = "sourcefiles.json";
+
+    private final Folder outputFolder;
+    private final MutableMap<String,String> contentHashCache;
+    private final MutableMap<String,TestClassScanEntry> previousEntries;
+    private final List<TestClassScanEntry> entries;
+    private boolean changed;
+
+    private SourceFileCache(Folder outputFolder, MutableMap<String,String> contentHashCache)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+
+        this.outputFolder = outputFolder;
+        this.contentHashCache = contentHashCache;
+        this.previousEntries = Map.create();
+        this.entries = List.create();
+
+        final JSONObject previousCache = JSON.parseObject(this.getFile())
+            .catchError()
+            .await();
+        if (previousCache != null)
+        {
+            for (final JSONProperty property : previousCache.getProperties())
+            {
+                final TestClassScanEntry previousEntry = TestClassScanEntry.parse(property).await();
+                this.previousEntries.set(previousEntry.getRelativePath().toString(), previousEntry);
+            }
+        }
+    }
+
+    /**
+     * Create a new SourceFileCache for the class files in the provided output folder.
+     * @param outputFolder The folder that contains the compiled class files.
+     * @param contentHashCache A cache from file paths to content hashes. This can be shared with
+     *                         other checks in the same run.
+     * @return The new SourceFileCache.
+     */
+    public static SourceFileCache create(Folder outputFolder, MutableMap<String,String> contentHashCache)
+    {
+        return new SourceFileCache(outputFolder, contentHashCache);
+    }
+
+    private File getFile()
+    {
+        return this.outputFolder.getFile(SourceFileCache.fileName).await();
+    }
+
+    /**
+     * Get the name of the java file that the provided class file was compiled from, as recorded in
+     * its SourceFile attribute.
+     * @param classFile The class file in the output folder.
+     * @return The name of the java file (such as "TestJSON.java"), or null if the class file can't
+     * be read or doesn't have a SourceFile attribute.
+     */
+    public String getSourceFileName(File classFile)
+    {
+        PreCondition.assertNotNull(classFile, "classFile");
+
+        final Path relativePath = classFile.relativeTo(this.outputFolder);
+        final DateTime lastModified = classFile.getLastModified()
+            .catchError()
+            .await();
+        final TestClassScanEntry previousEntry = this.previousEntries.get(relativePath.toString())
+            .catchError(NotFoundException.class)
+            .await();
+
+        TestClassScanEntry entry = null;
+        if (lastModified == null)
+        {
+            this.changed = true;
+        }
+        else if (previousEntry != null && previousEntry.getSourceFile() != null &&
+            ClassFileHashes.isUnchanged(classFile, lastModified, previousEntry.getLastModified(), previousEntry.getContentHash(), this.contentHashCache))
+        {
+            entry = previousEntry;
+            if (!lastModified.equals(previousEntry.getLastModified()))
+            {
+                entry.setLastModified(lastModified);
+                this.changed = true;
+            }
+        }
+        else
+        {
+            final byte[] classFileBytes = classFile.getContents()
+                .catchError()
+                .await();
+            if (classFileBytes != null)
+            {
+                final String contentHash = ClassFileHashes.getContentHash(classFileBytes);
+                synchronized (this.contentHashCache)
+                {
+                    this.contentHashCache.set(classFile.toString(), contentHash);
+                }
+                final String sourceFileName = ClassFileDependencies.getSourceFileName(classFileBytes);
+                entry = TestClassScanEntry.create(relativePath)
+                    .setLastModified(lastModified)
+                    .setContentHash(contentHash)
+                    .setSourceFile(sourceFileName == null ? "" : sourceFileName);
+            }
+            this.changed = true;
+        }
+
+        String result = null;
+        if (entry != null)
+        {
+            this.entries.add(entry);
+            result = entry.getSourceFile();
+            if (Strings.isNullOrEmpty(result))
+            {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write the entries of the class files that were looked up to the cache file if they are
+     * different from the entries that were read from it.
+     */
+    public void save()
+    {
+        if (this.changed || this.entries.getCount() != this.previousEntries.getCount())
+        {
+            this.getFile().setContentsAsString(JSONObject.create()
+                .setAll(this.entries.map(TestClassScanEntry::toJsonProperty))
+                .toString(JSONFormat.pretty))
+                .catchError()
+                .await();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package qub;
+
+/**
+ * How soon a test class should be run so that a test run reports its most likely failures first.
+ */
+public enum TestClassPriority
+{
+    /**
+     * The test class had failing tests in the previous test run.
+     */
+    PreviouslyFailed,
+
+    /**
+     * The test class didn't exist in the previous test run or its class file has changed since
+     * then.
+     */
+    Changed,
+
+    /**
+     * The test class's class file hasn't changed since the previous test run.
+     */
+    Unchanged
+}
@@ -0,0 +1,179 @@
+package qub;
+
+/**
+ * The cached result of scanning a class file for a static test(TestRunner) method or for its
+ * SourceFile attribute.
+ */
+public class TestClassScanEntry
+{
+    private static final String lastModifiedPropertyName = "lastModified";
+    private static final String contentHashPropertyName = "contentHash";
+    private static final String testClassPropertyName = "testClass";
+    private static final String sourceFilePropertyName = "sourceFile";
+
+    private final JSONProperty jsonProperty;
+
+    private TestClassScanEntry(JSONProperty jsonProperty)
+    {
+        PreCondition.assertNotNull(jsonProperty, "jsonProperty");
+
+        this.jsonProperty = jsonProperty;
+    }
+
+    public static TestClassScanEntry create(String classFileRelativePath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(classFileRelativePath, "classFileRelativePath");
+
+        return TestClassScanEntry.create(Path.parse(classFileRelativePath));
+    }
+
+    public static TestClassScanEntry create(Path classFileRelativePath)
+    {
+        PreCondition.assertNotNull(classFileRelativePath, "classFileRelativePath");
+        PreCondition.assertFalse(classFileRelativePath.isRooted(), "classFileRelativePath.isRooted()");
+
+        return new TestClassScanEntry(JSONProperty.create(classFileRelativePath.toString(), JSONObject.create()));
+    }
+
+    public static Result<TestClassScanEntry> parse(JSONProperty property)
+    {
+        PreCondition.assertNotNull(property, "property");
+
+        return Result.create(() ->
+        {
+            return new TestClassScanEntry(property);
+        });
+    }
+
+    private JSONObject getPropertyValue()
+    {
+        return this.jsonProperty.getObjectValue().await();
+    }
+
+    /**
+     * Get the path to the scanned class file relative to the output folder.
+     * @return The path to the scanned class file relative to the output folder.
+     */
+    public Path getRelativePath()
+    {
+        return Path.parse(this.jsonProperty.getName());
+    }
+
+    /**
+     * Set the last time that the scanned class file was modified.
+     * @param lastModified The last time that the scanned class file was modified.
+     * @return This object for method chaining.
+     */
+    public TestClassScanEntry setLastModified(DateTime lastModified)
+    {
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        this.getPropertyValue().setString(TestClassScanEntry.lastModifiedPropertyName, lastModified.toString());
+
+        return this;
+    }
+
+    /**
+     * Get the last time that the scanned class file was modified.
+     * @return The last time that the scanned class file was modified.
+     */
+    public DateTime getLastModified()
+    {
+        return this.getPropertyValue()
+            .getString(TestClassScanEntry.lastModifiedPropertyName)
+            .then((String lastModified) -> DateTime.parse(lastModified).await())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the content hash of the scanned class file.
+     * @param contentHash The content hash of the scanned class file.
+     * @return This object for method chaining.
+     */
+    public TestClassScanEntry setContentHash(String contentHash)
+    {
+        PreCondition.assertNotNullAndNotEmpty(contentHash, "contentHash");
+
+        this.getPropertyValue().setString(TestClassScanEntry.contentHashPropertyName, contentHash);
+
+        return this;
+    }
+
+    /**
+     * Get the content hash of the scanned class file, or null if the content hash wasn't recorded.
+     * @return The content hash of the scanned class file.
+     */
+    public String getContentHash()
+    {
+        return this.getPropertyValue()
+            .getString(TestClassScanEntry.contentHashPropertyName)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set whether or not the scanned class file is a test class.
+     * @param testClass Whether or not the scanned class file is a test class.
+     * @return This object for method chaining.
+     */
+    public TestClassScanEntry setTestClass(boolean testClass)
+    {
+        this.getPropertyValue().setBoolean(TestClassScanEntry.testClassPropertyName, testClass);
+
+        return this;
+    }
+
+    /**
+     * Get whether or not the scanned class file is a test class. If this wasn't recorded, then the
+     * class file is assumed to be a test class.
+     * @return Whether or not the scanned class file is a test class.
+     */
+    public boolean getTestClass()
+    {
+        return this.getPropertyValue()
+            .getBoolean(TestClassScanEntry.testClassPropertyName)
+            .catchError(() -> true)
+            .await();
+    }
+
+    /**
+     * Set the name of the java file in the scanned class file's SourceFile attribute.
+     * @param sourceFile The name of the java file, or an empty string if the class file doesn't
+     *                   have a SourceFile attribute.
+     * @return This object for method chaining.
+     */
+    public TestClassScanEntry setSourceFile(String sourceFile)
+    {
+        PreCondition.assertNotNull(sourceFile, "sourceFile");
+
+        this.getPropertyValue().setString(TestClassScanEntry.sourceFilePropertyName, sourceFile);
+
+        return this;
+    }
+
+    /**
+     * Get the name of the java file in the scanned class file's SourceFile attribute, an empty
+     * string if the class file doesn't have a SourceFile attribute, or null if this wasn't
+     * recorded.
+     * @return The name of the java file in the scanned class file's SourceFile attribute.
+     */
+    public String getSourceFile()
+    {
+        return this.getPropertyValue()
+            .getString(TestClassScanEntry.sourceFilePropertyName)
+            .catchError()
+            .await();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.toJsonProperty().toString();
+    }
+
+    public JSONProperty toJsonProperty()
+    {
+        return this.jsonProperty;
+    }
+}
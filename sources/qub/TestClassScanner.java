@@ -0,0 +1,235 @@
+package qub;
+
+/**
+ * A collection of functions that find the test classes in an output folder by reading the method
+ * tables of the compiled class files instead of loading the classes into the JVM.
+ */
+public interface TestClassScanner
+{
+    int accessStatic = 0x0008;
+
+    String testMethodName = "test";
+    String testMethodParametersDescriptor = "(Lqub/TestRunner;)";
+
+    /**
+     * The name of the file in the output folder that caches the results of previous scans.
+     */
+    String scanCacheFileName = "testclasses.json";
+
+    /**
+     * Get whether or not the provided class file bytes declare a static test(TestRunner) method. If
+     * the bytes are not a valid class file, then true is returned so that the test runner decides
+     * whether or not the class has tests.
+     * @param classFileBytes The bytes of a compiled Java class file.
+     * @return Whether or not the class file could be a test class.
+     */
+    static boolean isTestClass(byte[] classFileBytes)
+    {
+        PreCondition.assertNotNull(classFileBytes, "classFileBytes");
+
+        boolean result = false;
+        try
+        {
+            final java.io.DataInputStream input = new java.io.DataInputStream(new java.io.ByteArrayInputStream(classFileBytes));
+            if (input.readInt() != ClassFileDependencies.classFileMagic)
+            {
+                result = true;
+            }
+            else
+            {
+                input.readUnsignedShort(); // minor_version
+                input.readUnsignedShort(); // major_version
+
+                final String[] utf8Constants = ClassFileDependencies.readConstantPool(input, List.create());
+
+                input.readUnsignedShort(); // access_flags
+                input.readUnsignedShort(); // this_class
+                input.readUnsignedShort(); // super_class
+                final int interfacesCount = input.readUnsignedShort();
+                TestClassScanner.skipFully(input, interfacesCount * 2);
+
+                final int fieldsCount = input.readUnsignedShort();
+                for (int fieldIndex = 0; fieldIndex < fieldsCount; ++fieldIndex)
+                {
+                    input.readUnsignedShort(); // access_flags
+                    input.readUnsignedShort(); // name_index
+                    input.readUnsignedShort(); // descriptor_index
+                    TestClassScanner.skipAttributes(input);
+                }
+
+                final int methodsCount = input.readUnsignedShort();
+                for (int methodIndex = 0; methodIndex < methodsCount && !result; ++methodIndex)
+                {
+                    final int accessFlags = input.readUnsignedShort();
+                    final String name = utf8Constants[input.readUnsignedShort()];
+                    final String descriptor = utf8Constants[input.readUnsignedShort()];
+                    TestClassScanner.skipAttributes(input);
+
+                    result = (accessFlags & TestClassScanner.accessStatic) != 0 &&
+                        TestClassScanner.testMethodName.equals(name) &&
+                        descriptor != null &&
+                        descriptor.startsWith(TestClassScanner.testMethodParametersDescriptor);
+                }
+            }
+        }
+        catch (java.io.IOException | IndexOutOfBoundsException e)
+        {
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Skip the attributes_count and attributes of a field or method.
+     * @param input The stream to skip the attributes of.
+     * @throws java.io.IOException If the attributes can't be skipped.
+     */
+    static void skipAttributes(java.io.DataInputStream input) throws java.io.IOException
+    {
+        PreCondition.assertNotNull(input, "input");
+
+        final int attributesCount = input.readUnsignedShort();
+        for (int attributeIndex = 0; attributeIndex < attributesCount; ++attributeIndex)
+        {
+            input.readUnsignedShort(); // attribute_name_index
+            final long attributeLength = input.readInt() & 0xFFFFFFFFL;
+            TestClassScanner.skipFully(input, attributeLength);
+        }
+    }
+
+    /**
+     * Skip the provided number of bytes, or throw an EOFException if the stream ends first.
+     * @param input The stream to skip bytes in.
+     * @param byteCount The number of bytes to skip.
+     * @throws java.io.IOException If the bytes can't be skipped.
+     */
+    static void skipFully(java.io.DataInputStream input, long byteCount) throws java.io.IOException
+    {
+        PreCondition.assertNotNull(input, "input");
+        PreCondition.assertGreaterThanOrEqualTo(byteCount, 0L, "byteCount");
+
+        long remaining = byteCount;
+        while (remaining > 0)
+        {
+            final long skipped = input.skip(remaining);
+            if (skipped <= 0)
+            {
+                throw new java.io.EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Get the names of the top-level classes in the provided discovery that are test classes. Each
+     * class file's scan result is cached in the output folder's testclasses.json file, so a class
+     * file is only read again when its last modified time changes, and only scanned again when its
+     * content hash changes.
+     * @param classFileDiscovery The class files that were found in the output folder.
+     * @param contentHashCache A cache from file paths to content hashes. This can be shared with
+     *                         other checks in the same run.
+     * @param verbose The stream that verbose text will be written to.
+     * @return The full names of the classes that are test classes.
+     */
+    static Iterable<String> getTestClassNames(ClassFileDiscovery classFileDiscovery, MutableMap<String,String> contentHashCache, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(classFileDiscovery, "classFileDiscovery");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final Folder outputFolder = classFileDiscovery.getOutputFolder();
+        final Iterable<String> fullClassNames = classFileDiscovery.getFullClassNames();
+        final File scanCacheFile = outputFolder.getFile(TestClassScanner.scanCacheFileName).await();
+        final MutableMap<String,TestClassScanEntry> previousEntries = Map.create();
+        final JSONObject previousScanCache = JSON.parseObject(scanCacheFile)
+            .catchError()
+            .await();
+        if (previousScanCache != null)
+        {
+            for (final JSONProperty property : previousScanCache.getProperties())
+            {
+                final TestClassScanEntry previousEntry = TestClassScanEntry.parse(property).await();
+                previousEntries.set(previousEntry.getRelativePath().toString(), previousEntry);
+            }
+        }
+
+        final List<String> result = List.create();
+        final List<TestClassScanEntry> entries = List.create();
+        boolean changed = false;
+        for (final String fullClassName : fullClassNames)
+        {
+            final File classFile = QubTestRun.getClassFile(outputFolder, fullClassName);
+            final Path relativePath = classFile.relativeTo(outputFolder);
+            final DateTime lastModified = classFileDiscovery.getLastModified(classFile);
+
+            final TestClassScanEntry previousEntry = previousEntries.get(relativePath.toString())
+                .catchError(NotFoundException.class)
+                .await();
+            TestClassScanEntry entry;
+            if (lastModified == null)
+            {
+                entry = null;
+            }
+            else if (previousEntry != null && ClassFileHashes.isUnchanged(classFile, lastModified, previousEntry.getLastModified(), previousEntry.getContentHash(), contentHashCache))
+            {
+                entry = previousEntry;
+                if (!lastModified.equals(previousEntry.getLastModified()))
+                {
+                    entry.setLastModified(lastModified);
+                    changed = true;
+                }
+            }
+            else
+            {
+                final byte[] classFileBytes = classFile.getContents()
+                    .catchError()
+                    .await();
+                if (classFileBytes == null)
+                {
+                    entry = null;
+                }
+                else
+                {
+                    final String contentHash = ClassFileHashes.getContentHash(classFileBytes);
+                    synchronized (contentHashCache)
+                    {
+                        contentHashCache.set(classFile.toString(), contentHash);
+                    }
+                    entry = TestClassScanEntry.create(relativePath)
+                        .setLastModified(lastModified)
+                        .setContentHash(contentHash)
+                        .setTestClass(TestClassScanner.isTestClass(classFileBytes));
+                }
+                changed = true;
+            }
+
+            if (entry == null || entry.getTestClass())
+            {
+                result.add(fullClassName);
+            }
+            if (entry != null)
+            {
+                entries.add(entry);
+            }
+        }
+
+        if (changed || entries.getCount() != previousEntries.getCount())
+        {
+            scanCacheFile.setContentsAsString(JSONObject.create()
+                .setAll(entries.map(TestClassScanEntry::toJsonProperty))
+                .toString(JSONFormat.pretty))
+                .catchError()
+                .await();
+        }
+
+        final int skippedClassCount = fullClassNames.getCount() - result.getCount();
+        if (skippedClassCount > 0)
+        {
+            verbose.writeLine("Skipping " + skippedClassCount + " classes that don't have a static test(TestRunner) method.").await();
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+}
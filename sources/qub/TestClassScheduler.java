@@ -0,0 +1,235 @@
+package qub;
+
+/**
+ * A collection of functions that decide the order that test classes are run in and how test
+ * classes are split between multiple test runners.
+ */
+public interface TestClassScheduler
+{
+    /**
+     * The estimated duration in milliseconds of a test class when no test class has a recorded
+     * duration.
+     */
+    double defaultDurationMilliseconds = 1;
+
+    /**
+     * Get the recorded durations of the test classes in the provided TestJSON.
+     * @param testJson The TestJSON to get the recorded durations from. This can be null.
+     * @return A map from full class name to the recorded duration of that class.
+     */
+    static MutableMap<String,Duration> getDurations(TestJSON testJson)
+    {
+        final MutableMap<String,Duration> result = Map.create();
+        if (testJson != null)
+        {
+            for (final TestJSONClassFile classFile : testJson.getClassFiles())
+            {
+                final Duration duration = classFile.getDuration();
+                if (duration != null)
+                {
+                    result.set(classFile.getFullClassName(), duration);
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the estimated duration in milliseconds of each of the provided test classes. Test classes
+     * that don't have a recorded duration are estimated to take the average of the recorded
+     * durations.
+     * @param fullClassNames The full names of the test classes.
+     * @param durations The recorded durations of the test classes.
+     * @return The estimated durations in milliseconds, in the same order as the provided full
+     * class names.
+     */
+    static double[] getEstimatedDurationMilliseconds(Iterable<String> fullClassNames, Map<String,Duration> durations)
+    {
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+        PreCondition.assertNotNull(durations, "durations");
+
+        final double[] result = new double[fullClassNames.getCount()];
+        double knownDurationTotal = 0;
+        int knownDurationCount = 0;
+        int index = 0;
+        for (final String fullClassName : fullClassNames)
+        {
+            final Duration duration = durations.get(fullClassName)
+                .catchError(NotFoundException.class)
+                .await();
+            if (duration == null)
+            {
+                result[index] = -1;
+            }
+            else
+            {
+                result[index] = duration.toMilliseconds().getValue();
+                knownDurationTotal += result[index];
+                ++knownDurationCount;
+            }
+            ++index;
+        }
+
+        final double unknownDuration = knownDurationCount == 0 || knownDurationTotal <= 0
+            ? TestClassScheduler.defaultDurationMilliseconds
+            : knownDurationTotal / knownDurationCount;
+        for (int i = 0; i < result.length; ++i)
+        {
+            if (result[i] < 0)
+            {
+                result[i] = unknownDuration;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Order the provided test classes so that the test classes that are expected to take the
+     * longest are first. Test classes with the same estimated duration keep their relative order.
+     * @param fullClassNames The full names of the test classes to order.
+     * @param durations The recorded durations of the test classes.
+     * @return The ordered full class names.
+     */
+    static Iterable<String> orderLongestFirst(Iterable<String> fullClassNames, Map<String,Duration> durations)
+    {
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+        PreCondition.assertNotNull(durations, "durations");
+
+        final List<String> classNames = List.create();
+        classNames.addAll(fullClassNames);
+        final double[] estimatedDurations = TestClassScheduler.getEstimatedDurationMilliseconds(classNames, durations);
+
+        final Integer[] order = new Integer[classNames.getCount()];
+        for (int i = 0; i < order.length; ++i)
+        {
+            order[i] = i;
+        }
+        java.util.Arrays.sort(order, (Integer lhs, Integer rhs) -> Double.compare(estimatedDurations[rhs], estimatedDurations[lhs]));
+
+        final List<String> result = List.create();
+        for (final Integer index : order)
+        {
+            result.add(classNames.get(index));
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Order the provided test classes so that a test run reports its most likely failures first.
+     * Test classes that failed in the previous test run are first, then test classes that are new
+     * or whose class files have changed, and then the rest. Within each of those groups the test
+     * classes are ordered by their estimated duration, and test classes with the same priority and
+     * estimated duration keep their relative order.
+     * @param fullClassNames The full names of the test classes to order.
+     * @param getPriority The function that gets the priority of a test class.
+     * @param durations The recorded durations of the test classes.
+     * @param longestFirst Whether the longest test classes within each priority should be first,
+     *                     which balances the work between parallel workers, or last, which gets
+     *                     results from a single worker sooner.
+     * @return The ordered full class names.
+     */
+    static Iterable<String> orderByPriority(Iterable<String> fullClassNames, Function1<String,TestClassPriority> getPriority, Map<String,Duration> durations, boolean longestFirst)
+    {
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+        PreCondition.assertNotNull(getPriority, "getPriority");
+        PreCondition.assertNotNull(durations, "durations");
+
+        final List<String> classNames = List.create();
+        classNames.addAll(fullClassNames);
+        final double[] estimatedDurations = TestClassScheduler.getEstimatedDurationMilliseconds(classNames, durations);
+        final int[] priorities = new int[classNames.getCount()];
+        for (int i = 0; i < priorities.length; ++i)
+        {
+            final TestClassPriority priority = getPriority.run(classNames.get(i));
+            priorities[i] = (priority == null ? TestClassPriority.Unchanged : priority).ordinal();
+        }
+
+        final Integer[] order = new Integer[classNames.getCount()];
+        for (int i = 0; i < order.length; ++i)
+        {
+            order[i] = i;
+        }
+        java.util.Arrays.sort(order, (Integer lhs, Integer rhs) ->
+        {
+            int comparison = Integer.compare(priorities[lhs], priorities[rhs]);
+            if (comparison == 0)
+            {
+                comparison = longestFirst
+                    ? Double.compare(estimatedDurations[rhs], estimatedDurations[lhs])
+                    : Double.compare(estimatedDurations[lhs], estimatedDurations[rhs]);
+            }
+            return comparison;
+        });
+
+        final List<String> result = List.create();
+        for (final Integer index : order)
+        {
+            result.add(classNames.get(index));
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Split the provided test classes into shards that are expected to take about the same amount
+     * of time to run. The test classes are assigned longest first, and each test class is assigned
+     * to the shard with the least amount of estimated work at the time.
+     * @param fullClassNames The full names of the test classes to split.
+     * @param durations The recorded durations of the test classes.
+     * @param shardCount The maximum number of shards to split the test classes into.
+     * @return The shards. Shards that would be empty are not returned.
+     */
+    static Iterable<Iterable<String>> getShards(Iterable<String> fullClassNames, Map<String,Duration> durations, int shardCount)
+    {
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+        PreCondition.assertNotNull(durations, "durations");
+        PreCondition.assertGreaterThanOrEqualTo(shardCount, 1, "shardCount");
+
+        final int classCount = fullClassNames.getCount();
+        final int actualShardCount = Math.min(shardCount, classCount);
+
+        final List<List<String>> shards = List.create();
+        final double[] shardDurations = new double[actualShardCount];
+        for (int i = 0; i < actualShardCount; ++i)
+        {
+            shards.add(List.create());
+        }
+
+        final Iterable<String> orderedClassNames = TestClassScheduler.orderLongestFirst(fullClassNames, durations);
+        final double[] orderedDurations = TestClassScheduler.getEstimatedDurationMilliseconds(orderedClassNames, durations);
+        int index = 0;
+        for (final String fullClassName : orderedClassNames)
+        {
+            int shortestShardIndex = 0;
+            for (int i = 1; i < actualShardCount; ++i)
+            {
+                if (shardDurations[i] < shardDurations[shortestShardIndex])
+                {
+                    shortestShardIndex = i;
+                }
+            }
+            shards.get(shortestShardIndex).add(fullClassName);
+            shardDurations[shortestShardIndex] += orderedDurations[index];
+            ++index;
+        }
+
+        final List<Iterable<String>> result = List.create();
+        for (final List<String> shard : shards)
+        {
+            result.add(shard);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+}
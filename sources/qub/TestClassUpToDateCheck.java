@@ -0,0 +1,500 @@
+package qub;
+
+/**
+ * Decides which test classes can be skipped because their results in the previous test.json file
+ * are still up to date. This is used both by the test runner and by qub-test run before it starts a
+ * test runner, so that a test run where nothing has changed doesn't need to start a new JVM.
+ */
+public class TestClassUpToDateCheck
+{
+    private final Folder outputFolder;
+    private final VersionNumber currentJavaVersion;
+    private final Iterable<File> jarFiles;
+    private final VerboseCharacterToByteWriteStream verbose;
+    private final MutableMap<String,String> contentHashCache;
+    private final TestResults previousTestJson;
+    private final MutableMap<String,TestJSONClassPathEntry> previousClassPathEntries;
+    private final List<String> referencedClassPathEntries;
+    private final boolean javaVersionChanged;
+    private final boolean classPathUnknown;
+    private final Iterable<String> changedClassPathEntries;
+    private final MutableMap<String,TestJSONClassRecord> mergedClassRecords;
+    private ClassFileDiscovery classFileDiscovery;
+
+    private TestClassUpToDateCheck(Folder outputFolder, TestResults previousTestJson, VersionNumber currentJavaVersion, Iterable<File> jarFiles, MutableMap<String,String> contentHashCache, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(currentJavaVersion, "currentJavaVersion");
+        PreCondition.assertNotNull(jarFiles, "jarFiles");
+        PreCondition.assertNotNull(contentHashCache, "contentHashCache");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        this.outputFolder = outputFolder;
+        this.currentJavaVersion = currentJavaVersion;
+        this.jarFiles = jarFiles;
+        this.verbose = verbose;
+        this.contentHashCache = contentHashCache;
+        this.previousTestJson = previousTestJson;
+        this.previousClassPathEntries = Map.create();
+        this.referencedClassPathEntries = List.create();
+        this.mergedClassRecords = Map.create();
+
+        VersionNumber previousJavaVersion = null;
+        boolean previousClassPathEntriesRecorded = false;
+        if (previousTestJson != null)
+        {
+            previousJavaVersion = previousTestJson.getJavaVersion();
+            this.referencedClassPathEntries.addAll(previousTestJson.getReferencedClassPathEntries());
+
+            final Iterable<TestJSONClassPathEntry> classPathEntries = previousTestJson.getClassPathEntries();
+            if (classPathEntries != null)
+            {
+                previousClassPathEntriesRecorded = true;
+                for (final TestJSONClassPathEntry classPathEntry : classPathEntries)
+                {
+                    this.previousClassPathEntries.set(classPathEntry.getPath().toString(), classPathEntry);
+                }
+            }
+        }
+
+        this.javaVersionChanged = !currentJavaVersion.equals(previousJavaVersion);
+        this.classPathUnknown = !previousClassPathEntriesRecorded && jarFiles.any();
+        this.changedClassPathEntries = ClassPathDependencies.getChangedClassPathEntries(jarFiles, this.previousClassPathEntries, contentHashCache);
+        if (this.classPathUnknown)
+        {
+            verbose.writeLine("The previous run didn't record the classpath. Running all test classes...").await();
+        }
+        else if (this.changedClassPathEntries.any())
+        {
+            verbose.writeLine("Classpath entries changed since the previous run: " + this.changedClassPathEntries).await();
+        }
+    }
+
+    /**
+     * Create a new TestClassUpToDateCheck.
+     * @param outputFolder The folder that contains the compiled class files.
+     * @param previousTestJson The test.json from the previous test run, or null if there wasn't a
+     *                         previous test run.
+     * @param currentJavaVersion The version of Java that the tests will be run with.
+     * @param jarFiles The jar files on the classpath that the tests will be run with.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The new TestClassUpToDateCheck.
+     */
+    public static TestClassUpToDateCheck create(Folder outputFolder, TestJSON previousTestJson, VersionNumber currentJavaVersion, Iterable<File> jarFiles, MutableMap<String,String> contentHashCache, VerboseCharacterToByteWriteStream verbose)
+    {
+        return TestClassUpToDateCheck.create(outputFolder, previousTestJson == null ? null : TestJSONIndex.create(previousTestJson), currentJavaVersion, jarFiles, contentHashCache, verbose);
+    }
+
+    /**
+     * Create a new TestClassUpToDateCheck.
+     * @param outputFolder The folder that contains the compiled class files.
+     * @param previousTestJson The stored results of the previous test run, or null if there wasn't
+     *                         a previous test run.
+     * @param currentJavaVersion The version of Java that the tests will be run with.
+     * @param jarFiles The jar files on the classpath that the tests will be run with.
+     * @param contentHashCache A cache from file paths to content hashes.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The new TestClassUpToDateCheck.
+     */
+    public static TestClassUpToDateCheck create(Folder outputFolder, TestResults previousTestJson, VersionNumber currentJavaVersion, Iterable<File> jarFiles, MutableMap<String,String> contentHashCache, VerboseCharacterToByteWriteStream verbose)
+    {
+        return new TestClassUpToDateCheck(outputFolder, previousTestJson, currentJavaVersion, jarFiles, contentHashCache, verbose);
+    }
+
+    /**
+     * Set the class files that were found in the output folder. If this is set, then the last
+     * modified times that were read when the class files were found are used instead of reading
+     * them again.
+     * @param classFileDiscovery The class files that were found in the output folder.
+     * @return This object for method chaining.
+     */
+    public TestClassUpToDateCheck setClassFileDiscovery(ClassFileDiscovery classFileDiscovery)
+    {
+        this.classFileDiscovery = classFileDiscovery;
+        return this;
+    }
+
+    /**
+     * Get the last modified time of the provided class file, or null if the class file doesn't
+     * exist.
+     * @param classFile The class file.
+     * @return The last modified time of the provided class file.
+     */
+    private DateTime getLastModified(File classFile)
+    {
+        PreCondition.assertNotNull(classFile, "classFile");
+
+        return this.classFileDiscovery != null
+            ? this.classFileDiscovery.getLastModified(classFile)
+            : classFile.getLastModified()
+                .catchError(FileNotFoundException.class)
+                .await();
+    }
+
+    /**
+     * Get the entries from the previous test run.
+     * @return The entries from the previous test run.
+     */
+    public Iterable<TestJSONClassFile> getPreviousClassFiles()
+    {
+        return this.previousTestJson == null
+            ? Iterable.create()
+            : this.previousTestJson.getClassRecords().map(TestJSONClassRecord::toTestJSONClassFile);
+    }
+
+    /**
+     * Create the TestJSON for a test run that has the provided entries. The TestJSON will also have
+     * the current Java version and the current classpath fingerprints.
+     * @param classFiles The entries of the test run.
+     * @return The TestJSON for a test run that has the provided entries.
+     */
+    public TestJSON createTestJSON(Iterable<TestJSONClassFile> classFiles)
+    {
+        PreCondition.assertNotNull(classFiles, "classFiles");
+
+        return TestJSON.create()
+            .setJavaVersion(this.currentJavaVersion)
+            .setClassFiles(classFiles)
+            .setClassPathEntries(ClassPathDependencies.getClassPathEntries(this.jarFiles, this.previousClassPathEntries, this.contentHashCache));
+    }
+
+    /**
+     * Get the previous test run's entry for the provided test class if that entry is still up to
+     * date and the test class doesn't need to be run again. If the test class's class file was
+     * only touched, then the returned entry's timestamp is updated.
+     * @param testClassName The full name of the test class.
+     * @return The up-to-date entry for the provided test class, or null if the test class needs to
+     * be run.
+     */
+    public TestJSONClassFile getUpToDateClassFile(String testClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(testClassName, "testClassName");
+
+        TestJSONClassFile result = null;
+        if (!this.javaVersionChanged && !this.classPathUnknown)
+        {
+            final TestJSONClassRecord classRecord = this.previousTestJson == null
+                ? null
+                : this.previousTestJson.getClassRecord(testClassName);
+            if (classRecord == null)
+            {
+                this.verbose.writeLine("Found class that didn't exist in previous test run: " + testClassName).await();
+            }
+            else
+            {
+                this.verbose.writeLine("Found class entry for " + testClassName + ". Checking timestamps...").await();
+                final File testClassFile = this.outputFolder.getFile(classRecord.getRelativePath()).await();
+                final DateTime testClassFileLastModified = this.getLastModified(testClassFile);
+                if (testClassFileLastModified == null)
+                {
+                    this.verbose.writeLine("The class file for " + testClassName + " doesn't exist. Running test class tests.").await();
+                }
+                else if (!ClassFileHashes.isUnchanged(testClassFile, testClassFileLastModified, classRecord.getLastModified(), classRecord.getContentHash(), this.contentHashCache))
+                {
+                    this.verbose.writeLine("Timestamp of " + testClassName + " from the previous run (" + classRecord.getLastModified() + ") was not the same as the current class file timestamp (" + testClassFileLastModified + ") and its contents have changed. Running test class tests.").await();
+                }
+                else if (classRecord.getFailedTestCount() > 0)
+                {
+                    this.verbose.writeLine("Previous run of " + testClassName + " contained errors. Running test class tests...").await();
+                }
+                else if (classRecord.isPartial())
+                {
+                    this.verbose.writeLine("Previous run of " + testClassName + " only ran some of its tests. Running test class tests...").await();
+                }
+                else if (this.dependenciesAreUnchanged(classRecord) && this.classPathDependenciesAreUnchanged(classRecord))
+                {
+                    // The class file may have only been touched, so record its new timestamp to avoid rehashing it next time.
+                    classRecord.setLastModified(testClassFileLastModified);
+                    this.verbose.writeLine("Previous run of " + testClassName + " didn't contain errors and the test class hasn't changed since then. Skipping test class tests.").await();
+                    result = classRecord.toTestJSONClassFile();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get how soon the provided test class should be run based on the previous test run's entry for
+     * it.
+     * @param testClassName The full name of the test class.
+     * @return How soon the provided test class should be run.
+     */
+    public TestClassPriority getPriority(String testClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(testClassName, "testClassName");
+
+        final TestJSONClassRecord classRecord = this.previousTestJson == null
+            ? null
+            : this.previousTestJson.getClassRecord(testClassName);
+
+        TestClassPriority result;
+        if (classRecord == null)
+        {
+            result = TestClassPriority.Changed;
+        }
+        else if (classRecord.getFailedTestCount() > 0)
+        {
+            result = TestClassPriority.PreviouslyFailed;
+        }
+        else
+        {
+            final File testClassFile = this.outputFolder.getFile(classRecord.getRelativePath()).await();
+            final DateTime testClassFileLastModified = this.getLastModified(testClassFile);
+            result = testClassFileLastModified != null && ClassFileHashes.isUnchanged(testClassFile, testClassFileLastModified, classRecord.getLastModified(), classRecord.getContentHash(), this.contentHashCache)
+                ? TestClassPriority.Unchanged
+                : TestClassPriority.Changed;
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the previous test run's entry for the provided test class if the test class had failing
+     * tests in the previous test run and only those tests need to be run again. This is the case
+     * when the previous entry recorded the outcome of every test in the test class, each failing
+     * test can be selected by its exact full name, and neither the test class nor its dependencies
+     * have changed since then.
+     * @param testClassName The full name of the test class.
+     * @return The previous entry for the provided test class, or null if all of the test class's
+     * tests need to be run.
+     */
+    public TestJSONClassRecord getRerunnableClassRecord(String testClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(testClassName, "testClassName");
+
+        TestJSONClassRecord result = null;
+        if (!this.javaVersionChanged && !this.classPathUnknown && this.previousTestJson != null)
+        {
+            final TestJSONClassRecord classRecord = this.previousTestJson.getClassRecord(testClassName);
+            if (classRecord != null &&
+                classRecord.getFailedTestCount() > 0 &&
+                classRecord.hasTests() &&
+                !classRecord.isPartial() &&
+                classRecord.getFailedTestNames().getCount() == classRecord.getFailedTestCount() &&
+                !classRecord.getFailedTestNames().any((String failedTestName) -> ConsoleTestRunner.getExactTestPattern(failedTestName) == null))
+            {
+                final File testClassFile = this.outputFolder.getFile(classRecord.getRelativePath()).await();
+                final DateTime testClassFileLastModified = this.getLastModified(testClassFile);
+                if (testClassFileLastModified != null &&
+                    ClassFileHashes.isUnchanged(testClassFile, testClassFileLastModified, classRecord.getLastModified(), classRecord.getContentHash(), this.contentHashCache) &&
+                    this.dependenciesAreUnchanged(classRecord) &&
+                    this.classPathDependenciesAreUnchanged(classRecord))
+                {
+                    this.verbose.writeLine("Previous run of " + testClassName + " had " + classRecord.getFailedTestCount() + " failing tests and the test class hasn't changed since then. Running only its failing tests...").await();
+                    result = classRecord;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merge the entry for a test class that was run with a pattern into the previous test run's
+     * entry for that test class. If the previous entry recorded every test in the test class and
+     * neither the test class nor its dependencies have changed since then, then the tests that were
+     * run replace their previous results and the merged entry is complete. Otherwise the returned
+     * entry only has the tests that were run and is marked as partial. If the test class was already
+     * merged during this test run, then the tests are merged into that merged entry instead.
+     * @param classFile The entry for the tests that were run in the test class.
+     * @return The merged entry for the test class.
+     */
+    public synchronized TestJSONClassFile mergePartialClassFile(TestJSONClassFile classFile)
+    {
+        PreCondition.assertNotNull(classFile, "classFile");
+        PreCondition.assertNotNull(classFile.getTests(), "classFile.getTests()");
+
+        final String testClassName = classFile.getFullClassName();
+        TestJSONClassRecord classRecord = this.mergedClassRecords.get(testClassName)
+            .catchError(NotFoundException.class)
+            .await();
+        if (classRecord == null && this.previousTestJson != null && !this.javaVersionChanged && !this.classPathUnknown)
+        {
+            classRecord = this.previousTestJson.getClassRecord(testClassName);
+        }
+
+        TestJSONClassFile result = classFile.setPartial(true);
+        if (classRecord != null &&
+            classRecord.hasTests() &&
+            !classRecord.isPartial() &&
+            !Strings.isNullOrEmpty(classRecord.getContentHash()) &&
+            classRecord.getContentHash().equals(classFile.getContentHash()) &&
+            TestClassUpToDateCheck.haveSameDependencies(classRecord, classFile.getDependencies()) &&
+            this.classPathDependenciesAreUnchanged(classRecord))
+        {
+            final MutableMap<String,TestJSONTest> mergedTests = Map.create();
+            final int previousTestCount = classRecord.getTestCount();
+            for (int i = 0; i < previousTestCount; ++i)
+            {
+                final String testName = classRecord.getTestName(i);
+                mergedTests.set(testName, TestClassUpToDateCheck.createTest(testName, classRecord.getTestOutcome(i), classRecord.getTestDuration(i)));
+            }
+            for (final TestJSONTest test : classFile.getTests())
+            {
+                mergedTests.set(test.getFullName(), TestClassUpToDateCheck.createTest(test.getFullName(), test.getOutcome(), test.getDuration()));
+            }
+
+            int passedTestCount = 0;
+            int skippedTestCount = 0;
+            int failedTestCount = 0;
+            final List<TestJSONTest> tests = List.create();
+            for (final TestJSONTest test : mergedTests.getValues())
+            {
+                final TestOutcome testOutcome = test.getOutcome();
+                if (testOutcome != null)
+                {
+                    switch (testOutcome)
+                    {
+                        case Passed:
+                            ++passedTestCount;
+                            break;
+
+                        case Skipped:
+                            ++skippedTestCount;
+                            break;
+
+                        case Failed:
+                            ++failedTestCount;
+                            break;
+                    }
+                }
+                tests.add(test);
+            }
+
+            this.verbose.writeLine("Merging the " + classFile.getTests().getCount() + " tests that were run in " + testClassName + " into its " + previousTestCount + " previous test results.").await();
+            result = classFile
+                .setPartial(false)
+                .setTests(tests)
+                .setPassedTestCount(passedTestCount)
+                .setSkippedTestCount(skippedTestCount)
+                .setFailedTestCount(failedTestCount);
+            final Duration previousDuration = classRecord.getDuration();
+            if (previousDuration != null)
+            {
+                result.setDuration(previousDuration);
+            }
+            this.mergedClassRecords.set(testClassName, TestJSONClassRecord.create(result));
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    private static TestJSONTest createTest(String testFullName, TestOutcome outcome, Duration duration)
+    {
+        final TestJSONTest result = TestJSONTest.create(testFullName);
+        if (outcome != null)
+        {
+            result.setOutcome(outcome);
+        }
+        if (duration != null)
+        {
+            result.setDuration(duration);
+        }
+        return result;
+    }
+
+    /**
+     * Get whether or not the provided dependencies are the same class files with the same contents
+     * as the dependencies in the provided previous test run's entry.
+     * @param classRecord The previous test run's entry for a test class file.
+     * @param dependencies The current dependencies of the test class file.
+     * @return Whether or not the dependencies are the same.
+     */
+    private static boolean haveSameDependencies(TestJSONClassRecord classRecord, Iterable<TestJSONClassFileDependency> dependencies)
+    {
+        PreCondition.assertNotNull(classRecord, "classRecord");
+
+        boolean result = classRecord.hasDependencies() && dependencies != null && classRecord.getDependencyCount() == dependencies.getCount();
+        if (result)
+        {
+            final MutableMap<String,String> previousContentHashes = Map.create();
+            final int dependencyCount = classRecord.getDependencyCount();
+            for (int i = 0; i < dependencyCount; ++i)
+            {
+                previousContentHashes.set(classRecord.getDependencyRelativePath(i), classRecord.getDependencyContentHash(i));
+            }
+            for (final TestJSONClassFileDependency dependency : dependencies)
+            {
+                final String previousContentHash = previousContentHashes.get(dependency.getRelativePath().toString())
+                    .catchError(NotFoundException.class)
+                    .await();
+                if (Strings.isNullOrEmpty(previousContentHash) || !previousContentHash.equals(dependency.getContentHash()))
+                {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get whether or not the classpath files that the provided test class file depended on in the
+     * previous test run are unchanged.
+     * @param classRecord The previous test run's entry for the test class file.
+     * @return Whether or not the test class file's classpath dependencies are unchanged.
+     */
+    private boolean classPathDependenciesAreUnchanged(TestJSONClassRecord classRecord)
+    {
+        PreCondition.assertNotNull(classRecord, "classRecord");
+
+        final boolean result = ClassPathDependencies.isUnaffected(classRecord.getClassPathDependencies(), this.changedClassPathEntries, this.referencedClassPathEntries);
+        if (!result)
+        {
+            this.verbose.writeLine("A classpath entry that " + classRecord.getFullClassName() + " depends on has changed since the previous run. Running test class tests...").await();
+        }
+        return result;
+    }
+
+    /**
+     * Get whether or not the class files that the provided test class file depended on in the
+     * previous test run are unchanged.
+     * @param classRecord The previous test run's entry for the test class file.
+     * @return Whether or not the test class file's dependencies are unchanged.
+     */
+    private boolean dependenciesAreUnchanged(TestJSONClassRecord classRecord)
+    {
+        PreCondition.assertNotNull(classRecord, "classRecord");
+
+        final String testClassName = classRecord.getFullClassName();
+
+        boolean result = true;
+        if (!classRecord.hasDependencies())
+        {
+            this.verbose.writeLine("Previous run of " + testClassName + " didn't record its dependencies. Running test class tests...").await();
+            result = false;
+        }
+        else
+        {
+            final int dependencyCount = classRecord.getDependencyCount();
+            for (int dependencyIndex = 0; dependencyIndex < dependencyCount; ++dependencyIndex)
+            {
+                final String dependencyRelativePath = classRecord.getDependencyRelativePath(dependencyIndex);
+                final File dependencyClassFile = this.outputFolder.getFile(dependencyRelativePath).await();
+                final DateTime dependencyClassFileLastModified = this.getLastModified(dependencyClassFile);
+                if (dependencyClassFileLastModified == null)
+                {
+                    this.verbose.writeLine("Dependency " + dependencyRelativePath + " of " + testClassName + " no longer exists. Running test class tests...").await();
+                    result = false;
+                    break;
+                }
+                else if (!ClassFileHashes.isUnchanged(dependencyClassFile, dependencyClassFileLastModified, classRecord.getDependencyLastModified(dependencyIndex), classRecord.getDependencyContentHash(dependencyIndex), this.contentHashCache))
+                {
+                    this.verbose.writeLine("Dependency " + dependencyRelativePath + " of " + testClassName + " has changed since the previous run. Running test class tests...").await();
+                    result = false;
+                    break;
+                }
+                else
+                {
+                    classRecord.setDependencyLastModified(dependencyIndex, dependencyClassFileLastModified);
+                }
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,308 @@
+package qub;
+
+/**
+ * The JaCoCo execution data of each test class. A test runner that has the JaCoCo runtime
+ * collects the execution data that each of its test classes produced and stores it in a separate
+ * file in the output folder. A later coverage run then only needs to run the test classes that are
+ * no longer up to date, and can reuse the stored execution data of the other test classes.
+ * <p>
+ * JaCoCo execution data files are a sequence of blocks that may repeat, so the stored files can be
+ * merged by appending them to each other. Probes for classes that have changed since the execution
+ * data was recorded don't match the current classes, so the coverage report ignores them.
+ */
+public class TestCoverageData
+{
+    /**
+     * The name of the folder in the output folder that the execution data files are stored in.
+     */
+    static final String folderName = "coverage-data";
+
+    /**
+     * The name of the file that has the coverage settings that the stored execution data was
+     * collected with.
+     */
+    static final String settingsFileName = "coverage.settings";
+
+    private final Folder outputFolder;
+    private final java.lang.reflect.Method getAgent;
+    private final java.lang.reflect.Method getExecutionData;
+
+    private TestCoverageData(Folder outputFolder, java.lang.reflect.Method getAgent, java.lang.reflect.Method getExecutionData)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(getAgent, "getAgent");
+        PreCondition.assertNotNull(getExecutionData, "getExecutionData");
+
+        this.outputFolder = outputFolder;
+        this.getAgent = getAgent;
+        this.getExecutionData = getExecutionData;
+    }
+
+    /**
+     * Create a new TestCoverageData that collects execution data from the JaCoCo runtime in the
+     * current process. The runtime is either the JaCoCo agent, or the runtime of offline
+     * instrumented classes that is on the classpath.
+     * @param outputFolder The output folder that the execution data files will be stored in.
+     * @return The new TestCoverageData, or null if the current process doesn't have the JaCoCo
+     * runtime.
+     */
+    public static TestCoverageData create(Folder outputFolder)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        TestCoverageData result;
+        try
+        {
+            // The runtime's API is only on the classpath when the agent jar is, so it can't be referenced directly.
+            final java.lang.reflect.Method getAgent = Class.forName("org.jacoco.agent.rt.RT").getMethod("getAgent");
+            final java.lang.reflect.Method getExecutionData = Class.forName("org.jacoco.agent.rt.IAgent").getMethod("getExecutionData", boolean.class);
+            result = new TestCoverageData(outputFolder, getAgent, getExecutionData);
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Get the folder that the execution data files of the provided output folder are stored in.
+     * @param outputFolder The output folder.
+     * @return The folder that the execution data files are stored in.
+     */
+    static Folder getFolder(Folder outputFolder)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        return outputFolder.getFolder(TestCoverageData.folderName).await();
+    }
+
+    /**
+     * Get the execution data file of the provided test class.
+     * @param outputFolder The output folder that the execution data files are stored in.
+     * @param fullClassName The full name of the test class.
+     * @return The execution data file of the provided test class.
+     */
+    static File getFile(Folder outputFolder, String fullClassName)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        return TestCoverageData.getFolder(outputFolder).getFile(fullClassName + ".exec").await();
+    }
+
+    /**
+     * Get whether the provided test class has stored execution data.
+     * @param outputFolder The output folder that the execution data files are stored in.
+     * @param fullClassName The full name of the test class.
+     * @return Whether the provided test class has stored execution data.
+     */
+    static boolean exists(Folder outputFolder, String fullClassName)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        return TestCoverageData.getFile(outputFolder, fullClassName).exists().await();
+    }
+
+    /**
+     * Get the coverage settings that execution data is collected with. The settings don't include
+     * the classes that are covered, because the test classes whose dependencies changed are run
+     * again anyway, so adding or removing a class doesn't make the other stored execution data
+     * stale.
+     * @param jacocoVersion The version of JaCoCo that collects the execution data.
+     * @param coverage The classes whose coverage is collected.
+     * @param sourceFolder The folder that contains the source java files.
+     * @param testFolder The folder that contains the test java files.
+     * @return The coverage settings.
+     */
+    static String getSettings(String jacocoVersion, Coverage coverage, Folder sourceFolder, Folder testFolder)
+    {
+        PreCondition.assertNotNullAndNotEmpty(jacocoVersion, "jacocoVersion");
+        PreCondition.assertNotNull(coverage, "coverage");
+        PreCondition.assertNotNull(sourceFolder, "sourceFolder");
+        PreCondition.assertNotNull(testFolder, "testFolder");
+
+        return "jacoco=" + jacocoVersion + "\n" +
+            "coverage=" + coverage + "\n" +
+            "sources=" + sourceFolder + "\n" +
+            "tests=" + testFolder + "\n";
+    }
+
+    /**
+     * Set the coverage settings that the execution data of the provided output folder is collected
+     * with. If the settings changed, then the stored execution data is deleted.
+     * @param outputFolder The output folder that the execution data files are stored in.
+     * @param settings The coverage settings.
+     * @param verbose The stream that verbose logs will be written to.
+     */
+    static void setSettings(Folder outputFolder, String settings, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNullAndNotEmpty(settings, "settings");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final Folder folder = TestCoverageData.getFolder(outputFolder);
+        final File settingsFile = folder.getFile(TestCoverageData.settingsFileName).await();
+        final String previousSettings = settingsFile.getContentsAsString()
+            .catchError(FileNotFoundException.class)
+            .await();
+        if (!settings.equals(previousSettings))
+        {
+            final Iterable<File> executionDataFiles = TestCoverageData.getExecutionDataFiles(outputFolder);
+            if (executionDataFiles.any())
+            {
+                verbose.writeLine("Deleting the stored coverage data of " + executionDataFiles.getCount() + " test classes because the coverage settings changed...").await();
+                for (final File executionDataFile : executionDataFiles)
+                {
+                    executionDataFile.delete()
+                        .catchError(FileNotFoundException.class)
+                        .await();
+                }
+            }
+            settingsFile.setContentsAsString(settings).await();
+        }
+    }
+
+    /**
+     * Get the stored execution data files in the provided output folder.
+     * @param outputFolder The output folder that the execution data files are stored in.
+     * @return The stored execution data files.
+     */
+    static Iterable<File> getExecutionDataFiles(Folder outputFolder)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+
+        final Iterable<File> result = TestCoverageData.getFolder(outputFolder).iterateFiles()
+            .catchError(FolderNotFoundException.class)
+            .where((File file) -> Comparer.equal(file.getFileExtension(), ".exec"))
+            .toList();
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the execution data that has been collected since the last time execution data was
+     * collected, and reset the runtime's probes.
+     * @return The collected execution data.
+     */
+    byte[] collect()
+    {
+        byte[] result;
+        try
+        {
+            final Object agent = this.getAgent.invoke(null);
+            result = (byte[])this.getExecutionData.invoke(agent, true);
+        }
+        catch (java.lang.reflect.InvocationTargetException e)
+        {
+            // The runtime of offline instrumented classes doesn't start until the first instrumented class is loaded.
+            if (!(e.getCause() instanceof IllegalStateException))
+            {
+                throw new RuntimeException(e);
+            }
+            result = new byte[0];
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new RuntimeException(e);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Store the execution data that has been collected since the last time execution data was
+     * collected as the execution data of the provided test class.
+     * @param fullClassName The full name of the test class that produced the execution data.
+     */
+    public void write(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        TestResults.setContentsAtomically(TestCoverageData.getFile(this.outputFolder, fullClassName), this.collect());
+    }
+
+    /**
+     * Delete the stored execution data of the provided test classes.
+     * @param outputFolder The output folder that the execution data files are stored in.
+     * @param fullClassNames The full names of the test classes.
+     */
+    static void delete(Folder outputFolder, Iterable<String> fullClassNames)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+
+        for (final String fullClassName : fullClassNames)
+        {
+            TestCoverageData.getFile(outputFolder, fullClassName).delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        }
+    }
+
+    /**
+     * Append the stored execution data of the provided test classes to the provided execution data
+     * file. Stored execution data of test classes that aren't provided is deleted, because those
+     * test classes no longer exist.
+     * @param outputFolder The output folder that the execution data files are stored in.
+     * @param fullClassNames The full names of the test classes whose execution data will be merged.
+     * @param coverageExecFile The execution data file that the test run wrote. It will be created if
+     *                         it doesn't exist.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The number of test classes whose execution data was merged.
+     */
+    static int merge(Folder outputFolder, Iterable<String> fullClassNames, File coverageExecFile, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+        PreCondition.assertNotNull(coverageExecFile, "coverageExecFile");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final InMemoryByteStream mergedExecutionData = InMemoryByteStream.create();
+        final byte[] runExecutionData = coverageExecFile.getContents()
+            .catchError(FileNotFoundException.class)
+            .await();
+        if (runExecutionData != null)
+        {
+            mergedExecutionData.writeAll(runExecutionData).await();
+        }
+
+        int result = 0;
+        final Set<String> fullClassNameSet = Set.create();
+        fullClassNameSet.addAll(fullClassNames);
+        for (final File executionDataFile : TestCoverageData.getExecutionDataFiles(outputFolder))
+        {
+            final String fileName = executionDataFile.getName();
+            final String fullClassName = fileName.substring(0, fileName.length() - ".exec".length());
+            if (!fullClassNameSet.contains(fullClassName))
+            {
+                verbose.writeLine("Deleting the coverage data of " + fullClassName + " because it is no longer a test class...").await();
+                executionDataFile.delete()
+                    .catchError(FileNotFoundException.class)
+                    .await();
+            }
+            else
+            {
+                final byte[] executionData = executionDataFile.getContents()
+                    .catchError(FileNotFoundException.class)
+                    .await();
+                if (executionData != null)
+                {
+                    mergedExecutionData.writeAll(executionData).await();
+                    ++result;
+                }
+            }
+        }
+
+        TestResults.setContentsAtomically(coverageExecFile, mergedExecutionData.getBytes());
+
+        PostCondition.assertGreaterThanOrEqualTo(result, 0, "result");
+
+        return result;
+    }
+}
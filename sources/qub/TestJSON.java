@@ -7,6 +7,7 @@ public class TestJSON extends JSONObjectWrapperBase
 {
     private static final String javaVersionPropertyName = "javaVersion";
     private static final String classFilesPropertyName = "classFiles";
+    private static final String classPathPropertyName = "classPath";
 
     private TestJSON(JSONObject json)
     {
@@ -124,4 +125,37 @@ public class TestJSON extends JSONObjectWrapperBase
             .catchError(() -> Iterable.create())
             .await();
     }
+
+    /**
+     * Set the fingerprints of the files on the test runner classpath.
+     * @param classPathEntries The fingerprints of the files on the test runner classpath.
+     * @return This object for method chaining.
+     */
+    public TestJSON setClassPathEntries(Iterable<TestJSONClassPathEntry> classPathEntries)
+    {
+        PreCondition.assertNotNull(classPathEntries, "classPathEntries");
+
+        this.json.set(TestJSON.classPathPropertyName, JSONObject.create()
+            .setAll(classPathEntries.map(TestJSONClassPathEntry::toJsonProperty)));
+
+        return this;
+    }
+
+    /**
+     * Get the fingerprints of the files on the test runner classpath, or null if they weren't
+     * recorded.
+     * @return The fingerprints of the files on the test runner classpath.
+     */
+    public Iterable<TestJSONClassPathEntry> getClassPathEntries()
+    {
+        return this.json.getObject(TestJSON.classPathPropertyName)
+            .then((JSONObject classPathJsonObject) ->
+            {
+                return classPathJsonObject.getProperties()
+                    .map((JSONProperty classPathEntryJsonProperty) -> TestJSONClassPathEntry.parse(classPathEntryJsonProperty).await())
+                    .toList();
+            })
+            .catchError()
+            .await();
+    }
 }
@@ -6,9 +6,15 @@ package qub;
 public class TestJSONClassFile
 {
     private static final String lastModifiedPropertyName = "lastModified";
+    private static final String contentHashPropertyName = "contentHash";
     private static final String passedTestCountPropertyName = "passedTestCount";
     private static final String skippedTestCountPropertyName = "skippedTestCount";
     private static final String failedTestCountPropertyName = "failedTestCount";
+    private static final String durationMillisecondsPropertyName = "durationMilliseconds";
+    private static final String dependenciesPropertyName = "dependencies";
+    private static final String classPathDependenciesPropertyName = "classPathDependencies";
+    private static final String testsPropertyName = "tests";
+    private static final String partialPropertyName = "partial";
 
     private final JSONProperty jsonProperty;
 
@@ -98,6 +104,32 @@ public class TestJSONClassFile
             .await();
     }
 
+    /**
+     * Set the content hash of the class file.
+     * @param contentHash The content hash of the class file.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFile setContentHash(String contentHash)
+    {
+        PreCondition.assertNotNullAndNotEmpty(contentHash, "contentHash");
+
+        this.getPropertyValue().setString(TestJSONClassFile.contentHashPropertyName, contentHash);
+
+        return this;
+    }
+
+    /**
+     * Get the content hash of the class file, or null if the content hash wasn't recorded.
+     * @return The content hash of the class file.
+     */
+    public String getContentHash()
+    {
+        return this.getPropertyValue()
+            .getString(TestJSONClassFile.contentHashPropertyName)
+            .catchError()
+            .await();
+    }
+
     public TestJSONClassFile setPassedTestCount(int passedTestCount)
     {
         PreCondition.assertGreaterThanOrEqualTo(passedTestCount, 0, "passedTestCount");
@@ -146,6 +178,159 @@ public class TestJSONClassFile
             .await();
     }
 
+    /**
+     * Set how long it took to run the tests in the class file.
+     * @param duration How long it took to run the tests in the class file.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFile setDuration(Duration duration)
+    {
+        PreCondition.assertNotNull(duration, "duration");
+
+        this.getPropertyValue().setNumber(TestJSONClassFile.durationMillisecondsPropertyName, duration.toMilliseconds().getValue());
+
+        return this;
+    }
+
+    /**
+     * Get how long it took to run the tests in the class file, or null if the duration wasn't
+     * recorded.
+     * @return How long it took to run the tests in the class file.
+     */
+    public Duration getDuration()
+    {
+        return this.getPropertyValue().getNumber(TestJSONClassFile.durationMillisecondsPropertyName)
+            .then((Double durationMilliseconds) -> Duration.milliseconds(durationMilliseconds))
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the class files that the tested class file depended on when its tests were run.
+     * @param dependencies The class files that the tested class file depended on.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFile setDependencies(Iterable<TestJSONClassFileDependency> dependencies)
+    {
+        PreCondition.assertNotNull(dependencies, "dependencies");
+
+        this.getPropertyValue().set(TestJSONClassFile.dependenciesPropertyName, JSONObject.create()
+            .setAll(dependencies.map(TestJSONClassFileDependency::toJsonProperty)));
+
+        return this;
+    }
+
+    /**
+     * Get the class files that the tested class file depended on when its tests were run, or null
+     * if the dependencies weren't recorded.
+     * @return The class files that the tested class file depended on.
+     */
+    public Iterable<TestJSONClassFileDependency> getDependencies()
+    {
+        return this.getPropertyValue().getObject(TestJSONClassFile.dependenciesPropertyName)
+            .then((JSONObject dependenciesJsonObject) ->
+            {
+                return dependenciesJsonObject.getProperties()
+                    .map((JSONProperty dependencyJsonProperty) -> TestJSONClassFileDependency.parse(dependencyJsonProperty).await())
+                    .toList();
+            })
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the paths of the test runner classpath files (such as dependency jars) that contain
+     * classes that the tested class file depended on when its tests were run.
+     * @param classPathDependencies The paths of the classpath files that the tested class file
+     *                              depended on.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFile setClassPathDependencies(Iterable<String> classPathDependencies)
+    {
+        PreCondition.assertNotNull(classPathDependencies, "classPathDependencies");
+
+        this.getPropertyValue().set(TestJSONClassFile.classPathDependenciesPropertyName, JSONArray.create(classPathDependencies.map(JSONString::get)));
+
+        return this;
+    }
+
+    /**
+     * Get the paths of the test runner classpath files that the tested class file depended on when
+     * its tests were run, or null if they weren't recorded.
+     * @return The paths of the classpath files that the tested class file depended on.
+     */
+    public Iterable<String> getClassPathDependencies()
+    {
+        return this.getPropertyValue().getArray(TestJSONClassFile.classPathDependenciesPropertyName)
+            .then((JSONArray classPathDependenciesJsonArray) ->
+            {
+                return classPathDependenciesJsonArray
+                    .instanceOf(JSONString.class)
+                    .map(JSONString::getValue)
+                    .toList();
+            })
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the results of the individual tests in the class file.
+     * @param tests The results of the individual tests in the class file.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFile setTests(Iterable<TestJSONTest> tests)
+    {
+        PreCondition.assertNotNull(tests, "tests");
+
+        this.getPropertyValue().set(TestJSONClassFile.testsPropertyName, JSONObject.create()
+            .setAll(tests.map(TestJSONTest::toJsonProperty)));
+
+        return this;
+    }
+
+    /**
+     * Get the results of the individual tests in the class file, or null if they weren't recorded.
+     * @return The results of the individual tests in the class file.
+     */
+    public Iterable<TestJSONTest> getTests()
+    {
+        return this.getPropertyValue().getObject(TestJSONClassFile.testsPropertyName)
+            .then((JSONObject testsJsonObject) ->
+            {
+                return testsJsonObject.getProperties()
+                    .map((JSONProperty testJsonProperty) -> TestJSONTest.parse(testJsonProperty).await())
+                    .toList();
+            })
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set whether or not only some of the tests in the class file were run, such as when the tests
+     * were run with a pattern. The results of a partial class file don't say anything about the
+     * tests that weren't run, so a partial class file is never up to date.
+     * @param partial Whether or not only some of the tests in the class file were run.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFile setPartial(boolean partial)
+    {
+        this.getPropertyValue().setBoolean(TestJSONClassFile.partialPropertyName, partial);
+
+        return this;
+    }
+
+    /**
+     * Get whether or not only some of the tests in the class file were run.
+     * @return Whether or not only some of the tests in the class file were run.
+     */
+    public boolean isPartial()
+    {
+        return this.getPropertyValue()
+            .getBoolean(TestJSONClassFile.partialPropertyName)
+            .catchError(() -> false)
+            .await();
+    }
+
     @Override
     public String toString()
     {
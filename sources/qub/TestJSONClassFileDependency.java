@@ -0,0 +1,122 @@
+package qub;
+
+/**
+ * A class file that a tested class file depended on when its tests were run.
+ */
+public class TestJSONClassFileDependency
+{
+    private static final String lastModifiedPropertyName = "lastModified";
+    private static final String contentHashPropertyName = "contentHash";
+
+    private final JSONProperty jsonProperty;
+
+    private TestJSONClassFileDependency(JSONProperty jsonProperty)
+    {
+        PreCondition.assertNotNull(jsonProperty, "jsonProperty");
+
+        this.jsonProperty = jsonProperty;
+    }
+
+    public static TestJSONClassFileDependency create(String classFileRelativePath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(classFileRelativePath, "classFileRelativePath");
+
+        return TestJSONClassFileDependency.create(Path.parse(classFileRelativePath));
+    }
+
+    public static TestJSONClassFileDependency create(Path classFileRelativePath)
+    {
+        PreCondition.assertNotNull(classFileRelativePath, "classFileRelativePath");
+        PreCondition.assertFalse(classFileRelativePath.isRooted(), "classFileRelativePath.isRooted()");
+
+        return new TestJSONClassFileDependency(JSONProperty.create(classFileRelativePath.toString(), JSONObject.create()));
+    }
+
+    public static Result<TestJSONClassFileDependency> parse(JSONProperty property)
+    {
+        PreCondition.assertNotNull(property, "property");
+
+        return Result.create(() ->
+        {
+            return new TestJSONClassFileDependency(property);
+        });
+    }
+
+    private JSONObject getPropertyValue()
+    {
+        return this.jsonProperty.getObjectValue().await();
+    }
+
+    /**
+     * Get the path to the dependency class file relative to the test.json file.
+     * @return The path to the dependency class file relative to the test.json file.
+     */
+    public Path getRelativePath()
+    {
+        return Path.parse(this.jsonProperty.getName());
+    }
+
+    /**
+     * Set the last time that the dependency class file was modified.
+     * @param lastModified The last time that the dependency class file was modified.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFileDependency setLastModified(DateTime lastModified)
+    {
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        this.getPropertyValue().setString(TestJSONClassFileDependency.lastModifiedPropertyName, lastModified.toString());
+
+        return this;
+    }
+
+    /**
+     * Get the last time that the dependency class file was modified.
+     * @return The last time that the dependency class file was modified.
+     */
+    public DateTime getLastModified()
+    {
+        return this.getPropertyValue()
+            .getString(TestJSONClassFileDependency.lastModifiedPropertyName)
+            .then((String lastModified) -> DateTime.parse(lastModified).await())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the content hash of the dependency class file.
+     * @param contentHash The content hash of the dependency class file.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassFileDependency setContentHash(String contentHash)
+    {
+        PreCondition.assertNotNullAndNotEmpty(contentHash, "contentHash");
+
+        this.getPropertyValue().setString(TestJSONClassFileDependency.contentHashPropertyName, contentHash);
+
+        return this;
+    }
+
+    /**
+     * Get the content hash of the dependency class file, or null if the content hash wasn't recorded.
+     * @return The content hash of the dependency class file.
+     */
+    public String getContentHash()
+    {
+        return this.getPropertyValue()
+            .getString(TestJSONClassFileDependency.contentHashPropertyName)
+            .catchError()
+            .await();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.toJsonProperty().toString();
+    }
+
+    public JSONProperty toJsonProperty()
+    {
+        return this.jsonProperty;
+    }
+}
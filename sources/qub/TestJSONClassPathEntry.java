@@ -0,0 +1,122 @@
+package qub;
+
+/**
+ * A file on the test runner classpath (such as a dependency jar) when the tests were run.
+ */
+public class TestJSONClassPathEntry
+{
+    private static final String lastModifiedPropertyName = "lastModified";
+    private static final String contentHashPropertyName = "contentHash";
+
+    private final JSONProperty jsonProperty;
+
+    private TestJSONClassPathEntry(JSONProperty jsonProperty)
+    {
+        PreCondition.assertNotNull(jsonProperty, "jsonProperty");
+
+        this.jsonProperty = jsonProperty;
+    }
+
+    public static TestJSONClassPathEntry create(String classPathEntryPath)
+    {
+        PreCondition.assertNotNullAndNotEmpty(classPathEntryPath, "classPathEntryPath");
+
+        return TestJSONClassPathEntry.create(Path.parse(classPathEntryPath));
+    }
+
+    public static TestJSONClassPathEntry create(Path classPathEntryPath)
+    {
+        PreCondition.assertNotNull(classPathEntryPath, "classPathEntryPath");
+        PreCondition.assertTrue(classPathEntryPath.isRooted(), "classPathEntryPath.isRooted()");
+
+        return new TestJSONClassPathEntry(JSONProperty.create(classPathEntryPath.toString(), JSONObject.create()));
+    }
+
+    public static Result<TestJSONClassPathEntry> parse(JSONProperty property)
+    {
+        PreCondition.assertNotNull(property, "property");
+
+        return Result.create(() ->
+        {
+            return new TestJSONClassPathEntry(property);
+        });
+    }
+
+    private JSONObject getPropertyValue()
+    {
+        return this.jsonProperty.getObjectValue().await();
+    }
+
+    /**
+     * Get the path to the classpath file.
+     * @return The path to the classpath file.
+     */
+    public Path getPath()
+    {
+        return Path.parse(this.jsonProperty.getName());
+    }
+
+    /**
+     * Set the last time that the classpath file was modified.
+     * @param lastModified The last time that the classpath file was modified.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassPathEntry setLastModified(DateTime lastModified)
+    {
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        this.getPropertyValue().setString(TestJSONClassPathEntry.lastModifiedPropertyName, lastModified.toString());
+
+        return this;
+    }
+
+    /**
+     * Get the last time that the classpath file was modified.
+     * @return The last time that the classpath file was modified.
+     */
+    public DateTime getLastModified()
+    {
+        return this.getPropertyValue()
+            .getString(TestJSONClassPathEntry.lastModifiedPropertyName)
+            .then((String lastModified) -> DateTime.parse(lastModified).await())
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set the content hash of the classpath file.
+     * @param contentHash The content hash of the classpath file.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassPathEntry setContentHash(String contentHash)
+    {
+        PreCondition.assertNotNullAndNotEmpty(contentHash, "contentHash");
+
+        this.getPropertyValue().setString(TestJSONClassPathEntry.contentHashPropertyName, contentHash);
+
+        return this;
+    }
+
+    /**
+     * Get the content hash of the classpath file, or null if the content hash wasn't recorded.
+     * @return The content hash of the classpath file.
+     */
+    public String getContentHash()
+    {
+        return this.getPropertyValue()
+            .getString(TestJSONClassPathEntry.contentHashPropertyName)
+            .catchError()
+            .await();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.toJsonProperty().toString();
+    }
+
+    public JSONProperty toJsonProperty()
+    {
+        return this.jsonProperty;
+    }
+}
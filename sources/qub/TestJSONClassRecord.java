@@ -0,0 +1,445 @@
+package qub;
+
+/**
+ * The saved result of running the tests for a Java class file, decoded once from a test.json file
+ * into plain fields. Unlike TestJSONClassFile, a TestJSONClassRecord doesn't keep the JSON that it
+ * was read from, so reading its values doesn't parse anything.
+ */
+public class TestJSONClassRecord
+{
+    private final String relativePath;
+    private final String fullClassName;
+    private DateTime lastModified;
+    private final String contentHash;
+    private final int passedTestCount;
+    private final int skippedTestCount;
+    private final int failedTestCount;
+    private final double durationMilliseconds;
+    private final String[] dependencyRelativePaths;
+    private final DateTime[] dependencyLastModifieds;
+    private final String[] dependencyContentHashes;
+    private final String[] classPathDependencies;
+    private final String[] testNames;
+    private final TestOutcome[] testOutcomes;
+    private final double[] testDurationMilliseconds;
+    private final boolean partial;
+
+    /**
+     * Create a new TestJSONClassRecord.
+     * @param relativePath The path to the class file relative to the test.json file.
+     * @param lastModified The last time that the class file was modified, or null.
+     * @param contentHash The content hash of the class file, or null.
+     * @param passedTestCount The number of tests that passed.
+     * @param skippedTestCount The number of tests that were skipped.
+     * @param failedTestCount The number of tests that failed.
+     * @param durationMilliseconds How long the tests took to run, or a negative number if that
+     *                             wasn't recorded.
+     * @param dependencyRelativePaths The relative paths of the class files that the class file
+     *                                depended on, or null if they weren't recorded.
+     * @param dependencyLastModifieds The last modified times of the dependencies, or null.
+     * @param dependencyContentHashes The content hashes of the dependencies, or null.
+     * @param classPathDependencies The classpath files that the class file depended on, or null if
+     *                              they weren't recorded.
+     * @param testNames The full names of the individual tests that were run, or null if they
+     *                  weren't recorded.
+     * @param testOutcomes The outcomes of the individual tests, or null.
+     * @param testDurationMilliseconds How long each of the individual tests took to run, or null.
+     *                                 A negative duration means that it wasn't recorded.
+     * @param partial Whether or not only some of the tests in the class file were run.
+     */
+    TestJSONClassRecord(String relativePath, DateTime lastModified, String contentHash, int passedTestCount, int skippedTestCount, int failedTestCount, double durationMilliseconds, String[] dependencyRelativePaths, DateTime[] dependencyLastModifieds, String[] dependencyContentHashes, String[] classPathDependencies, String[] testNames, TestOutcome[] testOutcomes, double[] testDurationMilliseconds, boolean partial)
+    {
+        PreCondition.assertNotNullAndNotEmpty(relativePath, "relativePath");
+        PreCondition.assertTrue(dependencyRelativePaths == null || (dependencyLastModifieds != null && dependencyLastModifieds.length == dependencyRelativePaths.length), "dependencyLastModifieds has the same length as dependencyRelativePaths");
+        PreCondition.assertTrue(dependencyRelativePaths == null || (dependencyContentHashes != null && dependencyContentHashes.length == dependencyRelativePaths.length), "dependencyContentHashes has the same length as dependencyRelativePaths");
+        PreCondition.assertTrue(testNames == null || (testOutcomes != null && testOutcomes.length == testNames.length), "testOutcomes has the same length as testNames");
+        PreCondition.assertTrue(testNames == null || (testDurationMilliseconds != null && testDurationMilliseconds.length == testNames.length), "testDurationMilliseconds has the same length as testNames");
+
+        this.relativePath = relativePath;
+        this.fullClassName = QubTestRun.getFullClassName(Path.parse(relativePath));
+        this.lastModified = lastModified;
+        this.contentHash = contentHash;
+        this.passedTestCount = passedTestCount;
+        this.skippedTestCount = skippedTestCount;
+        this.failedTestCount = failedTestCount;
+        this.durationMilliseconds = durationMilliseconds;
+        this.dependencyRelativePaths = dependencyRelativePaths;
+        this.dependencyLastModifieds = dependencyLastModifieds;
+        this.dependencyContentHashes = dependencyContentHashes;
+        this.classPathDependencies = classPathDependencies;
+        this.testNames = testNames;
+        this.testOutcomes = testOutcomes;
+        this.testDurationMilliseconds = testDurationMilliseconds;
+        this.partial = partial;
+    }
+
+    /**
+     * Create a new TestJSONClassRecord from the provided TestJSONClassFile.
+     * @param classFile The TestJSONClassFile to decode.
+     * @return The new TestJSONClassRecord.
+     */
+    public static TestJSONClassRecord create(TestJSONClassFile classFile)
+    {
+        PreCondition.assertNotNull(classFile, "classFile");
+
+        String[] dependencyRelativePaths = null;
+        DateTime[] dependencyLastModifieds = null;
+        String[] dependencyContentHashes = null;
+        final Iterable<TestJSONClassFileDependency> dependencies = classFile.getDependencies();
+        if (dependencies != null)
+        {
+            final int dependencyCount = dependencies.getCount();
+            dependencyRelativePaths = new String[dependencyCount];
+            dependencyLastModifieds = new DateTime[dependencyCount];
+            dependencyContentHashes = new String[dependencyCount];
+            int dependencyIndex = 0;
+            for (final TestJSONClassFileDependency dependency : dependencies)
+            {
+                dependencyRelativePaths[dependencyIndex] = dependency.getRelativePath().toString();
+                dependencyLastModifieds[dependencyIndex] = dependency.getLastModified();
+                dependencyContentHashes[dependencyIndex] = dependency.getContentHash();
+                ++dependencyIndex;
+            }
+        }
+
+        String[] classPathDependencies = null;
+        final Iterable<String> classFileClassPathDependencies = classFile.getClassPathDependencies();
+        if (classFileClassPathDependencies != null)
+        {
+            classPathDependencies = new String[classFileClassPathDependencies.getCount()];
+            int classPathDependencyIndex = 0;
+            for (final String classPathDependency : classFileClassPathDependencies)
+            {
+                classPathDependencies[classPathDependencyIndex++] = classPathDependency;
+            }
+        }
+
+        String[] testNames = null;
+        TestOutcome[] testOutcomes = null;
+        double[] testDurationMilliseconds = null;
+        final Iterable<TestJSONTest> tests = classFile.getTests();
+        if (tests != null)
+        {
+            final int testCount = tests.getCount();
+            testNames = new String[testCount];
+            testOutcomes = new TestOutcome[testCount];
+            testDurationMilliseconds = new double[testCount];
+            int testIndex = 0;
+            for (final TestJSONTest test : tests)
+            {
+                testNames[testIndex] = test.getFullName();
+                testOutcomes[testIndex] = test.getOutcome();
+                final Duration testDuration = test.getDuration();
+                testDurationMilliseconds[testIndex] = testDuration == null ? -1 : testDuration.toMilliseconds().getValue();
+                ++testIndex;
+            }
+        }
+
+        final Duration duration = classFile.getDuration();
+        return new TestJSONClassRecord(
+            classFile.getRelativePath().toString(),
+            classFile.getLastModified(),
+            classFile.getContentHash(),
+            classFile.getPassedTestCount(),
+            classFile.getSkippedTestCount(),
+            classFile.getFailedTestCount(),
+            duration == null ? -1 : duration.toMilliseconds().getValue(),
+            dependencyRelativePaths,
+            dependencyLastModifieds,
+            dependencyContentHashes,
+            classPathDependencies,
+            testNames,
+            testOutcomes,
+            testDurationMilliseconds,
+            classFile.isPartial());
+    }
+
+    /**
+     * Get the path to the class file relative to the test.json file.
+     * @return The path to the class file relative to the test.json file.
+     */
+    public String getRelativePath()
+    {
+        return this.relativePath;
+    }
+
+    /**
+     * Get the full class name of the class file.
+     * @return The full class name of the class file.
+     */
+    public String getFullClassName()
+    {
+        return this.fullClassName;
+    }
+
+    /**
+     * Set the last time that the class file was modified.
+     * @param lastModified The last time that the class file was modified.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassRecord setLastModified(DateTime lastModified)
+    {
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    /**
+     * Get the last time that the class file was modified, or null if it wasn't recorded.
+     * @return The last time that the class file was modified.
+     */
+    public DateTime getLastModified()
+    {
+        return this.lastModified;
+    }
+
+    /**
+     * Get the content hash of the class file, or null if it wasn't recorded.
+     * @return The content hash of the class file.
+     */
+    public String getContentHash()
+    {
+        return this.contentHash;
+    }
+
+    public int getPassedTestCount()
+    {
+        return this.passedTestCount;
+    }
+
+    public int getSkippedTestCount()
+    {
+        return this.skippedTestCount;
+    }
+
+    public int getFailedTestCount()
+    {
+        return this.failedTestCount;
+    }
+
+    /**
+     * Get how long it took to run the tests in the class file, or null if it wasn't recorded.
+     * @return How long it took to run the tests in the class file.
+     */
+    public Duration getDuration()
+    {
+        return this.durationMilliseconds < 0
+            ? null
+            : Duration.milliseconds(this.durationMilliseconds);
+    }
+
+    /**
+     * Get whether or not the class files that the class file depended on were recorded.
+     * @return Whether or not the class file's dependencies were recorded.
+     */
+    public boolean hasDependencies()
+    {
+        return this.dependencyRelativePaths != null;
+    }
+
+    /**
+     * Get the number of class files that the class file depended on.
+     * @return The number of class files that the class file depended on.
+     */
+    public int getDependencyCount()
+    {
+        return this.dependencyRelativePaths == null ? 0 : this.dependencyRelativePaths.length;
+    }
+
+    public String getDependencyRelativePath(int dependencyIndex)
+    {
+        PreCondition.assertBetween(0, dependencyIndex, this.getDependencyCount() - 1, "dependencyIndex");
+
+        return this.dependencyRelativePaths[dependencyIndex];
+    }
+
+    public DateTime getDependencyLastModified(int dependencyIndex)
+    {
+        PreCondition.assertBetween(0, dependencyIndex, this.getDependencyCount() - 1, "dependencyIndex");
+
+        return this.dependencyLastModifieds[dependencyIndex];
+    }
+
+    /**
+     * Set the last time that a dependency of the class file was modified.
+     * @param dependencyIndex The index of the dependency.
+     * @param lastModified The last time that the dependency was modified.
+     * @return This object for method chaining.
+     */
+    public TestJSONClassRecord setDependencyLastModified(int dependencyIndex, DateTime lastModified)
+    {
+        PreCondition.assertBetween(0, dependencyIndex, this.getDependencyCount() - 1, "dependencyIndex");
+        PreCondition.assertNotNull(lastModified, "lastModified");
+
+        this.dependencyLastModifieds[dependencyIndex] = lastModified;
+        return this;
+    }
+
+    public String getDependencyContentHash(int dependencyIndex)
+    {
+        PreCondition.assertBetween(0, dependencyIndex, this.getDependencyCount() - 1, "dependencyIndex");
+
+        return this.dependencyContentHashes[dependencyIndex];
+    }
+
+    /**
+     * Get the classpath files that the class file depended on, or null if they weren't recorded.
+     * @return The classpath files that the class file depended on.
+     */
+    public Iterable<String> getClassPathDependencies()
+    {
+        return this.classPathDependencies == null
+            ? null
+            : Iterable.create(this.classPathDependencies);
+    }
+
+    /**
+     * Get whether or not the results of the individual tests in the class file were recorded.
+     * @return Whether or not the results of the individual tests were recorded.
+     */
+    public boolean hasTests()
+    {
+        return this.testNames != null;
+    }
+
+    /**
+     * Get the number of individual tests that were recorded for the class file.
+     * @return The number of individual tests that were recorded for the class file.
+     */
+    public int getTestCount()
+    {
+        return this.testNames == null ? 0 : this.testNames.length;
+    }
+
+    public String getTestName(int testIndex)
+    {
+        PreCondition.assertBetween(0, testIndex, this.getTestCount() - 1, "testIndex");
+
+        return this.testNames[testIndex];
+    }
+
+    /**
+     * Get the outcome of the individual test at the provided index, or null if it wasn't recorded.
+     * @param testIndex The index of the test.
+     * @return The outcome of the test.
+     */
+    public TestOutcome getTestOutcome(int testIndex)
+    {
+        PreCondition.assertBetween(0, testIndex, this.getTestCount() - 1, "testIndex");
+
+        return this.testOutcomes[testIndex];
+    }
+
+    /**
+     * Get how long the individual test at the provided index took to run, or null if it wasn't
+     * recorded.
+     * @param testIndex The index of the test.
+     * @return How long the test took to run.
+     */
+    public Duration getTestDuration(int testIndex)
+    {
+        PreCondition.assertBetween(0, testIndex, this.getTestCount() - 1, "testIndex");
+
+        return this.testDurationMilliseconds[testIndex] < 0
+            ? null
+            : Duration.milliseconds(this.testDurationMilliseconds[testIndex]);
+    }
+
+    /**
+     * Get the full names of the individual tests that failed the last time that they were run.
+     * @return The full names of the individual tests that failed.
+     */
+    public Iterable<String> getFailedTestNames()
+    {
+        final List<String> result = List.create();
+        for (int i = 0; i < this.getTestCount(); ++i)
+        {
+            if (this.testOutcomes[i] == TestOutcome.Failed)
+            {
+                result.add(this.testNames[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get whether or not only some of the tests in the class file were run.
+     * @return Whether or not only some of the tests in the class file were run.
+     */
+    public boolean isPartial()
+    {
+        return this.partial;
+    }
+
+    /**
+     * Convert this record to a TestJSONClassFile so that it can be written to a test.json file.
+     * @return The TestJSONClassFile with this record's values.
+     */
+    public TestJSONClassFile toTestJSONClassFile()
+    {
+        final TestJSONClassFile result = TestJSONClassFile.create(this.relativePath);
+        if (this.lastModified != null)
+        {
+            result.setLastModified(this.lastModified);
+        }
+        if (!Strings.isNullOrEmpty(this.contentHash))
+        {
+            result.setContentHash(this.contentHash);
+        }
+        result.setPassedTestCount(this.passedTestCount)
+            .setSkippedTestCount(this.skippedTestCount)
+            .setFailedTestCount(this.failedTestCount);
+        final Duration duration = this.getDuration();
+        if (duration != null)
+        {
+            result.setDuration(duration);
+        }
+        if (this.dependencyRelativePaths != null)
+        {
+            final List<TestJSONClassFileDependency> dependencies = List.create();
+            for (int i = 0; i < this.dependencyRelativePaths.length; ++i)
+            {
+                final TestJSONClassFileDependency dependency = TestJSONClassFileDependency.create(this.dependencyRelativePaths[i]);
+                if (this.dependencyLastModifieds[i] != null)
+                {
+                    dependency.setLastModified(this.dependencyLastModifieds[i]);
+                }
+                if (!Strings.isNullOrEmpty(this.dependencyContentHashes[i]))
+                {
+                    dependency.setContentHash(this.dependencyContentHashes[i]);
+                }
+                dependencies.add(dependency);
+            }
+            result.setDependencies(dependencies);
+        }
+        if (this.classPathDependencies != null)
+        {
+            result.setClassPathDependencies(this.getClassPathDependencies());
+        }
+        if (this.testNames != null)
+        {
+            final List<TestJSONTest> tests = List.create();
+            for (int i = 0; i < this.testNames.length; ++i)
+            {
+                final TestJSONTest test = TestJSONTest.create(this.testNames[i]);
+                if (this.testOutcomes[i] != null)
+                {
+                    test.setOutcome(this.testOutcomes[i]);
+                }
+                final Duration testDuration = this.getTestDuration(i);
+                if (testDuration != null)
+                {
+                    test.setDuration(testDuration);
+                }
+                tests.add(test);
+            }
+            result.setTests(tests);
+        }
+        if (this.partial)
+        {
+            result.setPartial(true);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,406 @@
+package qub;
+
+/**
+ * The contents of a test.json file, indexed by full class name. A TestJSONIndex is read from a
+ * test.json file in one pass, and each class file entry is decoded once into a
+ * TestJSONClassRecord. No JSON document is built for the file.
+ */
+public class TestJSONIndex implements TestResults
+{
+    private static final String javaVersionPropertyName = "javaVersion";
+    private static final String classFilesPropertyName = "classFiles";
+    private static final String classPathPropertyName = "classPath";
+    private static final String lastModifiedPropertyName = "lastModified";
+    private static final String contentHashPropertyName = "contentHash";
+    private static final String passedTestCountPropertyName = "passedTestCount";
+    private static final String skippedTestCountPropertyName = "skippedTestCount";
+    private static final String failedTestCountPropertyName = "failedTestCount";
+    private static final String durationMillisecondsPropertyName = "durationMilliseconds";
+    private static final String dependenciesPropertyName = "dependencies";
+    private static final String classPathDependenciesPropertyName = "classPathDependencies";
+    private static final String testsPropertyName = "tests";
+    private static final String outcomePropertyName = "outcome";
+    private static final String partialPropertyName = "partial";
+
+    private String javaVersion;
+    private List<TestJSONClassPathEntry> classPathEntries;
+    private final List<TestJSONClassRecord> classRecords;
+    private final MutableMap<String,TestJSONClassRecord> classRecordsByName;
+
+    private TestJSONIndex()
+    {
+        this.classRecords = List.create();
+        this.classRecordsByName = Map.create();
+    }
+
+    /**
+     * Create a new TestJSONIndex from an already parsed TestJSON object.
+     * @param testJson The TestJSON object to index.
+     * @return The new TestJSONIndex.
+     */
+    public static TestJSONIndex create(TestJSON testJson)
+    {
+        PreCondition.assertNotNull(testJson, "testJson");
+
+        final TestJSONIndex result = new TestJSONIndex();
+        final VersionNumber javaVersion = testJson.getJavaVersion().catchError().await();
+        result.javaVersion = javaVersion == null ? null : javaVersion.toString();
+        final Iterable<TestJSONClassPathEntry> classPathEntries = testJson.getClassPathEntries();
+        if (classPathEntries != null)
+        {
+            result.classPathEntries = List.create(classPathEntries);
+        }
+        for (final TestJSONClassFile classFile : testJson.getClassFiles())
+        {
+            result.addClassRecord(TestJSONClassRecord.create(classFile));
+        }
+        return result;
+    }
+
+    /**
+     * Read a TestJSONIndex from the provided test.json file.
+     * @param testJsonFile The test.json file to read.
+     * @return The TestJSONIndex that was read.
+     */
+    public static Result<TestJSONIndex> parse(File testJsonFile)
+    {
+        PreCondition.assertNotNull(testJsonFile, "testJsonFile");
+
+        return testJsonFile.getContents()
+            .then((byte[] testJsonBytes) ->
+            {
+                return TestJSONIndex.parse(new java.io.InputStreamReader(new java.io.ByteArrayInputStream(testJsonBytes), java.nio.charset.StandardCharsets.UTF_8)).await();
+            });
+    }
+
+    /**
+     * Read a TestJSONIndex from the provided test.json text.
+     * @param testJsonText The test.json text to read.
+     * @return The TestJSONIndex that was read.
+     */
+    public static Result<TestJSONIndex> parse(String testJsonText)
+    {
+        PreCondition.assertNotNull(testJsonText, "testJsonText");
+
+        return TestJSONIndex.parse(new java.io.StringReader(testJsonText));
+    }
+
+    private static Result<TestJSONIndex> parse(java.io.Reader testJsonReader)
+    {
+        PreCondition.assertNotNull(testJsonReader, "testJsonReader");
+
+        return Result.create(() ->
+        {
+            final TestJSONIndex result = new TestJSONIndex();
+            try
+            {
+                final TestJSONReader reader = TestJSONReader.create(new java.io.BufferedReader(testJsonReader));
+                reader.readObjectStart();
+                String propertyName;
+                for (boolean first = true; (propertyName = reader.readPropertyName(first)) != null; first = false)
+                {
+                    switch (propertyName)
+                    {
+                        case TestJSONIndex.javaVersionPropertyName:
+                            result.javaVersion = TestJSONIndex.readOptionalString(reader);
+                            break;
+
+                        case TestJSONIndex.classFilesPropertyName:
+                            reader.readObjectStart();
+                            String relativePath;
+                            for (boolean firstClassFile = true; (relativePath = reader.readPropertyName(firstClassFile)) != null; firstClassFile = false)
+                            {
+                                result.addClassRecord(TestJSONIndex.readClassRecord(relativePath, reader));
+                            }
+                            break;
+
+                        case TestJSONIndex.classPathPropertyName:
+                            result.classPathEntries = List.create();
+                            reader.readObjectStart();
+                            String classPathEntryPath;
+                            for (boolean firstEntry = true; (classPathEntryPath = reader.readPropertyName(firstEntry)) != null; firstEntry = false)
+                            {
+                                final TestJSONClassPathEntry classPathEntry = TestJSONClassPathEntry.create(classPathEntryPath);
+                                reader.readObjectStart();
+                                String entryPropertyName;
+                                for (boolean firstEntryProperty = true; (entryPropertyName = reader.readPropertyName(firstEntryProperty)) != null; firstEntryProperty = false)
+                                {
+                                    if (entryPropertyName.equals(TestJSONIndex.lastModifiedPropertyName))
+                                    {
+                                        final DateTime lastModified = TestJSONIndex.readOptionalDateTime(reader);
+                                        if (lastModified != null)
+                                        {
+                                            classPathEntry.setLastModified(lastModified);
+                                        }
+                                    }
+                                    else if (entryPropertyName.equals(TestJSONIndex.contentHashPropertyName))
+                                    {
+                                        final String contentHash = TestJSONIndex.readOptionalString(reader);
+                                        if (!Strings.isNullOrEmpty(contentHash))
+                                        {
+                                            classPathEntry.setContentHash(contentHash);
+                                        }
+                                    }
+                                    else
+                                    {
+                                        reader.skipValue();
+                                    }
+                                }
+                                result.classPathEntries.add(classPathEntry);
+                            }
+                            break;
+
+                        default:
+                            reader.skipValue();
+                            break;
+                    }
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                throw new ParseException("Failed to read test.json file: " + e.getMessage());
+            }
+            return result;
+        });
+    }
+
+    private static TestJSONClassRecord readClassRecord(String relativePath, TestJSONReader reader) throws java.io.IOException
+    {
+        PreCondition.assertNotNullAndNotEmpty(relativePath, "relativePath");
+        PreCondition.assertNotNull(reader, "reader");
+
+        DateTime lastModified = null;
+        String contentHash = null;
+        int passedTestCount = 0;
+        int skippedTestCount = 0;
+        int failedTestCount = 0;
+        double durationMilliseconds = -1;
+        String[] dependencyRelativePaths = null;
+        DateTime[] dependencyLastModifieds = null;
+        String[] dependencyContentHashes = null;
+        String[] classPathDependencies = null;
+        String[] testNames = null;
+        TestOutcome[] testOutcomes = null;
+        double[] testDurationMilliseconds = null;
+        boolean partial = false;
+
+        reader.readObjectStart();
+        String propertyName;
+        for (boolean first = true; (propertyName = reader.readPropertyName(first)) != null; first = false)
+        {
+            switch (propertyName)
+            {
+                case TestJSONIndex.lastModifiedPropertyName:
+                    lastModified = TestJSONIndex.readOptionalDateTime(reader);
+                    break;
+
+                case TestJSONIndex.contentHashPropertyName:
+                    contentHash = TestJSONIndex.readOptionalString(reader);
+                    break;
+
+                case TestJSONIndex.passedTestCountPropertyName:
+                    passedTestCount = (int)reader.readNumber();
+                    break;
+
+                case TestJSONIndex.skippedTestCountPropertyName:
+                    skippedTestCount = (int)reader.readNumber();
+                    break;
+
+                case TestJSONIndex.failedTestCountPropertyName:
+                    failedTestCount = (int)reader.readNumber();
+                    break;
+
+                case TestJSONIndex.durationMillisecondsPropertyName:
+                    durationMilliseconds = reader.readNumber();
+                    break;
+
+                case TestJSONIndex.dependenciesPropertyName:
+                    final List<String> paths = List.create();
+                    final List<DateTime> lastModifieds = List.create();
+                    final List<String> contentHashes = List.create();
+                    reader.readObjectStart();
+                    String dependencyPath;
+                    for (boolean firstDependency = true; (dependencyPath = reader.readPropertyName(firstDependency)) != null; firstDependency = false)
+                    {
+                        DateTime dependencyLastModified = null;
+                        String dependencyContentHash = null;
+                        reader.readObjectStart();
+                        String dependencyPropertyName;
+                        for (boolean firstDependencyProperty = true; (dependencyPropertyName = reader.readPropertyName(firstDependencyProperty)) != null; firstDependencyProperty = false)
+                        {
+                            if (dependencyPropertyName.equals(TestJSONIndex.lastModifiedPropertyName))
+                            {
+                                dependencyLastModified = TestJSONIndex.readOptionalDateTime(reader);
+                            }
+                            else if (dependencyPropertyName.equals(TestJSONIndex.contentHashPropertyName))
+                            {
+                                dependencyContentHash = TestJSONIndex.readOptionalString(reader);
+                            }
+                            else
+                            {
+                                reader.skipValue();
+                            }
+                        }
+                        paths.add(dependencyPath);
+                        lastModifieds.add(dependencyLastModified);
+                        contentHashes.add(dependencyContentHash);
+                    }
+                    dependencyRelativePaths = TestJSONIndex.toArray(paths, new String[paths.getCount()]);
+                    dependencyLastModifieds = TestJSONIndex.toArray(lastModifieds, new DateTime[lastModifieds.getCount()]);
+                    dependencyContentHashes = TestJSONIndex.toArray(contentHashes, new String[contentHashes.getCount()]);
+                    break;
+
+                case TestJSONIndex.classPathDependenciesPropertyName:
+                    final List<String> classPathDependencyList = List.create();
+                    reader.readArrayStart();
+                    for (boolean firstElement = true; reader.hasArrayElement(firstElement); firstElement = false)
+                    {
+                        classPathDependencyList.add(reader.readString());
+                    }
+                    classPathDependencies = TestJSONIndex.toArray(classPathDependencyList, new String[classPathDependencyList.getCount()]);
+                    break;
+
+                case TestJSONIndex.testsPropertyName:
+                    final List<String> names = List.create();
+                    final List<TestOutcome> outcomes = List.create();
+                    final List<Double> durations = List.create();
+                    reader.readObjectStart();
+                    String testName;
+                    for (boolean firstTest = true; (testName = reader.readPropertyName(firstTest)) != null; firstTest = false)
+                    {
+                        TestOutcome outcome = null;
+                        double testDuration = -1;
+                        reader.readObjectStart();
+                        String testPropertyName;
+                        for (boolean firstTestProperty = true; (testPropertyName = reader.readPropertyName(firstTestProperty)) != null; firstTestProperty = false)
+                        {
+                            if (testPropertyName.equals(TestJSONIndex.outcomePropertyName))
+                            {
+                                outcome = TestOutcome.parse(TestJSONIndex.readOptionalString(reader));
+                            }
+                            else if (testPropertyName.equals(TestJSONIndex.durationMillisecondsPropertyName))
+                            {
+                                testDuration = reader.readNumber();
+                            }
+                            else
+                            {
+                                reader.skipValue();
+                            }
+                        }
+                        names.add(testName);
+                        outcomes.add(outcome);
+                        durations.add(testDuration);
+                    }
+                    testNames = TestJSONIndex.toArray(names, new String[names.getCount()]);
+                    testOutcomes = TestJSONIndex.toArray(outcomes, new TestOutcome[outcomes.getCount()]);
+                    testDurationMilliseconds = new double[durations.getCount()];
+                    for (int i = 0; i < testDurationMilliseconds.length; ++i)
+                    {
+                        testDurationMilliseconds[i] = durations.get(i);
+                    }
+                    break;
+
+                case TestJSONIndex.partialPropertyName:
+                    partial = reader.readBoolean();
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+
+        return new TestJSONClassRecord(relativePath, lastModified, contentHash, passedTestCount, skippedTestCount, failedTestCount, durationMilliseconds, dependencyRelativePaths, dependencyLastModifieds, dependencyContentHashes, classPathDependencies, testNames, testOutcomes, testDurationMilliseconds, partial);
+    }
+
+    private static String readOptionalString(TestJSONReader reader) throws java.io.IOException
+    {
+        return reader.readNull() ? null : reader.readString();
+    }
+
+    private static DateTime readOptionalDateTime(TestJSONReader reader) throws java.io.IOException
+    {
+        final String text = TestJSONIndex.readOptionalString(reader);
+        return Strings.isNullOrEmpty(text)
+            ? null
+            : DateTime.parse(text).catchError().await();
+    }
+
+    private static <T> T[] toArray(List<T> values, T[] result)
+    {
+        final int count = values.getCount();
+        for (int i = 0; i < count; ++i)
+        {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private void addClassRecord(TestJSONClassRecord classRecord)
+    {
+        PreCondition.assertNotNull(classRecord, "classRecord");
+
+        this.classRecords.add(classRecord);
+        this.classRecordsByName.set(classRecord.getFullClassName(), classRecord);
+    }
+
+    @Override
+    public VersionNumber getJavaVersion()
+    {
+        return Strings.isNullOrEmpty(this.javaVersion)
+            ? null
+            : VersionNumber.parse(this.javaVersion).catchError().await();
+    }
+
+    @Override
+    public Iterable<TestJSONClassPathEntry> getClassPathEntries()
+    {
+        return this.classPathEntries;
+    }
+
+    @Override
+    public Iterable<String> getReferencedClassPathEntries()
+    {
+        final List<String> result = List.create();
+        for (final TestJSONClassRecord classRecord : this.classRecords)
+        {
+            final Iterable<String> classPathDependencies = classRecord.getClassPathDependencies();
+            if (classPathDependencies != null)
+            {
+                for (final String classPathDependency : classPathDependencies)
+                {
+                    if (!result.contains(classPathDependency))
+                    {
+                        result.add(classPathDependency);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the class records in the order that they appeared in the test.json file.
+     * @return The class records.
+     */
+    @Override
+    public Iterable<TestJSONClassRecord> getClassRecords()
+    {
+        return this.classRecords;
+    }
+
+    /**
+     * Get the class record for the provided full class name, or null if there isn't one.
+     * @param fullClassName The full name of the class.
+     * @return The class record for the provided full class name.
+     */
+    @Override
+    public TestJSONClassRecord getClassRecord(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        return this.classRecordsByName.get(fullClassName)
+            .catchError(NotFoundException.class)
+            .await();
+    }
+}
@@ -0,0 +1,298 @@
+package qub;
+
+/**
+ * A forward-only reader of the JSON values in a test.json file. Values are read one token at a
+ * time, so a test.json file can be decoded without building a JSON document for it first.
+ */
+class TestJSONReader
+{
+    private final java.io.Reader reader;
+    private int current;
+
+    private TestJSONReader(java.io.Reader reader) throws java.io.IOException
+    {
+        PreCondition.assertNotNull(reader, "reader");
+
+        this.reader = reader;
+        this.current = reader.read();
+    }
+
+    /**
+     * Create a new TestJSONReader that reads the provided characters.
+     * @param reader The characters to read.
+     * @return The new TestJSONReader.
+     * @throws java.io.IOException If the first character can't be read.
+     */
+    static TestJSONReader create(java.io.Reader reader) throws java.io.IOException
+    {
+        return new TestJSONReader(reader);
+    }
+
+    private void skipWhitespace() throws java.io.IOException
+    {
+        while (this.current == ' ' || this.current == '\t' || this.current == '\n' || this.current == '\r')
+        {
+            this.current = this.reader.read();
+        }
+    }
+
+    private java.io.IOException createException(String expected)
+    {
+        return new java.io.IOException("Expected " + expected + ", but found " + (this.current < 0 ? "the end of the test.json file" : "'" + (char)this.current + "'") + ".");
+    }
+
+    private void read(char expected) throws java.io.IOException
+    {
+        this.skipWhitespace();
+        if (this.current != expected)
+        {
+            throw this.createException("'" + expected + "'");
+        }
+        this.current = this.reader.read();
+    }
+
+    /**
+     * Get whether or not the next value is null. If it is, then the null is read.
+     * @return Whether or not the next value was null.
+     * @throws java.io.IOException If the next value can't be read.
+     */
+    boolean readNull() throws java.io.IOException
+    {
+        this.skipWhitespace();
+        final boolean result = this.current == 'n';
+        if (result)
+        {
+            this.readLiteral("null");
+        }
+        return result;
+    }
+
+    private void readLiteral(String literal) throws java.io.IOException
+    {
+        for (int i = 0; i < literal.length(); ++i)
+        {
+            if (this.current != literal.charAt(i))
+            {
+                throw this.createException("\"" + literal + "\"");
+            }
+            this.current = this.reader.read();
+        }
+    }
+
+    /**
+     * Read the start of an object.
+     * @throws java.io.IOException If the next value isn't an object.
+     */
+    void readObjectStart() throws java.io.IOException
+    {
+        this.read('{');
+    }
+
+    /**
+     * Read the name of the next property of the current object, or null if the current object has
+     * no more properties. If null is returned, then the end of the object has been read.
+     * @param firstProperty Whether or not this is the first property of the current object.
+     * @return The name of the next property, or null if the object has ended.
+     * @throws java.io.IOException If the next property can't be read.
+     */
+    String readPropertyName(boolean firstProperty) throws java.io.IOException
+    {
+        this.skipWhitespace();
+        String result;
+        if (this.current == '}')
+        {
+            this.current = this.reader.read();
+            result = null;
+        }
+        else
+        {
+            if (!firstProperty)
+            {
+                this.read(',');
+            }
+            result = this.readString();
+            this.read(':');
+        }
+        return result;
+    }
+
+    /**
+     * Read the start of an array.
+     * @throws java.io.IOException If the next value isn't an array.
+     */
+    void readArrayStart() throws java.io.IOException
+    {
+        this.read('[');
+    }
+
+    /**
+     * Get whether or not the current array has another element. If it doesn't, then the end of the
+     * array is read.
+     * @param firstElement Whether or not this is the first element of the current array.
+     * @return Whether or not the current array has another element.
+     * @throws java.io.IOException If the array can't be read.
+     */
+    boolean hasArrayElement(boolean firstElement) throws java.io.IOException
+    {
+        this.skipWhitespace();
+        boolean result;
+        if (this.current == ']')
+        {
+            this.current = this.reader.read();
+            result = false;
+        }
+        else
+        {
+            if (!firstElement)
+            {
+                this.read(',');
+            }
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Read a string value.
+     * @return The string value.
+     * @throws java.io.IOException If the next value isn't a string.
+     */
+    String readString() throws java.io.IOException
+    {
+        this.read('"');
+        final StringBuilder builder = new StringBuilder();
+        while (this.current != '"')
+        {
+            if (this.current < 0)
+            {
+                throw this.createException("'\"'");
+            }
+            else if (this.current == '\\')
+            {
+                this.current = this.reader.read();
+                switch (this.current)
+                {
+                    case 'b': builder.append('\b'); break;
+                    case 'f': builder.append('\f'); break;
+                    case 'n': builder.append('\n'); break;
+                    case 'r': builder.append('\r'); break;
+                    case 't': builder.append('\t'); break;
+                    case 'u':
+                        final char[] hexDigits = new char[4];
+                        for (int i = 0; i < hexDigits.length; ++i)
+                        {
+                            hexDigits[i] = (char)this.reader.read();
+                        }
+                        try
+                        {
+                            builder.append((char)Integer.parseInt(new String(hexDigits), 16));
+                        }
+                        catch (NumberFormatException e)
+                        {
+                            throw new java.io.IOException("Invalid unicode escape in test.json file: \\u" + new String(hexDigits));
+                        }
+                        break;
+                    default:
+                        if (this.current < 0)
+                        {
+                            throw this.createException("an escaped character");
+                        }
+                        builder.append((char)this.current);
+                        break;
+                }
+            }
+            else
+            {
+                builder.append((char)this.current);
+            }
+            this.current = this.reader.read();
+        }
+        this.current = this.reader.read();
+        return builder.toString();
+    }
+
+    /**
+     * Read a boolean value.
+     * @return The boolean value.
+     * @throws java.io.IOException If the next value isn't a boolean.
+     */
+    boolean readBoolean() throws java.io.IOException
+    {
+        this.skipWhitespace();
+        final boolean result = this.current == 't';
+        this.readLiteral(result ? "true" : "false");
+        return result;
+    }
+
+    /**
+     * Read a number value.
+     * @return The number value.
+     * @throws java.io.IOException If the next value isn't a number.
+     */
+    double readNumber() throws java.io.IOException
+    {
+        this.skipWhitespace();
+        final StringBuilder builder = new StringBuilder();
+        while (this.current == '-' || this.current == '+' || this.current == '.' || this.current == 'e' || this.current == 'E' || ('0' <= this.current && this.current <= '9'))
+        {
+            builder.append((char)this.current);
+            this.current = this.reader.read();
+        }
+
+        try
+        {
+            return Double.parseDouble(builder.toString());
+        }
+        catch (NumberFormatException e)
+        {
+            throw this.createException("a number");
+        }
+    }
+
+    /**
+     * Read and discard the next value, whatever type it is.
+     * @throws java.io.IOException If the next value can't be read.
+     */
+    void skipValue() throws java.io.IOException
+    {
+        this.skipWhitespace();
+        switch (this.current)
+        {
+            case '{':
+                this.readObjectStart();
+                for (boolean first = true; this.readPropertyName(first) != null; first = false)
+                {
+                    this.skipValue();
+                }
+                break;
+
+            case '[':
+                this.readArrayStart();
+                for (boolean first = true; this.hasArrayElement(first); first = false)
+                {
+                    this.skipValue();
+                }
+                break;
+
+            case '"':
+                this.readString();
+                break;
+
+            case 't':
+                this.readLiteral("true");
+                break;
+
+            case 'f':
+                this.readLiteral("false");
+                break;
+
+            case 'n':
+                this.readLiteral("null");
+                break;
+
+            default:
+                this.readNumber();
+                break;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package qub;
+
+/**
+ * The saved result of running a single test in a Java class file.
+ */
+public class TestJSONTest
+{
+    private static final String outcomePropertyName = "outcome";
+    private static final String durationMillisecondsPropertyName = "durationMilliseconds";
+
+    private final JSONProperty jsonProperty;
+
+    private TestJSONTest(JSONProperty jsonProperty)
+    {
+        PreCondition.assertNotNull(jsonProperty, "jsonProperty");
+
+        this.jsonProperty = jsonProperty;
+    }
+
+    public static TestJSONTest create(String testFullName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(testFullName, "testFullName");
+
+        return new TestJSONTest(JSONProperty.create(testFullName, JSONObject.create()));
+    }
+
+    public static Result<TestJSONTest> parse(JSONProperty property)
+    {
+        PreCondition.assertNotNull(property, "property");
+
+        return Result.create(() ->
+        {
+            return new TestJSONTest(property);
+        });
+    }
+
+    private JSONObject getPropertyValue()
+    {
+        return this.jsonProperty.getObjectValue().await();
+    }
+
+    /**
+     * Get the full name of the test.
+     * @return The full name of the test.
+     */
+    public String getFullName()
+    {
+        return this.jsonProperty.getName();
+    }
+
+    /**
+     * Set the outcome of the test.
+     * @param outcome The outcome of the test.
+     * @return This object for method chaining.
+     */
+    public TestJSONTest setOutcome(TestOutcome outcome)
+    {
+        PreCondition.assertNotNull(outcome, "outcome");
+
+        this.getPropertyValue().setString(TestJSONTest.outcomePropertyName, outcome.toText());
+
+        return this;
+    }
+
+    /**
+     * Get the outcome of the test, or null if the outcome wasn't recorded.
+     * @return The outcome of the test.
+     */
+    public TestOutcome getOutcome()
+    {
+        return this.getPropertyValue()
+            .getString(TestJSONTest.outcomePropertyName)
+            .then(TestOutcome::parse)
+            .catchError()
+            .await();
+    }
+
+    /**
+     * Set how long it took to run the test.
+     * @param duration How long it took to run the test.
+     * @return This object for method chaining.
+     */
+    public TestJSONTest setDuration(Duration duration)
+    {
+        PreCondition.assertNotNull(duration, "duration");
+
+        this.getPropertyValue().setNumber(TestJSONTest.durationMillisecondsPropertyName, duration.toMilliseconds().getValue());
+
+        return this;
+    }
+
+    /**
+     * Get how long it took to run the test, or null if the duration wasn't recorded.
+     * @return How long it took to run the test.
+     */
+    public Duration getDuration()
+    {
+        return this.getPropertyValue().getNumber(TestJSONTest.durationMillisecondsPropertyName)
+            .then((Double durationMilliseconds) -> Duration.milliseconds(durationMilliseconds))
+            .catchError()
+            .await();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.toJsonProperty().toString();
+    }
+
+    public JSONProperty toJsonProperty()
+    {
+        return this.jsonProperty;
+    }
+}
@@ -0,0 +1,196 @@
+package qub;
+
+/**
+ * The test classes that a test runner should run, along with what is known about each of them
+ * from the previous test run. qub-test run writes a test manifest file instead of passing each
+ * test class name as a separate command line argument when there are many test classes to run.
+ * <p>
+ * A test manifest file has one line per test class. Each line has the full class name and the
+ * expected duration of the test class in milliseconds, separated by a tab. The expected duration
+ * is left empty if it isn't known.
+ */
+public class TestManifest
+{
+    private final List<String> fullClassNames;
+    private final MutableMap<String,Duration> expectedDurations;
+
+    private TestManifest()
+    {
+        this.fullClassNames = List.create();
+        this.expectedDurations = Map.create();
+    }
+
+    public static TestManifest create()
+    {
+        return new TestManifest();
+    }
+
+    /**
+     * Create a new TestManifest for the provided test classes. The expected durations of the test
+     * classes are taken from the provided test.json entries.
+     * @param fullClassNames The full names of the test classes to run.
+     * @param previousTestJsonClassFiles The test.json entries from the previous test run.
+     * @return The new TestManifest.
+     */
+    public static TestManifest create(Iterable<String> fullClassNames, Iterable<TestJSONClassFile> previousTestJsonClassFiles)
+    {
+        PreCondition.assertNotNull(fullClassNames, "fullClassNames");
+        PreCondition.assertNotNull(previousTestJsonClassFiles, "previousTestJsonClassFiles");
+
+        final MutableMap<String,TestJSONClassFile> previousClassFiles = Map.create();
+        for (final TestJSONClassFile previousClassFile : previousTestJsonClassFiles)
+        {
+            previousClassFiles.set(previousClassFile.getFullClassName(), previousClassFile);
+        }
+
+        final TestManifest result = TestManifest.create();
+        for (final String fullClassName : fullClassNames)
+        {
+            result.add(fullClassName);
+
+            final TestJSONClassFile previousClassFile = previousClassFiles.get(fullClassName)
+                .catchError(NotFoundException.class)
+                .await();
+            if (previousClassFile != null)
+            {
+                final Duration previousDuration = previousClassFile.getDuration();
+                if (previousDuration != null)
+                {
+                    result.setExpectedDuration(fullClassName, previousDuration);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parse a TestManifest from the provided test manifest file.
+     * @param testManifestFile The test manifest file to parse.
+     * @return The parsed TestManifest.
+     */
+    public static Result<TestManifest> parse(File testManifestFile)
+    {
+        PreCondition.assertNotNull(testManifestFile, "testManifestFile");
+
+        return testManifestFile.getContentsAsString()
+            .then((String contents) -> TestManifest.parse(Strings.getLines(contents)).await());
+    }
+
+    /**
+     * Parse a TestManifest from the provided test manifest lines.
+     * @param lines The lines of a test manifest file.
+     * @return The parsed TestManifest.
+     */
+    public static Result<TestManifest> parse(Iterable<String> lines)
+    {
+        PreCondition.assertNotNull(lines, "lines");
+
+        return Result.create(() ->
+        {
+            final TestManifest result = TestManifest.create();
+            for (final String line : lines)
+            {
+                if (!Strings.isNullOrEmpty(line))
+                {
+                    final String[] columns = line.split("\t", -1);
+                    final String fullClassName = columns[0].trim();
+                    if (!Strings.isNullOrEmpty(fullClassName))
+                    {
+                        result.add(fullClassName);
+
+                        if (columns.length > 1 && !Strings.isNullOrEmpty(columns[1]))
+                        {
+                            try
+                            {
+                                result.setExpectedDuration(fullClassName, Duration.milliseconds(Long.parseLong(columns[1])));
+                            }
+                            catch (NumberFormatException e)
+                            {
+                                throw new IllegalArgumentException("Expected the test manifest duration of " + fullClassName + " to be a number of milliseconds, but found " + Strings.escapeAndQuote(columns[1]) + ".");
+                            }
+                        }
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Add the provided test class to this manifest.
+     * @param fullClassName The full name of the test class.
+     * @return This object for method chaining.
+     */
+    public TestManifest add(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        this.fullClassNames.add(fullClassName);
+        return this;
+    }
+
+    /**
+     * Get the full names of the test classes in this manifest.
+     * @return The full names of the test classes in this manifest.
+     */
+    public Iterable<String> getFullClassNames()
+    {
+        return this.fullClassNames;
+    }
+
+    /**
+     * Set how long the provided test class is expected to take to run.
+     * @param fullClassName The full name of the test class.
+     * @param expectedDuration How long the test class is expected to take to run.
+     * @return This object for method chaining.
+     */
+    public TestManifest setExpectedDuration(String fullClassName, Duration expectedDuration)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+        PreCondition.assertNotNull(expectedDuration, "expectedDuration");
+
+        this.expectedDurations.set(fullClassName, expectedDuration);
+        return this;
+    }
+
+    /**
+     * Get how long each test class in this manifest is expected to take to run. Test classes whose
+     * expected duration isn't known are not included.
+     * @return How long each test class in this manifest is expected to take to run.
+     */
+    public MutableMap<String,Duration> getExpectedDurations()
+    {
+        return this.expectedDurations;
+    }
+
+    /**
+     * Get the lines that this manifest is written as.
+     * @return The lines that this manifest is written as.
+     */
+    public Iterable<String> toLines()
+    {
+        final List<String> result = List.create();
+        for (final String fullClassName : this.fullClassNames)
+        {
+            final Duration expectedDuration = this.expectedDurations.get(fullClassName)
+                .catchError(NotFoundException.class)
+                .await();
+            final String expectedDurationText = expectedDuration == null
+                ? ""
+                : Long.toString((long)expectedDuration.toMilliseconds().getValue());
+            result.add(fullClassName + "\t" + expectedDurationText);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (final String line : this.toLines())
+        {
+            builder.append(line).append('\n');
+        }
+        return builder.toString();
+    }
+}
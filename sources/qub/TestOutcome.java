@@ -0,0 +1,44 @@
+package qub;
+
+/**
+ * The outcomes that a single test can have.
+ */
+public enum TestOutcome
+{
+    Passed,
+
+    Skipped,
+
+    Failed;
+
+    /**
+     * Parse the outcome that was written to a test results file.
+     * @param text The text of the outcome, such as "passed".
+     * @return The parsed TestOutcome, or null if the text isn't an outcome.
+     */
+    static TestOutcome parse(String text)
+    {
+        TestOutcome result = null;
+        if (!Strings.isNullOrEmpty(text))
+        {
+            for (final TestOutcome outcome : TestOutcome.values())
+            {
+                if (outcome.toString().equalsIgnoreCase(text))
+                {
+                    result = outcome;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the text that this outcome is written to a test results file as.
+     * @return The text that this outcome is written to a test results file as.
+     */
+    String toText()
+    {
+        return this.toString().toLowerCase();
+    }
+}
@@ -0,0 +1,333 @@
+package qub;
+
+/**
+ * The stored results of a previous test run. The results can be stored either in a test.json file
+ * or in a binary test.results file, and only one of those files is kept in an output folder at a
+ * time.
+ */
+public interface TestResults
+{
+    /**
+     * The name of the file that JSON test results are stored in.
+     */
+    static final String testJsonFileName = "test.json";
+
+    /**
+     * The name of the file that binary test results are stored in.
+     */
+    static final String binaryFileName = "test.results";
+
+    /**
+     * Get the file in the provided output folder that test results in the provided format are
+     * stored in.
+     * @param outputFolder The output folder.
+     * @param format The format of the test results.
+     * @return The file that test results in the provided format are stored in.
+     */
+    static File getFile(Folder outputFolder, TestResultsFormat format)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(format, "format");
+
+        return outputFolder.getFile(format == TestResultsFormat.Binary ? TestResults.binaryFileName : TestResults.testJsonFileName).await();
+    }
+
+    /**
+     * Get the format that isn't the provided format.
+     * @param format The format.
+     * @return The format that isn't the provided format.
+     */
+    static TestResultsFormat getOtherFormat(TestResultsFormat format)
+    {
+        PreCondition.assertNotNull(format, "format");
+
+        return format == TestResultsFormat.Binary ? TestResultsFormat.JSON : TestResultsFormat.Binary;
+    }
+
+    /**
+     * Read the test results in the provided output folder. If there are no test results in the
+     * provided format, then the test results in the other format are read instead so that
+     * switching formats doesn't lose the previous test run's results.
+     * @param outputFolder The output folder.
+     * @param format The format that the test results are expected to be stored in.
+     * @return The test results in the provided output folder.
+     */
+    static Result<TestResults> parse(Folder outputFolder, TestResultsFormat format)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(format, "format");
+
+        return Result.create(() ->
+        {
+            TestResults result = TestResults.parse(TestResults.getFile(outputFolder, format), format)
+                .catchError(FileNotFoundException.class)
+                .await();
+            if (result == null)
+            {
+                final TestResultsFormat otherFormat = TestResults.getOtherFormat(format);
+                result = TestResults.parse(TestResults.getFile(outputFolder, otherFormat), otherFormat).await();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Read the test results in the provided file.
+     * @param file The file to read.
+     * @param format The format of the file.
+     * @return The test results in the provided file.
+     */
+    static Result<TestResults> parse(File file, TestResultsFormat format)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(format, "format");
+
+        return format == TestResultsFormat.Binary
+            ? TestResultsStore.parse(file).then((TestResultsStore store) -> (TestResults)store)
+            : TestJSONIndex.parse(file).then((TestJSONIndex index) -> (TestResults)index);
+    }
+
+    /**
+     * Read the test results in the provided output folder as a TestJSON object. If there are no
+     * test results in the provided format, then the test results in the other format are read
+     * instead.
+     * @param outputFolder The output folder.
+     * @param format The format that the test results are expected to be stored in.
+     * @return The test results in the provided output folder.
+     */
+    static Result<TestJSON> parseTestJSON(Folder outputFolder, TestResultsFormat format)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(format, "format");
+
+        return Result.create(() ->
+        {
+            TestJSON result = TestResults.parseTestJSON(TestResults.getFile(outputFolder, format), format)
+                .catchError(FileNotFoundException.class)
+                .await();
+            if (result == null)
+            {
+                final TestResultsFormat otherFormat = TestResults.getOtherFormat(format);
+                result = TestResults.parseTestJSON(TestResults.getFile(outputFolder, otherFormat), otherFormat).await();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Read the test results in the provided file as a TestJSON object.
+     * @param file The file to read.
+     * @param format The format of the file.
+     * @return The test results in the provided file.
+     */
+    static Result<TestJSON> parseTestJSON(File file, TestResultsFormat format)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(format, "format");
+
+        return format == TestResultsFormat.Binary
+            ? TestResultsStore.parse(file).then(TestResultsStore::toTestJSON)
+            : TestJSON.parse(file);
+    }
+
+    /**
+     * Write the provided test results to the provided output folder in the provided format. If the
+     * output folder has test results in the other format, then they are deleted.
+     * @param outputFolder The output folder.
+     * @param testJson The test results to write.
+     * @param format The format to write the test results in.
+     */
+    static void write(Folder outputFolder, TestJSON testJson, TestResultsFormat format)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(testJson, "testJson");
+        PreCondition.assertNotNull(format, "format");
+
+        final File file = TestResults.getFile(outputFolder, format);
+        TestResults.setContentsAtomically(file, format == TestResultsFormat.Binary
+            ? TestResultsStore.serialize(testJson).await()
+            : testJson.toString(JSONFormat.pretty).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+        TestResults.getFile(outputFolder, TestResults.getOtherFormat(format)).delete()
+            .catchError(FileNotFoundException.class)
+            .await();
+    }
+
+    /**
+     * Merge newer test results into previous test results. The newer entries replace the previous
+     * entries for the same class files. The previous entries for other class files are only kept if
+     * the newer test results were recorded with the same Java version and classpath fingerprints,
+     * because otherwise they may no longer be up to date. Neither of the provided test results are
+     * changed.
+     * @param previousTestJson The previous test results, or null if there weren't any.
+     * @param testJson The newer test results.
+     * @return The merged test results.
+     */
+    static TestJSON merge(TestJSON previousTestJson, TestJSON testJson)
+    {
+        PreCondition.assertNotNull(testJson, "testJson");
+
+        final TestJSON result = TestJSON.create();
+        final VersionNumber javaVersion = testJson.getJavaVersion().catchError().await();
+        if (javaVersion != null)
+        {
+            result.setJavaVersion(javaVersion);
+        }
+
+        final List<TestJSONClassFile> classFiles = List.create(testJson.getClassFiles());
+        if (previousTestJson != null && TestResults.haveSameEnvironment(previousTestJson, testJson))
+        {
+            final Set<String> relativePaths = Set.create();
+            for (final TestJSONClassFile classFile : classFiles)
+            {
+                relativePaths.add(classFile.getRelativePath().toString());
+            }
+            for (final TestJSONClassFile previousClassFile : previousTestJson.getClassFiles())
+            {
+                final String previousRelativePath = previousClassFile.getRelativePath().toString();
+                if (!relativePaths.contains(previousRelativePath))
+                {
+                    relativePaths.add(previousRelativePath);
+                    classFiles.add(previousClassFile);
+                }
+            }
+        }
+        result.setClassFiles(classFiles);
+
+        final Iterable<TestJSONClassPathEntry> classPathEntries = testJson.getClassPathEntries();
+        if (classPathEntries != null)
+        {
+            result.setClassPathEntries(classPathEntries);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get whether or not the provided test results were recorded with the same Java version and
+     * classpath fingerprints.
+     * @param previousTestJson The previous test results.
+     * @param testJson The newer test results.
+     * @return Whether or not the test results were recorded in the same environment.
+     */
+    static boolean haveSameEnvironment(TestJSON previousTestJson, TestJSON testJson)
+    {
+        PreCondition.assertNotNull(previousTestJson, "previousTestJson");
+        PreCondition.assertNotNull(testJson, "testJson");
+
+        final Iterable<TestJSONClassPathEntry> previousClassPathEntries = previousTestJson.getClassPathEntries();
+        final Iterable<TestJSONClassPathEntry> classPathEntries = testJson.getClassPathEntries();
+        return Comparer.equal(previousTestJson.getJavaVersion().catchError().await(), testJson.getJavaVersion().catchError().await()) &&
+            Comparer.equal(
+                previousClassPathEntries == null ? null : previousClassPathEntries.toString(),
+                classPathEntries == null ? null : classPathEntries.toString());
+    }
+
+    /**
+     * Set the contents of the provided file so that a reader never sees a partially written file.
+     * On a Java file system the contents are written to a temporary file next to the provided file,
+     * and the temporary file is then moved over the provided file.
+     * @param file The file to set the contents of.
+     * @param contents The new contents of the file.
+     */
+    static void setContentsAtomically(File file, byte[] contents)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(contents, "contents");
+
+        boolean written = false;
+        if (file.getFileSystem() instanceof JavaFileSystem)
+        {
+            try
+            {
+                final java.nio.file.Path path = java.nio.file.Paths.get(file.toString());
+                java.nio.file.Files.createDirectories(path.getParent());
+                final java.nio.file.Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+                try (final java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(temporaryPath,
+                    java.nio.file.StandardOpenOption.CREATE,
+                    java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                    java.nio.file.StandardOpenOption.WRITE))
+                {
+                    final java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(contents);
+                    while (buffer.hasRemaining())
+                    {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                try
+                {
+                    java.nio.file.Files.move(temporaryPath, path, java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (java.nio.file.AtomicMoveNotSupportedException e)
+                {
+                    java.nio.file.Files.move(temporaryPath, path, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+                }
+                written = true;
+            }
+            catch (java.io.IOException | java.nio.file.InvalidPathException e)
+            {
+                written = false;
+            }
+        }
+
+        if (!written)
+        {
+            file.setContents(contents).await();
+        }
+    }
+
+    /**
+     * Get the version of Java that was used to run the tests, or null if it wasn't recorded.
+     * @return The version of Java that was used to run the tests.
+     */
+    VersionNumber getJavaVersion();
+
+    /**
+     * Get the fingerprints of the files on the test runner classpath, or null if they weren't
+     * recorded.
+     * @return The fingerprints of the files on the test runner classpath.
+     */
+    Iterable<TestJSONClassPathEntry> getClassPathEntries();
+
+    /**
+     * Get the distinct classpath files that any class record depended on.
+     * @return The distinct classpath files that any class record depended on.
+     */
+    Iterable<String> getReferencedClassPathEntries();
+
+    /**
+     * Get all of the class records.
+     * @return All of the class records.
+     */
+    Iterable<TestJSONClassRecord> getClassRecords();
+
+    /**
+     * Get the class record for the provided full class name, or null if there isn't one.
+     * @param fullClassName The full name of the class.
+     * @return The class record for the provided full class name.
+     */
+    TestJSONClassRecord getClassRecord(String fullClassName);
+
+    /**
+     * Convert these test results to a TestJSON object so that they can be exported to a test.json
+     * file or merged with other test results.
+     * @return The TestJSON object with these test results.
+     */
+    default TestJSON toTestJSON()
+    {
+        final TestJSON result = TestJSON.create();
+        final VersionNumber javaVersion = this.getJavaVersion();
+        if (javaVersion != null)
+        {
+            result.setJavaVersion(javaVersion);
+        }
+        result.setClassFiles(this.getClassRecords().map(TestJSONClassRecord::toTestJSONClassFile));
+        final Iterable<TestJSONClassPathEntry> classPathEntries = this.getClassPathEntries();
+        if (classPathEntries != null)
+        {
+            result.setClassPathEntries(classPathEntries);
+        }
+        return result;
+    }
+}
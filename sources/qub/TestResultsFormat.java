@@ -0,0 +1,51 @@
+package qub;
+
+/**
+ * The formats that the results of a test run can be stored in.
+ */
+public enum TestResultsFormat
+{
+    /**
+     * A pretty-printed test.json file.
+     */
+    JSON,
+
+    /**
+     * A compact binary test.results file that is read by TestResultsStore.
+     */
+    Binary;
+
+    /**
+     * Parse the value of a --results-format argument.
+     * @param text The text of the argument. This can be empty (JSON), "json", or "binary".
+     * @return The parsed TestResultsFormat.
+     */
+    static Result<TestResultsFormat> parse(String text)
+    {
+        return Result.create(() ->
+        {
+            TestResultsFormat result = null;
+            if (Strings.isNullOrEmpty(text))
+            {
+                result = TestResultsFormat.JSON;
+            }
+            else
+            {
+                for (final TestResultsFormat format : TestResultsFormat.values())
+                {
+                    if (format.toString().equalsIgnoreCase(text))
+                    {
+                        result = format;
+                        break;
+                    }
+                }
+
+                if (result == null)
+                {
+                    throw new IllegalArgumentException("The results format must be \"json\" or \"binary\", but was " + Strings.escapeAndQuote(text) + ".");
+                }
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,407 @@
+package qub;
+
+/**
+ * An append-only file that the test runner writes each test class's result to as soon as the
+ * test class finishes. If the test runner dies before it writes its test results, then the
+ * journal is compacted into the test results by the next test run so that the finished test
+ * classes don't need to be run again.
+ * <p>
+ * Each line of a journal is a small test.json document. The first line has the Java version and
+ * the classpath fingerprints that the test run used, and each following line has one class file
+ * entry. A line that was only partially written when the test runner died is ignored. A test class
+ * that has been started also gets a line with only its full class name, so that the test class that
+ * a test runner was stuck in can be found after the test runner is stopped.
+ */
+public class TestResultsJournal
+{
+    private static final String startedClassPropertyName = "startedClass";
+
+    /**
+     * The number of appended entries after which the journal is synced to the storage device.
+     */
+    static final int syncBatchSize = 32;
+
+    /**
+     * The number of milliseconds after which appended entries are synced to the storage device,
+     * even if there are fewer than syncBatchSize of them.
+     */
+    static final long syncIntervalMilliseconds = 1000;
+
+    private final File journalFile;
+    private final java.nio.channels.FileChannel channel;
+    private final StringBuilder contents;
+    private int unsyncedEntryCount;
+    private long lastSyncMilliseconds;
+    private boolean closed;
+
+    private TestResultsJournal(File journalFile, java.nio.channels.FileChannel channel)
+    {
+        PreCondition.assertNotNull(journalFile, "journalFile");
+
+        this.journalFile = journalFile;
+        this.channel = channel;
+        this.contents = channel == null ? new StringBuilder() : null;
+        this.lastSyncMilliseconds = System.currentTimeMillis();
+    }
+
+    /**
+     * Get the journal file for the provided test results file. The journal file is in the same
+     * folder and has the same name, but with a .journal extension.
+     * @param testResultsFile The test results file.
+     * @return The journal file for the provided test results file.
+     */
+    static File getJournalFile(File testResultsFile)
+    {
+        PreCondition.assertNotNull(testResultsFile, "testResultsFile");
+
+        final String testResultsFileName = testResultsFile.getName();
+        final int extensionIndex = testResultsFileName.lastIndexOf('.');
+        final String journalFileName = (extensionIndex <= 0 ? testResultsFileName : testResultsFileName.substring(0, extensionIndex)) + ".journal";
+        return testResultsFile.getParentFolder().await().getFile(journalFileName).await();
+    }
+
+    /**
+     * Create a new, empty journal file that starts with the provided header. If the journal file
+     * already exists, then it is replaced.
+     * @param journalFile The journal file to create.
+     * @param header The Java version and classpath fingerprints of the test run. Any class files in
+     *               the header are ignored.
+     * @return The new TestResultsJournal.
+     */
+    public static TestResultsJournal create(File journalFile, TestJSON header)
+    {
+        PreCondition.assertNotNull(journalFile, "journalFile");
+        PreCondition.assertNotNull(header, "header");
+
+        final TestJSON headerLine = TestJSON.create();
+        final VersionNumber javaVersion = header.getJavaVersion().catchError().await();
+        if (javaVersion != null)
+        {
+            headerLine.setJavaVersion(javaVersion);
+        }
+        final Iterable<TestJSONClassPathEntry> classPathEntries = header.getClassPathEntries();
+        if (classPathEntries != null)
+        {
+            headerLine.setClassPathEntries(classPathEntries);
+        }
+
+        java.nio.channels.FileChannel channel = null;
+        if (journalFile.getFileSystem() instanceof JavaFileSystem)
+        {
+            try
+            {
+                final java.nio.file.Path journalPath = java.nio.file.Paths.get(journalFile.toString());
+                java.nio.file.Files.createDirectories(journalPath.getParent());
+                channel = java.nio.channels.FileChannel.open(journalPath,
+                    java.nio.file.StandardOpenOption.CREATE,
+                    java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                    java.nio.file.StandardOpenOption.WRITE);
+            }
+            catch (java.io.IOException | java.nio.file.InvalidPathException e)
+            {
+                channel = null;
+            }
+        }
+
+        final TestResultsJournal result = new TestResultsJournal(journalFile, channel);
+        result.writeLine(headerLine.toString());
+        result.sync();
+        return result;
+    }
+
+    /**
+     * Get the file that this journal writes to.
+     * @return The file that this journal writes to.
+     */
+    public File getFile()
+    {
+        return this.journalFile;
+    }
+
+    /**
+     * Append the provided class file entry to this journal. The entry is synced to the storage
+     * device when enough entries have been appended or enough time has passed since the last sync.
+     * @param classFile The class file entry to append.
+     */
+    public synchronized void append(TestJSONClassFile classFile)
+    {
+        PreCondition.assertNotNull(classFile, "classFile");
+
+        if (!this.closed)
+        {
+            this.writeLine(TestJSON.create().setClassFiles(Iterable.create(classFile)).toString());
+            ++this.unsyncedEntryCount;
+            if (this.unsyncedEntryCount >= TestResultsJournal.syncBatchSize ||
+                System.currentTimeMillis() - this.lastSyncMilliseconds >= TestResultsJournal.syncIntervalMilliseconds)
+            {
+                this.sync();
+            }
+        }
+    }
+
+    /**
+     * Append a line that says that the test class with the provided full name has started. These
+     * lines aren't synced to the storage device because they are only needed while the test runner
+     * is still running.
+     * @param fullClassName The full name of the test class that has started.
+     */
+    public synchronized void start(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        if (!this.closed)
+        {
+            this.writeLine("{\"" + TestResultsJournal.startedClassPropertyName + "\":" + Strings.escapeAndQuote(fullClassName) + "}");
+        }
+    }
+
+    private void writeLine(String line)
+    {
+        PreCondition.assertNotNull(line, "line");
+
+        if (this.channel != null)
+        {
+            try
+            {
+                final java.nio.ByteBuffer bytes = java.nio.ByteBuffer.wrap((line + "\n").getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                while (bytes.hasRemaining())
+                {
+                    this.channel.write(bytes);
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }
+        else
+        {
+            this.contents.append(line).append('\n');
+            this.journalFile.setContentsAsString(this.contents.toString()).await();
+        }
+    }
+
+    /**
+     * Sync the entries that have been appended to this journal to the storage device.
+     */
+    public synchronized void sync()
+    {
+        if (this.channel != null && !this.closed)
+        {
+            try
+            {
+                this.channel.force(false);
+            }
+            catch (java.io.IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }
+        this.unsyncedEntryCount = 0;
+        this.lastSyncMilliseconds = System.currentTimeMillis();
+    }
+
+    /**
+     * Sync and close this journal. The journal file is left in place so that the next test run can
+     * compact it.
+     */
+    public synchronized void close()
+    {
+        if (!this.closed)
+        {
+            this.sync();
+            this.closed = true;
+            if (this.channel != null)
+            {
+                try
+                {
+                    this.channel.close();
+                }
+                catch (java.io.IOException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Close this journal and delete its file. This should be called after the entries in this
+     * journal have been written to the test results.
+     */
+    public synchronized void delete()
+    {
+        this.close();
+        this.journalFile.delete()
+            .catchError(FileNotFoundException.class)
+            .await();
+    }
+
+    /**
+     * Read the entries of the provided journal file. Lines that can't be parsed, such as a line
+     * that was only partially written, are ignored. If a class file has more than one entry, then
+     * the last entry is used.
+     * @param journalFile The journal file to read.
+     * @return The Java version, classpath fingerprints, and class file entries of the journal.
+     */
+    public static Result<TestJSON> read(File journalFile)
+    {
+        PreCondition.assertNotNull(journalFile, "journalFile");
+
+        return journalFile.getContents()
+            .then((byte[] journalBytes) ->
+            {
+                final TestJSON result = TestJSON.create();
+                final MutableMap<String,TestJSONClassFile> classFiles = Map.create();
+                boolean first = true;
+                for (final String line : new String(journalBytes, java.nio.charset.StandardCharsets.UTF_8).split("\n"))
+                {
+                    final TestJSONIndex lineIndex = Strings.isNullOrEmpty(line)
+                        ? null
+                        : TestJSONIndex.parse(line).catchError().await();
+                    if (first)
+                    {
+                        first = false;
+                        if (lineIndex != null)
+                        {
+                            final VersionNumber javaVersion = lineIndex.getJavaVersion();
+                            if (javaVersion != null)
+                            {
+                                result.setJavaVersion(javaVersion);
+                            }
+                            final Iterable<TestJSONClassPathEntry> classPathEntries = lineIndex.getClassPathEntries();
+                            if (classPathEntries != null)
+                            {
+                                result.setClassPathEntries(classPathEntries);
+                            }
+                        }
+                    }
+                    else if (lineIndex != null)
+                    {
+                        for (final TestJSONClassRecord classRecord : lineIndex.getClassRecords())
+                        {
+                            classFiles.set(classRecord.getRelativePath(), classRecord.toTestJSONClassFile());
+                        }
+                    }
+                }
+                final List<TestJSONClassFile> resultClassFiles = List.create();
+                for (final String relativePath : classFiles.getKeys())
+                {
+                    resultClassFiles.add(classFiles.get(relativePath).await());
+                }
+                result.setClassFiles(resultClassFiles);
+                return result;
+            });
+    }
+
+    /**
+     * Get the full names of the test classes that were started in the provided journal file but
+     * that don't have an entry yet.
+     * @param journalFile The journal file to read.
+     * @return The full names of the test classes that haven't finished, in the order that they were
+     * started.
+     */
+    public static Result<Iterable<String>> getUnfinishedClassNames(File journalFile)
+    {
+        PreCondition.assertNotNull(journalFile, "journalFile");
+
+        return journalFile.getContents()
+            .then((byte[] journalBytes) ->
+            {
+                final List<String> unfinishedClassNames = List.create();
+                final String startedClassPrefix = "{\"" + TestResultsJournal.startedClassPropertyName + "\":";
+                for (final String line : new String(journalBytes, java.nio.charset.StandardCharsets.UTF_8).split("\n"))
+                {
+                    if (line.startsWith(startedClassPrefix))
+                    {
+                        try
+                        {
+                            final TestJSONReader reader = TestJSONReader.create(new java.io.BufferedReader(new java.io.StringReader(line)));
+                            reader.readObjectStart();
+                            reader.readPropertyName(true);
+                            final String startedClassName = reader.readString();
+                            if (!unfinishedClassNames.contains(startedClassName))
+                            {
+                                unfinishedClassNames.add(startedClassName);
+                            }
+                        }
+                        catch (java.io.IOException e)
+                        {
+                            // A partially written line doesn't say which test class started.
+                        }
+                    }
+                    else if (!Strings.isNullOrEmpty(line))
+                    {
+                        final TestJSONIndex lineIndex = TestJSONIndex.parse(line).catchError().await();
+                        if (lineIndex != null)
+                        {
+                            for (final TestJSONClassRecord classRecord : lineIndex.getClassRecords())
+                            {
+                                unfinishedClassNames.remove(classRecord.getFullClassName());
+                            }
+                        }
+                    }
+                }
+                return (Iterable<String>)unfinishedClassNames;
+            });
+    }
+
+    /**
+     * If the provided output folder has a journal that was left behind by a test run that didn't
+     * finish, then merge the journal's entries into the output folder's test results and delete the
+     * journal.
+     * @param outputFolder The output folder.
+     * @param resultsFormat The format that the test results are stored in.
+     * @param verbose The stream that verbose text will be written to.
+     */
+    static void compact(Folder outputFolder, TestResultsFormat resultsFormat, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(outputFolder, "outputFolder");
+        PreCondition.assertNotNull(resultsFormat, "resultsFormat");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final File journalFile = TestResultsJournal.getJournalFile(TestResults.getFile(outputFolder, resultsFormat));
+        final TestJSON journalTestJson = TestResultsJournal.read(journalFile)
+            .catchError(FileNotFoundException.class)
+            .await();
+        if (journalTestJson != null)
+        {
+            verbose.writeLine("Found " + journalFile.getName() + " from a test run that didn't finish. Adding its " + journalTestJson.getClassFiles().getCount() + " test classes to the test results...").await();
+            final TestJSON previousTestJson = TestResults.parseTestJSON(outputFolder, resultsFormat)
+                .catchError()
+                .await();
+            TestResults.write(outputFolder, TestResults.merge(previousTestJson, journalTestJson), resultsFormat);
+            journalFile.delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        }
+    }
+
+    /**
+     * If the provided test.json file has a journal that was left behind by a test run that didn't
+     * finish, then merge the journal's entries into the test.json file and delete the journal.
+     * @param testJsonFile The test.json file.
+     * @param verbose The stream that verbose text will be written to.
+     */
+    static void compact(File testJsonFile, VerboseCharacterToByteWriteStream verbose)
+    {
+        PreCondition.assertNotNull(testJsonFile, "testJsonFile");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        final File journalFile = TestResultsJournal.getJournalFile(testJsonFile);
+        final TestJSON journalTestJson = TestResultsJournal.read(journalFile)
+            .catchError(FileNotFoundException.class)
+            .await();
+        if (journalTestJson != null)
+        {
+            verbose.writeLine("Found " + journalFile.getName() + " from a test run that didn't finish. Adding its " + journalTestJson.getClassFiles().getCount() + " test classes to " + testJsonFile.getName() + "...").await();
+            final TestJSON previousTestJson = TestJSON.parse(testJsonFile)
+                .catchError()
+                .await();
+            TestResults.setContentsAtomically(testJsonFile, TestResults.merge(previousTestJson, journalTestJson).toString(JSONFormat.pretty).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            journalFile.delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        }
+    }
+}
@@ -0,0 +1,626 @@
+package qub;
+
+/**
+ * Test results that are stored in a compact binary test.results file. The file has a table of
+ * fixed-width class records that is sorted by full class name, so a class record can be found with
+ * a binary search and only the class records that are looked up are decoded. Every string in the
+ * file is stored once in a string pool at the end of the file, and the tables refer to strings by
+ * their index in the pool.
+ * <p>
+ * The file is laid out as a header of big-endian integers (magic number, format version, Java
+ * version string index, class record count, dependency count, classpath dependency count, test
+ * count, classpath entry count, referenced classpath entry count, and string count), followed by
+ * the class record table, the dependency table, the classpath dependency table, the test table, the
+ * classpath entry table, the referenced classpath entry table, the string offset table, and the
+ * UTF-8 string bytes. A string index of -1 means that the string wasn't recorded.
+ */
+public class TestResultsStore implements TestResults
+{
+    /**
+     * The first four bytes of a test.results file: "QTRS".
+     */
+    static final int magicNumber = 0x51545253;
+    static final int formatVersion = 3;
+
+    private static final int headerSize = 10 * 4;
+
+    private static final int fullClassNameOffset = 0;
+    private static final int relativePathOffset = 4;
+    private static final int lastModifiedOffset = 8;
+    private static final int contentHashOffset = 12;
+    private static final int passedTestCountOffset = 16;
+    private static final int skippedTestCountOffset = 20;
+    private static final int failedTestCountOffset = 24;
+    private static final int durationMillisecondsOffset = 28;
+    private static final int dependencyStartOffset = 36;
+    private static final int dependencyCountOffset = 40;
+    private static final int classPathDependencyStartOffset = 44;
+    private static final int classPathDependencyCountOffset = 48;
+    private static final int testStartOffset = 52;
+    private static final int testCountOffset = 56;
+    private static final int partialOffset = 60;
+    private static final int recordSize = 64;
+
+    private static final int dependencySize = 3 * 4;
+    private static final int testSize = 4 + 4 + 8;
+    private static final int classPathEntrySize = 3 * 4;
+
+    private final byte[] bytes;
+    private final int javaVersionIndex;
+    private final int recordCount;
+    private final int classPathEntryCount;
+    private final int referencedClassPathEntryCount;
+    private final int stringCount;
+    private final int recordsOffset;
+    private final int dependenciesOffset;
+    private final int classPathDependenciesOffset;
+    private final int testsOffset;
+    private final int classPathEntriesOffset;
+    private final int referencedClassPathEntriesOffset;
+    private final int stringOffsetsOffset;
+    private final int stringBytesOffset;
+    private final String[] strings;
+    private final TestJSONClassRecord[] records;
+
+    private TestResultsStore(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        if (bytes.length < TestResultsStore.headerSize)
+        {
+            throw new ParseException("Expected a test.results file to have at least " + TestResultsStore.headerSize + " bytes, but it had " + bytes.length + ".");
+        }
+
+        this.bytes = bytes;
+        final int magicNumber = this.getInt(0);
+        if (magicNumber != TestResultsStore.magicNumber)
+        {
+            throw new ParseException("The file is not a test.results file.");
+        }
+        final int formatVersion = this.getInt(4);
+        if (formatVersion != TestResultsStore.formatVersion)
+        {
+            throw new ParseException("Expected test.results format version " + TestResultsStore.formatVersion + ", but found " + formatVersion + ".");
+        }
+
+        this.javaVersionIndex = this.getInt(8);
+        this.recordCount = this.getInt(12);
+        final int dependencyCount = this.getInt(16);
+        final int classPathDependencyCount = this.getInt(20);
+        final int testCount = this.getInt(24);
+        this.classPathEntryCount = this.getInt(28);
+        this.referencedClassPathEntryCount = this.getInt(32);
+        this.stringCount = this.getInt(36);
+        if (this.recordCount < 0 || dependencyCount < 0 || classPathDependencyCount < 0 || testCount < 0 || this.classPathEntryCount < -1 || this.referencedClassPathEntryCount < 0 || this.stringCount < 0)
+        {
+            throw new ParseException("The test.results file has a corrupted header.");
+        }
+
+        final long recordsOffset = TestResultsStore.headerSize;
+        final long dependenciesOffset = recordsOffset + (long)this.recordCount * TestResultsStore.recordSize;
+        final long classPathDependenciesOffset = dependenciesOffset + (long)dependencyCount * TestResultsStore.dependencySize;
+        final long testsOffset = classPathDependenciesOffset + (long)classPathDependencyCount * 4;
+        final long classPathEntriesOffset = testsOffset + (long)testCount * TestResultsStore.testSize;
+        final long referencedClassPathEntriesOffset = classPathEntriesOffset + (long)Math.max(0, this.classPathEntryCount) * TestResultsStore.classPathEntrySize;
+        final long stringOffsetsOffset = referencedClassPathEntriesOffset + (long)this.referencedClassPathEntryCount * 4;
+        final long stringBytesOffset = stringOffsetsOffset + ((long)this.stringCount + 1) * 4;
+        if (stringBytesOffset > bytes.length || stringBytesOffset + this.getInt((int)stringBytesOffset - 4) != bytes.length)
+        {
+            throw new ParseException("The test.results file is truncated or corrupted.");
+        }
+
+        this.recordsOffset = (int)recordsOffset;
+        this.dependenciesOffset = (int)dependenciesOffset;
+        this.classPathDependenciesOffset = (int)classPathDependenciesOffset;
+        this.testsOffset = (int)testsOffset;
+        this.classPathEntriesOffset = (int)classPathEntriesOffset;
+        this.referencedClassPathEntriesOffset = (int)referencedClassPathEntriesOffset;
+        this.stringOffsetsOffset = (int)stringOffsetsOffset;
+        this.stringBytesOffset = (int)stringBytesOffset;
+        this.strings = new String[this.stringCount];
+        this.records = new TestJSONClassRecord[this.recordCount];
+    }
+
+    /**
+     * Read a TestResultsStore from the provided bytes.
+     * @param bytes The bytes of a test.results file.
+     * @return The TestResultsStore that was read.
+     */
+    public static Result<TestResultsStore> parse(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return Result.create(() -> new TestResultsStore(bytes));
+    }
+
+    /**
+     * Read a TestResultsStore from the provided test.results file.
+     * @param testResultsFile The test.results file to read.
+     * @return The TestResultsStore that was read.
+     */
+    public static Result<TestResultsStore> parse(File testResultsFile)
+    {
+        PreCondition.assertNotNull(testResultsFile, "testResultsFile");
+
+        return testResultsFile.getContents()
+            .then((byte[] bytes) -> TestResultsStore.parse(bytes).await());
+    }
+
+    /**
+     * Get the bytes of a test.results file that stores the provided test results.
+     * @param testJson The test results to store.
+     * @return The bytes of a test.results file that stores the provided test results.
+     */
+    public static Result<byte[]> serialize(TestJSON testJson)
+    {
+        PreCondition.assertNotNull(testJson, "testJson");
+
+        return Result.create(() ->
+        {
+            final MutableMap<String,TestJSONClassRecord> classRecords = Map.create();
+            for (final TestJSONClassFile classFile : testJson.getClassFiles())
+            {
+                final TestJSONClassRecord classRecord = TestJSONClassRecord.create(classFile);
+                classRecords.set(classRecord.getFullClassName(), classRecord);
+            }
+            final String[] sortedFullClassNames = new String[classRecords.getCount()];
+            int sortedFullClassNameIndex = 0;
+            for (final String fullClassName : classRecords.getKeys())
+            {
+                sortedFullClassNames[sortedFullClassNameIndex] = fullClassName;
+                ++sortedFullClassNameIndex;
+            }
+            java.util.Arrays.sort(sortedFullClassNames);
+
+            final MutableMap<String,Integer> stringIndexes = Map.create();
+            final List<String> strings = List.create();
+            final List<String> referencedClassPathEntries = List.create();
+
+            final InMemoryByteStream records = InMemoryByteStream.create();
+            final InMemoryByteStream dependencies = InMemoryByteStream.create();
+            final InMemoryByteStream classPathDependencies = InMemoryByteStream.create();
+            final InMemoryByteStream tests = InMemoryByteStream.create();
+            int dependencyCount = 0;
+            int classPathDependencyCount = 0;
+            int testCount = 0;
+            for (final String fullClassName : sortedFullClassNames)
+            {
+                final TestJSONClassRecord classRecord = classRecords.get(fullClassName).await();
+                TestResultsStore.writeInt(records, TestResultsStore.getStringIndex(classRecord.getFullClassName(), stringIndexes, strings));
+                TestResultsStore.writeInt(records, TestResultsStore.getStringIndex(classRecord.getRelativePath(), stringIndexes, strings));
+                TestResultsStore.writeInt(records, TestResultsStore.getStringIndex(TestResultsStore.toString(classRecord.getLastModified()), stringIndexes, strings));
+                TestResultsStore.writeInt(records, TestResultsStore.getStringIndex(classRecord.getContentHash(), stringIndexes, strings));
+                TestResultsStore.writeInt(records, classRecord.getPassedTestCount());
+                TestResultsStore.writeInt(records, classRecord.getSkippedTestCount());
+                TestResultsStore.writeInt(records, classRecord.getFailedTestCount());
+                final Duration duration = classRecord.getDuration();
+                TestResultsStore.writeDouble(records, duration == null ? -1 : duration.toMilliseconds().getValue());
+
+                TestResultsStore.writeInt(records, dependencyCount);
+                if (!classRecord.hasDependencies())
+                {
+                    TestResultsStore.writeInt(records, -1);
+                }
+                else
+                {
+                    final int recordDependencyCount = classRecord.getDependencyCount();
+                    TestResultsStore.writeInt(records, recordDependencyCount);
+                    for (int i = 0; i < recordDependencyCount; ++i)
+                    {
+                        TestResultsStore.writeInt(dependencies, TestResultsStore.getStringIndex(classRecord.getDependencyRelativePath(i), stringIndexes, strings));
+                        TestResultsStore.writeInt(dependencies, TestResultsStore.getStringIndex(TestResultsStore.toString(classRecord.getDependencyLastModified(i)), stringIndexes, strings));
+                        TestResultsStore.writeInt(dependencies, TestResultsStore.getStringIndex(classRecord.getDependencyContentHash(i), stringIndexes, strings));
+                    }
+                    dependencyCount += recordDependencyCount;
+                }
+
+                TestResultsStore.writeInt(records, classPathDependencyCount);
+                final Iterable<String> recordClassPathDependencies = classRecord.getClassPathDependencies();
+                if (recordClassPathDependencies == null)
+                {
+                    TestResultsStore.writeInt(records, -1);
+                }
+                else
+                {
+                    TestResultsStore.writeInt(records, recordClassPathDependencies.getCount());
+                    for (final String classPathDependency : recordClassPathDependencies)
+                    {
+                        TestResultsStore.writeInt(classPathDependencies, TestResultsStore.getStringIndex(classPathDependency, stringIndexes, strings));
+                        if (!referencedClassPathEntries.contains(classPathDependency))
+                        {
+                            referencedClassPathEntries.add(classPathDependency);
+                        }
+                        ++classPathDependencyCount;
+                    }
+                }
+
+                TestResultsStore.writeInt(records, testCount);
+                if (!classRecord.hasTests())
+                {
+                    TestResultsStore.writeInt(records, -1);
+                }
+                else
+                {
+                    final int recordTestCount = classRecord.getTestCount();
+                    TestResultsStore.writeInt(records, recordTestCount);
+                    for (int i = 0; i < recordTestCount; ++i)
+                    {
+                        final TestOutcome testOutcome = classRecord.getTestOutcome(i);
+                        TestResultsStore.writeInt(tests, TestResultsStore.getStringIndex(classRecord.getTestName(i), stringIndexes, strings));
+                        TestResultsStore.writeInt(tests, testOutcome == null ? -1 : testOutcome.ordinal());
+                        final Duration testDuration = classRecord.getTestDuration(i);
+                        TestResultsStore.writeDouble(tests, testDuration == null ? -1 : testDuration.toMilliseconds().getValue());
+                    }
+                    testCount += recordTestCount;
+                }
+                TestResultsStore.writeInt(records, classRecord.isPartial() ? 1 : 0);
+            }
+
+            int classPathEntryCount = -1;
+            final InMemoryByteStream classPathEntries = InMemoryByteStream.create();
+            final Iterable<TestJSONClassPathEntry> testJsonClassPathEntries = testJson.getClassPathEntries();
+            if (testJsonClassPathEntries != null)
+            {
+                classPathEntryCount = 0;
+                for (final TestJSONClassPathEntry classPathEntry : testJsonClassPathEntries)
+                {
+                    TestResultsStore.writeInt(classPathEntries, TestResultsStore.getStringIndex(classPathEntry.getPath().toString(), stringIndexes, strings));
+                    TestResultsStore.writeInt(classPathEntries, TestResultsStore.getStringIndex(TestResultsStore.toString(classPathEntry.getLastModified()), stringIndexes, strings));
+                    TestResultsStore.writeInt(classPathEntries, TestResultsStore.getStringIndex(classPathEntry.getContentHash(), stringIndexes, strings));
+                    ++classPathEntryCount;
+                }
+            }
+
+            final InMemoryByteStream referencedEntries = InMemoryByteStream.create();
+            for (final String referencedClassPathEntry : referencedClassPathEntries)
+            {
+                TestResultsStore.writeInt(referencedEntries, TestResultsStore.getStringIndex(referencedClassPathEntry, stringIndexes, strings));
+            }
+
+            final VersionNumber javaVersion = testJson.getJavaVersion().catchError().await();
+            final int javaVersionIndex = TestResultsStore.getStringIndex(javaVersion == null ? null : javaVersion.toString(), stringIndexes, strings);
+
+            final InMemoryByteStream output = InMemoryByteStream.create();
+            TestResultsStore.writeInt(output, TestResultsStore.magicNumber);
+            TestResultsStore.writeInt(output, TestResultsStore.formatVersion);
+            TestResultsStore.writeInt(output, javaVersionIndex);
+            TestResultsStore.writeInt(output, sortedFullClassNames.length);
+            TestResultsStore.writeInt(output, dependencyCount);
+            TestResultsStore.writeInt(output, classPathDependencyCount);
+            TestResultsStore.writeInt(output, testCount);
+            TestResultsStore.writeInt(output, classPathEntryCount);
+            TestResultsStore.writeInt(output, referencedClassPathEntries.getCount());
+            TestResultsStore.writeInt(output, strings.getCount());
+            output.writeAll(records.getBytes()).await();
+            output.writeAll(dependencies.getBytes()).await();
+            output.writeAll(classPathDependencies.getBytes()).await();
+            output.writeAll(tests.getBytes()).await();
+            output.writeAll(classPathEntries.getBytes()).await();
+            output.writeAll(referencedEntries.getBytes()).await();
+
+            final InMemoryByteStream stringBytes = InMemoryByteStream.create();
+            int stringBytesLength = 0;
+            for (final String string : strings)
+            {
+                TestResultsStore.writeInt(output, stringBytesLength);
+                final byte[] encodedString = string.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                stringBytes.writeAll(encodedString).await();
+                stringBytesLength += encodedString.length;
+            }
+            TestResultsStore.writeInt(output, stringBytesLength);
+            output.writeAll(stringBytes.getBytes()).await();
+
+            return output.getBytes();
+        });
+    }
+
+    /**
+     * Write the provided value to the provided stream as a big-endian integer.
+     * @param output The stream to write to.
+     * @param value The value to write.
+     */
+    private static void writeInt(ByteWriteStream output, int value)
+    {
+        output.writeAll(new byte[] { (byte)(value >>> 24), (byte)(value >>> 16), (byte)(value >>> 8), (byte)value }).await();
+    }
+
+    /**
+     * Write the provided value to the provided stream as a big-endian IEEE 754 double.
+     * @param output The stream to write to.
+     * @param value The value to write.
+     */
+    private static void writeDouble(ByteWriteStream output, double value)
+    {
+        final long bits = Double.doubleToLongBits(value);
+        TestResultsStore.writeInt(output, (int)(bits >>> 32));
+        TestResultsStore.writeInt(output, (int)bits);
+    }
+
+    private static String toString(DateTime dateTime)
+    {
+        return dateTime == null ? null : dateTime.toString();
+    }
+
+    private static int getStringIndex(String value, MutableMap<String,Integer> stringIndexes, List<String> strings)
+    {
+        int result = -1;
+        if (value != null)
+        {
+            final Integer existingIndex = stringIndexes.get(value)
+                .catchError(NotFoundException.class)
+                .await();
+            if (existingIndex != null)
+            {
+                result = existingIndex;
+            }
+            else
+            {
+                result = strings.getCount();
+                strings.add(value);
+                stringIndexes.set(value, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the string at the provided index of the string pool. Each string is only decoded once.
+     * @param stringIndex The index of the string, or -1 if the string wasn't recorded.
+     * @return The string at the provided index, or null if the index is -1.
+     */
+    private String getString(int stringIndex)
+    {
+        if (stringIndex < -1 || this.stringCount <= stringIndex)
+        {
+            throw new ParseException("The test.results file refers to string " + stringIndex + ", but it only has " + this.stringCount + " strings.");
+        }
+
+        String result = null;
+        if (stringIndex >= 0)
+        {
+            result = this.strings[stringIndex];
+            if (result == null)
+            {
+                final int startOffset = this.getInt(this.stringOffsetsOffset + stringIndex * 4);
+                final int endOffset = this.getInt(this.stringOffsetsOffset + (stringIndex + 1) * 4);
+                result = new String(this.bytes, this.stringBytesOffset + startOffset, endOffset - startOffset, java.nio.charset.StandardCharsets.UTF_8);
+                this.strings[stringIndex] = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Read the big-endian integer at the provided offset of this store's bytes.
+     * @param offset The offset of the integer.
+     * @return The integer at the provided offset.
+     */
+    private int getInt(int offset)
+    {
+        if (offset < 0 || this.bytes.length < offset + 4)
+        {
+            throw new ParseException("The test.results file is truncated or corrupted.");
+        }
+
+        return ((this.bytes[offset] & 0xFF) << 24) |
+            ((this.bytes[offset + 1] & 0xFF) << 16) |
+            ((this.bytes[offset + 2] & 0xFF) << 8) |
+            (this.bytes[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Read the big-endian IEEE 754 double at the provided offset of this store's bytes.
+     * @param offset The offset of the double.
+     * @return The double at the provided offset.
+     */
+    private double getDouble(int offset)
+    {
+        final long highBits = this.getInt(offset) & 0xFFFFFFFFL;
+        final long lowBits = this.getInt(offset + 4) & 0xFFFFFFFFL;
+        return Double.longBitsToDouble((highBits << 32) | lowBits);
+    }
+
+    private DateTime getDateTime(int stringIndex)
+    {
+        final String text = this.getString(stringIndex);
+        return Strings.isNullOrEmpty(text)
+            ? null
+            : DateTime.parse(text).catchError().await();
+    }
+
+    private int getRecordInt(int recordIndex, int fieldOffset)
+    {
+        return this.getInt(this.recordsOffset + recordIndex * TestResultsStore.recordSize + fieldOffset);
+    }
+
+    /**
+     * Get the class record at the provided index of the class record table. Each class record is
+     * only decoded once.
+     * @param recordIndex The index of the class record.
+     * @return The class record at the provided index.
+     */
+    private TestJSONClassRecord getClassRecord(int recordIndex)
+    {
+        TestJSONClassRecord result = this.records[recordIndex];
+        if (result == null)
+        {
+            String[] dependencyRelativePaths = null;
+            DateTime[] dependencyLastModifieds = null;
+            String[] dependencyContentHashes = null;
+            final int dependencyCount = this.getRecordInt(recordIndex, TestResultsStore.dependencyCountOffset);
+            if (dependencyCount >= 0)
+            {
+                final int dependencyStart = this.getRecordInt(recordIndex, TestResultsStore.dependencyStartOffset);
+                dependencyRelativePaths = new String[dependencyCount];
+                dependencyLastModifieds = new DateTime[dependencyCount];
+                dependencyContentHashes = new String[dependencyCount];
+                for (int i = 0; i < dependencyCount; ++i)
+                {
+                    final int dependencyOffset = this.dependenciesOffset + (dependencyStart + i) * TestResultsStore.dependencySize;
+                    dependencyRelativePaths[i] = this.getString(this.getInt(dependencyOffset));
+                    dependencyLastModifieds[i] = this.getDateTime(this.getInt(dependencyOffset + 4));
+                    dependencyContentHashes[i] = this.getString(this.getInt(dependencyOffset + 8));
+                }
+            }
+
+            String[] classPathDependencies = null;
+            final int classPathDependencyCount = this.getRecordInt(recordIndex, TestResultsStore.classPathDependencyCountOffset);
+            if (classPathDependencyCount >= 0)
+            {
+                final int classPathDependencyStart = this.getRecordInt(recordIndex, TestResultsStore.classPathDependencyStartOffset);
+                classPathDependencies = new String[classPathDependencyCount];
+                for (int i = 0; i < classPathDependencyCount; ++i)
+                {
+                    classPathDependencies[i] = this.getString(this.getInt(this.classPathDependenciesOffset + (classPathDependencyStart + i) * 4));
+                }
+            }
+
+            String[] testNames = null;
+            TestOutcome[] testOutcomes = null;
+            double[] testDurationMilliseconds = null;
+            final int testCount = this.getRecordInt(recordIndex, TestResultsStore.testCountOffset);
+            if (testCount >= 0)
+            {
+                final int testStart = this.getRecordInt(recordIndex, TestResultsStore.testStartOffset);
+                final TestOutcome[] outcomes = TestOutcome.values();
+                testNames = new String[testCount];
+                testOutcomes = new TestOutcome[testCount];
+                testDurationMilliseconds = new double[testCount];
+                for (int i = 0; i < testCount; ++i)
+                {
+                    final int testOffset = this.testsOffset + (testStart + i) * TestResultsStore.testSize;
+                    testNames[i] = this.getString(this.getInt(testOffset));
+                    final int outcomeIndex = this.getInt(testOffset + 4);
+                    testOutcomes[i] = 0 <= outcomeIndex && outcomeIndex < outcomes.length ? outcomes[outcomeIndex] : null;
+                    testDurationMilliseconds[i] = this.getDouble(testOffset + 8);
+                }
+            }
+
+            result = new TestJSONClassRecord(
+                this.getString(this.getRecordInt(recordIndex, TestResultsStore.relativePathOffset)),
+                this.getDateTime(this.getRecordInt(recordIndex, TestResultsStore.lastModifiedOffset)),
+                this.getString(this.getRecordInt(recordIndex, TestResultsStore.contentHashOffset)),
+                this.getRecordInt(recordIndex, TestResultsStore.passedTestCountOffset),
+                this.getRecordInt(recordIndex, TestResultsStore.skippedTestCountOffset),
+                this.getRecordInt(recordIndex, TestResultsStore.failedTestCountOffset),
+                this.getDouble(this.recordsOffset + recordIndex * TestResultsStore.recordSize + TestResultsStore.durationMillisecondsOffset),
+                dependencyRelativePaths,
+                dependencyLastModifieds,
+                dependencyContentHashes,
+                classPathDependencies,
+                testNames,
+                testOutcomes,
+                testDurationMilliseconds,
+                this.getRecordInt(recordIndex, TestResultsStore.partialOffset) != 0);
+            this.records[recordIndex] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of class records in this store.
+     * @return The number of class records in this store.
+     */
+    public int getClassRecordCount()
+    {
+        return this.recordCount;
+    }
+
+    @Override
+    public VersionNumber getJavaVersion()
+    {
+        final String javaVersion = this.getString(this.javaVersionIndex);
+        return Strings.isNullOrEmpty(javaVersion)
+            ? null
+            : VersionNumber.parse(javaVersion).catchError().await();
+    }
+
+    @Override
+    public Iterable<TestJSONClassPathEntry> getClassPathEntries()
+    {
+        List<TestJSONClassPathEntry> result = null;
+        if (this.classPathEntryCount >= 0)
+        {
+            result = List.create();
+            for (int i = 0; i < this.classPathEntryCount; ++i)
+            {
+                final int classPathEntryOffset = this.classPathEntriesOffset + i * TestResultsStore.classPathEntrySize;
+                final TestJSONClassPathEntry classPathEntry = TestJSONClassPathEntry.create(this.getString(this.getInt(classPathEntryOffset)));
+                final DateTime lastModified = this.getDateTime(this.getInt(classPathEntryOffset + 4));
+                if (lastModified != null)
+                {
+                    classPathEntry.setLastModified(lastModified);
+                }
+                final String contentHash = this.getString(this.getInt(classPathEntryOffset + 8));
+                if (!Strings.isNullOrEmpty(contentHash))
+                {
+                    classPathEntry.setContentHash(contentHash);
+                }
+                result.add(classPathEntry);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterable<String> getReferencedClassPathEntries()
+    {
+        final List<String> result = List.create();
+        for (int i = 0; i < this.referencedClassPathEntryCount; ++i)
+        {
+            result.add(this.getString(this.getInt(this.referencedClassPathEntriesOffset + i * 4)));
+        }
+        return result;
+    }
+
+    /**
+     * Get the class records in the order of their full class names.
+     * @return The class records.
+     */
+    @Override
+    public Iterable<TestJSONClassRecord> getClassRecords()
+    {
+        final List<TestJSONClassRecord> result = List.create();
+        for (int i = 0; i < this.recordCount; ++i)
+        {
+            result.add(this.getClassRecord(i));
+        }
+        return result;
+    }
+
+    /**
+     * Get the class record for the provided full class name, or null if there isn't one. The class
+     * record is found with a binary search, and only the full class names that the search visits
+     * are decoded.
+     * @param fullClassName The full name of the class.
+     * @return The class record for the provided full class name.
+     */
+    @Override
+    public TestJSONClassRecord getClassRecord(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        TestJSONClassRecord result = null;
+        int low = 0;
+        int high = this.recordCount - 1;
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final int comparison = this.getString(this.getRecordInt(middle, TestResultsStore.fullClassNameOffset)).compareTo(fullClassName);
+            if (comparison < 0)
+            {
+                low = middle + 1;
+            }
+            else if (comparison > 0)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                result = this.getClassRecord(middle);
+                break;
+            }
+        }
+        return result;
+    }
+}
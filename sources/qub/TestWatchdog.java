@@ -0,0 +1,317 @@
+package qub;
+
+/**
+ * A watchdog thread that enforces time limits on the tests and test classes that are run on each
+ * thread. When a test or test class runs longer than its limit, the watchdog captures a dump of
+ * every thread in the process, records the timeout for the thread that is running the test, and
+ * interrupts that thread. If the thread still hasn't finished the test or test class a while after
+ * it was interrupted, then the watchdog gives up on it and runs its abandon action.
+ */
+public class TestWatchdog
+{
+    /**
+     * The amount of time that a thread has to finish its test or test class after it is
+     * interrupted before the test or test class is abandoned.
+     */
+    static final Duration defaultAbandonDelay = Duration.seconds(10);
+
+    private final Duration testTimeout;
+    private final Duration testClassTimeout;
+    private final Duration abandonDelay;
+    private final Action1<Iterable<String>> abandonAction;
+    private final java.util.concurrent.ScheduledThreadPoolExecutor timer;
+    private final MutableMap<Thread,String> runningTests;
+    private final MutableMap<Thread,java.util.concurrent.ScheduledFuture<?>> testDeadlines;
+    private final MutableMap<Thread,java.util.concurrent.ScheduledFuture<?>> testClassDeadlines;
+    private final MutableMap<Thread,Iterable<String>> testTimeouts;
+    private final MutableMap<Thread,Iterable<String>> testClassTimeouts;
+
+    private TestWatchdog(Duration testTimeout, Duration testClassTimeout, Duration abandonDelay, Action1<Iterable<String>> abandonAction)
+    {
+        PreCondition.assertNotNull(abandonDelay, "abandonDelay");
+        PreCondition.assertNotNull(abandonAction, "abandonAction");
+
+        this.testTimeout = testTimeout;
+        this.testClassTimeout = testClassTimeout;
+        this.abandonDelay = abandonDelay;
+        this.abandonAction = abandonAction;
+        this.timer = new java.util.concurrent.ScheduledThreadPoolExecutor(1, (Runnable runnable) ->
+        {
+            final Thread thread = new Thread(runnable, "test-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.runningTests = Map.create();
+        this.testDeadlines = Map.create();
+        this.testClassDeadlines = Map.create();
+        this.testTimeouts = Map.create();
+        this.testClassTimeouts = Map.create();
+    }
+
+    /**
+     * Create a new TestWatchdog.
+     * @param testTimeout The amount of time that each test has to finish, or null if tests don't
+     *                    have a time limit.
+     * @param testClassTimeout The amount of time that each test class has to finish, or null if test
+     *                         classes don't have a time limit.
+     * @param abandonDelay The amount of time that an interrupted thread has to finish its test or
+     *                     test class before it is abandoned.
+     * @param abandonAction The action that is run with the timeout's message lines when a test or
+     *                      test class is abandoned.
+     * @return The new TestWatchdog.
+     */
+    public static TestWatchdog create(Duration testTimeout, Duration testClassTimeout, Duration abandonDelay, Action1<Iterable<String>> abandonAction)
+    {
+        PreCondition.assertTrue(testTimeout == null || testTimeout.toMilliseconds().getValue() > 0, "testTimeout == null || testTimeout > 0");
+        PreCondition.assertTrue(testClassTimeout == null || testClassTimeout.toMilliseconds().getValue() > 0, "testClassTimeout == null || testClassTimeout > 0");
+        PreCondition.assertNotNull(abandonDelay, "abandonDelay");
+        PreCondition.assertNotNull(abandonAction, "abandonAction");
+
+        return new TestWatchdog(testTimeout, testClassTimeout, abandonDelay, abandonAction);
+    }
+
+    /**
+     * Get the number of whole or fractional seconds in the provided Duration as text, such as "30"
+     * or "2.5".
+     * @param duration The Duration to format.
+     * @return The number of seconds in the provided Duration.
+     */
+    static String formatSeconds(Duration duration)
+    {
+        PreCondition.assertNotNull(duration, "duration");
+
+        final double seconds = duration.toSeconds().getValue();
+        return seconds == Math.floor(seconds) && !Double.isInfinite(seconds)
+            ? Long.toString((long)seconds)
+            : Double.toString(seconds);
+    }
+
+    /**
+     * Start the time limit of the test class that is about to run on the current thread.
+     * @param fullClassName The full name of the test class.
+     */
+    public synchronized void startTestClass(String fullClassName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullClassName, "fullClassName");
+
+        final Thread thread = Thread.currentThread();
+        TestWatchdog.remove(this.testClassTimeouts, thread);
+        if (this.testClassTimeout != null)
+        {
+            this.testClassDeadlines.set(thread, this.schedule(thread, this.testClassTimeout, this.testClassDeadlines,
+                fullClassName + " didn't finish within " + TestWatchdog.formatSeconds(this.testClassTimeout) + " seconds."));
+        }
+    }
+
+    /**
+     * Stop the time limit of the test class that was running on the current thread.
+     * @return The message lines of the test class's timeout, or null if the test class finished in
+     * time.
+     */
+    public synchronized Iterable<String> stopTestClass()
+    {
+        final Thread thread = Thread.currentThread();
+        TestWatchdog.cancel(TestWatchdog.remove(this.testClassDeadlines, thread));
+        final Iterable<String> result = TestWatchdog.remove(this.testClassTimeouts, thread);
+        if (result != null)
+        {
+            // Clear the interrupt so that it doesn't interrupt the next test class.
+            Thread.interrupted();
+        }
+        return result;
+    }
+
+    /**
+     * Start the time limit of the test that is about to run on the current thread. If the test's
+     * test class has already run out of time, then the test is interrupted right away.
+     * @param fullTestName The full name of the test.
+     */
+    public synchronized void startTest(String fullTestName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(fullTestName, "fullTestName");
+
+        final Thread thread = Thread.currentThread();
+        this.runningTests.set(thread, fullTestName);
+        TestWatchdog.remove(this.testTimeouts, thread);
+        if (this.testClassTimeouts.containsKey(thread))
+        {
+            this.testTimeouts.set(thread, List.create(fullTestName + " was interrupted because its test class ran out of time."));
+            thread.interrupt();
+        }
+        else if (this.testTimeout != null)
+        {
+            this.testDeadlines.set(thread, this.schedule(thread, this.testTimeout, this.testDeadlines,
+                fullTestName + " didn't finish within " + TestWatchdog.formatSeconds(this.testTimeout) + " seconds."));
+        }
+    }
+
+    /**
+     * Stop the time limit of the test that was running on the current thread.
+     * @return The message lines of the test's timeout, or null if the test finished in time.
+     */
+    public synchronized Iterable<String> stopTest()
+    {
+        final Thread thread = Thread.currentThread();
+        TestWatchdog.remove(this.runningTests, thread);
+        TestWatchdog.cancel(TestWatchdog.remove(this.testDeadlines, thread));
+        final Iterable<String> result = TestWatchdog.remove(this.testTimeouts, thread);
+        if (result != null)
+        {
+            // Clear the interrupt so that it doesn't interrupt the next test.
+            Thread.interrupted();
+        }
+        return result;
+    }
+
+    /**
+     * Stop the watchdog thread. Time limits that haven't been reached yet will not be enforced.
+     */
+    public void close()
+    {
+        this.timer.shutdownNow();
+    }
+
+    private java.util.concurrent.ScheduledFuture<?> schedule(Thread thread, Duration timeout, MutableMap<Thread,java.util.concurrent.ScheduledFuture<?>> deadlines, String timeoutMessage)
+    {
+        PreCondition.assertNotNull(thread, "thread");
+        PreCondition.assertNotNull(timeout, "timeout");
+        PreCondition.assertNotNull(deadlines, "deadlines");
+        PreCondition.assertNotNullAndNotEmpty(timeoutMessage, "timeoutMessage");
+
+        // The deadline isn't known until it has been scheduled, but it can't be reached before this synchronized method returns.
+        final java.util.concurrent.atomic.AtomicReference<java.util.concurrent.ScheduledFuture<?>> deadline = new java.util.concurrent.atomic.AtomicReference<>();
+        deadline.set(this.timer.schedule(
+            () -> this.timedOut(thread, deadlines, deadline.get(), timeoutMessage),
+            (long)timeout.toMilliseconds().getValue(),
+            java.util.concurrent.TimeUnit.MILLISECONDS));
+        return deadline.get();
+    }
+
+    private synchronized void timedOut(Thread thread, MutableMap<Thread,java.util.concurrent.ScheduledFuture<?>> deadlines, java.util.concurrent.ScheduledFuture<?> deadline, String timeoutMessage)
+    {
+        if (TestWatchdog.get(deadlines, thread) == deadline)
+        {
+            final List<String> timeoutLines = List.create(timeoutMessage, "Thread dump:");
+            timeoutLines.addAll(TestWatchdog.getThreadDump());
+            if (deadlines == this.testClassDeadlines)
+            {
+                this.testClassTimeouts.set(thread, timeoutLines);
+                final String runningTest = TestWatchdog.get(this.runningTests, thread);
+                if (runningTest != null)
+                {
+                    this.testTimeouts.set(thread, List.create(runningTest + " was interrupted because its test class ran out of time."));
+                }
+            }
+            else
+            {
+                this.testTimeouts.set(thread, timeoutLines);
+            }
+            thread.interrupt();
+
+            this.timer.schedule(
+                () -> this.abandonIfStillRunning(thread, deadlines, deadline, timeoutLines),
+                (long)this.abandonDelay.toMilliseconds().getValue(),
+                java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void abandonIfStillRunning(Thread thread, MutableMap<Thread,java.util.concurrent.ScheduledFuture<?>> deadlines, java.util.concurrent.ScheduledFuture<?> deadline, Iterable<String> timeoutLines)
+    {
+        final boolean stillRunning;
+        synchronized (this)
+        {
+            stillRunning = TestWatchdog.get(deadlines, thread) == deadline;
+        }
+
+        // The abandon action isn't run while the watchdog is locked because it may never return.
+        if (stillRunning)
+        {
+            this.abandonAction.run(timeoutLines);
+        }
+    }
+
+    private static <TValue> TValue get(MutableMap<Thread,TValue> threadValues, Thread thread)
+    {
+        return threadValues.get(thread)
+            .catchError(NotFoundException.class)
+            .await();
+    }
+
+    private static <TValue> TValue remove(MutableMap<Thread,TValue> threadValues, Thread thread)
+    {
+        return threadValues.remove(thread)
+            .catchError(NotFoundException.class)
+            .await();
+    }
+
+    private static void cancel(java.util.concurrent.ScheduledFuture<?> deadline)
+    {
+        if (deadline != null)
+        {
+            deadline.cancel(false);
+        }
+    }
+
+    /**
+     * Get a dump of the stack traces and held locks of every thread in the current process.
+     * @return The lines of the thread dump.
+     */
+    static Iterable<String> getThreadDump()
+    {
+        final List<String> result = List.create();
+        final java.lang.management.ThreadMXBean threads = java.lang.management.ManagementFactory.getThreadMXBean();
+
+        final long[] deadlockedThreadIds = threads.findDeadlockedThreads();
+        if (deadlockedThreadIds != null)
+        {
+            final StringBuilder deadlockedThreads = new StringBuilder("Deadlocked threads:");
+            for (final long deadlockedThreadId : deadlockedThreadIds)
+            {
+                deadlockedThreads.append(" Id=").append(deadlockedThreadId);
+            }
+            result.add(deadlockedThreads.toString());
+        }
+
+        for (final java.lang.management.ThreadInfo threadInfo : threads.dumpAllThreads(threads.isObjectMonitorUsageSupported(), threads.isSynchronizerUsageSupported()))
+        {
+            if (threadInfo != null)
+            {
+                final StringBuilder header = new StringBuilder()
+                    .append('"').append(threadInfo.getThreadName()).append("\" Id=").append(threadInfo.getThreadId())
+                    .append(' ').append(threadInfo.getThreadState());
+                if (threadInfo.getLockName() != null)
+                {
+                    header.append(" on ").append(threadInfo.getLockName());
+                }
+                if (threadInfo.getLockOwnerName() != null)
+                {
+                    header.append(" owned by \"").append(threadInfo.getLockOwnerName()).append("\" Id=").append(threadInfo.getLockOwnerId());
+                }
+                result.add(header.toString());
+
+                final java.lang.management.MonitorInfo[] lockedMonitors = threadInfo.getLockedMonitors();
+                final StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+                for (int i = 0; i < stackTrace.length; ++i)
+                {
+                    result.add("    at " + stackTrace[i]);
+                    for (final java.lang.management.MonitorInfo lockedMonitor : lockedMonitors)
+                    {
+                        if (lockedMonitor.getLockedStackDepth() == i)
+                        {
+                            result.add("    - locked " + lockedMonitor);
+                        }
+                    }
+                }
+                for (final java.lang.management.LockInfo lockedSynchronizer : threadInfo.getLockedSynchronizers())
+                {
+                    result.add("    - holds " + lockedSynchronizer);
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package qub;
+
+public interface ClassFileDependenciesTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(ClassFileDependencies.class, () ->
+        {
+            runner.testGroup("getReferencedClassNames(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ClassFileDependencies.getReferencedClassNames((byte[])null),
+                        new PreConditionFailure("classFileBytes cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertEqual(Iterable.create(), ClassFileDependencies.getReferencedClassNames(new byte[0]));
+                });
+
+                runner.test("with bytes that aren't a class file", (Test test) ->
+                {
+                    test.assertEqual(Iterable.create(), ClassFileDependencies.getReferencedClassNames(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+                });
+
+                runner.test("with class file with class, long, and descriptor constants", (Test test) ->
+                {
+                    final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                    final java.io.DataOutputStream classFile = new java.io.DataOutputStream(bytes);
+                    try
+                    {
+                        classFile.writeInt(ClassFileDependencies.classFileMagic);
+                        classFile.writeShort(0);
+                        classFile.writeShort(52);
+                        classFile.writeShort(9);
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 1
+                        classFile.writeUTF("a/B");
+                        classFile.writeByte(ClassFileDependencies.constantClass); // 2
+                        classFile.writeShort(1);
+                        classFile.writeByte(ClassFileDependencies.constantLong); // 3 and 4
+                        classFile.writeLong(50);
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 5
+                        classFile.writeUTF("(La/C;ILa/D<TT;>;)[La/B;");
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 6
+                        classFile.writeUTF("[Lx/Y;");
+                        classFile.writeByte(ClassFileDependencies.constantClass); // 7
+                        classFile.writeShort(6);
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 8
+                        classFile.writeUTF("notADescriptor");
+                    }
+                    catch (java.io.IOException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+
+                    test.assertEqual(
+                        Iterable.create("a.B", "x.Y", "a.C", "a.D"),
+                        ClassFileDependencies.getReferencedClassNames(bytes.toByteArray()));
+                });
+            });
+
+            runner.testGroup("getSourceFileName(byte[])", () ->
+            {
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertNull(ClassFileDependencies.getSourceFileName(new byte[0]));
+                });
+
+                runner.test("with bytes that aren't a class file", (Test test) ->
+                {
+                    test.assertNull(ClassFileDependencies.getSourceFileName(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+                });
+
+                runner.test("with class file with a field attribute and a SourceFile attribute", (Test test) ->
+                {
+                    final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                    final java.io.DataOutputStream classFile = new java.io.DataOutputStream(bytes);
+                    try
+                    {
+                        classFile.writeInt(ClassFileDependencies.classFileMagic);
+                        classFile.writeShort(0);
+                        classFile.writeShort(52);
+                        classFile.writeShort(5);
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 1
+                        classFile.writeUTF("ConstantValue");
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 2
+                        classFile.writeUTF("SourceFile");
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 3
+                        classFile.writeUTF("Outer.java");
+                        classFile.writeByte(ClassFileDependencies.constantUtf8); // 4
+                        classFile.writeUTF("Deprecated");
+                        classFile.writeShort(0); // access_flags
+                        classFile.writeShort(0); // this_class
+                        classFile.writeShort(0); // super_class
+                        classFile.writeShort(1); // interfaces_count
+                        classFile.writeShort(0);
+                        classFile.writeShort(1); // fields_count
+                        classFile.writeShort(0);
+                        classFile.writeShort(0);
+                        classFile.writeShort(0);
+                        classFile.writeShort(1); // attributes_count
+                        classFile.writeShort(1);
+                        classFile.writeInt(2);
+                        classFile.writeShort(0);
+                        classFile.writeShort(0); // methods_count
+                        classFile.writeShort(2); // attributes_count
+                        classFile.writeShort(4);
+                        classFile.writeInt(0);
+                        classFile.writeShort(2);
+                        classFile.writeInt(2);
+                        classFile.writeShort(3);
+                    }
+                    catch (java.io.IOException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+
+                    test.assertEqual("Outer.java", ClassFileDependencies.getSourceFileName(bytes.toByteArray()));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package qub;
+
+public interface ClassFileDependencyGraphTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(ClassFileDependencyGraph.class, () ->
+        {
+            runner.test("create(Folder) with null", (Test test) ->
+            {
+                test.assertThrows(() -> ClassFileDependencyGraph.create(null),
+                    new PreConditionFailure("outputFolder cannot be null."));
+            });
+
+            runner.test("getDependencyClassNames(String) with a dependency cycle", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                    ClassFileDependencyGraphTests.createClassFile(outputFolder, "ATests", "A", "java/lang/String");
+                    ClassFileDependencyGraphTests.createClassFile(outputFolder, "A", "b/B");
+                    ClassFileDependencyGraphTests.createClassFile(outputFolder, "b/B", "A", "x/Y");
+
+                    final ClassFileDependencyGraph graph = ClassFileDependencyGraph.create(outputFolder);
+                    test.assertEqual(Iterable.create("A", "b.B"), graph.getDependencyClassNames("ATests"));
+                    test.assertEqual(
+                        Iterable.create(outputFolder.getFile("A.class").await(), outputFolder.getFile("b/B.class").await()),
+                        graph.getDependencyClassFiles("ATests"));
+                    test.assertEqual(Iterable.create("java.lang.String", "x.Y"), graph.getExternalReferencedClassNames("ATests"));
+                }
+            });
+
+            runner.test("getDependencyClassNames(String) after a class file is deleted", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                    ClassFileDependencyGraphTests.createClassFile(outputFolder, "ATests", "A");
+                    ClassFileDependencyGraphTests.createClassFile(outputFolder, "A");
+
+                    final ClassFileDependencyGraph graph = ClassFileDependencyGraph.create(outputFolder);
+                    test.assertEqual(Iterable.create("A"), graph.getDependencyClassNames("ATests"));
+
+                    outputFolder.getFile("A.class").await().delete().await();
+
+                    // The graph is computed once per test run, so it doesn't see the deleted class file.
+                    test.assertEqual(Iterable.create("A"), graph.getDependencyClassNames("ATests"));
+                    test.assertTrue(graph.hasClassFile("A"));
+                }
+            });
+        });
+    }
+
+    static void createClassFile(Folder outputFolder, String internalClassName, String... referencedInternalClassNames)
+    {
+        final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        final java.io.DataOutputStream classFile = new java.io.DataOutputStream(bytes);
+        try
+        {
+            classFile.writeInt(ClassFileDependencies.classFileMagic);
+            classFile.writeShort(0);
+            classFile.writeShort(52);
+            classFile.writeShort(1 + referencedInternalClassNames.length * 2);
+            for (int i = 0; i < referencedInternalClassNames.length; ++i)
+            {
+                classFile.writeByte(ClassFileDependencies.constantUtf8);
+                classFile.writeUTF(referencedInternalClassNames[i]);
+                classFile.writeByte(ClassFileDependencies.constantClass);
+                classFile.writeShort(1 + i * 2);
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        outputFolder.getFile(internalClassName + ".class").await().setContents(bytes.toByteArray()).await();
+    }
+}
@@ -0,0 +1,112 @@
+package qub;
+
+public interface ClassFileDiscoveryTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(ClassFileDiscovery.class, () ->
+        {
+            runner.testGroup("create(Folder,AsyncRunner,int)", () ->
+            {
+                runner.test("with null outputFolder", (Test test) ->
+                {
+                    test.assertThrows(() -> ClassFileDiscovery.create(null, null, 1),
+                        new PreConditionFailure("outputFolder cannot be null."));
+                });
+
+                runner.test("with folder that doesn't exist", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final ClassFileDiscovery discovery = ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), 1);
+                        test.assertSame(outputFolder, discovery.getOutputFolder());
+                        test.assertEqual(Iterable.create(), discovery.getClassFiles());
+                        test.assertEqual(Iterable.create(), discovery.getFullClassNames());
+                    }
+                });
+
+                final Action1<Integer> createTest = (Integer parallelism) ->
+                {
+                    runner.test("with nested folders and parallelism " + parallelism, (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                            final File aClassFile = outputFolder.getFile("A.class").await();
+                            aClassFile.setContents(new byte[] { 1 }).await();
+                            outputFolder.getFile("A$1.class").await().setContents(new byte[] { 2 }).await();
+                            outputFolder.getFile("test.json").await().setContentsAsString("{}").await();
+                            outputFolder.getFile("b/C.class").await().setContents(new byte[] { 3 }).await();
+                            outputFolder.getFile("b/d/E.class").await().setContents(new byte[] { 4 }).await();
+                            outputFolder.getFile("f/G.class").await().setContents(new byte[] { 5 }).await();
+
+                            final ClassFileDiscovery discovery = ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), parallelism);
+                            test.assertEqual(5, discovery.getClassFiles().getCount());
+                            test.assertEqual(Iterable.create("A", "b.C", "f.G", "b.d.E"), discovery.getFullClassNames());
+                            test.assertEqual(aClassFile.getLastModified().await(), discovery.getLastModified(aClassFile));
+                            test.assertNull(discovery.getLastModified(outputFolder.getFile("Z.class").await()));
+                        }
+                    });
+                };
+
+                createTest.run(1);
+                createTest.run(4);
+            });
+
+            runner.testGroup("create(Folder,AsyncRunner,int,File)", () ->
+            {
+                runner.test("with index file that doesn't exist", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        outputFolder.getFile("A.class").await().setContents(new byte[] { 1 }).await();
+                        outputFolder.getFile("b/C.class").await().setContents(new byte[] { 2 }).await();
+                        final File indexFile = process.getFileSystem().getFile("/data/classfiles.json").await();
+
+                        final ClassFileDiscovery discovery = ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), 1, indexFile);
+                        test.assertEqual(Iterable.create("A", "b.C"), discovery.getFullClassNames());
+
+                        final JSONObject index = JSON.parseObject(indexFile).await();
+                        ClassFileDiscoveryIndexEntry rootEntry = null;
+                        for (final JSONProperty property : index.getProperties())
+                        {
+                            if (property.getName().equals("/outputs/"))
+                            {
+                                rootEntry = ClassFileDiscoveryIndexEntry.parse(property).await();
+                            }
+                        }
+                        test.assertNotNull(rootEntry);
+                        test.assertEqual(Iterable.create("A.class"), rootEntry.getClassFileNames());
+                        test.assertEqual(Iterable.create("b"), rootEntry.getFolderNames());
+                        test.assertNull(rootEntry.getLastModifiedMilliseconds());
+                    }
+                });
+
+                runner.test("with index entry for folder without a readable timestamp", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        outputFolder.getFile("A.class").await().setContents(new byte[] { 1 }).await();
+                        outputFolder.getFile("D.class").await().setContents(new byte[] { 2 }).await();
+                        final File indexFile = process.getFileSystem().getFile("/data/classfiles.json").await();
+                        indexFile.setContentsAsString(JSONObject.create()
+                            .setAll(Iterable.create(ClassFileDiscoveryIndexEntry.create("/outputs/")
+                                .setLastModifiedMilliseconds(10)
+                                .setClassFileNames(Iterable.create("A.class"))
+                                .setFolderNames(Iterable.create())
+                                .toJsonProperty()))
+                            .toString()).await();
+
+                        final ClassFileDiscovery discovery = ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), 1, indexFile);
+                        test.assertEqual(Iterable.create("A", "D"), discovery.getFullClassNames());
+                    }
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package qub;
+
+public interface ClassFileHashesTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(ClassFileHashes.class, () ->
+        {
+            runner.testGroup("getContentHash(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ClassFileHashes.getContentHash((byte[])null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertEqual("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ClassFileHashes.getContentHash(new byte[0]));
+                });
+
+                runner.test("with same bytes", (Test test) ->
+                {
+                    test.assertEqual(
+                        ClassFileHashes.getContentHash(new byte[] { 1, 2, 3 }),
+                        ClassFileHashes.getContentHash(new byte[] { 1, 2, 3 }));
+                });
+
+                runner.test("with different bytes", (Test test) ->
+                {
+                    test.assertNotEqual(
+                        ClassFileHashes.getContentHash(new byte[] { 1, 2, 3 }),
+                        ClassFileHashes.getContentHash(new byte[] { 1, 2, 4 }));
+                });
+            });
+
+            runner.testGroup("isUnchanged(File,DateTime,DateTime,String,MutableMap<String,String>)", () ->
+            {
+                runner.test("with same timestamp", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File file = process.getFileSystem().getFile("/A.class").await();
+                        final DateTime lastModified = DateTime.create(2020, 1, 2);
+                        test.assertTrue(ClassFileHashes.isUnchanged(file, lastModified, lastModified, null, Map.create()));
+                    }
+                });
+
+                runner.test("with different timestamp and no previous content hash", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File file = process.getFileSystem().getFile("/A.class").await();
+                        file.setContents(new byte[] { 1, 2, 3 }).await();
+                        test.assertFalse(ClassFileHashes.isUnchanged(file, DateTime.create(2020, 1, 3), DateTime.create(2020, 1, 2), null, Map.create()));
+                    }
+                });
+
+                runner.test("with different timestamp and same content hash", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File file = process.getFileSystem().getFile("/A.class").await();
+                        file.setContents(new byte[] { 1, 2, 3 }).await();
+                        final String contentHash = ClassFileHashes.getContentHash(new byte[] { 1, 2, 3 });
+                        test.assertTrue(ClassFileHashes.isUnchanged(file, DateTime.create(2020, 1, 3), DateTime.create(2020, 1, 2), contentHash, Map.create()));
+                    }
+                });
+
+                runner.test("with different timestamp and different content hash", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File file = process.getFileSystem().getFile("/A.class").await();
+                        file.setContents(new byte[] { 1, 2, 3 }).await();
+                        final String contentHash = ClassFileHashes.getContentHash(new byte[] { 4, 5, 6 });
+                        test.assertFalse(ClassFileHashes.isUnchanged(file, DateTime.create(2020, 1, 3), DateTime.create(2020, 1, 2), contentHash, Map.create()));
+                    }
+                });
+            });
+        });
+    }
+}
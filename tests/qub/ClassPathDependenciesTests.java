@@ -0,0 +1,69 @@
+package qub;
+
+public interface ClassPathDependenciesTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(ClassPathDependencies.class, () ->
+        {
+            runner.testGroup("split(String)", () ->
+            {
+                final Action2<String,Iterable<String>> splitTest = (String classPath, Iterable<String> expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(classPath), (Test test) ->
+                    {
+                        test.assertEqual(expected, ClassPathDependencies.split(classPath));
+                    });
+                };
+
+                splitTest.run(null, Iterable.create());
+                splitTest.run("", Iterable.create());
+                splitTest.run("/a.jar", Iterable.create("/a.jar"));
+                splitTest.run("/outputs/;/a.jar;;/b.jar", Iterable.create("/outputs/", "/a.jar", "/b.jar"));
+            });
+
+            runner.testGroup("getJarFiles(FileSystem,Iterable<String>)", () ->
+            {
+                runner.test("with folders, missing jars, and existing jars", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final FileSystem fileSystem = process.getFileSystem();
+                        fileSystem.createFile("/a.jar").await();
+                        fileSystem.createFolder("/outputs/").await();
+
+                        final Iterable<File> jarFiles = ClassPathDependencies.getJarFiles(fileSystem, Iterable.create("/outputs/", "/a.jar", "/missing.jar"));
+                        test.assertEqual(Iterable.create("/a.jar"), jarFiles.map(File::toString));
+                    }
+                });
+            });
+
+            runner.testGroup("isUnaffected(TestJSONClassFile,Iterable<String>,Iterable<String>)", () ->
+            {
+                final Iterable<String> referencedClassPathEntries = Iterable.create("/a.jar", "/b.jar");
+                final Action3<Iterable<String>,Iterable<String>,Boolean> isUnaffectedTest = (Iterable<String> classPathDependencies, Iterable<String> changedClassPathEntries, Boolean expected) ->
+                {
+                    runner.test("with " + classPathDependencies + " and " + changedClassPathEntries, (Test test) ->
+                    {
+                        final TestJSONClassFile testJSONClassFile = TestJSONClassFile.create("a/BTests.class");
+                        if (classPathDependencies != null)
+                        {
+                            testJSONClassFile.setClassPathDependencies(classPathDependencies);
+                        }
+                        test.assertEqual(expected, ClassPathDependencies.isUnaffected(testJSONClassFile, changedClassPathEntries, referencedClassPathEntries));
+                    });
+                };
+
+                isUnaffectedTest.run(null, Iterable.create(), true);
+                isUnaffectedTest.run(null, Iterable.create("/a.jar"), false);
+                isUnaffectedTest.run(Iterable.create(), Iterable.create("/a.jar"), true);
+                isUnaffectedTest.run(Iterable.create(), Iterable.create("/c.jar"), true);
+                isUnaffectedTest.run(Iterable.create("/a.jar"), Iterable.create("/a.jar"), false);
+                isUnaffectedTest.run(Iterable.create("/a.jar"), Iterable.create("/b.jar"), true);
+                isUnaffectedTest.run(Iterable.create("/a.jar"), Iterable.create("/c.jar"), false);
+            });
+        });
+    }
+}
@@ -34,6 +34,125 @@ public interface ConsoleTestRunnerTests
                 });
             });
 
+            runner.testGroup("parseParallelism(String)", () ->
+            {
+                final Action2<String,Integer> parseParallelismTest = (String text, Integer expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertEqual(expected, ConsoleTestRunner.parseParallelism(text).await());
+                    });
+                };
+
+                parseParallelismTest.run(null, 1);
+                parseParallelismTest.run("", 1);
+                parseParallelismTest.run("1", 1);
+                parseParallelismTest.run("12", 12);
+                parseParallelismTest.run("auto", Runtime.getRuntime().availableProcessors());
+                parseParallelismTest.run("AUTO", Runtime.getRuntime().availableProcessors());
+
+                final Action1<String> parseParallelismErrorTest = (String text) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertThrows(() -> ConsoleTestRunner.parseParallelism(text).await(),
+                            new IllegalArgumentException("The parallelism value must be \"auto\" or a positive integer, but was " + Strings.escapeAndQuote(text) + "."));
+                    });
+                };
+
+                parseParallelismErrorTest.run("0");
+                parseParallelismErrorTest.run("-3");
+                parseParallelismErrorTest.run("many");
+            });
+
+            runner.testGroup("parseFailFast(String)", () ->
+            {
+                final Action2<String,Integer> parseFailFastTest = (String text, Integer expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertEqual(expected, ConsoleTestRunner.parseFailFast(text).await());
+                    });
+                };
+
+                parseFailFastTest.run(null, 1);
+                parseFailFastTest.run("", 1);
+                parseFailFastTest.run("1", 1);
+                parseFailFastTest.run("5", 5);
+
+                final Action1<String> parseFailFastErrorTest = (String text) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertThrows(() -> ConsoleTestRunner.parseFailFast(text).await(),
+                            new IllegalArgumentException("The fail-fast value must be a positive integer, but was " + Strings.escapeAndQuote(text) + "."));
+                    });
+                };
+
+                parseFailFastErrorTest.run("0");
+                parseFailFastErrorTest.run("-2");
+                parseFailFastErrorTest.run("some");
+            });
+
+            runner.test("getFailedTestCountFile(File)", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final File testJsonFile = process.getFileSystem().getFile("/outputs/test.fork2.json").await();
+                    test.assertEqual("/outputs/test.fork2.failures", ConsoleTestRunner.getFailedTestCountFile(testJsonFile).toString());
+                }
+            });
+
+            runner.testGroup("getExactTestPattern(String)", () ->
+            {
+                final Action2<String,Boolean> getExactTestPatternTest = (String fullTestName, Boolean expectedSelectable) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(fullTestName), (Test test) ->
+                    {
+                        final PathPattern pattern = ConsoleTestRunner.getExactTestPattern(fullTestName);
+                        test.assertEqual(expectedSelectable, pattern != null);
+                        if (pattern != null)
+                        {
+                            test.assertTrue(pattern.isMatch(fullTestName));
+                        }
+                    });
+                };
+
+                getExactTestPatternTest.run("ATests b", true);
+                getExactTestPatternTest.run("ATests createJar(Map<String,byte[]>)", true);
+                getExactTestPatternTest.run("ATests multiply(2 * 3)", false);
+                getExactTestPatternTest.run("ATests is it?", false);
+            });
+
+            runner.testGroup("parseTimeout(String)", () ->
+            {
+                final Action2<String,Duration> parseTimeoutTest = (String text, Duration expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertEqual(expected, ConsoleTestRunner.parseTimeout(text).await());
+                    });
+                };
+
+                parseTimeoutTest.run(null, null);
+                parseTimeoutTest.run("", null);
+                parseTimeoutTest.run("30", Duration.seconds(30));
+                parseTimeoutTest.run("2.5", Duration.seconds(2.5));
+
+                final Action1<String> parseTimeoutErrorTest = (String text) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertThrows(() -> ConsoleTestRunner.parseTimeout(text).await(),
+                            new IllegalArgumentException("The timeout must be a positive number of seconds, but was " + Strings.escapeAndQuote(text) + "."));
+                    });
+                };
+
+                parseTimeoutErrorTest.run("0");
+                parseTimeoutErrorTest.run("-5");
+                parseTimeoutErrorTest.run("forever");
+            });
+
             runner.testGroup("writeFailure()", () ->
             {
                 runner.test("with null error", (Test test) ->
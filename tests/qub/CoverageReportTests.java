@@ -0,0 +1,113 @@
+package qub;
+
+public interface CoverageReportTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(CoverageReport.class, () ->
+        {
+            runner.testGroup("getSourceFolders(Coverage,Folder,Folder)", () ->
+            {
+                final Action2<Coverage,Iterable<String>> getSourceFoldersTest = (Coverage coverage, Iterable<String> expected) ->
+                {
+                    runner.test("with " + coverage, (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final Folder sourceFolder = process.getFileSystem().getFolder("/sources/").await();
+                            final Folder testFolder = process.getFileSystem().getFolder("/tests/").await();
+                            test.assertEqual(expected, CoverageReport.getSourceFolders(coverage, sourceFolder, testFolder).map(Folder::toString).toList());
+                        }
+                    });
+                };
+
+                getSourceFoldersTest.run(Coverage.Sources, Iterable.create("/sources/"));
+                getSourceFoldersTest.run(Coverage.Tests, Iterable.create("/tests/"));
+                getSourceFoldersTest.run(Coverage.All, Iterable.create("/sources/", "/tests/"));
+            });
+
+            runner.test("generateInProcess(File,File,Iterable<File>,Iterable<Folder>,Folder,VerboseCharacterToByteWriteStream) with a fake file system", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                    final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
+                    final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(output);
+
+                    test.assertFalse(CoverageReport.generateInProcess(
+                        process.getFileSystem().getFile("/jacoco/jacococli.jar").await(),
+                        outputFolder.getFile("coverage.exec").await(),
+                        Iterable.create(outputFolder.getFile("A.class").await()),
+                        Iterable.create(process.getFileSystem().getFolder("/sources/").await()),
+                        outputFolder.getFolder("coverage").await(),
+                        verbose));
+                    test.assertEqual("", output.getText().await());
+                    test.assertFalse(outputFolder.getFile("coverage/index.html").await().exists().await());
+                }
+            });
+
+            runner.test("getKey(String,Coverage,File,Iterable<File>,MutableMap<String,String>)", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                    final File coverageExecFile = outputFolder.getFile("coverage.exec").await();
+                    final File classFile = outputFolder.getFile("A.class").await();
+                    classFile.setContents(new byte[] { 1, 2 }).await();
+                    coverageExecFile.setContents(new byte[] { 3 }).await();
+
+                    final String key = CoverageReport.getKey("0.8.1", Coverage.Sources, coverageExecFile, Iterable.create(classFile), Map.create());
+                    test.assertEqual(key, CoverageReport.getKey("0.8.1", Coverage.Sources, coverageExecFile, Iterable.create(classFile), Map.create()));
+                    test.assertNotEqual(key, CoverageReport.getKey("0.9.2", Coverage.Sources, coverageExecFile, Iterable.create(classFile), Map.create()));
+                    test.assertNotEqual(key, CoverageReport.getKey("0.8.1", Coverage.All, coverageExecFile, Iterable.create(classFile), Map.create()));
+                    test.assertNotEqual(key, CoverageReport.getKey("0.8.1", Coverage.Sources, coverageExecFile, Iterable.create(), Map.create()));
+
+                    coverageExecFile.setContents(new byte[] { 4 }).await();
+                    test.assertNotEqual(key, CoverageReport.getKey("0.8.1", Coverage.Sources, coverageExecFile, Iterable.create(classFile), Map.create()));
+                }
+            });
+
+            runner.testGroup("isUpToDate(Folder,String)", () ->
+            {
+                runner.test("with no report", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder coverageFolder = process.getFileSystem().getFolder("/outputs/coverage/").await();
+                        test.assertFalse(CoverageReport.isUpToDate(coverageFolder, "abc"));
+                    }
+                });
+
+                runner.test("with a report with the same key", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder coverageFolder = process.getFileSystem().getFolder("/outputs/coverage/").await();
+                        coverageFolder.createFile("index.html").await();
+                        coverageFolder.createFile(CoverageReport.xmlFileName).await();
+                        coverageFolder.createFile(CoverageReport.csvFileName).await();
+                        CoverageReport.setKey(coverageFolder, "abc");
+
+                        test.assertTrue(CoverageReport.isUpToDate(coverageFolder, "abc"));
+                        test.assertFalse(CoverageReport.isUpToDate(coverageFolder, "def"));
+                    }
+                });
+
+                runner.test("with a report that is missing its XML file", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder coverageFolder = process.getFileSystem().getFolder("/outputs/coverage/").await();
+                        coverageFolder.createFile("index.html").await();
+                        coverageFolder.createFile(CoverageReport.csvFileName).await();
+                        CoverageReport.setKey(coverageFolder, "abc");
+
+                        test.assertFalse(CoverageReport.isUpToDate(coverageFolder, "abc"));
+                    }
+                });
+            });
+        });
+    }
+}
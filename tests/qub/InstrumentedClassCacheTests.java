@@ -0,0 +1,83 @@
+package qub;
+
+public interface InstrumentedClassCacheTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(InstrumentedClassCache.class, () ->
+        {
+            runner.test("createJar(Map<String,byte[]>) and readJar(byte[])", (Test test) ->
+            {
+                final MutableMap<String,byte[]> entries = Map.create();
+                entries.set("a/B.class", new byte[] { 1, 2, 3 });
+                entries.set("C.class", new byte[0]);
+
+                final MutableMap<String,byte[]> readEntries = InstrumentedClassCache.readJar(InstrumentedClassCache.createJar(entries).await()).await();
+                test.assertEqual(Iterable.create("a/B.class", "C.class"), readEntries.getKeys().toList());
+                test.assertTrue(java.util.Arrays.equals(new byte[] { 1, 2, 3 }, readEntries.get("a/B.class").await()));
+                test.assertTrue(java.util.Arrays.equals(new byte[0], readEntries.get("C.class").await()));
+            });
+
+            runner.testGroup("setJacocoVersion(Folder,String,VerboseCharacterToByteWriteStream)", () ->
+            {
+                runner.test("with the same version", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+                        InstrumentedClassCache.setJacocoVersion(outputFolder, "0.8.1", verbose);
+                        final File instrumentedFile = InstrumentedClassCache.getInstrumentedFile(outputFolder, "abc");
+                        instrumentedFile.setContents(new byte[] { 1 }).await();
+
+                        InstrumentedClassCache.setJacocoVersion(outputFolder, "0.8.1", verbose);
+
+                        test.assertTrue(instrumentedFile.exists().await());
+                    }
+                });
+
+                runner.test("with a different version", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+                        InstrumentedClassCache.setJacocoVersion(outputFolder, "0.8.1", verbose);
+                        final File instrumentedFile = InstrumentedClassCache.getInstrumentedFile(outputFolder, "abc");
+                        instrumentedFile.setContents(new byte[] { 1 }).await();
+
+                        InstrumentedClassCache.setJacocoVersion(outputFolder, "0.9.2", verbose);
+
+                        test.assertFalse(instrumentedFile.exists().await());
+                    }
+                });
+            });
+
+            runner.test("update(Folder,Iterable<File>,Folder,File,ProcessFactory,MutableMap<String,String>,CharacterToByteWriteStream,CharacterToByteWriteStream,VerboseCharacterToByteWriteStream) with class files that are already instrumented", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                    final Folder jacocoFolder = process.getFileSystem().getFolder("/jacoco/0.8.1/").await();
+                    final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+                    final File classFile = outputFolder.getFile("a/B.class").await();
+                    classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                    InstrumentedClassCache.setJacocoVersion(outputFolder, "0.8.1", verbose);
+                    InstrumentedClassCache.getInstrumentedFile(outputFolder, ClassFileHashes.getContentHash(new byte[] { 1, 2, 3 })).setContents(new byte[] { 4, 5 }).await();
+                    final File unusedInstrumentedFile = InstrumentedClassCache.getInstrumentedFile(outputFolder, "abc");
+                    unusedInstrumentedFile.setContents(new byte[] { 6 }).await();
+
+                    final File jarFile = InstrumentedClassCache.update(outputFolder, Iterable.create(classFile), jacocoFolder, outputFolder.getFile("coverage.exec").await(), process.getProcessFactory(), Map.create(), null, null, verbose);
+
+                    test.assertEqual(InstrumentedClassCache.getJarFile(outputFolder), jarFile);
+                    final MutableMap<String,byte[]> entries = InstrumentedClassCache.readJar(jarFile.getContents().await()).await();
+                    test.assertTrue(java.util.Arrays.equals(new byte[] { 4, 5 }, entries.get("a/B.class").await()));
+                    test.assertEqual("destfile=/outputs/coverage.exec\n", new String(entries.get("jacoco-agent.properties").await(), java.nio.charset.StandardCharsets.UTF_8));
+                    test.assertFalse(unusedInstrumentedFile.exists().await());
+                }
+            });
+        });
+    }
+}
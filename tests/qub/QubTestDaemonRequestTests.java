@@ -0,0 +1,103 @@
+package qub;
+
+public interface QubTestDaemonRequestTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(QubTestDaemonRequest.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final QubTestDaemonRequest request = QubTestDaemonRequest.create();
+                test.assertNull(request.getToken());
+                test.assertFalse(request.getStop());
+                test.assertEqual(Iterable.create(), request.getClassPaths());
+                test.assertNull(request.getPattern());
+                test.assertFalse(request.getVerbose());
+                test.assertEqual(Iterable.create(), request.getTestClassNames());
+            });
+
+            runner.testGroup("toLines()", () ->
+            {
+                runner.test("with stop", (Test test) ->
+                {
+                    final QubTestDaemonRequest request = QubTestDaemonRequest.create()
+                        .setStop(true);
+                    test.assertEqual(Iterable.create("stop=true", ""), request.toLines());
+                });
+
+                runner.test("with stop and token", (Test test) ->
+                {
+                    final QubTestDaemonRequest request = QubTestDaemonRequest.create()
+                        .setToken("abc")
+                        .setStop(true);
+                    test.assertEqual(Iterable.create("token=abc", "stop=true", ""), request.toLines());
+                });
+
+                runner.test("with tests to run", (Test test) ->
+                {
+                    final QubTestDaemonRequest request = QubTestDaemonRequest.create()
+                        .addClassPaths(Iterable.create("/a.jar", "/b/"))
+                        .setOutputFolderPath("/outputs/")
+                        .setPattern("*Tests")
+                        .setTestJson(true)
+                        .setParallelism("auto")
+                        .addTestClassNames(Iterable.create("a.B", "C"));
+                    test.assertEqual(
+                        Iterable.create(
+                            "classpath=/a.jar",
+                            "classpath=/b/",
+                            "output-folder=/outputs/",
+                            "pattern=*Tests",
+                            "testjson=true",
+                            "parallelism=auto",
+                            "verbose=false",
+                            "test-class=a.B",
+                            "test-class=C",
+                            ""),
+                        request.toLines());
+                });
+            });
+
+            runner.testGroup("parse(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> QubTestDaemonRequest.parse(null),
+                        new PreConditionFailure("lines cannot be null."));
+                });
+
+                runner.test("with lines from toLines()", (Test test) ->
+                {
+                    final QubTestDaemonRequest request = QubTestDaemonRequest.create()
+                        .setToken("abc")
+                        .addClassPaths(Iterable.create("/a.jar"))
+                        .setOutputFolderPath("/outputs/")
+                        .setVerbose(true)
+                        .setResultsFormat(TestResultsFormat.Binary)
+                        .setRerunFailed(true)
+                        .setFailFast(3)
+                        .addTestClassNames(Iterable.create("a.B"));
+                    final QubTestDaemonRequest parsed = QubTestDaemonRequest.parse(request.toLines()).await();
+                    test.assertEqual("abc", parsed.getToken());
+                    test.assertFalse(parsed.getStop());
+                    test.assertEqual(TestResultsFormat.Binary, parsed.getResultsFormat());
+                    test.assertTrue(parsed.getRerunFailed());
+                    test.assertEqual(3, parsed.getFailFast());
+                    test.assertEqual(Iterable.create("/a.jar"), parsed.getClassPaths());
+                    test.assertEqual("/outputs/", parsed.getOutputFolderPath());
+                    test.assertTrue(parsed.getVerbose());
+                    test.assertEqual(Iterable.create("a.B"), parsed.getTestClassNames());
+                });
+
+                runner.test("with unrecognized property", (Test test) ->
+                {
+                    test.assertThrows(() -> QubTestDaemonRequest.parse(Iterable.create("spam=true")).await(),
+                        new IllegalArgumentException("Unrecognized test runner daemon request property: \"spam\""));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package qub;
+
+public interface QubTestDaemonTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(QubTestDaemon.class, () ->
+        {
+            runner.test("createToken()", (Test test) ->
+            {
+                final String token = QubTestDaemon.createToken();
+                test.assertEqual(64, token.length());
+                test.assertNotEqual(token, QubTestDaemon.createToken());
+            });
+
+            runner.testGroup("isAuthorized(QubTestDaemonRequest,String)", () ->
+            {
+                final Action2<String,Boolean> isAuthorizedTest = (String requestToken, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(requestToken), (Test test) ->
+                    {
+                        final QubTestDaemonRequest request = QubTestDaemonRequest.create()
+                            .setToken(requestToken);
+                        test.assertEqual(expected, QubTestDaemon.isAuthorized(request, "abc"));
+                    });
+                };
+
+                isAuthorizedTest.run(null, false);
+                isAuthorizedTest.run("", false);
+                isAuthorizedTest.run("ab", false);
+                isAuthorizedTest.run("abd", false);
+                isAuthorizedTest.run("abc", true);
+            });
+
+            runner.test("sendRequest(File,QubTestDaemonRequest,CharacterWriteStream) with no daemon.json file", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final File daemonJsonFile = QubTestDaemon.getDaemonJsonFile(process.getFileSystem().getFolder("/qub-test/").await());
+                    final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
+
+                    test.assertNull(QubTestDaemon.sendRequest(daemonJsonFile, QubTestDaemonRequest.create().setStop(true), output));
+                    test.assertEqual("", output.getText().await());
+                }
+            });
+        });
+
+        runner.testGroup(QubTestDaemonClassLoader.class, () ->
+        {
+            runner.test("getSharedClassNames(Iterable<Class<?>>)", (Test test) ->
+            {
+                final Set<String> sharedClassNames = QubTestDaemonClassLoader.getSharedClassNames(Iterable.create(TestRunner.class, Test.class));
+                test.assertTrue(sharedClassNames.contains(TestRunner.class.getName()));
+                test.assertTrue(sharedClassNames.contains(Test.class.getName()));
+                test.assertTrue(sharedClassNames.contains(Action0.class.getName()));
+                test.assertFalse(sharedClassNames.contains(String.class.getName()));
+                test.assertFalse(sharedClassNames.contains(QubTestDaemon.class.getName()));
+            });
+        });
+    }
+}
@@ -37,15 +37,24 @@ public interface QubTestRunTests
 
                         test.assertEqual(
                             Iterable.create(
-                                "Usage: fake-action-name [[--folder=]<folder-to-test>] [--pattern=<test-name-pattern>] [--coverage[=<None|Sources|Tests|All>]] [--testjson] [--verbose] [--profiler] [--help]",
+                                "Usage: fake-action-name [[--folder=]<folder-to-test>] [--pattern=<test-name-pattern>] [--coverage[=<None|Sources|Tests|All>]] [--testjson] [--parallelism=<N|auto>] [--forks=<N>] [--daemon] [--results-format=<json|binary>] [--rerun-failed] [--fail-fast[=<N>]] [--test-timeout=<seconds>] [--test-class-timeout=<seconds>] [--process-timeout=<seconds>] [--verbose] [--profiler] [--help]",
                                 "  fake-description",
-                                "  --folder:      The folder to run tests in. Defaults to the current folder.",
-                                "  --pattern:     The pattern to match against tests to determine if they will be run or not.",
-                                "  --coverage(c): Whether or not to collect code coverage information while running tests.",
-                                "  --testjson:    Whether or not to write the test results to a test.json file.",
-                                "  --verbose(v):  Whether or not to show verbose logs.",
-                                "  --profiler:    Whether or not this application should pause before it is run to allow a profiler to be attached.",
-                                "  --help(?):     Show the help message for this application."),
+                                "  --folder:             The folder to run tests in. Defaults to the current folder.",
+                                "  --pattern:            The pattern to match against tests to determine if they will be run or not.",
+                                "  --coverage(c):        Whether or not to collect code coverage information while running tests.",
+                                "  --testjson:           Whether or not to write the test results to a test.json file.",
+                                "  --parallelism:        The number of test classes to run at the same time. Defaults to 1.",
+                                "  --forks:              The number of test runner processes to split the test classes between. Defaults to 1.",
+                                "  --daemon:             Whether or not to run the tests in a running qub-test daemon.",
+                                "  --results-format:     The format to store the test results in. Defaults to json.",
+                                "  --rerun-failed:       Whether or not to only rerun the previously failing tests of unchanged test classes.",
+                                "  --fail-fast:          Stop starting new test classes after N tests have failed. Defaults to 1 when no value is given.",
+                                "  --test-timeout:       The number of seconds that each test has to finish before it is interrupted and reported as timed out.",
+                                "  --test-class-timeout: The number of seconds that each test class has to finish before its remaining tests are interrupted.",
+                                "  --process-timeout:    The number of seconds that each test runner process has to finish before it is stopped.",
+                                "  --verbose(v):         Whether or not to show verbose logs.",
+                                "  --profiler:           Whether or not this application should pause before it is run to allow a profiler to be attached.",
+                                "  --help(?):            Show the help message for this application."),
                             Strings.getLines(process.getOutputWriteStream().getText().await()));
                     }
                 });
@@ -61,15 +70,24 @@ public interface QubTestRunTests
 
                         test.assertEqual(
                             Iterable.create(
-                                "Usage: fake-action-name [[--folder=]<folder-to-test>] [--pattern=<test-name-pattern>] [--coverage[=<None|Sources|Tests|All>]] [--testjson] [--verbose] [--profiler] [--help]",
+                                "Usage: fake-action-name [[--folder=]<folder-to-test>] [--pattern=<test-name-pattern>] [--coverage[=<None|Sources|Tests|All>]] [--testjson] [--parallelism=<N|auto>] [--forks=<N>] [--daemon] [--results-format=<json|binary>] [--rerun-failed] [--fail-fast[=<N>]] [--test-timeout=<seconds>] [--test-class-timeout=<seconds>] [--process-timeout=<seconds>] [--verbose] [--profiler] [--help]",
                                 "  fake-description",
-                                "  --folder:      The folder to run tests in. Defaults to the current folder.",
-                                "  --pattern:     The pattern to match against tests to determine if they will be run or not.",
-                                "  --coverage(c): Whether or not to collect code coverage information while running tests.",
-                                "  --testjson:    Whether or not to write the test results to a test.json file.",
-                                "  --verbose(v):  Whether or not to show verbose logs.",
-                                "  --profiler:    Whether or not this application should pause before it is run to allow a profiler to be attached.",
-                                "  --help(?):     Show the help message for this application."),
+                                "  --folder:             The folder to run tests in. Defaults to the current folder.",
+                                "  --pattern:            The pattern to match against tests to determine if they will be run or not.",
+                                "  --coverage(c):        Whether or not to collect code coverage information while running tests.",
+                                "  --testjson:           Whether or not to write the test results to a test.json file.",
+                                "  --parallelism:        The number of test classes to run at the same time. Defaults to 1.",
+                                "  --forks:              The number of test runner processes to split the test classes between. Defaults to 1.",
+                                "  --daemon:             Whether or not to run the tests in a running qub-test daemon.",
+                                "  --results-format:     The format to store the test results in. Defaults to json.",
+                                "  --rerun-failed:       Whether or not to only rerun the previously failing tests of unchanged test classes.",
+                                "  --fail-fast:          Stop starting new test classes after N tests have failed. Defaults to 1 when no value is given.",
+                                "  --test-timeout:       The number of seconds that each test has to finish before it is interrupted and reported as timed out.",
+                                "  --test-class-timeout: The number of seconds that each test class has to finish before its remaining tests are interrupted.",
+                                "  --process-timeout:    The number of seconds that each test runner process has to finish before it is stopped.",
+                                "  --verbose(v):         Whether or not to show verbose logs.",
+                                "  --profiler:           Whether or not this application should pause before it is run to allow a profiler to be attached.",
+                                "  --help(?):            Show the help message for this application."),
                             Strings.getLines(process.getOutputWriteStream().getText().await()));
                     }
                 });
@@ -95,6 +113,7 @@ public interface QubTestRunTests
                         test.assertTrue(parameters.getBuildJson());
                         test.assertEqual(Coverage.None, parameters.getCoverage());
                         test.assertSame(process.getDefaultApplicationLauncher(), parameters.getDefaultApplicationLauncher());
+                        test.assertSame(process.getParallelAsyncRunner(), parameters.getParallelAsyncRunner());
                         test.assertSame(process.getEnvironmentVariables(), parameters.getEnvironmentVariables());
                         test.assertSame(process.getErrorWriteStream(), parameters.getErrorWriteStream());
                         test.assertEqual(process.getCurrentFolder(), parameters.getFolderToBuild());
@@ -102,6 +121,9 @@ public interface QubTestRunTests
                         test.assertEqual(process.getJVMClasspath().await(), parameters.getJvmClassPath());
                         test.assertSame(process.getOutputWriteStream(), parameters.getOutputWriteStream());
                         test.assertNull(parameters.getPattern());
+                        test.assertNull(parameters.getParallelism());
+                        test.assertEqual(1, parameters.getForks());
+                        test.assertFalse(parameters.getDaemon());
                         test.assertFalse(parameters.getProfiler());
                         test.assertEqual(qubBuildDataFolder, parameters.getQubBuildDataFolder());
                         test.assertEqual(qubTestDataFolder, parameters.getQubTestDataFolder());
@@ -139,6 +161,7 @@ public interface QubTestRunTests
                         test.assertTrue(parameters.getBuildJson());
                         test.assertEqual(Coverage.None, parameters.getCoverage());
                         test.assertSame(process.getDefaultApplicationLauncher(), parameters.getDefaultApplicationLauncher());
+                        test.assertSame(process.getParallelAsyncRunner(), parameters.getParallelAsyncRunner());
                         test.assertSame(process.getEnvironmentVariables(), parameters.getEnvironmentVariables());
                         test.assertSame(process.getErrorWriteStream(), parameters.getErrorWriteStream());
                         test.assertEqual(iDontExistFolder, parameters.getFolderToBuild());
@@ -146,6 +169,9 @@ public interface QubTestRunTests
                         test.assertEqual(process.getJVMClasspath().await(), parameters.getJvmClassPath());
                         test.assertSame(process.getOutputWriteStream(), parameters.getOutputWriteStream());
                         test.assertNull(parameters.getPattern());
+                        test.assertNull(parameters.getParallelism());
+                        test.assertEqual(1, parameters.getForks());
+                        test.assertFalse(parameters.getDaemon());
                         test.assertFalse(parameters.getProfiler());
                         test.assertEqual(qubBuildDataFolder, parameters.getQubBuildDataFolder());
                         test.assertEqual(qubTestDataFolder, parameters.getQubTestDataFolder());
@@ -182,6 +208,7 @@ public interface QubTestRunTests
                         test.assertTrue(parameters.getBuildJson());
                         test.assertEqual(Coverage.None, parameters.getCoverage());
                         test.assertSame(process.getDefaultApplicationLauncher(), parameters.getDefaultApplicationLauncher());
+                        test.assertSame(process.getParallelAsyncRunner(), parameters.getParallelAsyncRunner());
                         test.assertSame(process.getEnvironmentVariables(), parameters.getEnvironmentVariables());
                         test.assertSame(process.getErrorWriteStream(), parameters.getErrorWriteStream());
                         test.assertEqual(iDontExist, parameters.getFolderToBuild());
@@ -189,6 +216,9 @@ public interface QubTestRunTests
                         test.assertEqual(process.getJVMClasspath().await(), parameters.getJvmClassPath());
                         test.assertSame(process.getOutputWriteStream(), parameters.getOutputWriteStream());
                         test.assertNull(parameters.getPattern());
+                        test.assertNull(parameters.getParallelism());
+                        test.assertEqual(1, parameters.getForks());
+                        test.assertFalse(parameters.getDaemon());
                         test.assertFalse(parameters.getProfiler());
                         test.assertEqual(qubBuildDataFolder, parameters.getQubBuildDataFolder());
                         test.assertEqual(qubTestDataFolder, parameters.getQubTestDataFolder());
@@ -224,6 +254,7 @@ public interface QubTestRunTests
                         test.assertTrue(parameters.getBuildJson());
                         test.assertEqual(Coverage.None, parameters.getCoverage());
                         test.assertSame(process.getDefaultApplicationLauncher(), parameters.getDefaultApplicationLauncher());
+                        test.assertSame(process.getParallelAsyncRunner(), parameters.getParallelAsyncRunner());
                         test.assertSame(process.getEnvironmentVariables(), parameters.getEnvironmentVariables());
                         test.assertSame(process.getErrorWriteStream(), parameters.getErrorWriteStream());
                         test.assertEqual(iDontExist, parameters.getFolderToBuild());
@@ -231,6 +262,9 @@ public interface QubTestRunTests
                         test.assertEqual(process.getJVMClasspath().await(), parameters.getJvmClassPath());
                         test.assertSame(process.getOutputWriteStream(), parameters.getOutputWriteStream());
                         test.assertNull(parameters.getPattern());
+                        test.assertNull(parameters.getParallelism());
+                        test.assertEqual(1, parameters.getForks());
+                        test.assertFalse(parameters.getDaemon());
                         test.assertFalse(parameters.getProfiler());
                         test.assertEqual(qubBuildDataFolder, parameters.getQubBuildDataFolder());
                         test.assertEqual(qubTestDataFolder, parameters.getQubTestDataFolder());
@@ -269,6 +303,7 @@ public interface QubTestRunTests
                         test.assertTrue(parameters.getBuildJson());
                         test.assertEqual(Coverage.None, parameters.getCoverage());
                         test.assertSame(process.getDefaultApplicationLauncher(), parameters.getDefaultApplicationLauncher());
+                        test.assertSame(process.getParallelAsyncRunner(), parameters.getParallelAsyncRunner());
                         test.assertSame(process.getEnvironmentVariables(), parameters.getEnvironmentVariables());
                         test.assertSame(process.getErrorWriteStream(), parameters.getErrorWriteStream());
                         test.assertEqual(iDontExist, parameters.getFolderToBuild());
@@ -276,6 +311,9 @@ public interface QubTestRunTests
                         test.assertEqual(process.getJVMClasspath().await(), parameters.getJvmClassPath());
                         test.assertSame(process.getOutputWriteStream(), parameters.getOutputWriteStream());
                         test.assertNull(parameters.getPattern());
+                        test.assertNull(parameters.getParallelism());
+                        test.assertEqual(1, parameters.getForks());
+                        test.assertFalse(parameters.getDaemon());
                         test.assertFalse(parameters.getProfiler());
                         test.assertEqual(qubBuildDataFolder, parameters.getQubBuildDataFolder());
                         test.assertEqual(qubTestDataFolder, parameters.getQubTestDataFolder());
@@ -289,6 +327,269 @@ public interface QubTestRunTests
                 });
             });
 
+            runner.testGroup("parseForks(String)", () ->
+            {
+                final Action2<String,Integer> parseForksTest = (String text, Integer expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertEqual(expected, QubTestRun.parseForks(text).await());
+                    });
+                };
+
+                parseForksTest.run(null, 1);
+                parseForksTest.run("", 1);
+                parseForksTest.run("1", 1);
+                parseForksTest.run("4", 4);
+
+                final Action1<String> parseForksErrorTest = (String text) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertThrows(() -> QubTestRun.parseForks(text).await(),
+                            new IllegalArgumentException("The forks value must be a positive integer, but was " + Strings.escapeAndQuote(text) + "."));
+                    });
+                };
+
+                parseForksErrorTest.run("0");
+                parseForksErrorTest.run("-1");
+                parseForksErrorTest.run("auto");
+            });
+
+            runner.testGroup("runWithDeadline(ChildProcess,Duration,File,CharacterToByteWriteStream)", () ->
+            {
+                final Action1<Duration> runWithDeadlineTest = (Duration processTimeout) ->
+                {
+                    runner.test("with a test runner that finishes and " + (processTimeout == null ? "no" : processTimeout.toString()) + " time limit", (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final Folder currentFolder = process.getCurrentFolder();
+                            process.getProcessFactory()
+                                .add(new FakeConsoleTestRunnerProcessRun()
+                                    .setWorkingFolder(currentFolder)
+                                    .addConsoleTestRunnerFullClassName()
+                                    .setFunction((ByteWriteStream functionOutput) ->
+                                    {
+                                        CharacterWriteStream.create(functionOutput).writeLine("Inside test runner!").await();
+                                    }));
+                            final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
+                            final ConsoleTestRunnerProcessBuilder testRunner = ConsoleTestRunnerProcessBuilder.create(process.getProcessFactory()).await()
+                                .setWorkingFolder(currentFolder)
+                                .addConsoleTestRunnerFullClassName()
+                                .redirectOutput(output);
+
+                            test.assertEqual(0, QubTestRun.runWithDeadline(testRunner.start().await(), processTimeout, null, output));
+                            test.assertLinesEqual(
+                                Iterable.create("Inside test runner!"),
+                                output);
+                        }
+                    });
+                };
+
+                runWithDeadlineTest.run(null);
+                runWithDeadlineTest.run(Duration.seconds(30));
+            });
+
+            runner.test("waitForExitCode(ChildProcess)", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder currentFolder = process.getCurrentFolder();
+                    process.getProcessFactory()
+                        .add(new FakeConsoleTestRunnerProcessRun()
+                            .setWorkingFolder(currentFolder)
+                            .addConsoleTestRunnerFullClassName());
+                    final ConsoleTestRunnerProcessBuilder testRunner = ConsoleTestRunnerProcessBuilder.create(process.getProcessFactory()).await()
+                        .setWorkingFolder(currentFolder)
+                        .addConsoleTestRunnerFullClassName();
+
+                    test.assertEqual(0, QubTestRun.getExitCode(QubTestRun.waitForExitCode(testRunner.start().await()), Duration.seconds(30)));
+                }
+            });
+
+            runner.testGroup("getReportedFailedTestCount(File)", () ->
+            {
+                final Action2<String,Integer> getReportedFailedTestCountTest = (String failedTestCountText, Integer expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(failedTestCountText), (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final File shardTestJsonFile = process.getFileSystem().getFile("/outputs/test.fork1.json").await();
+                            if (failedTestCountText != null)
+                            {
+                                ConsoleTestRunner.getFailedTestCountFile(shardTestJsonFile).setContentsAsString(failedTestCountText).await();
+                            }
+
+                            test.assertEqual(expected, QubTestRun.getReportedFailedTestCount(shardTestJsonFile));
+                        }
+                    });
+                };
+
+                getReportedFailedTestCountTest.run(null, null);
+                getReportedFailedTestCountTest.run("", null);
+                getReportedFailedTestCountTest.run("oops", null);
+                getReportedFailedTestCountTest.run("3", 3);
+            });
+
+            runner.test("getFailedTestCount(MutableMap<Integer,Integer>,List<File>)", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final List<File> shardTestJsonFiles = List.create(
+                        process.getFileSystem().getFile("/outputs/test.fork1.json").await(),
+                        process.getFileSystem().getFile("/outputs/test.fork2.json").await(),
+                        process.getFileSystem().getFile("/outputs/test.fork3.json").await());
+                    ConsoleTestRunner.getFailedTestCountFile(shardTestJsonFiles.get(0)).setContentsAsString("5").await();
+                    ConsoleTestRunner.getFailedTestCountFile(shardTestJsonFiles.get(1)).setContentsAsString("2").await();
+                    final MutableMap<Integer,Integer> shardExitCodes = Map.create();
+                    shardExitCodes.set(0, 1);
+
+                    // The first fork has finished, so its exit code is used instead of its reported failed test count.
+                    test.assertEqual(3, QubTestRun.getFailedTestCount(shardExitCodes, shardTestJsonFiles));
+                }
+            });
+
+            runner.testGroup("getJacocoAgentOptions(Folder,Iterable<File>,Iterable<File>)", () ->
+            {
+                final Action2<Coverage,String> getJacocoAgentOptionsTest = (Coverage coverage, String expected) ->
+                {
+                    runner.test("with " + coverage, (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final Folder sourceFolder = process.getFileSystem().getFolder("/project/sources/").await();
+                            final Folder testFolder = process.getFileSystem().getFolder("/project/tests/").await();
+                            final Folder outputFolder = process.getFileSystem().getFolder("/project/outputs/").await();
+                            sourceFolder.createFile("qub/A.java").await();
+                            sourceFolder.createFile("qub/b/B.java").await();
+                            sourceFolder.createFile("C.java").await();
+                            testFolder.createFile("qub/ATests.java").await();
+                            testFolder.createFile("other/OtherTests.java").await();
+                            final List<File> classFiles = List.create();
+                            for (final String classFileRelativePath : Iterable.create("qub/A.class", "qub/A$1.class", "qub/b/B.class", "C.class", "qub/ATests.class", "other/OtherTests.class"))
+                            {
+                                classFiles.add(outputFolder.createFile(classFileRelativePath).await());
+                            }
+                            final Iterable<File> coverageClassFiles = QubTestRun.getClassFilesForCoverage(coverage, outputFolder, classFiles, sourceFolder, testFolder, Map.create()).toList();
+
+                            test.assertEqual(expected, QubTestRun.getJacocoAgentOptions(outputFolder, classFiles, coverageClassFiles));
+                        }
+                    });
+                };
+
+                getJacocoAgentOptionsTest.run(Coverage.None, "");
+                getJacocoAgentOptionsTest.run(Coverage.Sources, "includes=C:C$*:qub.*:qub.b.*,excludes=qub.ATests:qub.ATests$*");
+                getJacocoAgentOptionsTest.run(Coverage.Tests, "includes=other.*:qub.*,excludes=qub.A:qub.A$*:qub.b.B:qub.b.B$*");
+                getJacocoAgentOptionsTest.run(Coverage.All, "includes=C:C$*:other.*:qub.*:qub.b.*");
+
+                runner.test("with a dependency class in the same package as a covered class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder sourceFolder = process.getFileSystem().getFolder("/project/sources/").await();
+                        final Folder testFolder = process.getFileSystem().getFolder("/project/tests/").await();
+                        final Folder outputFolder = process.getFileSystem().getFolder("/project/outputs/").await();
+                        sourceFolder.createFile("qub/A.java").await();
+                        // qub/List.class comes from a dependency, so it doesn't have a java file in the project.
+                        final Iterable<File> classFiles = Iterable.create(
+                            outputFolder.createFile("qub/A.class").await(),
+                            outputFolder.createFile("qub/List.class").await());
+                        final Iterable<File> coverageClassFiles = QubTestRun.getClassFilesForCoverage(Coverage.Sources, outputFolder, classFiles, sourceFolder, testFolder, Map.create()).toList();
+
+                        test.assertEqual("includes=qub.*,excludes=qub.List:qub.List$*", QubTestRun.getJacocoAgentOptions(outputFolder, classFiles, coverageClassFiles));
+                    }
+                });
+
+                runner.test("with more excludes than fit in the maximum length", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder sourceFolder = process.getFileSystem().getFolder("/project/sources/").await();
+                        final Folder testFolder = process.getFileSystem().getFolder("/project/tests/").await();
+                        final Folder outputFolder = process.getFileSystem().getFolder("/project/outputs/").await();
+                        sourceFolder.createFile("qub/A.java").await();
+                        final List<File> classFiles = List.create(outputFolder.createFile("qub/A.class").await());
+                        for (int i = 0; i < 1000; ++i)
+                        {
+                            classFiles.add(outputFolder.createFile("qub/Dependency" + i + ".class").await());
+                        }
+                        final Iterable<File> coverageClassFiles = QubTestRun.getClassFilesForCoverage(Coverage.Sources, outputFolder, classFiles, sourceFolder, testFolder, Map.create()).toList();
+
+                        test.assertEqual("includes=qub.*", QubTestRun.getJacocoAgentOptions(outputFolder, classFiles, coverageClassFiles));
+                    }
+                });
+
+                runner.test("with more includes than fit in the maximum length", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder sourceFolder = process.getFileSystem().getFolder("/project/sources/").await();
+                        final Folder testFolder = process.getFileSystem().getFolder("/project/tests/").await();
+                        final Folder outputFolder = process.getFileSystem().getFolder("/project/outputs/").await();
+                        final List<File> classFiles = List.create();
+                        for (int i = 0; i < 1000; ++i)
+                        {
+                            sourceFolder.createFile("DefaultPackageClass" + i + ".java").await();
+                            classFiles.add(outputFolder.createFile("DefaultPackageClass" + i + ".class").await());
+                        }
+                        final Iterable<File> coverageClassFiles = QubTestRun.getClassFilesForCoverage(Coverage.Sources, outputFolder, classFiles, sourceFolder, testFolder, Map.create()).toList();
+
+                        test.assertEqual("", QubTestRun.getJacocoAgentOptions(outputFolder, classFiles, coverageClassFiles));
+                    }
+                });
+            });
+
+            runner.testGroup("isSourceClassFile(Folder,File,Set<String>,SourceFileCache)", () ->
+            {
+                final Action2<String,Boolean> isSourceClassFileTest = (String classFileRelativePath, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(classFileRelativePath), (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                            final File classFile = outputFolder.createFile(classFileRelativePath).await();
+                            final Set<String> sourceJavaFilePaths = Set.create();
+                            sourceJavaFilePaths.addAll(Iterable.create("A.java", "qub/B.java"));
+
+                            test.assertEqual(expected, QubTestRun.isSourceClassFile(outputFolder, classFile, sourceJavaFilePaths, SourceFileCache.create(outputFolder, Map.create())));
+                        }
+                    });
+                };
+
+                isSourceClassFileTest.run("A.class", true);
+                isSourceClassFileTest.run("A$1.class", true);
+                isSourceClassFileTest.run("qub/B.class", true);
+                isSourceClassFileTest.run("qub/B$C$D.class", true);
+                isSourceClassFileTest.run("B.class", false);
+                isSourceClassFileTest.run("qub/A.class", false);
+                isSourceClassFileTest.run("qub/BTests.class", false);
+
+                final Action2<String,Boolean> isSourceClassFileWithSourceFileTest = (String classFileRelativePath, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(classFileRelativePath) + " compiled from qub/B.java", (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                            final File classFile = outputFolder.getFile(classFileRelativePath).await();
+                            classFile.setContents(SourceFileCacheTests.createClassFile("B.java")).await();
+                            final Set<String> sourceJavaFilePaths = Set.create();
+                            sourceJavaFilePaths.addAll(Iterable.create("A.java", "qub/B.java"));
+
+                            test.assertEqual(expected, QubTestRun.isSourceClassFile(outputFolder, classFile, sourceJavaFilePaths, SourceFileCache.create(outputFolder, Map.create())));
+                        }
+                    });
+                };
+
+                // Foo is a non-public top-level class that is declared in B.java.
+                isSourceClassFileWithSourceFileTest.run("qub/Foo.class", true);
+                isSourceClassFileWithSourceFileTest.run("qub/Foo$1.class", true);
+                isSourceClassFileWithSourceFileTest.run("other/Foo.class", false);
+            });
+
             runner.testGroup("run(QubTestParameters)", () ->
             {
                 runner.test("with null parameters", (Test test) ->
@@ -1025,6 +1326,7 @@ public interface QubTestRunTests
                     final Folder outputsFolder = currentFolder.getFolder("outputs").await();
                     final File coverageExecFile = outputsFolder.getFile("coverage.exec").await();
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
+                    final Folder instrumentedFolder = outputsFolder.getFolder("coverage-instrumented").await();
                     final String jvmClassPath = "/fake-jvm-classpath";
                     process.getProcessFactory()
                         .add(new FakeJavacProcessRun()
@@ -1039,10 +1341,21 @@ public interface QubTestRunTests
                             .addClasspath(outputsFolder.toString())
                             .addSourceFile(aJavaFile.relativeTo(currentFolder))
                             .setCompileFunctionAutomatically())
+                        .add(new FakeJacocoCliProcessRun()
+                            .setWorkingFolder(currentFolder)
+                            .addJacocoCliJar(jacocoCliJarFile)
+                            .addArgument("instrument")
+                            .addArgument(instrumentedFolder.getFile("uninstrumented.jar").await().toString())
+                            .addArgument("--dest")
+                            .addArgument(instrumentedFolder.getFolder("instrumented").await().toString())
+                            .setFunction(() ->
+                            {
+                                instrumentedFolder.getFile("instrumented/uninstrumented.jar").await()
+                                    .setContents(instrumentedFolder.getFile("uninstrumented.jar").await().getContents().await()).await();
+                            }))
                         .add(new FakeConsoleTestRunnerProcessRun()
                             .setWorkingFolder(currentFolder)
-                            .addJavaAgent(jacocoAgentJarFile + "=destfile=" + coverageExecFile)
-                            .addClasspath(Iterable.create(outputsFolder.toString(), jvmClassPath))
+                            .addClasspath(Iterable.create(instrumentedFolder.getFile("classes.jar").await().toString(), outputsFolder.toString(), jvmClassPath, jacocoAgentJarFile.toString()))
                             .addConsoleTestRunnerFullClassName()
                             .addProfiler(false)
                             .addVerbose(false)
@@ -1059,6 +1372,10 @@ public interface QubTestRunTests
                             .addClassFile(outputsFolder.getFile("A.class").await())
                             .addSourceFiles(currentFolder.getFolder("sources").await())
                             .addHtml(coverageFolder)
+                            .addArgument("--xml")
+                            .addArgument(coverageFolder.getFile("coverage.xml").await().toString())
+                            .addArgument("--csv")
+                            .addArgument(coverageFolder.getFile("coverage.csv").await().toString())
                             .setFunction(() ->
                             {
                                 coverageFolder.createFile("index.html").await();
@@ -1084,8 +1401,10 @@ public interface QubTestRunTests
                     test.assertEqual(
                         Iterable.create(
                             "Running tests...",
-                            "VERBOSE: Running /: java -javaagent:/qub/jacoco/jacococli/versions/0.8.1/jacocoagent.jar=destfile=/outputs/coverage.exec -classpath /outputs/;/fake-jvm-classpath qub.ConsoleTestRunner --profiler=false --verbose=false --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
+                            "VERBOSE: Instrumenting 1 of 1 class files for coverage...",
+                            "VERBOSE: Running /: java -classpath /outputs/coverage-instrumented/classes.jar;/outputs/;/fake-jvm-classpath;/qub/jacoco/jacococli/versions/0.8.1/jacocoagent.jar qub.ConsoleTestRunner --profiler=false --verbose=false --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
                             "",
+                            "VERBOSE: Merged the coverage data of 0 test classes into coverage.exec.",
                             "",
                             "Analyzing coverage..."
                         ),
@@ -1114,6 +1433,7 @@ public interface QubTestRunTests
                     final Folder outputsFolder = currentFolder.getFolder("outputs").await();
                     final File coverageExecFile = outputsFolder.getFile("coverage.exec").await();
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
+                    final Folder instrumentedFolder = outputsFolder.getFolder("coverage-instrumented").await();
                     final String jvmClassPath = "/fake-jvm-classpath";
                     process.getProcessFactory()
                         .add(new FakeJavacProcessRun()
@@ -1128,10 +1448,21 @@ public interface QubTestRunTests
                             .addClasspath(outputsFolder.toString())
                             .addSourceFile(aJavaFile.relativeTo(currentFolder))
                             .setCompileFunctionAutomatically())
+                        .add(new FakeJacocoCliProcessRun()
+                            .setWorkingFolder(currentFolder)
+                            .addJacocoCliJar(jacocoCliJarFile)
+                            .addArgument("instrument")
+                            .addArgument(instrumentedFolder.getFile("uninstrumented.jar").await().toString())
+                            .addArgument("--dest")
+                            .addArgument(instrumentedFolder.getFolder("instrumented").await().toString())
+                            .setFunction(() ->
+                            {
+                                instrumentedFolder.getFile("instrumented/uninstrumented.jar").await()
+                                    .setContents(instrumentedFolder.getFile("uninstrumented.jar").await().getContents().await()).await();
+                            }))
                         .add(new FakeConsoleTestRunnerProcessRun()
                             .setWorkingFolder(currentFolder)
-                            .addJavaAgent(jacocoAgentJarFile + "=destfile=" + coverageExecFile)
-                            .addClasspath(Iterable.create(outputsFolder.toString(), jvmClassPath))
+                            .addClasspath(Iterable.create(instrumentedFolder.getFile("classes.jar").await().toString(), outputsFolder.toString(), jvmClassPath, jacocoAgentJarFile.toString()))
                             .addConsoleTestRunnerFullClassName()
                             .addProfiler(false)
                             .addVerbose(true)
@@ -1148,6 +1479,10 @@ public interface QubTestRunTests
                             .addClassFile(outputsFolder.getFile("A.class").await())
                             .addSourceFiles(currentFolder.getFolder("sources").await())
                             .addHtml(coverageFolder)
+                            .addArgument("--xml")
+                            .addArgument(coverageFolder.getFile("coverage.xml").await().toString())
+                            .addArgument("--csv")
+                            .addArgument(coverageFolder.getFile("coverage.csv").await().toString())
                             .setFunction(() ->
                             {
                                 coverageFolder.createFile("index.html").await();
@@ -1175,11 +1510,14 @@ public interface QubTestRunTests
                             "VERBOSE: Writing build.json file...",
                             "VERBOSE: Done writing build.json file.",
                             "Running tests...",
-                            "VERBOSE: Running /: java -javaagent:/qub/jacoco/jacococli/versions/0.8.1/jacocoagent.jar=destfile=/outputs/coverage.exec -classpath /outputs/;/fake-jvm-classpath qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
+                            "VERBOSE: Instrumenting 1 of 1 class files for coverage...",
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.8.1/jacococli.jar instrument /outputs/coverage-instrumented/uninstrumented.jar --dest /outputs/coverage-instrumented/instrumented/",
+                            "VERBOSE: Running /: java -classpath /outputs/coverage-instrumented/classes.jar;/outputs/;/fake-jvm-classpath;/qub/jacoco/jacococli/versions/0.8.1/jacocoagent.jar qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
                             "",
+                            "VERBOSE: Merged the coverage data of 0 test classes into coverage.exec.",
                             "",
                             "Analyzing coverage...",
-                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.8.1/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/"),
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.8.1/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/ --xml /outputs/coverage/coverage.xml --csv /outputs/coverage/coverage.csv"),
                         process.getOutputWriteStream());
                     test.assertLinesEqual(
                         Iterable.create(),
@@ -1189,11 +1527,14 @@ public interface QubTestRunTests
                     test.assertEqual(
                         Iterable.create(
                             "Running tests...",
-                            "VERBOSE: Running /: java -javaagent:/qub/jacoco/jacococli/versions/0.8.1/jacocoagent.jar=destfile=/outputs/coverage.exec -classpath /outputs/;/fake-jvm-classpath qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
+                            "VERBOSE: Instrumenting 1 of 1 class files for coverage...",
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.8.1/jacococli.jar instrument /outputs/coverage-instrumented/uninstrumented.jar --dest /outputs/coverage-instrumented/instrumented/",
+                            "VERBOSE: Running /: java -classpath /outputs/coverage-instrumented/classes.jar;/outputs/;/fake-jvm-classpath;/qub/jacoco/jacococli/versions/0.8.1/jacocoagent.jar qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
                             "",
+                            "VERBOSE: Merged the coverage data of 0 test classes into coverage.exec.",
                             "",
                             "Analyzing coverage...",
-                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.8.1/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/"),
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.8.1/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/ --xml /outputs/coverage/coverage.xml --csv /outputs/coverage/coverage.csv"),
                         Strings.getLines(qubTestDataFolder.getFileContentsAsString("logs/1.log").await()));
                 });
 
@@ -1224,6 +1565,7 @@ public interface QubTestRunTests
                     final Folder outputsFolder = currentFolder.getFolder("outputs").await();
                     final File coverageExecFile = outputsFolder.getFile("coverage.exec").await();
                     final Folder coverageFolder = outputsFolder.getFolder("coverage").await();
+                    final Folder instrumentedFolder = outputsFolder.getFolder("coverage-instrumented").await();
                     final String jvmClassPath = "/fake-jvm-classpath";
                     process.getProcessFactory()
                         .add(new FakeJavacProcessRun()
@@ -1238,10 +1580,21 @@ public interface QubTestRunTests
                             .addClasspath(outputsFolder.toString())
                             .addSourceFile(aJavaFile.relativeTo(currentFolder))
                             .setCompileFunctionAutomatically())
+                        .add(new FakeJacocoCliProcessRun()
+                            .setWorkingFolder(currentFolder)
+                            .addJacocoCliJar(jacocoCliJarFile)
+                            .addArgument("instrument")
+                            .addArgument(instrumentedFolder.getFile("uninstrumented.jar").await().toString())
+                            .addArgument("--dest")
+                            .addArgument(instrumentedFolder.getFolder("instrumented").await().toString())
+                            .setFunction(() ->
+                            {
+                                instrumentedFolder.getFile("instrumented/uninstrumented.jar").await()
+                                    .setContents(instrumentedFolder.getFile("uninstrumented.jar").await().getContents().await()).await();
+                            }))
                         .add(new FakeConsoleTestRunnerProcessRun()
                             .setWorkingFolder(currentFolder)
-                            .addJavaAgent(jacocoAgentJarFile + "=destfile=" + coverageExecFile)
-                            .addClasspath(Iterable.create(outputsFolder.toString(), jvmClassPath))
+                            .addClasspath(Iterable.create(instrumentedFolder.getFile("classes.jar").await().toString(), outputsFolder.toString(), jvmClassPath, jacocoAgentJarFile.toString()))
                             .addConsoleTestRunnerFullClassName()
                             .addProfiler(false)
                             .addVerbose(true)
@@ -1258,6 +1611,10 @@ public interface QubTestRunTests
                             .addClassFile(outputsFolder.getFile("A.class").await())
                             .addSourceFiles(currentFolder.getFolder("sources").await())
                             .addHtml(coverageFolder)
+                            .addArgument("--xml")
+                            .addArgument(coverageFolder.getFile("coverage.xml").await().toString())
+                            .addArgument("--csv")
+                            .addArgument(coverageFolder.getFile("coverage.csv").await().toString())
                             .setFunction(() ->
                             {
                                 coverageFolder.createFile("index.html").await();
@@ -1285,11 +1642,14 @@ public interface QubTestRunTests
                             "VERBOSE: Writing build.json file...",
                             "VERBOSE: Done writing build.json file.",
                             "Running tests...",
-                            "VERBOSE: Running /: java -javaagent:/qub/jacoco/jacococli/versions/0.9.2/jacocoagent.jar=destfile=/outputs/coverage.exec -classpath /outputs/;/fake-jvm-classpath qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
+                            "VERBOSE: Instrumenting 1 of 1 class files for coverage...",
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.9.2/jacococli.jar instrument /outputs/coverage-instrumented/uninstrumented.jar --dest /outputs/coverage-instrumented/instrumented/",
+                            "VERBOSE: Running /: java -classpath /outputs/coverage-instrumented/classes.jar;/outputs/;/fake-jvm-classpath;/qub/jacoco/jacococli/versions/0.9.2/jacocoagent.jar qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
                             "",
+                            "VERBOSE: Merged the coverage data of 0 test classes into coverage.exec.",
                             "",
                             "Analyzing coverage...",
-                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.9.2/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/"),
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.9.2/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/ --xml /outputs/coverage/coverage.xml --csv /outputs/coverage/coverage.csv"),
                         process.getOutputWriteStream());
                     test.assertLinesEqual(
                         Iterable.create(),
@@ -1299,11 +1659,14 @@ public interface QubTestRunTests
                     test.assertEqual(
                         Iterable.create(
                             "Running tests...",
-                            "VERBOSE: Running /: java -javaagent:/qub/jacoco/jacococli/versions/0.9.2/jacocoagent.jar=destfile=/outputs/coverage.exec -classpath /outputs/;/fake-jvm-classpath qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
+                            "VERBOSE: Instrumenting 1 of 1 class files for coverage...",
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.9.2/jacococli.jar instrument /outputs/coverage-instrumented/uninstrumented.jar --dest /outputs/coverage-instrumented/instrumented/",
+                            "VERBOSE: Running /: java -classpath /outputs/coverage-instrumented/classes.jar;/outputs/;/fake-jvm-classpath;/qub/jacoco/jacococli/versions/0.9.2/jacocoagent.jar qub.ConsoleTestRunner --profiler=false --verbose=true --testjson=true --logfile=/qub/qub/test-java/data/logs/1.log --output-folder=/outputs/ --coverage=Sources A",
                             "",
+                            "VERBOSE: Merged the coverage data of 0 test classes into coverage.exec.",
                             "",
                             "Analyzing coverage...",
-                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.9.2/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/"
+                            "VERBOSE: Running /: java -jar /qub/jacoco/jacococli/versions/0.9.2/jacococli.jar report /outputs/coverage.exec --classfiles outputs/A.class --sourcefiles /sources/ --html /outputs/coverage/ --xml /outputs/coverage/coverage.xml --csv /outputs/coverage/coverage.csv"
                         ),
                         Strings.getLines(qubTestDataFolder.getFileContentsAsString("logs/1.log").await()));
                 });
@@ -1554,6 +1917,6 @@ public interface QubTestRunTests
         final FakeTypeLoader typeLoader = process.getTypeLoader();
         typeLoader.addTypeContainer(QubBuild.class, qubBuildCompiledSourcesFile);
 
-        return new QubTestRunParameters(output, error, folderToTest, environmentVariables, processFactory, defaultApplicationLauncher, jvmClassPath, qubFolder, qubTestDataFolder, typeLoader);
+        return new QubTestRunParameters(output, error, folderToTest, environmentVariables, processFactory, defaultApplicationLauncher, jvmClassPath, qubFolder, qubTestDataFolder, typeLoader, process.getParallelAsyncRunner());
     }
 }
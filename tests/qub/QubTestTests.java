@@ -37,6 +37,7 @@ public interface QubTestTests
                                 "  --help(?):   Show the help message for this application.",
                                 "",
                                 "Actions:",
+                                "  daemon:        Start a test runner daemon that qub-test run --daemon will run tests in.",
                                 "  logs:          Show the logs folder.",
                                 "  run (default): Run tests in a source code project."),
                             Strings.getLines(process.getOutputWriteStream().getText().await()));
@@ -60,6 +61,7 @@ public interface QubTestTests
                                 "  --help(?):   Show the help message for this application.",
                                 "",
                                 "Actions:",
+                                "  daemon:        Start a test runner daemon that qub-test run --daemon will run tests in.",
                                 "  logs:          Show the logs folder.",
                                 "  run (default): Run tests in a source code project."),
                             Strings.getLines(process.getOutputWriteStream().getText().await()));
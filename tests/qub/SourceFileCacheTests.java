@@ -0,0 +1,135 @@
+package qub;
+
+public interface SourceFileCacheTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(SourceFileCache.class, () ->
+        {
+            runner.test("create(Folder,MutableMap<String,String>) with null outputFolder", (Test test) ->
+            {
+                test.assertThrows(() -> SourceFileCache.create(null, Map.create()),
+                    new PreConditionFailure("outputFolder cannot be null."));
+            });
+
+            runner.testGroup("getSourceFileName(File)", () ->
+            {
+                runner.test("with a class file that doesn't exist", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final SourceFileCache cache = SourceFileCache.create(outputFolder, Map.create());
+
+                        test.assertNull(cache.getSourceFileName(outputFolder.getFile("a/B.class").await()));
+                    }
+                });
+
+                runner.test("with a class file that isn't cached", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        outputFolder.getFile("a/B.class").await().setContents(SourceFileCacheTests.createClassFile("C.java")).await();
+                        final SourceFileCache cache = SourceFileCache.create(outputFolder, Map.create());
+
+                        test.assertEqual("C.java", cache.getSourceFileName(outputFolder.getFile("a/B.class").await()));
+
+                        cache.save();
+                        test.assertTrue(outputFolder.getFile(SourceFileCache.fileName).await().exists().await());
+                    }
+                });
+
+                runner.test("with a class file that doesn't have a SourceFile attribute", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        outputFolder.getFile("a/B.class").await().setContents(new byte[] { 1, 2, 3 }).await();
+                        final SourceFileCache cache = SourceFileCache.create(outputFolder, Map.create());
+
+                        test.assertNull(cache.getSourceFileName(outputFolder.getFile("a/B.class").await()));
+                    }
+                });
+
+                runner.test("with cached result for different class file contents", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        outputFolder.getFile("a/B.class").await().setContents(SourceFileCacheTests.createClassFile("C.java")).await();
+                        outputFolder.getFile(SourceFileCache.fileName).await().setContentsAsString(JSONObject.create()
+                            .setAll(Iterable.create(TestClassScanEntry.create("a/B.class")
+                                .setLastModified(DateTime.create(2000, 1, 1))
+                                .setContentHash("abc")
+                                .setSourceFile("D.java")
+                                .toJsonProperty()))
+                            .toString()).await();
+                        final SourceFileCache cache = SourceFileCache.create(outputFolder, Map.create());
+
+                        test.assertEqual("C.java", cache.getSourceFileName(outputFolder.getFile("a/B.class").await()));
+                    }
+                });
+
+                runner.test("with cached result for same class file contents", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final byte[] classFileBytes = SourceFileCacheTests.createClassFile("C.java");
+                        outputFolder.getFile("a/B.class").await().setContents(classFileBytes).await();
+                        outputFolder.getFile(SourceFileCache.fileName).await().setContentsAsString(JSONObject.create()
+                            .setAll(Iterable.create(TestClassScanEntry.create("a/B.class")
+                                .setLastModified(DateTime.create(2000, 1, 1))
+                                .setContentHash(ClassFileHashes.getContentHash(classFileBytes))
+                                .setSourceFile("D.java")
+                                .toJsonProperty()))
+                            .toString()).await();
+                        final SourceFileCache cache = SourceFileCache.create(outputFolder, Map.create());
+
+                        test.assertEqual("D.java", cache.getSourceFileName(outputFolder.getFile("a/B.class").await()));
+                    }
+                });
+            });
+        });
+    }
+
+    /**
+     * Create the bytes of a class file that only has a SourceFile attribute.
+     * @param sourceFileName The name of the java file in the SourceFile attribute.
+     * @return The bytes of the class file.
+     */
+    static byte[] createClassFile(String sourceFileName)
+    {
+        final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        final java.io.DataOutputStream classFile = new java.io.DataOutputStream(bytes);
+        try
+        {
+            classFile.writeInt(ClassFileDependencies.classFileMagic);
+            classFile.writeShort(0);
+            classFile.writeShort(52);
+            classFile.writeShort(3);
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 1
+            classFile.writeUTF("SourceFile");
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 2
+            classFile.writeUTF(sourceFileName);
+            classFile.writeShort(0); // access_flags
+            classFile.writeShort(0); // this_class
+            classFile.writeShort(0); // super_class
+            classFile.writeShort(0); // interfaces_count
+            classFile.writeShort(0); // fields_count
+            classFile.writeShort(0); // methods_count
+            classFile.writeShort(1); // attributes_count
+            classFile.writeShort(1);
+            classFile.writeInt(2);
+            classFile.writeShort(2);
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
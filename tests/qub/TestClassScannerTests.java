@@ -0,0 +1,180 @@
+package qub;
+
+public interface TestClassScannerTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestClassScanner.class, () ->
+        {
+            runner.testGroup("isTestClass(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClassScanner.isTestClass(null),
+                        new PreConditionFailure("classFileBytes cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    test.assertTrue(TestClassScanner.isTestClass(new byte[0]));
+                });
+
+                runner.test("with bytes that aren't a class file", (Test test) ->
+                {
+                    test.assertTrue(TestClassScanner.isTestClass(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+                });
+
+                final Action3<Integer,String,Boolean> isTestClassWithTestNameTest = (Integer accessFlags, String descriptor, Boolean expected) ->
+                {
+                    runner.test("with test method with access flags " + accessFlags + " and descriptor " + Strings.escapeAndQuote(descriptor), (Test test) ->
+                    {
+                        test.assertEqual(expected, TestClassScanner.isTestClass(TestClassScannerTests.createClassFile(accessFlags, "test", descriptor)));
+                    });
+                };
+
+                isTestClassWithTestNameTest.run(0x0009, "(Lqub/TestRunner;)V", true);
+                isTestClassWithTestNameTest.run(0x0008, "(Lqub/TestRunner;)V", true);
+                isTestClassWithTestNameTest.run(0x0001, "(Lqub/TestRunner;)V", false);
+                isTestClassWithTestNameTest.run(0x0009, "()V", false);
+                isTestClassWithTestNameTest.run(0x0009, "(Lqub/Test;)V", false);
+
+                runner.test("with static method with a different name", (Test test) ->
+                {
+                    test.assertFalse(TestClassScanner.isTestClass(TestClassScannerTests.createClassFile(0x0009, "main", "(Lqub/TestRunner;)V")));
+                });
+            });
+
+            runner.testGroup("getTestClassNames(ClassFileDiscovery,MutableMap<String,String>,VerboseCharacterToByteWriteStream)", () ->
+            {
+                runner.test("with test and non-test class files", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        outputFolder.getFile("a/BTests.class").await().setContents(TestClassScannerTests.createClassFile(0x0009, "test", "(Lqub/TestRunner;)V")).await();
+                        outputFolder.getFile("a/B.class").await().setContents(TestClassScannerTests.createClassFile(0x0001, "run", "()V")).await();
+                        outputFolder.getFile("C.class").await().setContents(new byte[0]).await();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+
+                        test.assertEqual(
+                            Iterable.create("C", "a.BTests"),
+                            TestClassScanner.getTestClassNames(ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), 1), Map.create(), verbose));
+                        test.assertTrue(outputFolder.getFile(TestClassScanner.scanCacheFileName).await().exists().await());
+
+                        test.assertEqual(
+                            Iterable.create("C", "a.BTests"),
+                            TestClassScanner.getTestClassNames(ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), 1), Map.create(), verbose));
+                    }
+                });
+
+                runner.test("with cached result for different class file contents", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        outputFolder.getFile("a/B.class").await().setContents(TestClassScannerTests.createClassFile(0x0009, "test", "(Lqub/TestRunner;)V")).await();
+                        outputFolder.getFile(TestClassScanner.scanCacheFileName).await().setContentsAsString(JSONObject.create()
+                            .setAll(Iterable.create(TestClassScanEntry.create("a/B.class")
+                                .setLastModified(DateTime.create(2000, 1, 1))
+                                .setContentHash("abc")
+                                .setTestClass(false)
+                                .toJsonProperty()))
+                            .toString()).await();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+
+                        test.assertEqual(
+                            Iterable.create("a.B"),
+                            TestClassScanner.getTestClassNames(ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), 1), Map.create(), verbose));
+                    }
+                });
+
+                runner.test("with cached result for same class file contents", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final byte[] classFileBytes = TestClassScannerTests.createClassFile(0x0009, "test", "(Lqub/TestRunner;)V");
+                        outputFolder.getFile("a/B.class").await().setContents(classFileBytes).await();
+                        outputFolder.getFile(TestClassScanner.scanCacheFileName).await().setContentsAsString(JSONObject.create()
+                            .setAll(Iterable.create(TestClassScanEntry.create("a/B.class")
+                                .setLastModified(DateTime.create(2000, 1, 1))
+                                .setContentHash(ClassFileHashes.getContentHash(classFileBytes))
+                                .setTestClass(false)
+                                .toJsonProperty()))
+                            .toString()).await();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+
+                        test.assertEqual(
+                            Iterable.create(),
+                            TestClassScanner.getTestClassNames(ClassFileDiscovery.create(outputFolder, process.getParallelAsyncRunner(), 1), Map.create(), verbose));
+                    }
+                });
+            });
+        });
+    }
+
+    /**
+     * Create the bytes of a class file that has one field and one method.
+     * @param methodAccessFlags The access flags of the method.
+     * @param methodName The name of the method.
+     * @param methodDescriptor The descriptor of the method.
+     * @return The bytes of the class file.
+     */
+    static byte[] createClassFile(int methodAccessFlags, String methodName, String methodDescriptor)
+    {
+        final java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        final java.io.DataOutputStream classFile = new java.io.DataOutputStream(bytes);
+        try
+        {
+            classFile.writeInt(ClassFileDependencies.classFileMagic);
+            classFile.writeShort(0);
+            classFile.writeShort(52);
+            classFile.writeShort(9);
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 1
+            classFile.writeUTF("a/B");
+            classFile.writeByte(ClassFileDependencies.constantClass); // 2
+            classFile.writeShort(1);
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 3
+            classFile.writeUTF("java/lang/Object");
+            classFile.writeByte(ClassFileDependencies.constantClass); // 4
+            classFile.writeShort(3);
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 5
+            classFile.writeUTF(methodName);
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 6
+            classFile.writeUTF(methodDescriptor);
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 7
+            classFile.writeUTF("Code");
+            classFile.writeByte(ClassFileDependencies.constantUtf8); // 8
+            classFile.writeUTF("I");
+
+            classFile.writeShort(0x0021); // access_flags
+            classFile.writeShort(2); // this_class
+            classFile.writeShort(4); // super_class
+            classFile.writeShort(0); // interfaces_count
+
+            classFile.writeShort(1); // fields_count
+            classFile.writeShort(0x0002);
+            classFile.writeShort(5);
+            classFile.writeShort(8);
+            classFile.writeShort(0);
+
+            classFile.writeShort(1); // methods_count
+            classFile.writeShort(methodAccessFlags);
+            classFile.writeShort(5);
+            classFile.writeShort(6);
+            classFile.writeShort(1); // attributes_count
+            classFile.writeShort(7);
+            classFile.writeInt(3);
+            classFile.write(new byte[] { 1, 2, 3 });
+
+            classFile.writeShort(0); // attributes_count
+        }
+        catch (java.io.IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,178 @@
+package qub;
+
+public interface TestClassSchedulerTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestClassScheduler.class, () ->
+        {
+            runner.testGroup("getDurations(TestJSON)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final MutableMap<String,Duration> durations = TestClassScheduler.getDurations(null);
+                    test.assertNotNull(durations);
+                    test.assertFalse(durations.any());
+                });
+
+                runner.test("with class files with and without durations", (Test test) ->
+                {
+                    final TestJSON testJson = TestJSON.create()
+                        .setClassFiles(Iterable.create(
+                            TestJSONClassFile.create("a/B.class")
+                                .setDuration(Duration.milliseconds(5)),
+                            TestJSONClassFile.create("C.class")));
+                    final MutableMap<String,Duration> durations = TestClassScheduler.getDurations(testJson);
+                    test.assertEqual(1, durations.getCount());
+                    test.assertEqual(Duration.milliseconds(5), durations.get("a.B").await());
+                });
+            });
+
+            runner.testGroup("orderLongestFirst(Iterable<String>,Map<String,Duration>)", () ->
+            {
+                runner.test("with null fullClassNames", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClassScheduler.orderLongestFirst(null, Map.create()),
+                        new PreConditionFailure("fullClassNames cannot be null."));
+                });
+
+                runner.test("with null durations", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClassScheduler.orderLongestFirst(Iterable.create(), null),
+                        new PreConditionFailure("durations cannot be null."));
+                });
+
+                runner.test("with no durations", (Test test) ->
+                {
+                    test.assertEqual(
+                        Iterable.create("A", "B", "C"),
+                        TestClassScheduler.orderLongestFirst(Iterable.create("A", "B", "C"), Map.create()));
+                });
+
+                runner.test("with all durations", (Test test) ->
+                {
+                    final MutableMap<String,Duration> durations = Map.<String,Duration>create()
+                        .set("A", Duration.milliseconds(1))
+                        .set("B", Duration.milliseconds(30))
+                        .set("C", Duration.milliseconds(20));
+                    test.assertEqual(
+                        Iterable.create("B", "C", "A"),
+                        TestClassScheduler.orderLongestFirst(Iterable.create("A", "B", "C"), durations));
+                });
+
+                runner.test("with some durations", (Test test) ->
+                {
+                    final MutableMap<String,Duration> durations = Map.<String,Duration>create()
+                        .set("A", Duration.milliseconds(10))
+                        .set("C", Duration.milliseconds(30));
+                    test.assertEqual(
+                        Iterable.create("C", "B", "A"),
+                        TestClassScheduler.orderLongestFirst(Iterable.create("A", "B", "C"), durations));
+                });
+            });
+
+            runner.testGroup("orderByPriority(Iterable<String>,Function1<String,TestClassPriority>,Map<String,Duration>,boolean)", () ->
+            {
+                final MutableMap<String,TestClassPriority> priorities = Map.<String,TestClassPriority>create()
+                    .set("A", TestClassPriority.Unchanged)
+                    .set("B", TestClassPriority.Changed)
+                    .set("C", TestClassPriority.Unchanged)
+                    .set("D", TestClassPriority.PreviouslyFailed)
+                    .set("E", TestClassPriority.Changed);
+                final Function1<String,TestClassPriority> getPriority = (String fullClassName) -> priorities.get(fullClassName).await();
+
+                runner.test("with null fullClassNames", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClassScheduler.orderByPriority(null, getPriority, Map.create(), false),
+                        new PreConditionFailure("fullClassNames cannot be null."));
+                });
+
+                runner.test("with null getPriority", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClassScheduler.orderByPriority(Iterable.create(), null, Map.create(), false),
+                        new PreConditionFailure("getPriority cannot be null."));
+                });
+
+                runner.test("with no durations", (Test test) ->
+                {
+                    test.assertEqual(
+                        Iterable.create("D", "B", "E", "A", "C"),
+                        TestClassScheduler.orderByPriority(Iterable.create("A", "B", "C", "D", "E"), getPriority, Map.create(), false));
+                });
+
+                runner.test("with durations and shortest first", (Test test) ->
+                {
+                    final MutableMap<String,Duration> durations = Map.<String,Duration>create()
+                        .set("A", Duration.milliseconds(30))
+                        .set("B", Duration.milliseconds(20))
+                        .set("C", Duration.milliseconds(10))
+                        .set("D", Duration.milliseconds(50))
+                        .set("E", Duration.milliseconds(5));
+                    test.assertEqual(
+                        Iterable.create("D", "E", "B", "C", "A"),
+                        TestClassScheduler.orderByPriority(Iterable.create("A", "B", "C", "D", "E"), getPriority, durations, false));
+                });
+
+                runner.test("with durations and longest first", (Test test) ->
+                {
+                    final MutableMap<String,Duration> durations = Map.<String,Duration>create()
+                        .set("A", Duration.milliseconds(10))
+                        .set("B", Duration.milliseconds(5))
+                        .set("C", Duration.milliseconds(30))
+                        .set("D", Duration.milliseconds(1))
+                        .set("E", Duration.milliseconds(20));
+                    test.assertEqual(
+                        Iterable.create("D", "E", "B", "C", "A"),
+                        TestClassScheduler.orderByPriority(Iterable.create("A", "B", "C", "D", "E"), getPriority, durations, true));
+                });
+            });
+
+            runner.testGroup("getShards(Iterable<String>,Map<String,Duration>,int)", () ->
+            {
+                runner.test("with null fullClassNames", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClassScheduler.getShards(null, Map.create(), 2),
+                        new PreConditionFailure("fullClassNames cannot be null."));
+                });
+
+                runner.test("with 0 shardCount", (Test test) ->
+                {
+                    test.assertThrows(() -> TestClassScheduler.getShards(Iterable.create("A"), Map.create(), 0),
+                        new PreConditionFailure("shardCount (0) must be greater than or equal to 1."));
+                });
+
+                final Action3<Iterable<String>,Integer,Iterable<Iterable<String>>> getShardsWithNoDurationsTest = (Iterable<String> fullClassNames, Integer shardCount, Iterable<Iterable<String>> expected) ->
+                {
+                    runner.test("with " + fullClassNames + ", no durations, and " + shardCount, (Test test) ->
+                    {
+                        test.assertEqual(expected, TestClassScheduler.getShards(fullClassNames, Map.create(), shardCount));
+                    });
+                };
+
+                getShardsWithNoDurationsTest.run(Iterable.create(), 2, Iterable.create());
+                getShardsWithNoDurationsTest.run(Iterable.create("A"), 2, Iterable.create(Iterable.create("A")));
+                getShardsWithNoDurationsTest.run(Iterable.create("A", "B", "C"), 1, Iterable.create(Iterable.create("A", "B", "C")));
+                getShardsWithNoDurationsTest.run(Iterable.create("A", "B", "C"), 2, Iterable.create(Iterable.create("A", "C"), Iterable.create("B")));
+                getShardsWithNoDurationsTest.run(Iterable.create("A", "B", "C", "D"), 3, Iterable.create(Iterable.create("A", "D"), Iterable.create("B"), Iterable.create("C")));
+
+                runner.test("with long classes that would end up in the same round-robin shard", (Test test) ->
+                {
+                    final MutableMap<String,Duration> durations = Map.<String,Duration>create()
+                        .set("A", Duration.seconds(90))
+                        .set("B", Duration.seconds(1))
+                        .set("C", Duration.seconds(90))
+                        .set("D", Duration.seconds(1))
+                        .set("E", Duration.seconds(90))
+                        .set("F", Duration.seconds(1));
+                    test.assertEqual(
+                        Iterable.create(
+                            Iterable.create("A", "E"),
+                            Iterable.create("C", "B", "D", "F")),
+                        TestClassScheduler.getShards(Iterable.create("A", "B", "C", "D", "E", "F"), durations, 2));
+                });
+            });
+        });
+    }
+}
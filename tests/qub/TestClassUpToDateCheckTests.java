@@ -0,0 +1,437 @@
+package qub;
+
+public interface TestClassUpToDateCheckTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestClassUpToDateCheck.class, () ->
+        {
+            runner.testGroup("getUpToDateClassFile(String)", () ->
+            {
+                final VersionNumber javaVersion = VersionNumber.parse("14").await();
+                final Function1<TestJSONClassFile,TestJSON> createTestJson = (TestJSONClassFile classFile) ->
+                {
+                    return TestJSON.create()
+                        .setJavaVersion(javaVersion)
+                        .setClassFiles(Iterable.create(classFile))
+                        .setClassPathEntries(Iterable.create());
+                };
+
+                runner.test("with no previous test.json", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, null, javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+                        test.assertNull(check.getUpToDateClassFile("ATests"));
+                    }
+                });
+
+                runner.test("with unchanged failing test class whose failing test name has a wildcard", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestJSONClassFile previousClassFile = createPreviousClassFile.run(classFile, 1)
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Passed),
+                                TestJSONTest.create("ATests c*")
+                                    .setOutcome(TestOutcome.Failed)));
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(previousClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertNull(check.getRerunnableClassRecord("ATests"));
+                    }
+                });
+
+                runner.test("with unchanged passing test class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestJSONClassFile testJSONClassFile = TestJSONClassFile.create("ATests.class")
+                            .setLastModified(classFile.getLastModified().await())
+                            .setPassedTestCount(3)
+                            .setDependencies(Iterable.create());
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(testJSONClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        final TestJSONClassFile upToDateClassFile = check.getUpToDateClassFile("ATests");
+                        test.assertNotNull(upToDateClassFile);
+                        test.assertEqual(3, upToDateClassFile.getPassedTestCount());
+                        test.assertNull(check.getUpToDateClassFile("BTests"));
+                    }
+                });
+
+                runner.test("with touched but unchanged passing test class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestJSONClassFile testJSONClassFile = TestJSONClassFile.create("ATests.class")
+                            .setLastModified(DateTime.create(2000, 1, 1))
+                            .setContentHash(ClassFileHashes.getContentHash(new byte[] { 1, 2, 3 }))
+                            .setPassedTestCount(3)
+                            .setDependencies(Iterable.create());
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(testJSONClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        final TestJSONClassFile upToDateClassFile = check.getUpToDateClassFile("ATests");
+                        test.assertNotNull(upToDateClassFile);
+                        test.assertEqual(classFile.getLastModified().await(), upToDateClassFile.getLastModified());
+                    }
+                });
+
+                runner.test("with failing test class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestJSONClassFile testJSONClassFile = TestJSONClassFile.create("ATests.class")
+                            .setLastModified(classFile.getLastModified().await())
+                            .setFailedTestCount(1)
+                            .setDependencies(Iterable.create());
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(testJSONClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertNull(check.getUpToDateClassFile("ATests"));
+                    }
+                });
+
+                runner.test("with partial test class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestJSONClassFile testJSONClassFile = TestJSONClassFile.create("ATests.class")
+                            .setLastModified(classFile.getLastModified().await())
+                            .setPassedTestCount(1)
+                            .setDependencies(Iterable.create())
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Passed)))
+                            .setPartial(true);
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(testJSONClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertNull(check.getUpToDateClassFile("ATests"));
+                    }
+                });
+
+                runner.test("with different Java version", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestJSONClassFile testJSONClassFile = TestJSONClassFile.create("ATests.class")
+                            .setLastModified(classFile.getLastModified().await())
+                            .setDependencies(Iterable.create());
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(testJSONClassFile), VersionNumber.parse("15").await(), Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertNull(check.getUpToDateClassFile("ATests"));
+                    }
+                });
+
+                runner.test("with changed dependency", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final File dependencyClassFile = outputFolder.getFile("A.class").await();
+                        dependencyClassFile.setContents(new byte[] { 4, 5, 6 }).await();
+                        final TestJSONClassFile testJSONClassFile = TestJSONClassFile.create("ATests.class")
+                            .setLastModified(classFile.getLastModified().await())
+                            .setDependencies(Iterable.create(
+                                TestJSONClassFileDependency.create("A.class")
+                                    .setLastModified(DateTime.create(2000, 1, 1))
+                                    .setContentHash(ClassFileHashes.getContentHash(new byte[] { 7, 8, 9 }))));
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(testJSONClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertNull(check.getUpToDateClassFile("ATests"));
+                    }
+                });
+            });
+
+            runner.testGroup("mergePartialClassFile(TestJSONClassFile)", () ->
+            {
+                final VersionNumber javaVersion = VersionNumber.parse("14").await();
+                final String contentHash = ClassFileHashes.getContentHash(new byte[] { 1, 2, 3 });
+                final Function1<TestJSONClassFile,TestJSON> createTestJson = (TestJSONClassFile classFile) ->
+                {
+                    return TestJSON.create()
+                        .setJavaVersion(javaVersion)
+                        .setClassFiles(Iterable.create(classFile))
+                        .setClassPathEntries(Iterable.create());
+                };
+                final Function1<String,TestJSONClassFile> createRunClassFile = (String runContentHash) ->
+                {
+                    return TestJSONClassFile.create("ATests.class")
+                        .setContentHash(runContentHash)
+                        .setPassedTestCount(1)
+                        .setSkippedTestCount(0)
+                        .setFailedTestCount(0)
+                        .setDuration(Duration.milliseconds(5))
+                        .setDependencies(Iterable.create())
+                        .setTests(Iterable.create(
+                            TestJSONTest.create("ATests c")
+                                .setOutcome(TestOutcome.Passed)));
+                };
+
+                runner.test("with no previous test.json", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, null, javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        final TestJSONClassFile mergedClassFile = check.mergePartialClassFile(createRunClassFile.run(contentHash));
+                        test.assertTrue(mergedClassFile.isPartial());
+                        test.assertEqual(1, mergedClassFile.getTests().getCount());
+                        test.assertEqual(1, mergedClassFile.getPassedTestCount());
+                    }
+                });
+
+                runner.test("with unchanged complete previous entry", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final TestJSONClassFile previousClassFile = TestJSONClassFile.create("ATests.class")
+                            .setContentHash(contentHash)
+                            .setPassedTestCount(1)
+                            .setSkippedTestCount(0)
+                            .setFailedTestCount(1)
+                            .setDuration(Duration.milliseconds(50))
+                            .setDependencies(Iterable.create())
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Passed),
+                                TestJSONTest.create("ATests c")
+                                    .setOutcome(TestOutcome.Failed)));
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(previousClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        final TestJSONClassFile mergedClassFile = check.mergePartialClassFile(createRunClassFile.run(contentHash));
+                        test.assertFalse(mergedClassFile.isPartial());
+                        test.assertEqual(2, mergedClassFile.getPassedTestCount());
+                        test.assertEqual(0, mergedClassFile.getSkippedTestCount());
+                        test.assertEqual(0, mergedClassFile.getFailedTestCount());
+                        test.assertEqual(Duration.milliseconds(50), mergedClassFile.getDuration());
+                        test.assertEqual(
+                            Iterable.create("ATests b", "ATests c"),
+                            mergedClassFile.getTests().map(TestJSONTest::getFullName).toList());
+                        test.assertEqual(TestOutcome.Passed, mergedClassFile.getTests().last().getOutcome());
+                    }
+                });
+
+                runner.test("with changed class file", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final TestJSONClassFile previousClassFile = TestJSONClassFile.create("ATests.class")
+                            .setContentHash(ClassFileHashes.getContentHash(new byte[] { 4, 5, 6 }))
+                            .setPassedTestCount(2)
+                            .setDependencies(Iterable.create())
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Passed),
+                                TestJSONTest.create("ATests c")
+                                    .setOutcome(TestOutcome.Passed)));
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(previousClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        final TestJSONClassFile mergedClassFile = check.mergePartialClassFile(createRunClassFile.run(contentHash));
+                        test.assertTrue(mergedClassFile.isPartial());
+                        test.assertEqual(1, mergedClassFile.getTests().getCount());
+                    }
+                });
+
+                runner.test("with partial previous entry", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final TestJSONClassFile previousClassFile = TestJSONClassFile.create("ATests.class")
+                            .setContentHash(contentHash)
+                            .setPassedTestCount(1)
+                            .setDependencies(Iterable.create())
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Passed)))
+                            .setPartial(true);
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(previousClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        final TestJSONClassFile mergedClassFile = check.mergePartialClassFile(createRunClassFile.run(contentHash));
+                        test.assertTrue(mergedClassFile.isPartial());
+                        test.assertEqual(1, mergedClassFile.getTests().getCount());
+                    }
+                });
+
+                runner.test("with a test class that was already merged", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final TestJSONClassFile previousClassFile = TestJSONClassFile.create("ATests.class")
+                            .setContentHash(contentHash)
+                            .setPassedTestCount(0)
+                            .setSkippedTestCount(0)
+                            .setFailedTestCount(2)
+                            .setDependencies(Iterable.create())
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Failed),
+                                TestJSONTest.create("ATests c")
+                                    .setOutcome(TestOutcome.Failed)));
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(previousClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        check.mergePartialClassFile(createRunClassFile.run(contentHash));
+                        final TestJSONClassFile mergedClassFile = check.mergePartialClassFile(TestJSONClassFile.create("ATests.class")
+                            .setContentHash(contentHash)
+                            .setPassedTestCount(1)
+                            .setDependencies(Iterable.create())
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Passed)
+                                    .setDuration(Duration.milliseconds(2)))));
+                        test.assertFalse(mergedClassFile.isPartial());
+                        test.assertEqual(2, mergedClassFile.getPassedTestCount());
+                        test.assertEqual(0, mergedClassFile.getFailedTestCount());
+                        test.assertEqual(Duration.milliseconds(2), mergedClassFile.getTests().first().getDuration());
+                    }
+                });
+            });
+
+            runner.testGroup("getPriority(String)", () ->
+            {
+                final VersionNumber javaVersion = VersionNumber.parse("14").await();
+
+                runner.test("with previous results", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File aClassFile = outputFolder.getFile("ATests.class").await();
+                        aClassFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final File bClassFile = outputFolder.getFile("BTests.class").await();
+                        bClassFile.setContents(new byte[] { 4, 5, 6 }).await();
+                        final File cClassFile = outputFolder.getFile("CTests.class").await();
+                        cClassFile.setContents(new byte[] { 7, 8, 9 }).await();
+                        final TestJSON previousTestJson = TestJSON.create()
+                            .setJavaVersion(javaVersion)
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("ATests.class")
+                                    .setLastModified(aClassFile.getLastModified().await())
+                                    .setPassedTestCount(1),
+                                TestJSONClassFile.create("BTests.class")
+                                    .setLastModified(DateTime.create(2000, 1, 1))
+                                    .setContentHash(ClassFileHashes.getContentHash(new byte[] { 1 }))
+                                    .setPassedTestCount(1),
+                                TestJSONClassFile.create("CTests.class")
+                                    .setLastModified(cClassFile.getLastModified().await())
+                                    .setFailedTestCount(1)))
+                            .setClassPathEntries(Iterable.create());
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, previousTestJson, javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertEqual(TestClassPriority.Unchanged, check.getPriority("ATests"));
+                        test.assertEqual(TestClassPriority.Changed, check.getPriority("BTests"));
+                        test.assertEqual(TestClassPriority.PreviouslyFailed, check.getPriority("CTests"));
+                        test.assertEqual(TestClassPriority.Changed, check.getPriority("DTests"));
+                    }
+                });
+            });
+
+            runner.testGroup("getRerunnableClassRecord(String)", () ->
+            {
+                final VersionNumber javaVersion = VersionNumber.parse("14").await();
+                final Function1<TestJSONClassFile,TestJSON> createTestJson = (TestJSONClassFile classFile) ->
+                {
+                    return TestJSON.create()
+                        .setJavaVersion(javaVersion)
+                        .setClassFiles(Iterable.create(classFile))
+                        .setClassPathEntries(Iterable.create());
+                };
+                final Function2<File,Integer,TestJSONClassFile> createPreviousClassFile = (File classFile, Integer failedTestCount) ->
+                {
+                    return TestJSONClassFile.create("ATests.class")
+                        .setLastModified(classFile.getLastModified().await())
+                        .setPassedTestCount(2 - failedTestCount)
+                        .setSkippedTestCount(0)
+                        .setFailedTestCount(failedTestCount)
+                        .setDependencies(Iterable.create())
+                        .setTests(Iterable.create(
+                            TestJSONTest.create("ATests b")
+                                .setOutcome(TestOutcome.Passed),
+                            TestJSONTest.create("ATests c")
+                                .setOutcome(failedTestCount == 0 ? TestOutcome.Passed : TestOutcome.Failed)));
+                };
+
+                runner.test("with no previous test.json", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, null, javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+                        test.assertNull(check.getRerunnableClassRecord("ATests"));
+                    }
+                });
+
+                runner.test("with unchanged failing test class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(createPreviousClassFile.run(classFile, 1)), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        final TestJSONClassRecord classRecord = check.getRerunnableClassRecord("ATests");
+                        test.assertNotNull(classRecord);
+                        test.assertEqual(1, classRecord.getPassedTestCount());
+                        test.assertEqual(Iterable.create("ATests c"), classRecord.getFailedTestNames());
+                    }
+                });
+
+                runner.test("with unchanged passing test class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(createPreviousClassFile.run(classFile, 0)), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertNull(check.getRerunnableClassRecord("ATests"));
+                    }
+                });
+
+                runner.test("with changed failing test class", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File classFile = outputFolder.getFile("ATests.class").await();
+                        classFile.setContents(new byte[] { 1, 2, 3 }).await();
+                        final TestJSONClassFile previousClassFile = createPreviousClassFile.run(classFile, 1)
+                            .setLastModified(DateTime.create(2000, 1, 1))
+                            .setContentHash(ClassFileHashes.getContentHash(new byte[] { 4, 5, 6 }));
+                        final TestClassUpToDateCheck check = TestClassUpToDateCheck.create(outputFolder, createTestJson.run(previousClassFile), javaVersion, Iterable.create(), Map.create(), VerboseCharacterToByteWriteStream.create(InMemoryCharacterToByteStream.create()));
+
+                        test.assertNull(check.getRerunnableClassRecord("ATests"));
+                    }
+                });
+            });
+        });
+    }
+}
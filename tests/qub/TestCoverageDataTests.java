@@ -0,0 +1,125 @@
+package qub;
+
+public interface TestCoverageDataTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestCoverageData.class, () ->
+        {
+            runner.test("getFile(Folder,String)", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                    test.assertEqual(
+                        outputFolder.getFile("coverage-data/a.BTests.exec").await(),
+                        TestCoverageData.getFile(outputFolder, "a.BTests"));
+                }
+            });
+
+            runner.test("delete(Folder,Iterable<String>)", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                    TestCoverageData.getFile(outputFolder, "ATests").setContents(new byte[] { 1 }).await();
+                    TestCoverageData.getFile(outputFolder, "BTests").setContents(new byte[] { 2 }).await();
+
+                    TestCoverageData.delete(outputFolder, Iterable.create("ATests", "CTests"));
+
+                    test.assertFalse(TestCoverageData.exists(outputFolder, "ATests"));
+                    test.assertTrue(TestCoverageData.exists(outputFolder, "BTests"));
+                }
+            });
+
+            runner.test("getSettings(String,Coverage,Folder,Folder)", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final Folder sourceFolder = process.getFileSystem().getFolder("/project/sources/").await();
+                    final Folder testFolder = process.getFileSystem().getFolder("/project/tests/").await();
+                    test.assertEqual(
+                        TestCoverageData.getSettings("0.8.1", Coverage.Sources, sourceFolder, testFolder),
+                        TestCoverageData.getSettings("0.8.1", Coverage.Sources, sourceFolder, testFolder));
+                    test.assertNotEqual(
+                        TestCoverageData.getSettings("0.8.1", Coverage.Sources, sourceFolder, testFolder),
+                        TestCoverageData.getSettings("0.9.2", Coverage.Sources, sourceFolder, testFolder));
+                    test.assertNotEqual(
+                        TestCoverageData.getSettings("0.8.1", Coverage.Sources, sourceFolder, testFolder),
+                        TestCoverageData.getSettings("0.8.1", Coverage.Sources, sourceFolder, process.getFileSystem().getFolder("/project/test/").await()));
+                    test.assertNotEqual(
+                        TestCoverageData.getSettings("0.8.1", Coverage.Sources, sourceFolder, testFolder),
+                        TestCoverageData.getSettings("0.8.1", Coverage.All, sourceFolder, testFolder));
+                }
+            });
+
+            runner.testGroup("setSettings(Folder,String,VerboseCharacterToByteWriteStream)", () ->
+            {
+                runner.test("with the same settings", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+                        TestCoverageData.setSettings(outputFolder, "coverage=Sources", verbose);
+                        TestCoverageData.getFile(outputFolder, "ATests").setContents(new byte[] { 1 }).await();
+
+                        TestCoverageData.setSettings(outputFolder, "coverage=Sources", verbose);
+
+                        test.assertTrue(TestCoverageData.exists(outputFolder, "ATests"));
+                    }
+                });
+
+                runner.test("with different settings", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream());
+                        TestCoverageData.setSettings(outputFolder, "coverage=Sources", verbose);
+                        TestCoverageData.getFile(outputFolder, "ATests").setContents(new byte[] { 1 }).await();
+
+                        TestCoverageData.setSettings(outputFolder, "coverage=All", verbose);
+
+                        test.assertFalse(TestCoverageData.exists(outputFolder, "ATests"));
+                        test.assertEqual(Iterable.create(), TestCoverageData.getExecutionDataFiles(outputFolder));
+                    }
+                });
+            });
+
+            runner.testGroup("merge(Folder,Iterable<String>,File,VerboseCharacterToByteWriteStream)", () ->
+            {
+                runner.test("with no stored coverage data", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File coverageExecFile = outputFolder.getFile("coverage.exec").await();
+
+                        test.assertEqual(0, TestCoverageData.merge(outputFolder, Iterable.create("ATests"), coverageExecFile, VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream())));
+                        test.assertEqual(0, coverageExecFile.getContents().await().length);
+                    }
+                });
+
+                runner.test("with stored coverage data", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File coverageExecFile = outputFolder.getFile("coverage.exec").await();
+                        coverageExecFile.setContents(new byte[] { 1, 2 }).await();
+                        TestCoverageData.getFile(outputFolder, "ATests").setContents(new byte[] { 3 }).await();
+                        TestCoverageData.getFile(outputFolder, "OldTests").setContents(new byte[] { 4 }).await();
+
+                        test.assertEqual(1, TestCoverageData.merge(outputFolder, Iterable.create("ATests", "BTests"), coverageExecFile, VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream())));
+                        test.assertTrue(java.util.Arrays.equals(new byte[] { 1, 2, 3 }, coverageExecFile.getContents().await()));
+                        test.assertTrue(TestCoverageData.exists(outputFolder, "ATests"));
+                        test.assertFalse(TestCoverageData.exists(outputFolder, "OldTests"));
+                    }
+                });
+            });
+        });
+    }
+}
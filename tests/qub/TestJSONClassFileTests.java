@@ -31,9 +31,13 @@ public interface TestJSONClassFileTests
                         test.assertNotNull(classFile);
                         test.assertEqual(classFileRelativePath, classFile.getRelativePath().toString());
                         test.assertNull(classFile.getLastModified());
+                        test.assertNull(classFile.getContentHash());
                         test.assertEqual(0, classFile.getPassedTestCount());
                         test.assertEqual(0, classFile.getSkippedTestCount());
                         test.assertEqual(0, classFile.getFailedTestCount());
+                        test.assertNull(classFile.getDuration());
+                        test.assertNull(classFile.getDependencies());
+                        test.assertNull(classFile.getClassPathDependencies());
                     });
                 };
 
@@ -152,6 +156,169 @@ public interface TestJSONClassFileTests
                 });
             });
 
+            runner.testGroup("setContentHash(String)", () ->
+            {
+                final Action2<String,Throwable> setContentHashErrorTest = (String contentHash, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(contentHash), (Test test) ->
+                    {
+                        final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                        test.assertThrows(() -> classFile.setContentHash(contentHash),
+                            expected);
+                        test.assertNull(classFile.getContentHash());
+                    });
+                };
+
+                setContentHashErrorTest.run(null, new PreConditionFailure("contentHash cannot be null."));
+                setContentHashErrorTest.run("", new PreConditionFailure("contentHash cannot be empty."));
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setContentHash("abc123"));
+                    test.assertEqual("abc123", classFile.getContentHash());
+                });
+            });
+
+            runner.testGroup("setDuration(Duration)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertThrows(() -> classFile.setDuration(null),
+                        new PreConditionFailure("duration cannot be null."));
+                    test.assertNull(classFile.getDuration());
+                });
+
+                runner.test("with milliseconds", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setDuration(Duration.milliseconds(1500)));
+                    test.assertEqual(Duration.milliseconds(1500), classFile.getDuration());
+                });
+
+                runner.test("with seconds", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setDuration(Duration.seconds(2)));
+                    test.assertEqual(Duration.milliseconds(2000), classFile.getDuration());
+                });
+            });
+
+            runner.testGroup("setDependencies(Iterable<TestJSONClassFileDependency>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertThrows(() -> classFile.setDependencies(null),
+                        new PreConditionFailure("dependencies cannot be null."));
+                    test.assertNull(classFile.getDependencies());
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setDependencies(Iterable.create()));
+                    test.assertEqual(Iterable.create(), classFile.getDependencies());
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    final DateTime dateTime = DateTime.create(3000, 10, 15);
+                    test.assertSame(classFile, classFile.setDependencies(Iterable.create(
+                        TestJSONClassFileDependency.create("a/B.class")
+                            .setLastModified(dateTime))));
+                    final Iterable<TestJSONClassFileDependency> dependencies = classFile.getDependencies();
+                    test.assertEqual(1, dependencies.getCount());
+                    final TestJSONClassFileDependency dependency = dependencies.first();
+                    test.assertEqual("a/B.class", dependency.getRelativePath().toString());
+                    test.assertEqual(dateTime, dependency.getLastModified());
+                });
+            });
+
+            runner.testGroup("setClassPathDependencies(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertThrows(() -> classFile.setClassPathDependencies(null),
+                        new PreConditionFailure("classPathDependencies cannot be null."));
+                    test.assertNull(classFile.getClassPathDependencies());
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setClassPathDependencies(Iterable.create()));
+                    test.assertEqual(Iterable.create(), classFile.getClassPathDependencies());
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setClassPathDependencies(Iterable.create("/a.jar", "/b.jar")));
+                    test.assertEqual(Iterable.create("/a.jar", "/b.jar"), classFile.getClassPathDependencies());
+                });
+            });
+
+            runner.testGroup("setTests(Iterable<TestJSONTest>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertThrows(() -> classFile.setTests(null),
+                        new PreConditionFailure("tests cannot be null."));
+                    test.assertNull(classFile.getTests());
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setTests(Iterable.create()));
+                    test.assertEqual(0, classFile.getTests().getCount());
+                });
+
+                runner.test("with non-empty", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setTests(Iterable.create(
+                        TestJSONTest.create("hello a")
+                            .setOutcome(TestOutcome.Passed),
+                        TestJSONTest.create("hello b")
+                            .setOutcome(TestOutcome.Failed))));
+                    final Iterable<TestJSONTest> tests = classFile.getTests();
+                    test.assertEqual(2, tests.getCount());
+                    test.assertEqual("hello a", tests.first().getFullName());
+                    test.assertEqual(TestOutcome.Passed, tests.first().getOutcome());
+                    test.assertEqual(TestOutcome.Failed, tests.last().getOutcome());
+                    test.assertEqual("\"hello.class\":{\"tests\":{\"hello a\":{\"outcome\":\"passed\"},\"hello b\":{\"outcome\":\"failed\"}}}", classFile.toString());
+                });
+            });
+
+            runner.testGroup("setPartial(boolean)", () ->
+            {
+                runner.test("with not set", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertFalse(classFile.isPartial());
+                });
+
+                runner.test("with true", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setPartial(true));
+                    test.assertTrue(classFile.isPartial());
+                });
+
+                runner.test("with false", (Test test) ->
+                {
+                    final TestJSONClassFile classFile = TestJSONClassFile.create("hello.class");
+                    test.assertSame(classFile, classFile.setPartial(true).setPartial(false));
+                    test.assertFalse(classFile.isPartial());
+                });
+            });
+
             runner.testGroup("toString()", () ->
             {
                 runner.test("with no properties set", (Test test) ->
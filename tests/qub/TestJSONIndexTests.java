@@ -0,0 +1,140 @@
+package qub;
+
+public interface TestJSONIndexTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestJSONIndex.class, () ->
+        {
+            runner.testGroup("parse(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> TestJSONIndex.parse((String)null),
+                        new PreConditionFailure("testJsonText cannot be null."));
+                });
+
+                runner.test("with empty object", (Test test) ->
+                {
+                    final TestJSONIndex index = TestJSONIndex.parse("{}").await();
+                    test.assertNull(index.getJavaVersion());
+                    test.assertNull(index.getClassPathEntries());
+                    test.assertEqual(0, index.getClassRecords().getCount());
+                    test.assertNull(index.getClassRecord("a.B"));
+                });
+
+                runner.test("with unknown properties", (Test test) ->
+                {
+                    final TestJSONIndex index = TestJSONIndex.parse("{\"spam\":[1,true,null,{\"a\":\"b\\\"c\"}],\"classFiles\":{\"A.class\":{\"eggs\":false,\"passedTestCount\":2}}}").await();
+                    final TestJSONClassRecord record = index.getClassRecord("A");
+                    test.assertNotNull(record);
+                    test.assertEqual(2, record.getPassedTestCount());
+                    test.assertEqual(0, record.getFailedTestCount());
+                    test.assertNull(record.getDuration());
+                    test.assertFalse(record.hasDependencies());
+                    test.assertNull(record.getClassPathDependencies());
+                });
+
+                runner.test("with text written by TestJSON", (Test test) ->
+                {
+                    final DateTime lastModified = DateTime.create(2020, 5, 6);
+                    final TestJSON testJson = TestJSON.create()
+                        .setJavaVersion("14")
+                        .setClassPathEntries(Iterable.create(
+                            TestJSONClassPathEntry.create("/lib/a.jar")
+                                .setLastModified(lastModified)
+                                .setContentHash("abc")))
+                        .setClassFiles(Iterable.create(
+                            TestJSONClassFile.create("a/BTests.class")
+                                .setLastModified(lastModified)
+                                .setContentHash("def")
+                                .setPassedTestCount(3)
+                                .setSkippedTestCount(1)
+                                .setFailedTestCount(2)
+                                .setDuration(Duration.milliseconds(45))
+                                .setDependencies(Iterable.create(
+                                    TestJSONClassFileDependency.create("a/B.class")
+                                        .setLastModified(lastModified)
+                                        .setContentHash("ghi")))
+                                .setClassPathDependencies(Iterable.create("/lib/a.jar"))));
+
+                    final TestJSONIndex index = TestJSONIndex.parse(testJson.toString(JSONFormat.pretty)).await();
+                    test.assertEqual(VersionNumber.parse("14").await(), index.getJavaVersion());
+                    test.assertEqual(1, index.getClassPathEntries().getCount());
+                    test.assertEqual("abc", index.getClassPathEntries().first().getContentHash());
+
+                    final TestJSONClassRecord record = index.getClassRecord("a.BTests");
+                    test.assertEqual("a/BTests.class", record.getRelativePath());
+                    test.assertEqual(lastModified, record.getLastModified());
+                    test.assertEqual("def", record.getContentHash());
+                    test.assertEqual(3, record.getPassedTestCount());
+                    test.assertEqual(1, record.getSkippedTestCount());
+                    test.assertEqual(2, record.getFailedTestCount());
+                    test.assertEqual(Duration.milliseconds(45), record.getDuration());
+                    test.assertEqual(1, record.getDependencyCount());
+                    test.assertEqual("a/B.class", record.getDependencyRelativePath(0));
+                    test.assertEqual(lastModified, record.getDependencyLastModified(0));
+                    test.assertEqual("ghi", record.getDependencyContentHash(0));
+                    test.assertEqual(Iterable.create("/lib/a.jar"), record.getClassPathDependencies());
+
+                    test.assertEqual(
+                        testJson.getClassFiles().first().toString(),
+                        record.toTestJSONClassFile().toString());
+                });
+
+                runner.test("with tests and partial", (Test test) ->
+                {
+                    final TestJSON testJson = TestJSON.create()
+                        .setClassFiles(Iterable.create(
+                            TestJSONClassFile.create("ATests.class")
+                                .setPassedTestCount(1)
+                                .setSkippedTestCount(0)
+                                .setFailedTestCount(1)
+                                .setTests(Iterable.create(
+                                    TestJSONTest.create("ATests b")
+                                        .setOutcome(TestOutcome.Passed)
+                                        .setDuration(Duration.milliseconds(3)),
+                                    TestJSONTest.create("ATests c")
+                                        .setOutcome(TestOutcome.Failed)))
+                                .setPartial(true)));
+
+                    final TestJSONIndex index = TestJSONIndex.parse(testJson.toString(JSONFormat.pretty)).await();
+                    final TestJSONClassRecord record = index.getClassRecord("ATests");
+                    test.assertTrue(record.hasTests());
+                    test.assertEqual(2, record.getTestCount());
+                    test.assertEqual("ATests b", record.getTestName(0));
+                    test.assertEqual(TestOutcome.Passed, record.getTestOutcome(0));
+                    test.assertEqual(Duration.milliseconds(3), record.getTestDuration(0));
+                    test.assertEqual("ATests c", record.getTestName(1));
+                    test.assertEqual(TestOutcome.Failed, record.getTestOutcome(1));
+                    test.assertNull(record.getTestDuration(1));
+                    test.assertEqual(Iterable.create("ATests c"), record.getFailedTestNames());
+                    test.assertTrue(record.isPartial());
+
+                    test.assertEqual(
+                        testJson.getClassFiles().first().toString(),
+                        record.toTestJSONClassFile().toString());
+                });
+
+                runner.test("with truncated text", (Test test) ->
+                {
+                    test.assertThrows(() -> TestJSONIndex.parse("{\"classFiles\":{\"A.class\":{").await(),
+                        new ParseException("Failed to read test.json file: Expected '\"', but found the end of the test.json file."));
+                });
+            });
+
+            runner.test("create(TestJSON)", (Test test) ->
+            {
+                final TestJSON testJson = TestJSON.create()
+                    .setClassFiles(Iterable.create(
+                        TestJSONClassFile.create("A.class")
+                            .setPassedTestCount(1)));
+                final TestJSONIndex index = TestJSONIndex.create(testJson);
+                test.assertNull(index.getJavaVersion());
+                test.assertEqual(1, index.getClassRecord("A").getPassedTestCount());
+            });
+        });
+    }
+}
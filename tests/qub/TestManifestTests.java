@@ -0,0 +1,105 @@
+package qub;
+
+public interface TestManifestTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestManifest.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final TestManifest manifest = TestManifest.create();
+                test.assertEqual(Iterable.create(), manifest.getFullClassNames());
+                test.assertEqual(Iterable.create(), manifest.toLines());
+            });
+
+            runner.testGroup("create(Iterable<String>,Iterable<TestJSONClassFile>)", () ->
+            {
+                runner.test("with null fullClassNames", (Test test) ->
+                {
+                    test.assertThrows(() -> TestManifest.create(null, Iterable.create()),
+                        new PreConditionFailure("fullClassNames cannot be null."));
+                });
+
+                runner.test("with null previousTestJsonClassFiles", (Test test) ->
+                {
+                    test.assertThrows(() -> TestManifest.create(Iterable.create("a.B"), null),
+                        new PreConditionFailure("previousTestJsonClassFiles cannot be null."));
+                });
+
+                runner.test("with previous durations", (Test test) ->
+                {
+                    final TestManifest manifest = TestManifest.create(
+                        Iterable.create("a.B", "C", "D"),
+                        Iterable.create(
+                            TestJSONClassFile.create("a/B.class")
+                                .setPassedTestCount(3)
+                                .setDuration(Duration.milliseconds(250)),
+                            TestJSONClassFile.create("C.class")
+                                .setFailedTestCount(1)));
+                    test.assertEqual(Iterable.create("a.B", "C", "D"), manifest.getFullClassNames());
+                    test.assertEqual(Duration.milliseconds(250), manifest.getExpectedDurations().get("a.B").await());
+                    test.assertFalse(manifest.getExpectedDurations().containsKey("C"));
+                    test.assertFalse(manifest.getExpectedDurations().containsKey("D"));
+                    test.assertEqual(
+                        Iterable.create(
+                            "a.B\t250",
+                            "C\t",
+                            "D\t"),
+                        manifest.toLines());
+                });
+            });
+
+            runner.testGroup("parse(Iterable<String>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> TestManifest.parse((Iterable<String>)null),
+                        new PreConditionFailure("lines cannot be null."));
+                });
+
+                runner.test("with class names only", (Test test) ->
+                {
+                    final TestManifest manifest = TestManifest.parse(Iterable.create("a.B", "", "C")).await();
+                    test.assertEqual(Iterable.create("a.B", "C"), manifest.getFullClassNames());
+                    test.assertFalse(manifest.getExpectedDurations().any());
+                });
+
+                runner.test("with lines from toLines()", (Test test) ->
+                {
+                    final TestManifest manifest = TestManifest.create()
+                        .add("a.B")
+                        .setExpectedDuration("a.B", Duration.milliseconds(40))
+                        .add("C");
+                    final TestManifest parsed = TestManifest.parse(manifest.toLines()).await();
+                    test.assertEqual(Iterable.create("a.B", "C"), parsed.getFullClassNames());
+                    test.assertEqual(Duration.milliseconds(40), parsed.getExpectedDurations().get("a.B").await());
+                    test.assertFalse(parsed.getExpectedDurations().containsKey("C"));
+                });
+
+                runner.test("with invalid duration", (Test test) ->
+                {
+                    test.assertThrows(() -> TestManifest.parse(Iterable.create("a.B\tspam")).await(),
+                        new IllegalArgumentException("Expected the test manifest duration of a.B to be a number of milliseconds, but found \"spam\"."));
+                });
+            });
+
+            runner.testGroup("parse(File)", () ->
+            {
+                runner.test("with file written from toString()", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File manifestFile = process.getFileSystem().getFile("/outputs/test.manifest").await();
+                        manifestFile.setContentsAsString(TestManifest.create().add("a.B").add("C").toString()).await();
+
+                        final TestManifest parsed = TestManifest.parse(manifestFile).await();
+                        test.assertEqual(Iterable.create("a.B", "C"), parsed.getFullClassNames());
+                    }
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,186 @@
+package qub;
+
+public interface TestResultsJournalTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestResultsJournal.class, () ->
+        {
+            runner.testGroup("getJournalFile(File)", () ->
+            {
+                final Action2<String,String> getJournalFileTest = (String testResultsFilePath, String expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(testResultsFilePath), (Test test) ->
+                    {
+                        try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                        {
+                            final File testResultsFile = process.getFileSystem().getFile(testResultsFilePath).await();
+                            test.assertEqual(expected, TestResultsJournal.getJournalFile(testResultsFile).toString());
+                        }
+                    });
+                };
+
+                getJournalFileTest.run("/outputs/test.json", "/outputs/test.journal");
+                getJournalFileTest.run("/outputs/test.results", "/outputs/test.journal");
+                getJournalFileTest.run("/outputs/test.fork2.json", "/outputs/test.fork2.journal");
+            });
+
+            runner.testGroup("read(File)", () ->
+            {
+                runner.test("with entries written by append()", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File journalFile = process.getFileSystem().getFile("/outputs/test.journal").await();
+                        final TestResultsJournal journal = TestResultsJournal.create(journalFile, TestJSON.create()
+                            .setJavaVersion("14")
+                            .setClassPathEntries(Iterable.create(
+                                TestJSONClassPathEntry.create("/lib/a.jar")
+                                    .setContentHash("abc"))));
+                        journal.append(TestJSONClassFile.create("a/BTests.class")
+                            .setPassedTestCount(1)
+                            .setSkippedTestCount(0)
+                            .setFailedTestCount(1));
+                        journal.append(TestJSONClassFile.create("CTests.class")
+                            .setPassedTestCount(2)
+                            .setSkippedTestCount(0)
+                            .setFailedTestCount(0));
+                        journal.append(TestJSONClassFile.create("a/BTests.class")
+                            .setPassedTestCount(2)
+                            .setSkippedTestCount(0)
+                            .setFailedTestCount(0));
+                        journal.close();
+
+                        final TestJSON testJson = TestResultsJournal.read(journalFile).await();
+                        test.assertEqual(VersionNumber.parse("14").await(), testJson.getJavaVersion().await());
+                        test.assertEqual("abc", testJson.getClassPathEntries().first().getContentHash());
+                        test.assertEqual(
+                            Iterable.create("a/BTests.class", "CTests.class"),
+                            testJson.getClassFiles().map((TestJSONClassFile classFile) -> classFile.getRelativePath().toString()).toList());
+                        test.assertEqual(2, testJson.getClassFiles().first().getPassedTestCount());
+                        test.assertEqual(0, testJson.getClassFiles().first().getFailedTestCount());
+                    }
+                });
+
+                runner.test("with a partially written last line", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File journalFile = process.getFileSystem().getFile("/outputs/test.journal").await();
+                        journalFile.setContentsAsString(
+                            "{\"javaVersion\":\"14\"}\n" +
+                            "{\"classFiles\":{\"A.class\":{\"passedTestCount\":1}}}\n" +
+                            "{\"classFiles\":{\"B.class\":{\"passedTe").await();
+
+                        final TestJSON testJson = TestResultsJournal.read(journalFile).await();
+                        test.assertEqual(1, testJson.getClassFiles().getCount());
+                        test.assertEqual("A.class", testJson.getClassFiles().first().getRelativePath().toString());
+                    }
+                });
+
+                runner.test("with no journal file", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File journalFile = process.getFileSystem().getFile("/outputs/test.journal").await();
+                        test.assertNull(TestResultsJournal.read(journalFile)
+                            .catchError(FileNotFoundException.class)
+                            .await());
+                    }
+                });
+            });
+
+            runner.testGroup("getUnfinishedClassNames(File)", () ->
+            {
+                runner.test("with started and finished test classes", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File journalFile = process.getFileSystem().getFile("/outputs/test.journal").await();
+                        final TestResultsJournal journal = TestResultsJournal.create(journalFile, TestJSON.create().setJavaVersion("14"));
+                        journal.start("a.BTests");
+                        journal.start("CTests");
+                        journal.append(TestJSONClassFile.create("a/BTests.class")
+                            .setPassedTestCount(1));
+                        journal.start("DTests");
+                        journal.close();
+
+                        test.assertEqual(
+                            Iterable.create("CTests", "DTests"),
+                            TestResultsJournal.getUnfinishedClassNames(journalFile).await());
+
+                        final TestJSON testJson = TestResultsJournal.read(journalFile).await();
+                        test.assertEqual(1, testJson.getClassFiles().getCount());
+                    }
+                });
+
+                runner.test("with no journal file", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final File journalFile = process.getFileSystem().getFile("/outputs/test.journal").await();
+                        test.assertNull(TestResultsJournal.getUnfinishedClassNames(journalFile)
+                            .catchError(FileNotFoundException.class)
+                            .await());
+                    }
+                });
+            });
+
+            runner.testGroup("compact(Folder,TestResultsFormat,VerboseCharacterToByteWriteStream)", () ->
+            {
+                runner.test("with no journal", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        TestResultsJournal.compact(outputFolder, TestResultsFormat.JSON, VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream()));
+                        test.assertFalse(outputFolder.getFile("test.json").await().exists().await());
+                        test.assertEqual("", process.getOutputWriteStream().getText().await());
+                    }
+                });
+
+                runner.test("with a journal left by a test run that didn't finish", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/outputs/").await();
+                        final File testJsonFile = outputFolder.getFile("test.json").await();
+                        testJsonFile.setContentsAsString(TestJSON.create()
+                            .setJavaVersion("14")
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("A.class").setPassedTestCount(1)))
+                            .toString(JSONFormat.pretty)).await();
+
+                        final File journalFile = outputFolder.getFile("test.journal").await();
+                        final TestResultsJournal journal = TestResultsJournal.create(journalFile, TestJSON.create().setJavaVersion("14"));
+                        journal.append(TestJSONClassFile.create("B.class")
+                            .setPassedTestCount(3));
+                        journal.close();
+
+                        TestResultsJournal.compact(outputFolder, TestResultsFormat.JSON, VerboseCharacterToByteWriteStream.create(process.getOutputWriteStream()));
+
+                        test.assertFalse(journalFile.exists().await());
+                        final TestJSONIndex index = TestJSONIndex.parse(testJsonFile).await();
+                        test.assertEqual(1, index.getClassRecord("A").getPassedTestCount());
+                        test.assertEqual(3, index.getClassRecord("B").getPassedTestCount());
+                    }
+                });
+            });
+
+            runner.test("delete()", (Test test) ->
+            {
+                try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                {
+                    final File journalFile = process.getFileSystem().getFile("/outputs/test.journal").await();
+                    final TestResultsJournal journal = TestResultsJournal.create(journalFile, TestJSON.create());
+                    test.assertTrue(journalFile.exists().await());
+
+                    journal.delete();
+                    test.assertFalse(journalFile.exists().await());
+                }
+            });
+        });
+    }
+}
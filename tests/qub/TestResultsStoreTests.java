@@ -0,0 +1,275 @@
+package qub;
+
+public interface TestResultsStoreTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestResultsStore.class, () ->
+        {
+            runner.testGroup("parse(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> TestResultsStore.parse((byte[])null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                runner.test("with too few bytes", (Test test) ->
+                {
+                    test.assertThrows(() -> TestResultsStore.parse(new byte[] { 1, 2, 3 }).await(),
+                        new ParseException("Expected a test.results file to have at least 40 bytes, but it had 3."));
+                });
+
+                runner.test("with test.json bytes", (Test test) ->
+                {
+                    final byte[] bytes = TestJSON.create().toString(JSONFormat.pretty).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                    final byte[] paddedBytes = java.util.Arrays.copyOf(bytes, Math.max(bytes.length, 40));
+                    test.assertThrows(() -> TestResultsStore.parse(paddedBytes).await(),
+                        new ParseException("The file is not a test.results file."));
+                });
+
+                runner.test("with truncated bytes", (Test test) ->
+                {
+                    final byte[] bytes = TestResultsStore.serialize(TestJSON.create()
+                        .setClassFiles(Iterable.create(
+                            TestJSONClassFile.create("A.class")
+                                .setPassedTestCount(1)))).await();
+                    test.assertThrows(() -> TestResultsStore.parse(java.util.Arrays.copyOf(bytes, bytes.length - 1)).await(),
+                        new ParseException("The test.results file is truncated or corrupted."));
+                });
+
+                runner.test("with no class files", (Test test) ->
+                {
+                    final TestResultsStore store = TestResultsStore.parse(TestResultsStore.serialize(TestJSON.create()).await()).await();
+                    test.assertNull(store.getJavaVersion());
+                    test.assertNull(store.getClassPathEntries());
+                    test.assertEqual(0, store.getClassRecordCount());
+                    test.assertEqual(Iterable.create(), store.getReferencedClassPathEntries());
+                    test.assertNull(store.getClassRecord("a.B"));
+                });
+
+                runner.test("with bytes written by serialize()", (Test test) ->
+                {
+                    final DateTime lastModified = DateTime.create(2020, 5, 6);
+                    final TestJSON testJson = TestJSON.create()
+                        .setJavaVersion("14")
+                        .setClassPathEntries(Iterable.create(
+                            TestJSONClassPathEntry.create("/lib/a.jar")
+                                .setLastModified(lastModified)
+                                .setContentHash("abc")))
+                        .setClassFiles(Iterable.create(
+                            TestJSONClassFile.create("a/BTests.class")
+                                .setLastModified(lastModified)
+                                .setContentHash("def")
+                                .setPassedTestCount(3)
+                                .setSkippedTestCount(1)
+                                .setFailedTestCount(2)
+                                .setDuration(Duration.milliseconds(45))
+                                .setDependencies(Iterable.create(
+                                    TestJSONClassFileDependency.create("a/B.class")
+                                        .setLastModified(lastModified)
+                                        .setContentHash("ghi")))
+                                .setClassPathDependencies(Iterable.create("/lib/a.jar")),
+                            TestJSONClassFile.create("CTests.class")
+                                .setPassedTestCount(7)));
+
+                    final TestResultsStore store = TestResultsStore.parse(TestResultsStore.serialize(testJson).await()).await();
+                    test.assertEqual(VersionNumber.parse("14").await(), store.getJavaVersion());
+                    test.assertEqual(1, store.getClassPathEntries().getCount());
+                    test.assertEqual("abc", store.getClassPathEntries().first().getContentHash());
+                    test.assertEqual(lastModified, store.getClassPathEntries().first().getLastModified());
+                    test.assertEqual(Iterable.create("/lib/a.jar"), store.getReferencedClassPathEntries());
+                    test.assertEqual(2, store.getClassRecordCount());
+
+                    final TestJSONClassRecord record = store.getClassRecord("a.BTests");
+                    test.assertEqual("a/BTests.class", record.getRelativePath());
+                    test.assertEqual(lastModified, record.getLastModified());
+                    test.assertEqual("def", record.getContentHash());
+                    test.assertEqual(3, record.getPassedTestCount());
+                    test.assertEqual(1, record.getSkippedTestCount());
+                    test.assertEqual(2, record.getFailedTestCount());
+                    test.assertEqual(Duration.milliseconds(45), record.getDuration());
+                    test.assertEqual(1, record.getDependencyCount());
+                    test.assertEqual("a/B.class", record.getDependencyRelativePath(0));
+                    test.assertEqual(lastModified, record.getDependencyLastModified(0));
+                    test.assertEqual("ghi", record.getDependencyContentHash(0));
+                    test.assertEqual(Iterable.create("/lib/a.jar"), record.getClassPathDependencies());
+                    test.assertSame(record, store.getClassRecord("a.BTests"));
+
+                    final TestJSONClassRecord otherRecord = store.getClassRecord("CTests");
+                    test.assertEqual(7, otherRecord.getPassedTestCount());
+                    test.assertNull(otherRecord.getLastModified());
+                    test.assertNull(otherRecord.getDuration());
+                    test.assertFalse(otherRecord.hasDependencies());
+                    test.assertNull(otherRecord.getClassPathDependencies());
+
+                    test.assertNull(store.getClassRecord("a.B"));
+                    test.assertNull(store.getClassRecord("ZTests"));
+
+                    test.assertEqual(
+                        testJson.getClassFiles().first().toString(),
+                        record.toTestJSONClassFile().toString());
+                });
+            });
+
+            runner.test("parse(byte[]) with tests and partial", (Test test) ->
+            {
+                final TestJSON testJson = TestJSON.create()
+                    .setClassFiles(Iterable.create(
+                        TestJSONClassFile.create("ATests.class")
+                            .setPassedTestCount(1)
+                            .setSkippedTestCount(1)
+                            .setFailedTestCount(0)
+                            .setTests(Iterable.create(
+                                TestJSONTest.create("ATests b")
+                                    .setOutcome(TestOutcome.Passed),
+                                TestJSONTest.create("ATests c")
+                                    .setOutcome(TestOutcome.Skipped)
+                                    .setDuration(Duration.milliseconds(7))))
+                            .setPartial(true),
+                        TestJSONClassFile.create("BTests.class")
+                            .setPassedTestCount(1)));
+
+                final TestResultsStore store = TestResultsStore.parse(TestResultsStore.serialize(testJson).await()).await();
+                final TestJSONClassRecord record = store.getClassRecord("ATests");
+                test.assertEqual(2, record.getTestCount());
+                test.assertEqual("ATests c", record.getTestName(1));
+                test.assertEqual(TestOutcome.Skipped, record.getTestOutcome(1));
+                test.assertEqual(Duration.milliseconds(7), record.getTestDuration(1));
+                test.assertNull(record.getTestDuration(0));
+                test.assertTrue(record.isPartial());
+                test.assertEqual(
+                    testJson.getClassFiles().first().toString(),
+                    record.toTestJSONClassFile().toString());
+
+                final TestJSONClassRecord otherRecord = store.getClassRecord("BTests");
+                test.assertFalse(otherRecord.hasTests());
+                test.assertFalse(otherRecord.isPartial());
+            });
+
+            runner.test("getClassRecord(String) with many class files", (Test test) ->
+            {
+                final List<TestJSONClassFile> classFiles = List.create();
+                for (int i = 0; i < 100; ++i)
+                {
+                    classFiles.add(TestJSONClassFile.create("a/C" + (99 - i) + "Tests.class")
+                        .setPassedTestCount(99 - i));
+                }
+                final TestResultsStore store = TestResultsStore.parse(TestResultsStore.serialize(TestJSON.create().setClassFiles(classFiles)).await()).await();
+                for (int i = 0; i < 100; ++i)
+                {
+                    test.assertEqual(i, store.getClassRecord("a.C" + i + "Tests").getPassedTestCount());
+                }
+                test.assertNull(store.getClassRecord("a.C100Tests"));
+            });
+
+            runner.test("toTestJSON()", (Test test) ->
+            {
+                final TestJSON testJson = TestJSON.create()
+                    .setJavaVersion("14")
+                    .setClassFiles(Iterable.create(
+                        TestJSONClassFile.create("A.class")
+                            .setPassedTestCount(1)
+                            .setSkippedTestCount(0)
+                            .setFailedTestCount(0)))
+                    .setClassPathEntries(Iterable.create());
+                final TestResultsStore store = TestResultsStore.parse(TestResultsStore.serialize(testJson).await()).await();
+                test.assertEqual(testJson.toString(), store.toTestJSON().toString());
+            });
+
+            runner.testGroup("TestResults", () ->
+            {
+                runner.test("write() and parse() with Binary", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/project/outputs/").await();
+                        final File testJsonFile = outputFolder.getFile("test.json").await();
+                        testJsonFile.setContentsAsString("{}").await();
+
+                        TestResults.write(outputFolder, TestJSON.create()
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("A.class")
+                                    .setPassedTestCount(4))),
+                            TestResultsFormat.Binary);
+
+                        test.assertFalse(testJsonFile.exists().await());
+                        test.assertTrue(outputFolder.getFile("test.results").await().exists().await());
+
+                        final TestResults results = TestResults.parse(outputFolder, TestResultsFormat.Binary).await();
+                        test.assertEqual(4, results.getClassRecord("A").getPassedTestCount());
+                    }
+                });
+
+                runner.test("parse() with JSON when only binary results exist", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/project/outputs/").await();
+                        TestResults.write(outputFolder, TestJSON.create()
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("A.class")
+                                    .setPassedTestCount(4))),
+                            TestResultsFormat.Binary);
+
+                        final TestResults results = TestResults.parse(outputFolder, TestResultsFormat.JSON).await();
+                        test.assertEqual(4, results.getClassRecord("A").getPassedTestCount());
+
+                        final TestJSON testJson = TestResults.parseTestJSON(outputFolder, TestResultsFormat.JSON).await();
+                        test.assertEqual(4, testJson.getClassFiles().first().getPassedTestCount());
+                    }
+                });
+
+                runner.test("parse() with no results", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder outputFolder = process.getFileSystem().getFolder("/project/outputs/").await();
+                        test.assertNull(TestResults.parse(outputFolder, TestResultsFormat.Binary)
+                            .catchError(FileNotFoundException.class)
+                            .await());
+                    }
+                });
+
+                runner.testGroup("merge(TestJSON,TestJSON)", () ->
+                {
+                    runner.test("with the same Java version", (Test test) ->
+                    {
+                        final TestJSON previousTestJson = TestJSON.create()
+                            .setJavaVersion("14")
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("A.class").setPassedTestCount(1),
+                                TestJSONClassFile.create("B.class").setPassedTestCount(1)));
+                        final TestJSON testJson = TestJSON.create()
+                            .setJavaVersion("14")
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("B.class").setPassedTestCount(5)));
+                        final TestJSON merged = TestResults.merge(previousTestJson, testJson);
+                        test.assertEqual(
+                            Iterable.create("B.class", "A.class"),
+                            merged.getClassFiles().map((TestJSONClassFile classFile) -> classFile.getRelativePath().toString()).toList());
+                        test.assertEqual(5, merged.getClassFiles().first().getPassedTestCount());
+                    });
+
+                    runner.test("with a different Java version", (Test test) ->
+                    {
+                        final TestJSON previousTestJson = TestJSON.create()
+                            .setJavaVersion("11")
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("A.class").setPassedTestCount(1)));
+                        final TestJSON testJson = TestJSON.create()
+                            .setJavaVersion("14")
+                            .setClassFiles(Iterable.create(
+                                TestJSONClassFile.create("B.class").setPassedTestCount(5)));
+                        final TestJSON merged = TestResults.merge(previousTestJson, testJson);
+                        test.assertEqual(
+                            Iterable.create("B.class"),
+                            merged.getClassFiles().map((TestJSONClassFile classFile) -> classFile.getRelativePath().toString()).toList());
+                    });
+                });
+            });
+        });
+    }
+}
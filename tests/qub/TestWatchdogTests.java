@@ -0,0 +1,138 @@
+package qub;
+
+public interface TestWatchdogTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TestWatchdog.class, () ->
+        {
+            final Action0 waitToBeInterrupted = () ->
+            {
+                try
+                {
+                    Thread.sleep(60000);
+                }
+                catch (InterruptedException e)
+                {
+                }
+            };
+
+            runner.testGroup("formatSeconds(Duration)", () ->
+            {
+                final Action2<Duration,String> formatSecondsTest = (Duration duration, String expected) ->
+                {
+                    runner.test("with " + duration, (Test test) ->
+                    {
+                        test.assertEqual(expected, TestWatchdog.formatSeconds(duration));
+                    });
+                };
+
+                formatSecondsTest.run(Duration.seconds(30), "30");
+                formatSecondsTest.run(Duration.seconds(2.5), "2.5");
+                formatSecondsTest.run(Duration.milliseconds(10), "0.01");
+            });
+
+            runner.testGroup("stopTest()", () ->
+            {
+                runner.test("with a test that finished in time", (Test test) ->
+                {
+                    final TestWatchdog watchdog = TestWatchdog.create(Duration.seconds(60), null, Duration.seconds(60), (Iterable<String> timeoutLines) -> {});
+                    try
+                    {
+                        watchdog.startTest("a b");
+                        test.assertNull(watchdog.stopTest());
+                    }
+                    finally
+                    {
+                        watchdog.close();
+                    }
+                });
+
+                runner.test("with a test that ran out of time", (Test test) ->
+                {
+                    final TestWatchdog watchdog = TestWatchdog.create(Duration.milliseconds(10), null, Duration.seconds(60), (Iterable<String> timeoutLines) -> {});
+                    try
+                    {
+                        watchdog.startTest("a b");
+                        waitToBeInterrupted.run();
+
+                        final Iterable<String> timeoutLines = watchdog.stopTest();
+                        test.assertEqual("a b didn't finish within 0.01 seconds.", timeoutLines.first());
+                        test.assertTrue(timeoutLines.contains("Thread dump:"));
+                        test.assertFalse(Thread.currentThread().isInterrupted());
+                    }
+                    finally
+                    {
+                        watchdog.close();
+                    }
+                });
+            });
+
+            runner.testGroup("stopTestClass()", () ->
+            {
+                runner.test("with a test class that ran out of time", (Test test) ->
+                {
+                    final TestWatchdog watchdog = TestWatchdog.create(null, Duration.milliseconds(10), Duration.seconds(60), (Iterable<String> timeoutLines) -> {});
+                    try
+                    {
+                        watchdog.startTestClass("a.BTests");
+                        watchdog.startTest("x");
+                        waitToBeInterrupted.run();
+                        test.assertEqual(Iterable.create("x was interrupted because its test class ran out of time."), watchdog.stopTest());
+
+                        watchdog.startTest("y");
+                        test.assertTrue(Thread.currentThread().isInterrupted());
+                        test.assertEqual(Iterable.create("y was interrupted because its test class ran out of time."), watchdog.stopTest());
+                        test.assertFalse(Thread.currentThread().isInterrupted());
+
+                        final Iterable<String> timeoutLines = watchdog.stopTestClass();
+                        test.assertEqual("a.BTests didn't finish within 0.01 seconds.", timeoutLines.first());
+                        test.assertTrue(timeoutLines.contains("Thread dump:"));
+                    }
+                    finally
+                    {
+                        watchdog.close();
+                    }
+                });
+            });
+
+            runner.test("with a test that doesn't stop after it is interrupted", (Test test) ->
+            {
+                final java.util.concurrent.CountDownLatch abandoned = new java.util.concurrent.CountDownLatch(1);
+                final List<String> abandonedTimeoutLines = List.create();
+                final TestWatchdog watchdog = TestWatchdog.create(Duration.milliseconds(10), null, Duration.milliseconds(10), (Iterable<String> timeoutLines) ->
+                {
+                    abandonedTimeoutLines.addAll(timeoutLines);
+                    abandoned.countDown();
+                });
+                try
+                {
+                    watchdog.startTest("a b");
+                    waitToBeInterrupted.run();
+                    try
+                    {
+                        test.assertTrue(abandoned.await(60, java.util.concurrent.TimeUnit.SECONDS));
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                    test.assertEqual("a b didn't finish within 0.01 seconds.", abandonedTimeoutLines.first());
+                    watchdog.stopTest();
+                }
+                finally
+                {
+                    watchdog.close();
+                }
+            });
+
+            runner.test("getThreadDump()", (Test test) ->
+            {
+                final String currentThreadHeader = "\"" + Thread.currentThread().getName() + "\" Id=" + Thread.currentThread().getId() + " RUNNABLE";
+                test.assertTrue(TestWatchdog.getThreadDump().contains(currentThreadHeader));
+            });
+        });
+    }
+}